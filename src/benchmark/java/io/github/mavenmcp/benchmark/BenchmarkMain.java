@@ -0,0 +1,123 @@
+package io.github.mavenmcp.benchmark;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs the parser benchmarks with the GC profiler and compares the results to a recorded
+ * baseline.
+ * <p>
+ * Usage: {@code BenchmarkMain <include-regex> <baseline-file> <update-baseline> <quick>}.
+ * The baseline is a properties file of throughput (ops/s) and normalized allocation
+ * (B/op) per benchmark and parameter set. Baselines are machine-specific: record one
+ * on the machine you compare on, before the change under test.
+ */
+public final class BenchmarkMain {
+
+    private static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = args.length > 0 ? args[0] : ".*";
+        Path baselineFile = Path.of(args.length > 1 ? args[1] : "benchmarks/baseline.properties");
+        boolean updateBaseline = args.length > 2 && Boolean.parseBoolean(args[2]);
+        boolean quick = args.length > 3 && Boolean.parseBoolean(args[3]);
+
+        Path resultFile = Path.of("target/benchmarks/jmh-result.json");
+        Files.createDirectories(resultFile.getParent());
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(BenchmarkMain.class.getPackageName() + "\\..*(" + include + ").*")
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile.toString())
+                .forks(1);
+        if (quick) {
+            options.warmupIterations(2).warmupTime(TimeValue.seconds(1))
+                    .measurementIterations(3).measurementTime(TimeValue.seconds(1));
+        } else {
+            options.warmupIterations(5).measurementIterations(5);
+        }
+
+        Collection<RunResult> results = new Runner(options.build()).run();
+        Map<String, Double> current = summarize(results);
+
+        Properties baseline = new Properties();
+        if (Files.isRegularFile(baselineFile)) {
+            try (Reader in = Files.newBufferedReader(baselineFile)) {
+                baseline.load(in);
+            }
+            printComparison(current, baseline);
+        } else {
+            System.out.println("No baseline at " + baselineFile + "; run with updateBaseline=true to record one.");
+        }
+
+        if (updateBaseline) {
+            current.forEach((key, value) -> baseline.setProperty(key, String.format(Locale.ROOT, "%.3f", value)));
+            Files.createDirectories(baselineFile.toAbsolutePath().getParent());
+            try (Writer out = Files.newBufferedWriter(baselineFile)) {
+                baseline.store(out, "JMH baseline: <benchmark>[params].ops = ops/s, .alloc = B/op");
+            }
+            System.out.println("Baseline written to " + baselineFile);
+        }
+        System.out.println("Full results: " + resultFile);
+    }
+
+    /**
+     * Flatten run results into "<benchmark>[params].ops" and ".alloc" entries.
+     */
+    private static Map<String, Double> summarize(Collection<RunResult> results) {
+        Map<String, Double> summary = new TreeMap<>();
+        for (RunResult run : results) {
+            var params = run.getParams();
+            String name = params.getBenchmark().substring(BenchmarkMain.class.getPackageName().length() + 1);
+            StringBuilder key = new StringBuilder(name);
+            for (String param : params.getParamsKeys()) {
+                key.append('[').append(param).append('=').append(params.getParam(param)).append(']');
+            }
+            summary.put(key + ".ops", run.getPrimaryResult().getScore());
+            Result<?> alloc = run.getSecondaryResults().get(ALLOC_METRIC);
+            if (alloc != null) {
+                summary.put(key + ".alloc", alloc.getScore());
+            }
+        }
+        return summary;
+    }
+
+    private static void printComparison(Map<String, Double> current, Properties baseline) {
+        System.out.printf("%n%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        current.forEach((key, value) -> {
+            String recorded = baseline.getProperty(key);
+            if (recorded == null) {
+                System.out.printf("%-90s %14s %14.1f %9s%n", key, "-", value, "new");
+                return;
+            }
+            double before = Double.parseDouble(recorded);
+            double change = before == 0 ? 0 : (value - before) * 100 / before;
+            // Higher is better for throughput, lower is better for allocation
+            boolean better = key.endsWith(".ops") ? change > 0 : change < 0;
+            System.out.printf("%-90s %14.1f %14.1f %+8.1f%% %s%n", key, before, value, change,
+                    Math.abs(change) < 5 ? "" : better ? "better" : "WORSE");
+        });
+    }
+}
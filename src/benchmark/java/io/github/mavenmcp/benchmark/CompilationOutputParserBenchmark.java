@@ -0,0 +1,40 @@
+package io.github.mavenmcp.benchmark;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import io.github.mavenmcp.parser.CompilationOutputParser;
+import io.github.mavenmcp.parser.CompilationOutputParser.ParseResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CompilationOutputParserBenchmark {
+
+    @Param({"1000", "100000"})
+    int lines;
+
+    @Param({"1", "20"})
+    int errorPercent;
+
+    private String log;
+    private final Path projectDir = Path.of(Generators.PROJECT_DIR);
+
+    @Setup
+    public void setUp() {
+        log = Generators.mavenLog(lines, errorPercent, 42);
+    }
+
+    @Benchmark
+    public ParseResult parse() {
+        return CompilationOutputParser.parse(log, projectDir);
+    }
+}
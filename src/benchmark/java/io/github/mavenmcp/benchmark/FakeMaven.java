@@ -0,0 +1,145 @@
+package io.github.mavenmcp.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * A scripted stand-in for Maven, used to measure the server without measuring Maven.
+ * <p>
+ * {@link #createProject} lays out a project directory with a {@code pom.xml} and an
+ * executable {@code mvnw}, which {@code MavenDetector} picks up as the project's Maven
+ * executable. The script replays pre-recorded stdout and stderr for the requested goal
+ * in chunks, pausing between them as a real build would, and for {@code test} drops
+ * pre-recorded Surefire reports into {@code target/surefire-reports}. The recordings
+ * live in {@code .fake-maven/<goal>/}; nothing is generated while the script runs, so
+ * its timing only depends on the scenario.
+ */
+public final class FakeMaven {
+
+    static final int TEST_CLASSES = 20;
+    private static final int OUTPUT_CHUNKS = 10;
+    private static final int FAILURE_OUTPUT_CHARS = 2_000;
+
+    private static final String SCRIPT = """
+            #!/bin/sh
+            # Fake Maven: replays the recorded output for the goal in $1
+            root="$(cd "$(dirname "$0")" && pwd)"
+            data="$root/.fake-maven/$1"
+            if [ ! -d "$data" ]; then
+              echo "[ERROR] Unknown lifecycle phase \\"$1\\""
+              exit 1
+            fi
+            pause="$(cat "$data/pause")"
+            sleep "$(cat "$data/startup")"
+            for chunk in "$data"/stdout-*; do
+              cat "$chunk"
+              sleep "$pause"
+            done
+            cat "$data/stderr" >&2
+            case "$1" in
+              clean) rm -rf "$root/target" ;;
+              test) mkdir -p "$root/target/surefire-reports" && cp "$data"/reports/*.xml "$root/target/surefire-reports/" ;;
+            esac
+            exit "$(cat "$data/exit-code")"
+            """;
+
+    private static final String POM = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <project xmlns="http://maven.apache.org/POM/4.0.0">
+                <modelVersion>4.0.0</modelVersion>
+                <groupId>com.example</groupId>
+                <artifactId>fake-project</artifactId>
+                <version>1.0.0-SNAPSHOT</version>
+            </project>
+            """;
+
+    /**
+     * What the fake Maven replays.
+     *
+     * @param logLines approximate number of console lines per run
+     * @param failures compiler errors for {@code compile}, failing tests for {@code test}
+     * @param startup  delay before the first line, standing in for JVM and Maven startup
+     * @param output   time over which the console output is written
+     */
+    public record Scenario(int logLines, int failures, Duration startup, Duration output) {
+
+        public Duration duration() {
+            return startup.plus(output);
+        }
+
+        @Override
+        public String toString() {
+            return logLines + " lines, " + failures + " failures";
+        }
+    }
+
+    private FakeMaven() {
+    }
+
+    /**
+     * Create a fake project in {@code dir} whose {@code mvnw} replays the given scenario.
+     *
+     * @return the project directory
+     */
+    public static Path createProject(Path dir, Scenario scenario) throws IOException {
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("pom.xml"), POM);
+        Path mvnw = dir.resolve("mvnw");
+        Files.writeString(mvnw, SCRIPT);
+        Files.setPosixFilePermissions(mvnw, PosixFilePermissions.fromString("rwxr-xr-x"));
+
+        String projectDir = dir.toAbsolutePath().toString();
+        int testsPerClass = Math.max(5, scenario.failures() * 2 / TEST_CLASSES + 1);
+        int tests = TEST_CLASSES * testsPerClass;
+        long seed = 42L * scenario.logLines() + scenario.failures();
+
+        Path compile = record(dir, "compile", scenario,
+                Generators.compileLog(projectDir, scenario.logLines(), scenario.failures(), seed),
+                scenario.failures() > 0 ? 1 : 0);
+        Files.writeString(compile.resolve("stderr"), "");
+
+        Path test = record(dir, "test", scenario,
+                Generators.testLog(scenario.logLines(), tests, scenario.failures(), seed),
+                scenario.failures() > 0 ? 1 : 0);
+        Files.writeString(test.resolve("stderr"), scenario.failures() > 0
+                ? "Picked up JAVA_TOOL_OPTIONS: -Dfile.encoding=UTF-8\n" : "");
+        Generators.surefireReportsWithFailures(test.resolve("reports"), TEST_CLASSES, testsPerClass,
+                scenario.failures(), FAILURE_OUTPUT_CHARS, seed);
+
+        // clean is short regardless of the scenario
+        Path clean = record(dir, "clean", scenario,
+                "[INFO] Scanning for projects...\n[INFO] --- maven-clean-plugin:3.3.2:clean (default-clean) ---\n"
+                        + "[INFO] Deleting " + projectDir + "/target\n[INFO] BUILD SUCCESS\n", 0);
+        Files.writeString(clean.resolve("stderr"), "");
+        return dir;
+    }
+
+    private static Path record(Path projectDir, String goal, Scenario scenario, String stdout, int exitCode)
+            throws IOException {
+        Path dir = projectDir.resolve(".fake-maven").resolve(goal);
+        Files.createDirectories(dir);
+        // Split on line boundaries so each chunk ends with a complete line
+        int from = 0;
+        for (int i = 0; i < OUTPUT_CHUNKS; i++) {
+            int to = i == OUTPUT_CHUNKS - 1 ? stdout.length() : stdout.length() * (i + 1) / OUTPUT_CHUNKS;
+            int newline = stdout.indexOf('\n', Math.max(from, to - 1));
+            to = newline < 0 || i == OUTPUT_CHUNKS - 1 ? stdout.length() : newline + 1;
+            Files.writeString(dir.resolve(String.format(Locale.ROOT, "stdout-%02d", i)),
+                    stdout.substring(from, to), StandardCharsets.UTF_8);
+            from = to;
+        }
+        Files.writeString(dir.resolve("startup"), seconds(scenario.startup()));
+        Files.writeString(dir.resolve("pause"), seconds(scenario.output().dividedBy(OUTPUT_CHUNKS)));
+        Files.writeString(dir.resolve("exit-code"), Integer.toString(exitCode));
+        return dir;
+    }
+
+    private static String seconds(Duration duration) {
+        return String.format(Locale.ROOT, "%.3f", duration.toNanos() / 1e9);
+    }
+}
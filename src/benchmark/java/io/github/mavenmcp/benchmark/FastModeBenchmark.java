@@ -0,0 +1,225 @@
+package io.github.mavenmcp.benchmark;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.spec.McpSchema.CallToolRequest;
+import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+
+/**
+ * Build time of {@code mode: full} against {@code mode: fast}, with the real Maven on a
+ * sample project.
+ * <p>
+ * Usage: {@code FastModeBenchmark <iterations>}. The project has two modules and binds
+ * enforcer, JaCoCo and Checkstyle (at validate) into its lifecycle, like many company
+ * POMs. Each iteration touches a source file, as an agent's edit would, and calls
+ * maven_compile and maven_test once per mode, alternating so that both see the same
+ * machine state. The first round downloads the plugins and is not counted. Needs
+ * {@code mvn} on the PATH and, for that first round, network access.
+ */
+public final class FastModeBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final List<String> TOOLS = List.of("maven_compile", "maven_test");
+    private static final List<String> MODES = List.of("full", "fast");
+
+    private FastModeBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        Path work = Files.createTempDirectory("maven-mcp-fast-mode");
+        Path project = createProject(work.resolve("project"));
+        Path source = project.resolve("core/src/main/java/com/example/core/Greeter.java");
+
+        Map<String, LatencySamples> samples = new LinkedHashMap<>();
+        Map<String, String> skipped = new LinkedHashMap<>();
+        // Background prefetch would compete with the measured builds
+        try (ServerUnderTest server = ServerUnderTest.start(project, work.resolve("home"), List.of(),
+                List.of("--no-prefetch"))) {
+            for (int i = 0; i <= iterations; i++) {
+                for (String tool : TOOLS) {
+                    for (String mode : MODES) {
+                        Files.setLastModifiedTime(source, FileTime.fromMillis(System.currentTimeMillis()));
+                        CallToolResult result = server.client().callTool(
+                                new CallToolRequest(tool, Map.of("mode", mode)));
+                        JsonNode json = json(result);
+                        if (!"SUCCESS".equals(json.path("status").asText())) {
+                            throw new IllegalStateException(tool + " in " + mode + " mode failed: " + json);
+                        }
+                        if (i > 0) {
+                            samples.computeIfAbsent(tool + " " + mode, k -> new LatencySamples())
+                                    .add(json.path("duration").asLong() * 1_000_000);
+                        }
+                        if ("fast".equals(mode)) {
+                            skipped.put(tool, json.path("mode").toString());
+                        }
+                    }
+                }
+            }
+        }
+
+        System.out.printf("%n%-16s %10s %10s %10s %9s%n", "Tool", "full p50", "fast p50", "saved", "saved %");
+        List<String> rows = new ArrayList<>();
+        for (String tool : TOOLS) {
+            double full = samples.get(tool + " full").percentileMillis(50);
+            double fast = samples.get(tool + " fast").percentileMillis(50);
+            System.out.printf("%-16s %8.0fms %8.0fms %8.0fms %8.1f%%%n", tool, full, fast, full - fast,
+                    100 * (full - fast) / full);
+            rows.add(String.format(Locale.ROOT, "%s,%d,%.0f,%.0f", tool, iterations, full, fast));
+        }
+        skipped.forEach((tool, mode) -> System.out.println(tool + " fast mode: " + mode));
+
+        Path csv = Path.of("target/benchmarks/fast-mode.csv");
+        Files.createDirectories(csv.getParent());
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csv))) {
+            out.println("tool,iterations,fullP50Ms,fastP50Ms");
+            rows.forEach(out::println);
+        }
+        System.out.println("Full results: " + csv);
+    }
+
+    private static JsonNode json(CallToolResult result) throws IOException {
+        String text = ((TextContent) result.content().get(0)).text();
+        if (Boolean.TRUE.equals(result.isError())) {
+            throw new IllegalStateException(text);
+        }
+        return MAPPER.readTree(text);
+    }
+
+    /**
+     * A two-module project whose parent binds the usual checks.
+     */
+    static Path createProject(Path dir) throws IOException {
+        write(dir.resolve("pom.xml"), """
+                <project xmlns="http://maven.apache.org/POM/4.0.0">
+                  <modelVersion>4.0.0</modelVersion>
+                  <groupId>com.example</groupId>
+                  <artifactId>sample</artifactId>
+                  <version>1.0-SNAPSHOT</version>
+                  <packaging>pom</packaging>
+                  <modules><module>core</module><module>app</module></modules>
+                  <properties>
+                    <maven.compiler.release>21</maven.compiler.release>
+                    <project.build.sourceEncoding>UTF-8</project.build.sourceEncoding>
+                  </properties>
+                  <dependencies>
+                    <dependency>
+                      <groupId>org.junit.jupiter</groupId>
+                      <artifactId>junit-jupiter</artifactId>
+                      <version>5.11.4</version>
+                      <scope>test</scope>
+                    </dependency>
+                  </dependencies>
+                  <build>
+                    <plugins>
+                      <plugin>
+                        <groupId>org.apache.maven.plugins</groupId>
+                        <artifactId>maven-surefire-plugin</artifactId>
+                        <version>3.5.2</version>
+                      </plugin>
+                      <plugin>
+                        <groupId>org.apache.maven.plugins</groupId>
+                        <artifactId>maven-enforcer-plugin</artifactId>
+                        <version>3.5.0</version>
+                        <executions>
+                          <execution>
+                            <id>enforce</id>
+                            <goals><goal>enforce</goal></goals>
+                            <configuration>
+                              <rules>
+                                <requireJavaVersion><version>21</version></requireJavaVersion>
+                                <requireMavenVersion><version>3.6</version></requireMavenVersion>
+                                <dependencyConvergence/>
+                              </rules>
+                            </configuration>
+                          </execution>
+                        </executions>
+                      </plugin>
+                      <plugin>
+                        <groupId>org.jacoco</groupId>
+                        <artifactId>jacoco-maven-plugin</artifactId>
+                        <version>0.8.12</version>
+                        <executions>
+                          <execution><goals><goal>prepare-agent</goal></goals></execution>
+                          <execution><id>report</id><phase>test</phase><goals><goal>report</goal></goals></execution>
+                        </executions>
+                      </plugin>
+                      <plugin>
+                        <groupId>org.apache.maven.plugins</groupId>
+                        <artifactId>maven-checkstyle-plugin</artifactId>
+                        <version>3.6.0</version>
+                        <executions>
+                          <execution>
+                            <phase>validate</phase>
+                            <goals><goal>check</goal></goals>
+                            <configuration>
+                              <configLocation>google_checks.xml</configLocation>
+                              <failOnViolation>false</failOnViolation>
+                              <violationSeverity>error</violationSeverity>
+                            </configuration>
+                          </execution>
+                        </executions>
+                      </plugin>
+                    </plugins>
+                  </build>
+                </project>
+                """);
+        for (String module : List.of("core", "app")) {
+            write(dir.resolve(module).resolve("pom.xml"), """
+                    <project xmlns="http://maven.apache.org/POM/4.0.0">
+                      <modelVersion>4.0.0</modelVersion>
+                      <parent>
+                        <groupId>com.example</groupId>
+                        <artifactId>sample</artifactId>
+                        <version>1.0-SNAPSHOT</version>
+                      </parent>
+                      <artifactId>%s</artifactId>
+                    </project>
+                    """.formatted(module));
+            for (int i = 0; i < 20; i++) {
+                String name = i == 0 && module.equals("core") ? "Greeter" : "Class" + i;
+                write(dir.resolve(module + "/src/main/java/com/example/" + module + "/" + name + ".java"), """
+                        package com.example.%s;
+
+                        public class %s {
+                            public String greet(String name) {
+                                return "Hello, " + name + " from %s";
+                            }
+                        }
+                        """.formatted(module, name, name));
+            }
+            write(dir.resolve(module + "/src/test/java/com/example/" + module + "/GreeterTest.java"), """
+                    package com.example.%s;
+
+                    import org.junit.jupiter.api.Test;
+
+                    import static org.junit.jupiter.api.Assertions.assertTrue;
+
+                    class GreeterTest {
+                        @Test
+                        void greets() {
+                            assertTrue(new Class1().greet("agent").startsWith("Hello"));
+                        }
+                    }
+                    """.formatted(module));
+        }
+        return dir;
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+}
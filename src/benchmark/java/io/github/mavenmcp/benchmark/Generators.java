@@ -0,0 +1,252 @@
+package io.github.mavenmcp.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Deterministic generators of synthetic Maven output for benchmarks and load tests.
+ * <p>
+ * Every generator takes a seed, so the same parameters always produce the same bytes
+ * and results from different runs stay comparable.
+ */
+public final class Generators {
+
+    public static final String PROJECT_DIR = "/home/user/my-project";
+    public static final String APP_PACKAGE = "com.example";
+
+    private static final String[] FRAMEWORK_FRAMES = {
+            "org.junit.jupiter.api.AssertionUtils.fail(AssertionUtils.java:38)",
+            "org.junit.platform.commons.util.ReflectionUtils.invokeMethod(ReflectionUtils.java:728)",
+            "org.springframework.aop.framework.ReflectiveMethodInvocation.proceed(ReflectiveMethodInvocation.java:186)",
+            "org.springframework.transaction.interceptor.TransactionInterceptor.invoke(TransactionInterceptor.java:119)",
+            "java.base/jdk.internal.reflect.DirectMethodHandleAccessor.invoke(DirectMethodHandleAccessor.java:103)",
+            "java.base/java.lang.reflect.Method.invoke(Method.java:580)",
+            "org.hibernate.internal.SessionImpl.find(SessionImpl.java:2431)",
+    };
+    private static final String[] EXCEPTIONS = {
+            "java.lang.IllegalStateException",
+            "java.lang.NullPointerException",
+            "org.opentest4j.AssertionFailedError",
+            "java.sql.SQLException",
+            "java.net.ConnectException",
+    };
+    private static final String[] NOISE = {
+            "[INFO] ",
+            "[INFO] ------------------------------------------------------------------------",
+            "[INFO] --- maven-resources-plugin:3.3.1:resources (default-resources) @ my-project ---",
+            "[INFO] Copying 3 resources from src/main/resources to target/classes",
+            "Downloading from central: https://repo.maven.apache.org/maven2/org/example/lib/1.0/lib-1.0.pom",
+            "Downloaded from central: https://repo.maven.apache.org/maven2/org/example/lib/1.0/lib-1.0.pom (2.1 kB at 40 kB/s)",
+            "Progress (1): 1.2/4.5 MB",
+            "[INFO] Running com.example.ServiceTest",
+    };
+
+    private Generators() {
+    }
+
+    /**
+     * A Maven console log of compilation and plugin noise.
+     *
+     * @param lines        number of lines
+     * @param errorPercent percentage of lines that are compiler errors or warnings
+     */
+    public static String mavenLog(int lines, int errorPercent, long seed) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder(lines * 80);
+        sb.append("[INFO] Scanning for projects...\n");
+        for (int i = 1; i < lines - 1; i++) {
+            if (random.nextInt(100) < errorPercent) {
+                appendCompilerMessage(sb, PROJECT_DIR, random.nextBoolean(), random);
+            } else {
+                sb.append(NOISE[random.nextInt(NOISE.length)]).append('\n');
+            }
+        }
+        sb.append(errorPercent > 0 ? "[ERROR] COMPILATION FAILURE\n" : "[INFO] BUILD SUCCESS\n");
+        return sb.toString();
+    }
+
+    /**
+     * The console log of a {@code compile} run with an exact number of compiler errors,
+     * spread evenly through the plugin noise.
+     *
+     * @param projectDir project directory the error paths point into
+     * @param lines      approximate number of lines
+     * @param errors     number of compiler errors
+     */
+    public static String compileLog(String projectDir, int lines, int errors, long seed) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder(lines * 80);
+        sb.append("[INFO] Scanning for projects...\n");
+        int every = errors == 0 ? Integer.MAX_VALUE : Math.max(1, lines / errors);
+        int written = 0;
+        for (int i = 1; i < lines - 1 || written < errors; i++) {
+            if (written < errors && i % every == 0) {
+                appendCompilerMessage(sb, projectDir, true, random);
+                written++;
+            } else {
+                sb.append(NOISE[random.nextInt(NOISE.length)]).append('\n');
+            }
+        }
+        sb.append(errors > 0 ? "[INFO] BUILD FAILURE\n[ERROR] COMPILATION ERROR\n" : "[INFO] BUILD SUCCESS\n");
+        return sb.toString();
+    }
+
+    /**
+     * The console log of a {@code test} run: plugin noise followed by the Surefire summary.
+     *
+     * @param lines    approximate number of lines
+     * @param tests    number of test cases run
+     * @param failures number of failing test cases
+     */
+    public static String testLog(int lines, int tests, int failures, long seed) {
+        StringBuilder sb = new StringBuilder(mavenLog(Math.max(2, lines - failures - 4), 0, seed));
+        // Drop the BUILD SUCCESS line written by mavenLog
+        sb.setLength(sb.lastIndexOf("[INFO] BUILD"));
+        for (int f = 0; f < failures; f++) {
+            sb.append("[ERROR]   GeneratedTest.test").append(f).append(":42 expected: <").append(f)
+                    .append("> but was: <").append(f + 1).append(">\n");
+        }
+        sb.append(failures > 0 ? "[ERROR] " : "[INFO] ")
+                .append("Tests run: ").append(tests).append(", Failures: ").append(failures)
+                .append(", Errors: 0, Skipped: 0\n");
+        sb.append(failures > 0
+                ? "[INFO] BUILD FAILURE\n[ERROR] There are test failures.\n"
+                : "[INFO] BUILD SUCCESS\n");
+        return sb.toString();
+    }
+
+    private static void appendCompilerMessage(StringBuilder sb, String projectDir, boolean error, Random random) {
+        sb.append(error ? "[ERROR] " : "[WARNING] ")
+                .append(projectDir).append("/src/main/java/com/example/module")
+                .append(random.nextInt(50)).append("/Service").append(random.nextInt(200))
+                .append(".java:[").append(1 + random.nextInt(500)).append(',').append(1 + random.nextInt(80))
+                .append("] ")
+                .append(error ? "cannot find symbol\n  symbol:   variable x" + random.nextInt(1000)
+                        : "[deprecation] method" + random.nextInt(100) + "() in LegacyApi has been deprecated")
+                .append('\n');
+    }
+
+    /**
+     * A stack trace with a chain of {@code Caused by} segments.
+     *
+     * @param causes         number of {@code Caused by} segments after the top-level exception
+     * @param framesPerCause frames in each segment
+     */
+    public static String stackTrace(int causes, int framesPerCause, long seed) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder();
+        for (int c = 0; c <= causes; c++) {
+            if (c > 0) {
+                sb.append("Caused by: ");
+            }
+            sb.append(EXCEPTIONS[random.nextInt(EXCEPTIONS.length)])
+                    .append(": failure ").append(random.nextInt(10_000)).append(" at level ").append(c).append('\n');
+            for (int f = 0; f < framesPerCause; f++) {
+                sb.append("\tat ");
+                if (random.nextInt(4) == 0) {
+                    sb.append(APP_PACKAGE).append(".service.Service").append(random.nextInt(20))
+                            .append(".handle").append(random.nextInt(10))
+                            .append("(Service").append(random.nextInt(20)).append(".java:").append(10 + random.nextInt(300))
+                            .append(')');
+                } else {
+                    sb.append(FRAMEWORK_FRAMES[random.nextInt(FRAMEWORK_FRAMES.length)]);
+                }
+                sb.append('\n');
+            }
+            if (c > 0) {
+                sb.append("\t... ").append(1 + random.nextInt(40)).append(" more\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Write a set of Surefire XML reports into {@code projectDir/target/surefire-reports}.
+     *
+     * @param classes         number of test classes (one report file each)
+     * @param testsPerClass   test cases per class
+     * @param failurePercent  percentage of test cases that fail
+     * @param outputChars     characters of system-out per failing test case
+     */
+    public static void surefireReports(Path projectDir, int classes, int testsPerClass, int failurePercent,
+                                       int outputChars, long seed) throws IOException {
+        Random random = new Random(seed);
+        writeReports(projectDir.resolve("target/surefire-reports"), classes, testsPerClass,
+                (c, t) -> random.nextInt(100) < failurePercent, outputChars, random);
+    }
+
+    /**
+     * Write a set of Surefire XML reports with an exact number of failing test cases,
+     * spread evenly over the classes.
+     *
+     * @param reportsDir      directory to write the report files into
+     * @param classes         number of test classes (one report file each)
+     * @param testsPerClass   test cases per class
+     * @param failures        number of failing test cases
+     * @param outputChars     characters of system-out per failing test case
+     */
+    public static void surefireReportsWithFailures(Path reportsDir, int classes, int testsPerClass, int failures,
+                                                   int outputChars, long seed) throws IOException {
+        int total = classes * testsPerClass;
+        int every = failures == 0 ? Integer.MAX_VALUE : Math.max(1, total / failures);
+        writeReports(reportsDir, classes, testsPerClass, (c, t) -> {
+            int index = c * testsPerClass + t;
+            return index % every == 0 && index / every < failures;
+        }, outputChars, new Random(seed));
+    }
+
+    private interface FailingCase {
+        boolean test(int testClass, int testCase);
+    }
+
+    private static void writeReports(Path dir, int classes, int testsPerClass, FailingCase failing,
+                                     int outputChars, Random random) throws IOException {
+        Files.createDirectories(dir);
+        for (int c = 0; c < classes; c++) {
+            String className = APP_PACKAGE + ".module" + (c % 20) + ".Generated" + c + "Test";
+            StringBuilder cases = new StringBuilder();
+            int failures = 0;
+            for (int t = 0; t < testsPerClass; t++) {
+                cases.append("  <testcase name=\"test").append(t).append("\" classname=\"").append(className)
+                        .append("\" time=\"0.").append(random.nextInt(1000)).append('"');
+                if (failing.test(c, t)) {
+                    failures++;
+                    String trace = escape(stackTrace(1 + random.nextInt(3), 12, random.nextLong()));
+                    cases.append(">\n    <failure message=\"expected ").append(t).append("\" type=\"")
+                            .append("org.opentest4j.AssertionFailedError\">").append(trace).append("</failure>\n");
+                    if (outputChars > 0) {
+                        cases.append("    <system-out>").append(escape(testOutput(outputChars, random)))
+                                .append("</system-out>\n");
+                    }
+                    cases.append("  </testcase>\n");
+                } else {
+                    cases.append("/>\n");
+                }
+            }
+            try (Writer out = Files.newBufferedWriter(dir.resolve("TEST-" + className + ".xml"), StandardCharsets.UTF_8)) {
+                out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+                out.write("<testsuite name=\"" + className + "\" time=\"1.0\" tests=\"" + testsPerClass
+                        + "\" errors=\"0\" skipped=\"0\" failures=\"" + failures + "\">\n");
+                out.write(cases.toString());
+                out.write("</testsuite>\n");
+            }
+        }
+    }
+
+    private static String testOutput(int chars, Random random) {
+        StringBuilder sb = new StringBuilder(chars + 80);
+        while (sb.length() < chars) {
+            sb.append("INFO: processed record ").append(random.nextInt(100_000)).append(" in ")
+                    .append(random.nextInt(50)).append("ms\n");
+        }
+        return sb.substring(0, chars);
+    }
+
+    private static String escape(String s) {
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,146 @@
+package io.github.mavenmcp.benchmark;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.spec.McpSchema.CallToolRequest;
+import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+
+/**
+ * End-to-end latency of the Maven tools, measured through a real stdio server backed by
+ * {@link FakeMaven}.
+ * <p>
+ * Usage: {@code LatencyHarness <log-lines,...> <failures,...> <iterations> <maven-millis>}.
+ * For each combination of log size and failure count a fresh server is started, warmed
+ * up, and then called {@code iterations} times per tool. Besides the latency seen by the
+ * client, the report shows the server overhead: latency minus the time the Maven process
+ * ran, as reported by the server in its {@code timings} block. A change in overhead is a
+ * change in the server, whatever Maven does.
+ */
+public final class LatencyHarness {
+
+    private static final List<String> TOOLS = List.of("maven_compile", "maven_test", "maven_clean");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private LatencyHarness() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int[] logLines = ints(args.length > 0 ? args[0] : "1000,20000,100000");
+        int[] failures = ints(args.length > 1 ? args[1] : "0,5,50");
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        Duration maven = Duration.ofMillis(args.length > 3 ? Long.parseLong(args[3]) : 300);
+        int warmup = Math.max(3, iterations / 5);
+
+        Path work = Files.createTempDirectory("maven-mcp-e2e");
+        List<Row> rows = new ArrayList<>();
+        for (int lines : logLines) {
+            for (int failureCount : failures) {
+                // A third of the run is startup, the rest streams output
+                var scenario = new FakeMaven.Scenario(lines, failureCount,
+                        maven.dividedBy(3), maven.minus(maven.dividedBy(3)));
+                System.out.printf("Scenario: %s, Maven %d ms%n", scenario, maven.toMillis());
+                rows.addAll(run(work.resolve(lines + "-" + failureCount), scenario, warmup, iterations));
+            }
+        }
+
+        print(rows);
+        Path csv = Path.of("target/benchmarks/e2e-latency.csv");
+        Files.createDirectories(csv.getParent());
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csv))) {
+            out.println("tool,logLines,failures,calls,errors,p50Ms,p99Ms,maxMs,overheadP50Ms,overheadP99Ms");
+            for (Row row : rows) {
+                out.printf(Locale.ROOT, "%s,%d,%d,%d,%d,%.2f,%.2f,%.2f,%.2f,%.2f%n",
+                        row.tool, row.scenario.logLines(), row.scenario.failures(), row.latency.count(), row.errors,
+                        row.latency.percentileMillis(50), row.latency.percentileMillis(99), row.latency.maxMillis(),
+                        row.overhead.percentileMillis(50), row.overhead.percentileMillis(99));
+            }
+        }
+        System.out.println("Full results: " + csv);
+    }
+
+    private static List<Row> run(Path dir, FakeMaven.Scenario scenario, int warmup, int iterations)
+            throws IOException {
+        Path project = FakeMaven.createProject(dir.resolve("project"), scenario);
+        Map<String, Row> rows = new LinkedHashMap<>();
+        TOOLS.forEach(tool -> rows.put(tool, new Row(tool, scenario)));
+        try (ServerUnderTest server = ServerUnderTest.start(project, dir.resolve("home"), List.of())) {
+            for (int i = 0; i < warmup + iterations; i++) {
+                // Same order as an agent's edit loop; clean also removes the reports of test
+                for (String tool : TOOLS) {
+                    long start = System.nanoTime();
+                    CallToolResult result = server.client().callTool(
+                            new CallToolRequest(tool, Map.of("includeTimings", true)));
+                    long latency = System.nanoTime() - start;
+                    if (i >= warmup) {
+                        rows.get(tool).record(latency, result);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(rows.values());
+    }
+
+    private static void print(List<Row> rows) {
+        System.out.printf("%n%-14s %9s %8s %6s %10s %10s %10s %14s %14s%n", "Tool", "Lines", "Failures",
+                "Calls", "p50 ms", "p99 ms", "max ms", "overhead p50", "overhead p99");
+        for (Row row : rows) {
+            System.out.printf("%-14s %9d %8d %6d %10.1f %10.1f %10.1f %14.1f %14.1f%s%n", row.tool,
+                    row.scenario.logLines(), row.scenario.failures(), row.latency.count(),
+                    row.latency.percentileMillis(50), row.latency.percentileMillis(99), row.latency.maxMillis(),
+                    row.overhead.percentileMillis(50), row.overhead.percentileMillis(99),
+                    row.errors > 0 ? "  (" + row.errors + " tool errors)" : "");
+        }
+    }
+
+    private static int[] ints(String csv) {
+        return Arrays.stream(csv.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+
+    private static final class Row {
+
+        final String tool;
+        final FakeMaven.Scenario scenario;
+        final LatencySamples latency = new LatencySamples();
+        final LatencySamples overhead = new LatencySamples();
+        int errors;
+
+        Row(String tool, FakeMaven.Scenario scenario) {
+            this.tool = tool;
+            this.scenario = scenario;
+        }
+
+        void record(long latencyNanos, CallToolResult result) {
+            latency.add(latencyNanos);
+            if (Boolean.TRUE.equals(result.isError())) {
+                errors++;
+                return;
+            }
+            JsonNode maven = timings(result).path("maven");
+            if (maven.isNumber()) {
+                overhead.add(Math.max(0, latencyNanos - (long) (maven.asDouble() * 1e6)));
+            }
+        }
+
+        private static JsonNode timings(CallToolResult result) {
+            try {
+                String text = ((TextContent) result.content().get(0)).text();
+                return MAPPER.readTree(text).path("timings");
+            } catch (IOException | RuntimeException e) {
+                return MAPPER.missingNode();
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.mavenmcp.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Exact latency samples with nearest-rank percentiles. Not thread-safe.
+ * <p>
+ * The harnesses record at most a few thousand samples per series, so keeping every
+ * sample is cheaper than being approximate.
+ */
+public final class LatencySamples {
+
+    private long[] nanos = new long[256];
+    private int count;
+    private boolean sorted = true;
+
+    public void add(long sampleNanos) {
+        if (count == nanos.length) {
+            nanos = Arrays.copyOf(nanos, count * 2);
+        }
+        nanos[count++] = sampleNanos;
+        sorted = false;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @param percentile percentile in [0, 100]
+     * @return the sample at that rank in milliseconds, 0 if there are no samples
+     */
+    public double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        if (!sorted) {
+            Arrays.sort(nanos, 0, count);
+            sorted = true;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * count);
+        return nanos[Math.min(count, Math.max(1, rank)) - 1] / 1e6;
+    }
+
+    public double maxMillis() {
+        return percentileMillis(100);
+    }
+}
@@ -0,0 +1,269 @@
+package io.github.mavenmcp.benchmark;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.spec.McpSchema.CallToolRequest;
+import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+
+/**
+ * Open-loop load generator: issues a mix of tool calls at a fixed rate against one
+ * server instance backed by {@link FakeMaven}, as many agents sharing a server would.
+ * <p>
+ * Usage: {@code LoadGenerator <mix> <rate> <seconds> <log-lines> <failures> <maven-millis> <transport>},
+ * where the mix is weighted, e.g. {@code compile=6,test=3,clean=1}, and the rate is in
+ * calls per second, and the transport is {@code stdio} or {@code http} (the server started
+ * with {@code --http}, called over the SDK's streamable HTTP client). Calls are sent on schedule whether or not earlier ones have returned,
+ * and latency is measured from the scheduled send time, so a saturated server shows up
+ * as growing latency rather than as a lower request rate.
+ * <p>
+ * Queueing time is the part of the latency the server did not spend running Maven and
+ * parsing its output (latency minus the phases the server reports in {@code timings}):
+ * waiting in the transport and for a worker thread, plus serializing the response. Every
+ * second, throughput, latency percentiles, calls in flight and the server's RSS are
+ * printed and appended to {@code target/benchmarks/load-timeseries.csv}.
+ */
+public final class LoadGenerator {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, Integer> mix = parseMix(args.length > 0 ? args[0] : "compile=6,test=3,clean=1");
+        double rate = args.length > 1 ? Double.parseDouble(args[1]) : 5;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 60);
+        int logLines = args.length > 3 ? Integer.parseInt(args[3]) : 20_000;
+        int failures = args.length > 4 ? Integer.parseInt(args[4]) : 5;
+        Duration maven = Duration.ofMillis(args.length > 5 ? Long.parseLong(args[5]) : 1_000);
+        String transport = args.length > 6 ? args[6] : "stdio";
+        if (!ServerUnderTest.TRANSPORTS.contains(transport)) {
+            throw new IllegalArgumentException("Unsupported transport '" + transport + "', expected one of "
+                    + ServerUnderTest.TRANSPORTS);
+        }
+
+        Path work = Files.createTempDirectory("maven-mcp-load");
+        var scenario = new FakeMaven.Scenario(logLines, failures, maven.dividedBy(3), maven.minus(maven.dividedBy(3)));
+        Path project = FakeMaven.createProject(work.resolve("project"), scenario);
+        System.out.printf("Load: %s at %.1f calls/s for %d s over %s; fake Maven: %s, %d ms%n",
+                mix, rate, duration.toSeconds(), transport, scenario, maven.toMillis());
+
+        Path csv = Path.of("target/benchmarks/load-timeseries.csv");
+        Files.createDirectories(csv.getParent());
+        Map<String, Totals> totals = new LinkedHashMap<>();
+        mix.keySet().forEach(tool -> totals.put(tool, new Totals()));
+
+        try (ServerUnderTest server = ServerUnderTest.start(project, work.resolve("home"), List.of(), List.of(),
+                transport);
+             PrintWriter series = new PrintWriter(Files.newBufferedWriter(csv))) {
+            series.println("second,sent,completed,errors,throughput,p50Ms,p99Ms,queueP50Ms,queueP99Ms,inFlight,rssMb");
+            var run = new Run(server, totals);
+            ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+            long started = System.nanoTime();
+            sampler.scheduleAtFixedRate(() -> run.sample(started, series), 1, 1, TimeUnit.SECONDS);
+
+            ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+            Random random = new Random(1);
+            long interval = (long) (1e9 / rate);
+            long calls = (long) (rate * duration.toSeconds());
+            for (long i = 0; i < calls; i++) {
+                long scheduled = started + i * interval;
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                String tool = pick(mix, random);
+                callers.execute(() -> run.call(tool, scheduled));
+            }
+            callers.shutdown();
+            if (!callers.awaitTermination(5, TimeUnit.MINUTES)) {
+                System.out.println("Calls still in flight after 5 minutes, reporting what completed");
+            }
+            sampler.shutdownNow();
+            run.sample(started, series);
+            double elapsed = (System.nanoTime() - started) / 1e9;
+            printSummary(totals, elapsed);
+        }
+        System.out.println("Time series: " + csv);
+    }
+
+    private static void printSummary(Map<String, Totals> totals, double elapsedSeconds) {
+        System.out.printf("%n%-14s %6s %6s %9s %9s %9s %9s %9s %11s %11s%n", "Tool", "Calls", "Errors",
+                "calls/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "queue p50", "queue p99");
+        totals.forEach((tool, t) -> {
+            synchronized (t) {
+                System.out.printf("%-14s %6d %6d %9.2f %9.1f %9.1f %9.1f %9.1f %11.1f %11.1f%n", tool,
+                        t.latency.count(), t.errors, t.latency.count() / elapsedSeconds,
+                        t.latency.percentileMillis(50), t.latency.percentileMillis(90),
+                        t.latency.percentileMillis(99), t.latency.maxMillis(),
+                        t.queue.percentileMillis(50), t.queue.percentileMillis(99));
+            }
+        });
+    }
+
+    /**
+     * Parse "compile=6,test=3" into tool names with weights.
+     */
+    static Map<String, Integer> parseMix(String spec) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=");
+            int weight = kv.length > 1 ? Integer.parseInt(kv[1].trim()) : 1;
+            if (weight > 0) {
+                mix.put("maven_" + kv[0].trim(), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Empty tool mix: " + spec);
+        }
+        return mix;
+    }
+
+    private static String pick(Map<String, Integer> mix, Random random) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int r = random.nextInt(total);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            r -= entry.getValue();
+            if (r < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    /**
+     * Samples of one tool over the whole run.
+     */
+    private static final class Totals {
+        final LatencySamples latency = new LatencySamples();
+        final LatencySamples queue = new LatencySamples();
+        int errors;
+    }
+
+    /**
+     * Samples completed within one reporting second.
+     */
+    private static final class Window {
+        final LatencySamples latency = new LatencySamples();
+        final LatencySamples queue = new LatencySamples();
+        int sent;
+        int errors;
+    }
+
+    private static final class Run {
+
+        private final ServerUnderTest server;
+        private final Map<String, Totals> totals;
+        private final AtomicReference<Window> window = new AtomicReference<>(new Window());
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        Run(ServerUnderTest server, Map<String, Totals> totals) {
+            this.server = server;
+            this.totals = totals;
+        }
+
+        void call(String tool, long scheduled) {
+            inFlight.incrementAndGet();
+            Window sentIn = window.get();
+            synchronized (sentIn) {
+                sentIn.sent++;
+            }
+            boolean error;
+            double serverMillis = -1;
+            try {
+                CallToolResult result = server.client().callTool(
+                        new CallToolRequest(tool, Map.of("includeTimings", true)));
+                error = Boolean.TRUE.equals(result.isError());
+                serverMillis = serverTotal(result);
+            } catch (RuntimeException e) {
+                error = true;
+            }
+            long latency = System.nanoTime() - scheduled;
+            long queue = serverMillis < 0 ? -1 : Math.max(0, latency - (long) (serverMillis * 1e6));
+            inFlight.decrementAndGet();
+
+            Totals t = totals.get(tool);
+            synchronized (t) {
+                record(t.latency, t.queue, latency, queue);
+                t.errors += error ? 1 : 0;
+            }
+            Window w = window.get();
+            synchronized (w) {
+                record(w.latency, w.queue, latency, queue);
+                w.errors += error ? 1 : 0;
+            }
+        }
+
+        private static void record(LatencySamples latency, LatencySamples queue, long latencyNanos, long queueNanos) {
+            latency.add(latencyNanos);
+            if (queueNanos >= 0) {
+                queue.add(queueNanos);
+            }
+        }
+
+        void sample(long started, PrintWriter series) {
+            Window w = window.getAndSet(new Window());
+            long second = Math.round((System.nanoTime() - started) / 1e9);
+            long rss = server.rssBytes();
+            synchronized (w) {
+                System.out.printf("t=%4ds sent %4d done %4d err %3d | p50 %8.1f ms p99 %8.1f ms "
+                                + "| queue p99 %7.1f ms | in flight %4d | rss %s%n",
+                        second, w.sent, w.latency.count(), w.errors,
+                        w.latency.percentileMillis(50), w.latency.percentileMillis(99),
+                        w.queue.percentileMillis(99), inFlight.get(),
+                        rss < 0 ? "n/a" : rss / (1024 * 1024) + " MB");
+                series.printf(Locale.ROOT, "%d,%d,%d,%d,%d,%.2f,%.2f,%.2f,%.2f,%d,%d%n",
+                        second, w.sent, w.latency.count(), w.errors, w.latency.count(),
+                        w.latency.percentileMillis(50), w.latency.percentileMillis(99),
+                        w.queue.percentileMillis(50), w.queue.percentileMillis(99),
+                        inFlight.get(), rss < 0 ? -1 : rss / (1024 * 1024));
+                series.flush();
+            }
+        }
+
+        /**
+         * Time the server spent handling the call, summed from the phases in its
+         * {@code timings} block, or -1 if the response has none.
+         */
+        private static double serverTotal(CallToolResult result) {
+            try {
+                String text = ((TextContent) result.content().get(0)).text();
+                JsonNode timings = MAPPER.readTree(text).path("timings");
+                if (!timings.isObject()) {
+                    return -1;
+                }
+                // First output happens within the Maven phase, so it is not added
+                double millis = 0;
+                for (var it = timings.fields(); it.hasNext(); ) {
+                    var phase = it.next();
+                    if (!phase.getKey().equals("firstOutput")) {
+                        millis += phase.getValue().asDouble();
+                    }
+                }
+                return millis;
+            } catch (IOException | RuntimeException e) {
+                return -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.mavenmcp.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import io.github.mavenmcp.parser.MavenOutputFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MavenOutputFilterBenchmark {
+
+    @Param({"1000", "100000"})
+    int lines;
+
+    private String log;
+
+    @Setup
+    public void setUp() {
+        log = Generators.mavenLog(lines, 5, 42);
+    }
+
+    @Benchmark
+    public String filter() {
+        return MavenOutputFilter.filter(log);
+    }
+}
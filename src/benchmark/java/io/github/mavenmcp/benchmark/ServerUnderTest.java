@@ -0,0 +1,224 @@
+package io.github.mavenmcp.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.client.transport.HttpClientStreamableHttpTransport;
+import io.modelcontextprotocol.client.transport.ServerParameters;
+import io.modelcontextprotocol.client.transport.StdioClientTransport;
+import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
+import io.modelcontextprotocol.spec.McpClientTransport;
+import io.modelcontextprotocol.spec.McpSchema.Implementation;
+
+/**
+ * Launches the real server as a child JVM on the current classpath and connects an MCP
+ * client to it, over stdio or over streamable HTTP ({@code --http} on a free port).
+ * <p>
+ * The child gets its own {@code user.home}, so the log archive it keeps under
+ * {@code ~/.cache} does not touch the user's.
+ */
+public final class ServerUnderTest implements AutoCloseable {
+
+    /** Transports a server can be started with. */
+    public static final List<String> TRANSPORTS = List.of("stdio", "http");
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(5);
+    private static final String LISTENING = "Listening on ";
+
+    private final McpSyncClient client;
+    /** Server process started for HTTP, or null when the stdio transport owns it */
+    private final Process process;
+
+    private ServerUnderTest(McpSyncClient client, Process process) {
+        this.client = client;
+        this.process = process;
+    }
+
+    /**
+     * Start a server for {@code projectDir} and complete the MCP handshake.
+     *
+     * @param home     directory to use as the server's {@code user.home}
+     * @param jvmArgs  extra JVM options for the server, e.g. heap settings
+     */
+    public static ServerUnderTest start(Path projectDir, Path home, List<String> jvmArgs) {
+        return start(projectDir, home, jvmArgs, List.of());
+    }
+
+    /**
+     * Start a server with extra command-line options, e.g. {@code --no-prefetch}.
+     */
+    public static ServerUnderTest start(Path projectDir, Path home, List<String> jvmArgs, List<String> serverArgs) {
+        return start(projectDir, home, jvmArgs, serverArgs, "stdio");
+    }
+
+    /**
+     * Start a server and connect over the given transport, one of {@link #TRANSPORTS}.
+     */
+    public static ServerUnderTest start(Path projectDir, Path home, List<String> jvmArgs, List<String> serverArgs,
+                                        String transport) {
+        if (!TRANSPORTS.contains(transport)) {
+            throw new IllegalArgumentException("Unsupported transport '" + transport + "', expected one of "
+                    + TRANSPORTS);
+        }
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        if (transport.equals("stdio")) {
+            ServerParameters parameters = ServerParameters.builder(java)
+                    .args(command(projectDir, home, jvmArgs, serverArgs))
+                    .build();
+            var stdio = new StdioClientTransport(parameters, new JacksonMcpJsonMapper(new ObjectMapper()));
+            // The server logs every call to stderr; keep it out of the report
+            stdio.setStdErrorHandler(line -> { });
+            return new ServerUnderTest(connect(stdio), null);
+        }
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(command(projectDir, home, jvmArgs, serverArgs));
+        command.addAll(List.of("--http", "0"));
+        Process process;
+        URI endpoint;
+        try {
+            process = new ProcessBuilder(command).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+            endpoint = awaitEndpoint(process);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot start the server over HTTP", e);
+        }
+        var http = HttpClientStreamableHttpTransport.builder(endpoint.getScheme() + "://" + endpoint.getAuthority())
+                .endpoint(endpoint.getPath())
+                .jsonMapper(new JacksonMcpJsonMapper(new ObjectMapper()))
+                .build();
+        try {
+            return new ServerUnderTest(connect(http), process);
+        } catch (RuntimeException e) {
+            process.destroyForcibly();
+            throw e;
+        }
+    }
+
+    private static McpSyncClient connect(McpClientTransport transport) {
+        McpSyncClient client = McpClient.sync(transport)
+                .clientInfo(new Implementation("maven-mcp-benchmark", "1.0.0"))
+                .requestTimeout(REQUEST_TIMEOUT)
+                .build();
+        client.initialize();
+        return client;
+    }
+
+    /**
+     * Read the server's stderr up to the endpoint it announces, then keep draining it on a
+     * daemon thread so that its logging never blocks it.
+     */
+    private static URI awaitEndpoint(Process process) throws IOException {
+        BufferedReader stderr = new BufferedReader(
+                new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8));
+        String line;
+        while ((line = stderr.readLine()) != null) {
+            if (line.startsWith(LISTENING)) {
+                Thread drain = new Thread(() -> {
+                    try {
+                        while (stderr.readLine() != null) {
+                            // The server logs every call to stderr; keep it out of the report
+                        }
+                    } catch (IOException e) {
+                        // The server exited
+                    }
+                }, "server-stderr");
+                drain.setDaemon(true);
+                drain.start();
+                return URI.create(line.substring(LISTENING.length()).trim());
+            }
+        }
+        process.destroyForcibly();
+        throw new IOException("Server exited with code " + waitFor(process) + " before listening");
+    }
+
+    private static int waitFor(Process process) {
+        try {
+            return process.waitFor();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private static List<String> command(Path projectDir, Path home, List<String> jvmArgs, List<String> serverArgs) {
+        List<String> args = new ArrayList<>(jvmArgs);
+        args.add("-Duser.home=" + home.toAbsolutePath());
+        args.add("-cp");
+        args.add(System.getProperty("java.class.path"));
+        args.add("io.github.mavenmcp.MavenMcpServer");
+        args.add("--project");
+        args.add(projectDir.toAbsolutePath().toString());
+        args.addAll(serverArgs);
+        return args;
+    }
+
+    public McpSyncClient client() {
+        return client;
+    }
+
+    /**
+     * @return the server's process ID, or -1 if it cannot be determined
+     */
+    public long pid() {
+        if (process != null) {
+            return process.pid();
+        }
+        // The stdio transport does not expose its process; the server is our only child JVM
+        return ProcessHandle.current().children()
+                .filter(p -> p.info().command().map(c -> c.endsWith("java")).orElse(false))
+                .mapToLong(ProcessHandle::pid)
+                .findFirst()
+                .orElse(-1);
+    }
+
+    /**
+     * @return resident set size of the server process in bytes, or -1 if unavailable
+     *         (only Linux {@code /proc} is supported)
+     */
+    public long rssBytes() {
+        long pid = pid();
+        if (pid < 0) {
+            return -1;
+        }
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not Linux, or the process is gone
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() {
+        client.closeGracefully();
+        if (process != null) {
+            // SIGTERM, so that the server drains and closes its projects as it would in production
+            process.destroy();
+            try {
+                if (!process.waitFor(1, TimeUnit.MINUTES)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                process.destroyForcibly();
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.mavenmcp.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import io.github.mavenmcp.parser.StackTraceProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StackTraceProcessorBenchmark {
+
+    @Param({"0", "5", "30"})
+    int causes;
+
+    @Param({"40", "200"})
+    int framesPerCause;
+
+    private String trace;
+
+    @Setup
+    public void setUp() {
+        trace = Generators.stackTrace(causes, framesPerCause, 42);
+    }
+
+    @Benchmark
+    public String process() {
+        return StackTraceProcessor.process(trace, Generators.APP_PACKAGE, 50);
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.mavenmcp.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from spawning the server JVM to its response to {@code initialize}, the part of
+ * startup an agent waits for before its first tool call.
+ * <p>
+ * Usage: {@code StartupBenchmark <jar> <runs>}. Compares launching the main class
+ * directly, without any archive, against {@code java -jar}, which goes through
+ * {@code Bootstrap} and picks up the startup archive next to the jar if the build
+ * produced one. Each run is a fresh JVM; the first runs of each mode are discarded as
+ * file-cache warm-up.
+ */
+public final class StartupBenchmark {
+
+    private static final int WARMUP_RUNS = 2;
+    private static final String INITIALIZE = """
+            {"jsonrpc":"2.0","id":1,"method":"initialize","params":{"protocolVersion":"2024-11-05",\
+            "capabilities":{},"clientInfo":{"name":"startup-benchmark","version":"1.0.0"}}}
+            """;
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path jar = Path.of(args.length > 0 ? args[0] : "target/maven-mcp.jar").toAbsolutePath();
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalArgumentException("No server jar at " + jar + "; run 'mvn package' first");
+        }
+        Path work = Files.createTempDirectory("maven-mcp-startup");
+        Path project = FakeMaven.createProject(work.resolve("project"),
+                new FakeMaven.Scenario(10, 0, Duration.ZERO, Duration.ZERO));
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        String home = "-Duser.home=" + work.resolve("home");
+
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("main class, no archive", List.of(java, home, "-Dmaven.mcp.startupArchive=off",
+                "-cp", jar.toString(), "io.github.mavenmcp.MavenMcpServer", "--project", project.toString()));
+        modes.put("java -jar (Bootstrap)", List.of(java, home,
+                "-jar", jar.toString(), "--project", project.toString()));
+
+        System.out.printf("%-26s %6s %10s %10s %10s%n", "Mode", "Runs", "p50 ms", "p90 ms", "max ms");
+        for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+            LatencySamples samples = new LatencySamples();
+            for (int i = 0; i < WARMUP_RUNS + runs; i++) {
+                long nanos = timeToInitialize(mode.getValue());
+                if (i >= WARMUP_RUNS) {
+                    samples.add(nanos);
+                }
+            }
+            System.out.printf("%-26s %6d %10.1f %10.1f %10.1f%n", mode.getKey(), samples.count(),
+                    samples.percentileMillis(50), samples.percentileMillis(90), samples.maxMillis());
+        }
+    }
+
+    private static long timeToInitialize(List<String> command) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(new ArrayList<>(command))
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try (OutputStream in = process.getOutputStream();
+             BufferedReader out = new BufferedReader(
+                     new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            in.write(INITIALIZE.getBytes(StandardCharsets.UTF_8));
+            in.flush();
+            String response = out.readLine();
+            long elapsed = System.nanoTime() - start;
+            if (response == null || !response.contains("\"id\":1")) {
+                throw new IllegalStateException("Unexpected response to initialize: " + response);
+            }
+            return elapsed;
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.mavenmcp.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import io.github.mavenmcp.parser.SurefireReportParser;
+import io.github.mavenmcp.parser.SurefireReportParser.SurefireResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SurefireReportParserBenchmark {
+
+    @Param({"10", "500"})
+    int classes;
+
+    @Param({"0", "10"})
+    int failurePercent;
+
+    private Path projectDir;
+
+    @Setup
+    public void setUp() throws IOException {
+        projectDir = Files.createTempDirectory("surefire-bench");
+        Generators.surefireReports(projectDir, classes, 20, failurePercent, 1_000, 42);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(projectDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Optional<SurefireResult> parse() {
+        return SurefireReportParser.parse(projectDir, true, SurefireReportParser.DEFAULT_PER_TEST_OUTPUT_LIMIT, 0);
+    }
+}
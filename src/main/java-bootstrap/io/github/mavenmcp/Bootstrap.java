@@ -1,25 +1,58 @@
 package io.github.mavenmcp;
 
+import java.io.IOException;
 import java.io.PrintStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Bootstrap entry point compiled at Java 11 bytecode level.
  * Validates JVM version before loading the main application
  * to provide a clear error message instead of UnsupportedClassVersionError.
+ * <p>
+ * If the build left a startup archive next to the jar, written by the same JVM as this
+ * one, the server is relaunched in a JVM that maps it, which is much faster than loading and verifying its classes from
+ * the jar. This JVM then only waits for the server and passes on its exit code.
  */
 public class Bootstrap {
 
     static final int REQUIRED_JAVA_VERSION = 21;
     static final String SERVER_CLASS = "io.github.mavenmcp.MavenMcpServer";
 
+    /** AppCDS archive written by the build's training run. */
+    static final String CDS_ARCHIVE = "maven-mcp.jsa";
+    /** AOT cache written by the training run when built on JDK 25+. */
+    static final String AOT_CACHE = "maven-mcp.aot";
+    static final int AOT_CACHE_JAVA_VERSION = 25;
+    /** The JVM that wrote the archive, as {@link #jvm()} describes it. */
+    static final String ARCHIVE_JVM = "maven-mcp.jvm";
+    /** Set to "off" to start in this JVM without a startup archive. */
+    static final String ARCHIVE_PROPERTY = "maven.mcp.startupArchive";
+
     public static void main(String[] args) {
         int currentVersion = Runtime.version().feature();
         if (!checkVersion(currentVersion, System.err)) {
             System.exit(1);
         }
 
+        List<String> relaunch = relaunchCommand(currentVersion, args);
+        if (relaunch != null) {
+            try {
+                System.exit(relaunch(relaunch));
+            } catch (IOException e) {
+                // Fall through and start in this JVM
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                System.exit(1);
+            }
+        }
+
         try {
             delegateToServer(SERVER_CLASS, args);
         } catch (ReflectiveOperationException e) {
@@ -31,6 +64,115 @@ public class Bootstrap {
         }
     }
 
+    /**
+     * Build the command that relaunches the server with the startup archive.
+     *
+     * @return the command, or null to start in this JVM: when not running from a jar,
+     *         when no archive this JVM can use is next to it, or when disabled (which the
+     *         relaunched JVM always is)
+     */
+    static List<String> relaunchCommand(int javaVersion, String[] args) {
+        if ("off".equals(System.getProperty(ARCHIVE_PROPERTY))) {
+            return null;
+        }
+        Path jar;
+        try {
+            jar = Path.of(Bootstrap.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException | RuntimeException e) {
+            return null;
+        }
+        if (!Files.isRegularFile(jar)) {
+            return null;
+        }
+        List<String> archiveOptions = archiveOptions(jar.getParent(), javaVersion, jvm());
+        if (archiveOptions.isEmpty()) {
+            return null;
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(archiveOptions);
+        // After the archive options, so that a user's own -Xlog settings still apply
+        command.addAll(launcherJvmOptions(ProcessHandle.current().info().arguments().orElse(new String[0])));
+        command.add("-D" + ARCHIVE_PROPERTY + "=off");
+        command.add("-cp");
+        command.add(jar.toString());
+        command.add(SERVER_CLASS);
+        command.addAll(Arrays.asList(args));
+        return command;
+    }
+
+    /**
+     * JVM options that select the startup archive in {@code dir}, or none if there is no
+     * archive this JVM can use. An archive written by a different JVM, or one that does not
+     * say which JVM wrote it, would only be ignored by the relaunched JVM, which then paid
+     * for a second JVM start for nothing. The options keep the JVM's archive warnings off
+     * stdout, which belongs to MCP.
+     *
+     * @param jvm this JVM, as {@link #jvm()} describes it
+     */
+    static List<String> archiveOptions(Path dir, int javaVersion, String jvm) {
+        try {
+            if (!jvm.equals(Files.readString(dir.resolve(ARCHIVE_JVM)).trim())) {
+                return List.of();
+            }
+        } catch (IOException | RuntimeException e) {
+            return List.of();
+        }
+        Path aot = dir.resolve(AOT_CACHE);
+        Path cds = dir.resolve(CDS_ARCHIVE);
+        String option;
+        if (javaVersion >= AOT_CACHE_JAVA_VERSION && Files.isRegularFile(aot)) {
+            option = "-XX:AOTCache=" + aot;
+        } else if (Files.isRegularFile(cds)) {
+            option = "-XX:SharedArchiveFile=" + cds;
+        } else {
+            return List.of();
+        }
+        return List.of(option, "-Xshare:auto", "-Xlog:disable", "-Xlog:all=warning:stderr");
+    }
+
+    /**
+     * This JVM's vendor, build and architecture; a startup archive only works in the JVM
+     * that wrote it.
+     */
+    static String jvm() {
+        return System.getProperty("java.vm.vendor") + " " + System.getProperty("java.vm.version") + " "
+                + System.getProperty("os.arch");
+    }
+
+    /**
+     * The JVM options this JVM was started with (heap size, system properties), taken
+     * from its command line: everything before {@code -jar} or the main class.
+     */
+    static List<String> launcherJvmOptions(String[] arguments) {
+        List<String> options = new ArrayList<>();
+        for (int i = 0; i < arguments.length; i++) {
+            String arg = arguments[i];
+            if (arg.equals("-jar") || arg.equals(Bootstrap.class.getName())) {
+                return options;
+            }
+            if (arg.equals("-cp") || arg.equals("-classpath") || arg.equals("--class-path")) {
+                i++;
+                continue;
+            }
+            options.add(arg);
+        }
+        // Main class not found: the command line is not what we expect
+        return List.of();
+    }
+
+    /**
+     * Run the command with this JVM's stdin, stdout and stderr and wait for it.
+     *
+     * @return its exit code
+     */
+    static int relaunch(List<String> command) throws IOException, InterruptedException {
+        Process server = new ProcessBuilder(command).inheritIO().start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::destroy));
+        return server.waitFor();
+    }
+
     /**
      * Loads the server class by name and invokes its main method via reflection.
      *
@@ -1,23 +1,68 @@
 package io.github.mavenmcp;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.mavenmcp.config.ServerConfig;
+import io.github.mavenmcp.history.BuildDurations;
+import io.github.mavenmcp.history.BuildHistory;
+import io.github.mavenmcp.history.FlakyTests;
+import io.github.mavenmcp.jfr.ContinuousRecording;
+import io.github.mavenmcp.log.LogArchive;
+import io.github.mavenmcp.log.LogSpool;
+import io.github.mavenmcp.maven.AdmissionController;
+import io.github.mavenmcp.maven.DependencyPrefetcher;
+import io.github.mavenmcp.maven.DependencyTreeService;
+import io.github.mavenmcp.maven.FastProfile;
 import io.github.mavenmcp.maven.MavenDetector;
+import io.github.mavenmcp.maven.MavenEnvironmentProbe;
 import io.github.mavenmcp.maven.MavenNotFoundException;
 import io.github.mavenmcp.maven.MavenRunner;
+import io.github.mavenmcp.maven.ProjectModelService;
+import io.github.mavenmcp.maven.ResourcePlanner;
+import io.github.mavenmcp.model.BuildResult;
+import io.github.mavenmcp.model.CompilationError;
+import io.github.mavenmcp.model.TestFailure;
+import io.github.mavenmcp.model.TestSummary;
+import io.github.mavenmcp.parser.CompilationOutputParser;
+import io.github.mavenmcp.parser.MavenOutputFilter;
+import io.github.mavenmcp.parser.XmlUtils;
+import io.github.mavenmcp.resource.LogResource;
+import io.github.mavenmcp.stats.ServerStats;
 import io.github.mavenmcp.tool.CleanTool;
 import io.github.mavenmcp.tool.CompileTool;
+import io.github.mavenmcp.tool.DependencyTreeTool;
+import io.github.mavenmcp.tool.LogSearchTool;
+import io.github.mavenmcp.tool.PackageTool;
+import io.github.mavenmcp.tool.PipelineTool;
+import io.github.mavenmcp.tool.ProjectInfoTool;
+import io.github.mavenmcp.tool.ServerStatsTool;
 import io.github.mavenmcp.tool.TestTool;
+import io.github.mavenmcp.transport.HttpTransport;
+import io.github.mavenmcp.transport.SerializingTransportProvider;
+import io.github.mavenmcp.transport.SessionAccounting;
+import io.github.mavenmcp.workspace.ProjectContext;
+import io.github.mavenmcp.workspace.Workspace;
 import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
 import io.modelcontextprotocol.server.McpServer;
 import io.modelcontextprotocol.server.McpSyncServer;
 import io.modelcontextprotocol.server.transport.StdioServerTransportProvider;
 import io.modelcontextprotocol.spec.McpSchema.ServerCapabilities;
+import io.modelcontextprotocol.spec.McpServerTransportProvider;
+import org.apache.catalina.LifecycleException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import picocli.CommandLine;
@@ -26,7 +71,7 @@ import picocli.CommandLine.Option;
 
 /**
  * Maven MCP Server entry point.
- * Exposes Maven CLI operations as MCP tools over stdio transport.
+ * Exposes Maven CLI operations as MCP tools over stdio, or streamable HTTP on localhost.
  */
 @Command(
         name = "maven-mcp-server",
@@ -41,57 +86,303 @@ public class MavenMcpServer implements Callable<Integer> {
     private static final String SERVER_VERSION = "1.0.0";
 
     @Option(names = "--project", required = true,
-            description = "Path to the Maven project directory")
-    private Path projectDir;
+            description = "Path to a Maven project directory; repeat to serve several projects, "
+                    + "which tools then select with their 'project' parameter")
+    private List<Path> projectDirs;
+
+    @Option(names = "--workspace-memory-cap", paramLabel = "SIZE", defaultValue = "256m",
+            description = "Estimated memory for the caches of all projects (e.g. 64m, 1g) above which "
+                    + "idle projects are unloaded (default: ${DEFAULT-VALUE})")
+    private String workspaceMemoryCap;
+
+    @Option(names = "--jfr-recording", paramLabel = "FILE",
+            description = "Start a continuous JFR recording (last hour, default settings plus "
+                    + "tool and Maven process events), written to FILE on exit")
+    private Path jfrRecording;
+
+    @Option(names = "--http", paramLabel = "PORT",
+            description = "Serve MCP streamable HTTP on 127.0.0.1:PORT/mcp instead of stdio (0 picks a free port), "
+                    + "so that many agent sessions share one warm server")
+    private Integer httpPort;
+
+    @Option(names = "--drain-timeout", paramLabel = "SECONDS", defaultValue = "30",
+            description = "On shutdown of the HTTP server, how long to wait for requests in flight "
+                    + "(default: ${DEFAULT-VALUE})")
+    private int drainTimeoutSeconds;
+
+    @Option(names = "--build-timeout", paramLabel = "MINUTES", defaultValue = "60",
+            description = "Longest a build may run before it is killed; builds with five or more recent runs "
+                    + "get a timeout of three times the slowest of them, at least ten minutes, within this "
+                    + "(default: ${DEFAULT-VALUE})")
+    private int buildTimeoutMinutes;
+
+    @Option(names = "--max-builds", paramLabel = "N",
+            description = "Most Maven builds to run at once over all projects; further builds wait, shorter ones "
+                    + "first (default: one per two cores, as memory allows, at least 1)")
+    private Integer maxBuilds;
+
+    @Option(names = "--max-queued-builds", paramLabel = "N",
+            description = "Most builds waiting to run; further ones are rejected with the expected wait "
+                    + "(default: ${DEFAULT-VALUE})")
+    private int maxQueuedBuilds = AdmissionController.DEFAULT_MAX_QUEUED;
+
+    @Option(names = "--no-resource-planning",
+            description = "Do not divide the cores and memory of the host (or its cgroup v2 limits) between "
+                    + "the builds run at once, and leave -T, forkCount and heaps to Maven")
+    private boolean noResourcePlanning;
+
+    @Option(names = "--no-prefetch",
+            description = "Do not resolve dependencies in the background (dependency:go-offline) "
+                    + "and run builds offline once that has succeeded")
+    private boolean noPrefetch;
 
     // Available to future tool handlers
     private ServerConfig config;
-    private MavenRunner mavenRunner;
+    private Workspace workspace;
+    private AdmissionController admission;
+    private ResourcePlanner planner;
+    /** POMs resolved by the prefetchers, kept across unloading so that a reload does not resolve them again */
+    private final Map<Path, String> resolvedPoms = new ConcurrentHashMap<>();
 
     @Override
     public Integer call() {
         // --- Startup validation ---
+        List<ServerConfig> projects = new ArrayList<>();
+        long memoryCap;
         try {
-            config = validateAndCreateConfig();
+            for (Path projectDir : projectDirs) {
+                projects.add(validateAndCreateConfig(projectDir));
+            }
+            memoryCap = parseSize(workspaceMemoryCap);
+            if (buildTimeoutMinutes <= 0) {
+                throw new IllegalStateException("Invalid build timeout: " + buildTimeoutMinutes
+                        + " (expected minutes > 0)");
+            }
+            if (maxBuilds != null && maxBuilds <= 0) {
+                throw new IllegalStateException("Invalid maximum of builds at once: " + maxBuilds
+                        + " (expected > 0)");
+            }
+            if (maxQueuedBuilds < 0) {
+                throw new IllegalStateException("Invalid maximum of queued builds: " + maxQueuedBuilds
+                        + " (expected >= 0)");
+            }
         } catch (IllegalStateException e) {
             System.err.println(e.getMessage());
             return 1;
         }
 
-        mavenRunner = new MavenRunner();
+        if (jfrRecording != null) {
+            try {
+                ContinuousRecording.start(jfrRecording);
+                log.info("JFR recording started, dumping to {} on exit", jfrRecording.toAbsolutePath());
+            } catch (IllegalStateException e) {
+                System.err.println(e.getMessage());
+                return 1;
+            }
+        }
+
+        if (httpPort != null) {
+            return serveHttp(projects, memoryCap);
+        }
+
+        try {
+            // Tool calls respond concurrently; the stdio transport needs its sends serialized
+            start(projects, memoryCap, McpServer.sync(new SerializingTransportProvider(
+                    new StdioServerTransportProvider(new JacksonMcpJsonMapper(new ObjectMapper())))), null);
+        } catch (IOException e) {
+            System.err.println("Cannot create log spool directory: " + e.getMessage());
+            return 1;
+        }
+
+        // Deletes the projects' spooled logs once the client has gone
+        Runtime.getRuntime().addShutdownHook(new Thread(workspace::close, "maven-mcp-shutdown"));
+        log.info("MCP server started, listening on stdio");
+
+        // Server blocks on stdio until client disconnects.
+        // StdioServerTransportProvider handles the lifecycle.
+        return 0;
+    }
+
+    /**
+     * Serve over HTTP until the JVM is asked to shut down, then drain.
+     */
+    private int serveHttp(List<ServerConfig> projects, long memoryCap) {
+        HttpTransport http;
+        McpSyncServer server;
+        try {
+            http = new HttpTransport(httpPort, new JacksonMcpJsonMapper(new ObjectMapper()));
+            server = start(projects, memoryCap, McpServer.sync(http.provider()), http.sessions());
+        } catch (IOException e) {
+            System.err.println("Cannot create log spool directory: " + e.getMessage());
+            return 1;
+        }
+        URI endpoint;
+        try {
+            endpoint = http.start();
+        } catch (LifecycleException e) {
+            System.err.println("Cannot start HTTP server on port " + httpPort + ": " + e.getMessage());
+            http.drain(Duration.ZERO);
+            return 1;
+        }
+        log.info("MCP server started, listening on {}", endpoint);
+        System.err.println("Listening on " + endpoint);
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            http.drain(Duration.ofSeconds(drainTimeoutSeconds));
+            server.close();
+            workspace.close();
+            stopped.countDown();
+        }, "maven-mcp-drain"));
+        // The container's threads are daemons; keep the JVM up until the drain has finished
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+
+    /**
+     * Create the server's components for a single project and start serving on the given transport.
+     *
+     * @param serverConfig validated configuration
+     * @throws IOException if the log spool directory cannot be created
+     */
+    McpSyncServer start(ServerConfig serverConfig, McpServerTransportProvider transport) throws IOException {
+        // Tool calls respond concurrently; the stdio transport needs its sends serialized
+        return start(List.of(serverConfig), Workspace.DEFAULT_MEMORY_CAP,
+                McpServer.sync(new SerializingTransportProvider(transport)), null);
+    }
+
+    /**
+     * Create the server's components and build the server on the given transport.
+     *
+     * @param projects  validated configuration of each project
+     * @param memoryCap estimated bytes of project state above which idle projects are unloaded
+     * @param spec      server specification of the transport
+     * @param sessions  session accounting of the transport, or null
+     * @throws IOException if the log spool directory cannot be created
+     */
+    <S extends McpServer.SyncSpecification<S>> McpSyncServer start(List<ServerConfig> projects, long memoryCap,
+                                                                   S spec, SessionAccounting sessions)
+            throws IOException {
+        config = projects.get(0);
+        ResourcePlanner.Limits limits = ResourcePlanner.Limits.detect();
+        int builds = maxBuilds != null ? maxBuilds : ResourcePlanner.defaultBuilds(limits);
+        admission = new AdmissionController(builds, maxQueuedBuilds);
+        planner = noResourcePlanning ? null : ResourcePlanner.create(limits, builds);
+        log.info("{} cores and {} MB ({}) for up to {} builds at once", limits.cpus(),
+                limits.memory() / (1024 * 1024), limits.source(), builds);
+        workspace = new Workspace(projects, this::createProject, memoryCap);
+        // Load the first project right away, which fails fast on an unusable spool directory
+        try {
+            workspace.acquire(config.projectDir().toString()).close();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        ServerStats serverStats = new ServerStats();
 
         log.info("Maven MCP Server v{}", SERVER_VERSION);
-        log.info("Project directory: {}", config.projectDir());
-        log.info("Maven executable: {}", config.mavenExecutable());
+        for (ServerConfig project : projects) {
+            log.info("Project directory: {}, Maven executable: {}", project.projectDir(), project.mavenExecutable());
+        }
 
         // --- MCP server bootstrap ---
         ObjectMapper objectMapper = new ObjectMapper()
                 .setSerializationInclusion(JsonInclude.Include.NON_NULL);
 
-        StdioServerTransportProvider transport =
-                new StdioServerTransportProvider(new JacksonMcpJsonMapper(new ObjectMapper()));
-
-        McpSyncServer server = McpServer.sync(transport)
+        McpSyncServer server = spec
                 .serverInfo(SERVER_NAME, SERVER_VERSION)
                 .capabilities(ServerCapabilities.builder()
                         .tools(Boolean.TRUE)
+                        .resources(Boolean.FALSE, Boolean.FALSE)
                         .logging()
                         .build())
                 .tools(
-                        CompileTool.create(config, mavenRunner, objectMapper),
-                        CleanTool.create(config, mavenRunner, objectMapper),
-                        TestTool.create(config, mavenRunner, objectMapper)
+                        CompileTool.create(workspace, objectMapper, serverStats),
+                        CleanTool.create(workspace, objectMapper, serverStats),
+                        TestTool.create(workspace, objectMapper, serverStats),
+                        PackageTool.create(workspace, objectMapper, serverStats),
+                        PipelineTool.create(workspace, objectMapper, serverStats),
+                        DependencyTreeTool.create(workspace, objectMapper, serverStats),
+                        LogSearchTool.create(workspace, objectMapper, serverStats),
+                        ProjectInfoTool.create(workspace, objectMapper, serverStats),
+                        ServerStatsTool.create(serverStats, workspace, sessions, admission, objectMapper)
                 )
+                .resourceTemplates(LogResource.create(workspace))
                 .build();
+        warmUpInBackground(objectMapper);
+        return server;
+    }
 
-        log.info("MCP server started, listening on stdio");
+    /**
+     * Create the state of one project: its own log spool and runner, log archive, build
+     * history (shared by its tools, so that a buildId from maven_compile can be used as
+     * 'since' in maven_test), Maven environment probe, dependency prefetcher, fast profile,
+     * dependency trees, flaky test rates and build durations. Its builds go through the
+     * server's admission control, its dependency prefetch and {@code mvn -v} one at a time
+     * beside them, and all get their share of its cores and memory.
+     *
+     * @throws UncheckedIOException if the log spool directory cannot be created
+     */
+    private ProjectContext createProject(ServerConfig project) {
+        LogSpool logSpool;
+        try {
+            logSpool = LogSpool.createTemporary();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        LogArchive logArchive = new LogArchive(cacheDirectory(project.projectDir(), "logs"),
+                LogArchive.DEFAULT_RETAINED_RUNS, LogArchive.DEFAULT_MAX_AGE);
+        logSpool.addListener(logArchive::add);
+        // Off the startup path: on a cache miss this forks Maven
+        MavenEnvironmentProbe environmentProbe = MavenEnvironmentProbe.createDefault(admission, planner);
+        environmentProbe.startInBackground(project.mavenExecutable(), project.projectDir());
+        DependencyPrefetcher prefetcher = null;
+        if (!noPrefetch) {
+            Duration buildTimeout = Duration.ofMinutes(buildTimeoutMinutes);
+            prefetcher = new DependencyPrefetcher(project.mavenExecutable(), project.projectDir(),
+                    buildTimeout.compareTo(DependencyPrefetcher.DEFAULT_TIMEOUT) < 0
+                            ? buildTimeout : DependencyPrefetcher.DEFAULT_TIMEOUT,
+                    admission, planner, resolvedPoms);
+            prefetcher.startInBackground();
+        }
+        ProjectModelService modelService = new ProjectModelService(project.projectDir());
+        MavenRunner runner = new MavenRunner(logSpool, planner,
+                () -> modelService.model(ProjectContext.localRepository(environmentProbe.environment())));
+        return new ProjectContext(project, runner, new BuildHistory(),
+                logSpool, logArchive, environmentProbe, prefetcher, modelService, new FastProfile(modelService),
+                new DependencyTreeService(project.projectDir(), cacheDirectory(project.projectDir(), "dependency-trees")),
+                new FlakyTests(cacheDirectory(project.projectDir(), "flaky-tests")),
+                new BuildDurations(cacheDirectory(project.projectDir(), "durations"),
+                        Duration.ofMinutes(buildTimeoutMinutes)),
+                admission);
+    }
 
-        // Server blocks on stdio until client disconnects.
-        // StdioServerTransportProvider handles the lifecycle.
-        return 0;
+    /**
+     * Initialize what the first tool call would otherwise pay for (XML parser lookup,
+     * response serializers, parser classes) once the server is already answering.
+     */
+    private static void warmUpInBackground(ObjectMapper objectMapper) {
+        Thread warmUp = new Thread(() -> {
+            try {
+                XmlUtils.newSecureDocumentBuilder();
+                CompilationOutputParser.parse("[ERROR] /A.java:[1,1] warm-up", Path.of("/"));
+                MavenOutputFilter.filter("[INFO] BUILD SUCCESS");
+                objectMapper.writeValueAsString(new BuildResult("SUCCESS", 0,
+                        List.of(new CompilationError("A.java", 1, 1, "warm-up", "ERROR")), List.of(),
+                        new TestSummary(1, 1, 0, 0), List.of(new TestFailure("A", "a", "m", "t", "o")),
+                        null, null));
+            } catch (Exception e) {
+                log.debug("Warm-up failed: {}", e.getMessage());
+            }
+        }, "maven-mcp-warm-up");
+        warmUp.setDaemon(true);
+        warmUp.start();
     }
 
-    private ServerConfig validateAndCreateConfig() {
+    private static ServerConfig validateAndCreateConfig(Path projectDir) {
         // 1. Project directory exists
         if (!Files.isDirectory(projectDir)) {
             throw new IllegalStateException(
@@ -116,12 +407,47 @@ public class MavenMcpServer implements Callable<Integer> {
         return new ServerConfig(projectDir.toAbsolutePath(), mavenExecutable);
     }
 
+    /**
+     * Parse a size such as {@code 512k}, {@code 64m} or {@code 1g} (bytes without a suffix).
+     */
+    static long parseSize(String size) {
+        String s = size.trim().toLowerCase(Locale.ROOT);
+        long unit = switch (s.isEmpty() ? ' ' : s.charAt(s.length() - 1)) {
+            case 'k' -> 1024L;
+            case 'm' -> 1024L * 1024;
+            case 'g' -> 1024L * 1024 * 1024;
+            default -> 1L;
+        };
+        try {
+            long value = Long.parseLong(unit == 1 ? s : s.substring(0, s.length() - 1));
+            if (value <= 0) {
+                throw new NumberFormatException();
+            }
+            return value * unit;
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid size: " + size + " (expected e.g. 64m or 1g)");
+        }
+    }
+
+    /**
+     * Per-project directory under the user cache, so that archived logs, dependency
+     * trees, flaky test rates and build durations survive both server restarts and
+     * {@code mvn clean}.
+     *
+     * @param kind what is kept there, e.g. "logs"
+     */
+    static Path cacheDirectory(Path projectDir, String kind) {
+        Path absolute = projectDir.toAbsolutePath().normalize();
+        String name = absolute.getFileName() + "-" + Integer.toHexString(absolute.toString().hashCode());
+        return Path.of(System.getProperty("user.home"), ".cache", "maven-mcp", kind, name);
+    }
+
     public ServerConfig getConfig() {
         return config;
     }
 
-    public MavenRunner getMavenRunner() {
-        return mavenRunner;
+    public Workspace getWorkspace() {
+        return workspace;
     }
 
     public static void main(String[] args) {
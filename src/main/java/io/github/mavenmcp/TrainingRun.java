@@ -0,0 +1,137 @@
+package io.github.mavenmcp;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.config.ServerConfig;
+import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
+import io.modelcontextprotocol.server.McpSyncServer;
+import io.modelcontextprotocol.server.transport.StdioServerTransportProvider;
+import picocli.CommandLine;
+
+/**
+ * Workload for the build's training run, which records the classes a server loads into
+ * a startup archive (AppCDS, or the AOT cache on JDKs that have one).
+ * <p>
+ * Goes through the same steps as a real session, in-process: command-line parsing, the
+ * server on a stdio transport over pipes, the MCP handshake, and compile and test calls
+ * against a throwaway project whose {@code mvnw} prints a compiler error and writes a
+ * Surefire report. Not meant to be run by users.
+ */
+public final class TrainingRun {
+
+    private static final String MVNW = """
+            #!/bin/sh
+            dir="$(cd "$(dirname "$0")" && pwd)"
+            if [ "$1" = "test" ]; then
+              mkdir -p "$dir/target/surefire-reports"
+              cat > "$dir/target/surefire-reports/TEST-com.example.AppTest.xml" <<'EOF'
+            <?xml version="1.0" encoding="UTF-8"?>
+            <testsuite name="com.example.AppTest" time="0.1" tests="2" errors="0" skipped="0" failures="1">
+              <testcase name="passes" classname="com.example.AppTest" time="0.01"/>
+              <testcase name="fails" classname="com.example.AppTest" time="0.02">
+                <failure message="expected: &lt;1&gt; but was: &lt;2&gt;" type="org.opentest4j.AssertionFailedError">org.opentest4j.AssertionFailedError: expected: &lt;1&gt; but was: &lt;2&gt;
+            	at org.junit.jupiter.api.AssertionUtils.fail(AssertionUtils.java:38)
+            	at com.example.AppTest.fails(AppTest.java:12)
+            </failure>
+              </testcase>
+            </testsuite>
+            EOF
+              echo "[ERROR] Tests run: 2, Failures: 1, Errors: 0, Skipped: 0"
+              echo "[INFO] BUILD FAILURE"
+              exit 1
+            fi
+            echo "[INFO] --- maven-compiler-plugin:3.13.0:compile (default-compile) @ app ---"
+            echo "[ERROR] $dir/src/main/java/com/example/App.java:[3,9] cannot find symbol"
+            echo "[INFO] BUILD FAILURE"
+            exit 1
+            """;
+
+    private TrainingRun() {
+    }
+
+    /**
+     * @param args optional work directory for the throwaway project, default a temporary one,
+     *             and the file to record this JVM in, which Bootstrap only relaunches with
+     */
+    public static void main(String[] args) throws Exception {
+        Path project = args.length > 0
+                ? Files.createDirectories(Path.of(args[0], "project"))
+                : Files.createTempDirectory("maven-mcp-training");
+        Files.writeString(project.resolve("pom.xml"), "<project/>\n");
+        Path mvnw = project.resolve("mvnw");
+        Files.writeString(mvnw, MVNW);
+        if (Files.getFileStore(mvnw).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            Files.setPosixFilePermissions(mvnw, PosixFilePermissions.fromString("rwxr-xr-x"));
+        } else if (!mvnw.toFile().setExecutable(true)) {
+            // The calls then fail to start Maven, which still trains the error paths
+            System.err.println("Cannot make " + mvnw + " executable");
+        }
+        if (args.length > 1) {
+            Files.writeString(Path.of(args[1]), jvm() + "\n");
+        }
+
+        MavenMcpServer command = new MavenMcpServer();
+        new CommandLine(command).parseArgs("--project", project.toString());
+
+        var clientOut = new PipedOutputStream();
+        var serverIn = new PipedInputStream(clientOut, 64 * 1024);
+        var serverOut = new PipedOutputStream();
+        var clientIn = new PipedInputStream(serverOut, 1024 * 1024);
+        McpSyncServer server = command.start(new ServerConfig(project, mvnw),
+                new StdioServerTransportProvider(new JacksonMcpJsonMapper(new ObjectMapper()), serverIn, serverOut));
+
+        try (var responses = new BufferedReader(new InputStreamReader(clientIn, StandardCharsets.UTF_8))) {
+            request(clientOut, responses, 1, "initialize", """
+                    {"protocolVersion":"2024-11-05","capabilities":{},"clientInfo":{"name":"training","version":"1"}}""");
+            send(clientOut, """
+                    {"jsonrpc":"2.0","method":"notifications/initialized"}""");
+            request(clientOut, responses, 2, "tools/list", "{}");
+            request(clientOut, responses, 3, "resources/templates/list", "{}");
+            request(clientOut, responses, 4, "tools/call", """
+                    {"name":"maven_compile","arguments":{"includeTimings":true}}""");
+            request(clientOut, responses, 5, "tools/call", """
+                    {"name":"maven_test","arguments":{}}""");
+            request(clientOut, responses, 6, "tools/call", """
+                    {"name":"maven_server_stats","arguments":{}}""");
+        }
+        server.closeGracefully();
+        System.exit(0);
+    }
+
+    /**
+     * This JVM the way {@code Bootstrap.jvm()} describes it, which compares the two.
+     */
+    static String jvm() {
+        return System.getProperty("java.vm.vendor") + " " + System.getProperty("java.vm.version") + " "
+                + System.getProperty("os.arch");
+    }
+
+    private static void request(OutputStream out, BufferedReader in, int id, String method, String params)
+            throws IOException {
+        send(out, "{\"jsonrpc\":\"2.0\",\"id\":" + id + ",\"method\":\"" + method + "\",\"params\":" + params + "}");
+        String marker = "\"id\":" + id + ",";
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.contains(marker)) {
+                return;
+            }
+        }
+        throw new IOException("Server closed the connection before answering " + method);
+    }
+
+    private static void send(OutputStream out, String message) throws IOException {
+        out.write((message + "\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+}
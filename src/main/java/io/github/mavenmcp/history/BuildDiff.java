@@ -0,0 +1,130 @@
+package io.github.mavenmcp.history;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.mavenmcp.history.BuildHistory.Snapshot;
+import io.github.mavenmcp.model.BuildDelta;
+import io.github.mavenmcp.model.CompilationError;
+import io.github.mavenmcp.model.TestFailure;
+
+/**
+ * Computes the difference between a recorded build and the current one using hashed
+ * entry identities.
+ * <p>
+ * A compilation error is identified by severity, file and message; the line number is
+ * deliberately left out because fixes above an error shift it. A test failure is
+ * identified by test class, method and exception type. Identities are compared as
+ * multisets, so duplicated errors are matched one by one.
+ */
+public final class BuildDiff {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private BuildDiff() {
+    }
+
+    /**
+     * Compare the current errors and failures against a recorded snapshot.
+     *
+     * @param since    build ID of the snapshot
+     * @param previous the recorded snapshot
+     * @param errors   current compilation errors, null if not applicable
+     * @param failures current test failures, null if not applicable
+     * @return the delta; lists for a kind are null unless both builds reported that kind
+     */
+    public static BuildDelta diff(String since, Snapshot previous,
+                                  List<CompilationError> errors, List<TestFailure> failures) {
+        List<CompilationError> newErrors = null;
+        List<CompilationError> resolvedErrors = null;
+        Integer unchangedErrors = null;
+        if (errors != null && previous.errors() != null) {
+            long[] currentIds = errorIds(errors);
+            newErrors = added(errors, currentIds, previous.errorIds());
+            resolvedErrors = added(previous.errors(), previous.errorIds(), currentIds);
+            unchangedErrors = errors.size() - newErrors.size();
+        }
+
+        List<TestFailure> newFailures = null;
+        List<TestFailure> resolvedFailures = null;
+        Integer unchangedFailures = null;
+        if (failures != null && previous.failures() != null) {
+            long[] currentIds = failureIds(failures);
+            newFailures = added(failures, currentIds, previous.failureIds());
+            resolvedFailures = added(previous.failures(), previous.failureIds(), currentIds);
+            unchangedFailures = failures.size() - newFailures.size();
+        }
+
+        return new BuildDelta(since, newErrors, resolvedErrors, unchangedErrors,
+                newFailures, resolvedFailures, unchangedFailures);
+    }
+
+    /**
+     * Entries whose identity occurs more often in {@code ids} than in {@code baseline}.
+     */
+    private static <T> List<T> added(List<T> entries, long[] ids, long[] baseline) {
+        Map<Long, Integer> remaining = new HashMap<>(baseline.length * 2);
+        for (long id : baseline) {
+            remaining.merge(id, 1, Integer::sum);
+        }
+        List<T> result = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            Integer count = remaining.get(ids[i]);
+            if (count == null || count == 0) {
+                result.add(entries.get(i));
+            } else {
+                remaining.put(ids[i], count - 1);
+            }
+        }
+        return result;
+    }
+
+    static long[] errorIds(List<CompilationError> errors) {
+        long[] ids = new long[errors.size()];
+        for (int i = 0; i < ids.length; i++) {
+            CompilationError e = errors.get(i);
+            ids[i] = hash(e.severity(), e.file(), e.message());
+        }
+        return ids;
+    }
+
+    static long[] failureIds(List<TestFailure> failures) {
+        long[] ids = new long[failures.size()];
+        for (int i = 0; i < ids.length; i++) {
+            TestFailure f = failures.get(i);
+            ids[i] = hash(f.testClass(), f.testMethod(), exceptionType(f.stackTrace()));
+        }
+        return ids;
+    }
+
+    private static String exceptionType(String stackTrace) {
+        if (stackTrace == null || stackTrace.isBlank()) {
+            return null;
+        }
+        String header = stackTrace.strip().lines().findFirst().orElse("");
+        int colon = header.indexOf(':');
+        return colon < 0 ? header : header.substring(0, colon);
+    }
+
+    /**
+     * 64-bit FNV-1a over the given parts, separated so that ("ab","c") != ("a","bc").
+     */
+    private static long hash(String... parts) {
+        long h = FNV_OFFSET;
+        for (String part : parts) {
+            if (part != null) {
+                for (byte b : part.getBytes(StandardCharsets.UTF_8)) {
+                    h ^= b & 0xff;
+                    h *= FNV_PRIME;
+                }
+            }
+            h ^= 0x1f;
+            h *= FNV_PRIME;
+        }
+        return h;
+    }
+}
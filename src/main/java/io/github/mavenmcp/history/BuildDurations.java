@@ -0,0 +1,262 @@
+package io.github.mavenmcp.history;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+
+import io.github.mavenmcp.model.DurationPrediction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Recent durations of each kind of build, and the timeout they suggest for the next one.
+ * <p>
+ * Builds are told apart by their invocation: the goals (so {@code clean} too), offline or
+ * not, the test selection ({@code -Dtest}, skipped tests), the module scope ({@code -pl},
+ * {@code -am}, ...), profiles and threads; other arguments rarely change how long a build
+ * takes. A build is allowed {@link #FACTOR} times the slowest of its invocation's last
+ * {@link #SAMPLES} durations, at least {@link #MIN_TIMEOUT} and at most the maximum, once
+ * there are {@link #MIN_TIMEOUT_SAMPLES} of them. An invocation without enough history of
+ * its own takes the timeout of the wider one without the test selection, then without the
+ * module scope, since running fewer tests or modules does not take longer; failing that,
+ * the maximum applies. A cold build, after the POMs changed or without build output, is
+ * allowed the maximum regardless: it may resolve dependencies and compile everything,
+ * which none of the recent durations did. A killed build counts at its timeout, so that a
+ * build that really got slower is allowed {@link #FACTOR} times as long next time.
+ * <p>
+ * Kept in a properties file that survives server restarts and {@code mvn clean}, or only
+ * in memory without a directory.
+ */
+public final class BuildDurations {
+
+    private static final Logger log = LoggerFactory.getLogger(BuildDurations.class);
+
+    public static final Duration DEFAULT_MAX_TIMEOUT = Duration.ofMinutes(60);
+    static final Duration MIN_TIMEOUT = Duration.ofMinutes(10);
+    static final double FACTOR = 3.0;
+    static final int SAMPLES = 20;
+    /** Durations an invocation needs before its median is expected. */
+    static final int MIN_SAMPLES = 3;
+    /** Durations an invocation needs before they shorten its timeout. */
+    static final int MIN_TIMEOUT_SAMPLES = 5;
+    static final String FILE_NAME = "durations.properties";
+    /** Invocations kept, the least recently run ones dropped first. */
+    static final int MAX_INVOCATIONS = 500;
+
+    private static final List<String> TEST_SELECTION = List.of(
+            "-Dtest=", "-Dit.test=", "-DskipTests", "-Dmaven.test.skip", "-DskipITs", "-Dgroups=",
+            "-DexcludedGroups=");
+    private static final List<String> MODULE_SCOPE = List.of(
+            "-pl", "--projects", "-am", "--also-make", "-amd", "--also-make-dependents", "-rf", "--resume-from");
+    private static final List<String> OFFLINE = List.of("-o", "--offline");
+    private static final List<String> WITH_VALUE = List.of(
+            "-pl", "--projects", "-rf", "--resume-from", "-P", "--activate-profiles", "-T", "--threads");
+
+    /**
+     * @param durations last durations in milliseconds, oldest first
+     * @param lastRun   when the invocation last ran, epoch milliseconds
+     */
+    private record Entry(List<Long> durations, long lastRun) {
+    }
+
+    private final Path file;
+    private final Duration maxTimeout;
+    private Map<String, Entry> invocations;
+    private String pomFingerprint;
+
+    /**
+     * @param directory  directory for the properties file, or null to keep durations in memory
+     * @param maxTimeout timeout of builds without history, and the most any build is allowed
+     */
+    public BuildDurations(Path directory, Duration maxTimeout) {
+        this.file = directory == null ? null : directory.resolve(FILE_NAME);
+        this.maxTimeout = maxTimeout;
+    }
+
+    /**
+     * The invocation a build counts as, e.g. {@code test -Dtest=FooTest -o -pl core}.
+     *
+     * @param goal Maven goal, or several separated by spaces
+     * @param args arguments of the build
+     */
+    public static String invocation(String goal, List<String> args) {
+        TreeSet<String> kept = new TreeSet<>();
+        for (int i = 0; i < args.size(); i++) {
+            String arg = args.get(i);
+            if (OFFLINE.contains(arg)) {
+                kept.add("-o");
+            } else if (WITH_VALUE.contains(arg) && i + 1 < args.size()) {
+                kept.add(arg + " " + args.get(++i));
+            } else if (MODULE_SCOPE.contains(arg) || startsWithAny(arg, TEST_SELECTION)
+                    || startsWithAny(arg, List.of("-P", "-T")) && arg.length() > 2) {
+                kept.add(arg);
+            }
+        }
+        String goals = String.join(" ", goal.trim().split("\\s+"));
+        return kept.isEmpty() ? goals : goals + " " + String.join(" ", kept);
+    }
+
+    /**
+     * Predict the duration of a build and the timeout to run it with.
+     */
+    public DurationPrediction predict(String goal, List<String> args) {
+        return predict(goal, args, false);
+    }
+
+    /**
+     * Predict the duration of a build and the timeout to run it with.
+     *
+     * @param cold whether the build may resolve dependencies or compile everything, and so
+     *             gets the maximum whatever its history
+     */
+    public synchronized DurationPrediction predict(String goal, List<String> args, boolean cold) {
+        String invocation = invocation(goal, args);
+        Entry own = invocations().get(invocation);
+        Long expected = own != null && own.durations().size() >= MIN_SAMPLES ? median(own.durations()) : null;
+        if (cold) {
+            return new DurationPrediction(expected, maxTimeout.toMillis(), 0, null);
+        }
+        for (String basis : List.of(invocation, widen(invocation, TEST_SELECTION),
+                widen(widen(invocation, TEST_SELECTION), MODULE_SCOPE))) {
+            Entry entry = invocations().get(basis);
+            if (entry != null && entry.durations().size() >= MIN_TIMEOUT_SAMPLES) {
+                long slowest = entry.durations().stream().mapToLong(Long::longValue).max().orElseThrow();
+                long timeout = Math.min(maxTimeout.toMillis(),
+                        Math.max(MIN_TIMEOUT.toMillis(), (long) (slowest * FACTOR)));
+                return new DurationPrediction(expected, timeout, entry.durations().size(), basis);
+            }
+        }
+        return new DurationPrediction(expected, maxTimeout.toMillis(), 0, null);
+    }
+
+    /**
+     * Whether the POMs changed since the last build this was asked about, which then
+     * runs cold. The first build after a start is not taken for one.
+     *
+     * @param fingerprint fingerprint of the project's POMs now
+     */
+    public synchronized boolean pomsChanged(String fingerprint) {
+        boolean changed = pomFingerprint != null && !pomFingerprint.equals(fingerprint);
+        pomFingerprint = fingerprint;
+        return changed;
+    }
+
+    /**
+     * @return timeout of builds without history, and the most any build is allowed
+     */
+    public Duration maxTimeout() {
+        return maxTimeout;
+    }
+
+    /**
+     * Record the duration of a finished build, or the timeout of a killed one.
+     */
+    public synchronized void record(String goal, List<String> args, long millis) {
+        Map<String, Entry> current = invocations();
+        String invocation = invocation(goal, args);
+        List<Long> durations = new ArrayList<>(current.getOrDefault(invocation, new Entry(List.of(), 0)).durations());
+        durations.add(millis);
+        if (durations.size() > SAMPLES) {
+            durations.subList(0, durations.size() - SAMPLES).clear();
+        }
+        current.put(invocation, new Entry(List.copyOf(durations), System.currentTimeMillis()));
+        if (current.size() > MAX_INVOCATIONS) {
+            current.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().lastRun()))
+                    .limit(current.size() - MAX_INVOCATIONS)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(current::remove);
+        }
+        write(current);
+    }
+
+    /**
+     * The invocation without the given kind of arguments.
+     */
+    private static String widen(String invocation, List<String> kind) {
+        String[] parts = invocation.split(" ");
+        List<String> kept = new ArrayList<>();
+        for (int i = 0; i < parts.length; i++) {
+            if (WITH_VALUE.contains(parts[i]) && kind.contains(parts[i])) {
+                i++;
+            } else if (!kind.contains(parts[i]) && !startsWithAny(parts[i], kind)) {
+                kept.add(parts[i]);
+            }
+        }
+        return String.join(" ", kept);
+    }
+
+    private static boolean startsWithAny(String arg, List<String> prefixes) {
+        return prefixes.stream().anyMatch(arg::startsWith);
+    }
+
+    private static long median(List<Long> durations) {
+        long[] sorted = durations.stream().mapToLong(Long::longValue).sorted().toArray();
+        return sorted[(sorted.length - 1) / 2];
+    }
+
+    private Map<String, Entry> invocations() {
+        if (invocations == null) {
+            invocations = read();
+        }
+        return invocations;
+    }
+
+    private Map<String, Entry> read() {
+        Map<String, Entry> read = new HashMap<>();
+        if (file == null || !Files.isRegularFile(file)) {
+            return read;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException | IllegalArgumentException e) {
+            log.debug("Ignoring unreadable build durations {}: {}", file, e.getMessage());
+            return read;
+        }
+        for (String invocation : properties.stringPropertyNames()) {
+            String[] parts = properties.getProperty(invocation).split(";");
+            try {
+                List<Long> durations = Arrays.stream(parts[1].split(",")).map(Long::parseLong).toList();
+                read.put(invocation, new Entry(durations, Long.parseLong(parts[0])));
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                log.debug("Ignoring malformed build durations of {}", invocation);
+            }
+        }
+        return read;
+    }
+
+    private void write(Map<String, Entry> current) {
+        if (file == null) {
+            return;
+        }
+        Properties properties = new Properties();
+        current.forEach((invocation, entry) -> properties.setProperty(invocation, entry.lastRun() + ";"
+                + String.join(",", entry.durations().stream().map(String::valueOf).toList())));
+        try {
+            Files.createDirectories(file.getParent());
+            // Write aside and move, so that another server never reads half a file
+            Path temp = Files.createTempFile(file.getParent(), "durations", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                properties.store(writer, "invocation=last run;durations in ms; kept by maven-mcp");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.debug("Cannot write build durations {}: {}", file, e.getMessage());
+        }
+    }
+}
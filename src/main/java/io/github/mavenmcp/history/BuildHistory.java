@@ -0,0 +1,177 @@
+package io.github.mavenmcp.history;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.github.mavenmcp.model.CompilationError;
+import io.github.mavenmcp.model.TestFailure;
+import io.github.mavenmcp.model.TestSummary;
+
+/**
+ * Bounded in-memory store of recent build outcomes, keyed by the build ID returned
+ * to the client. Used to answer delta requests ({@code since}) in iterative fix loops.
+ * <p>
+ * Only identities and compact entries are kept: failures are stored without stack
+ * traces and test output.
+ * <p>
+ * It also remembers the last complete test run that passed, with the fingerprint of the
+ * sources it ran against, so that packaging the same sources need not run the tests again.
+ */
+public class BuildHistory {
+
+    public static final int DEFAULT_CAPACITY = 32;
+
+    private final Map<String, Snapshot> snapshots;
+    private final String prefix = Long.toString(System.currentTimeMillis() / 1000, 36);
+    private final AtomicLong counter = new AtomicLong();
+    private volatile Verified verified;
+
+    public BuildHistory() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public BuildHistory(int capacity) {
+        this.snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Snapshot> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Record a build outcome.
+     *
+     * @param errors   compilation errors, null if the build did not report any
+     * @param failures test failures, null if the build did not run tests
+     * @return the new build ID
+     */
+    public String record(List<CompilationError> errors, List<TestFailure> failures) {
+        return record(null, errors, failures);
+    }
+
+    /**
+     * Record a build outcome under a caller-supplied ID, such as the run ID of its
+     * spooled log, so that one ID addresses both.
+     *
+     * @param buildId  ID to record under, or null to allocate one
+     * @param errors   compilation errors, null if the build did not report any
+     * @param failures test failures, null if the build did not run tests
+     * @return the build ID
+     */
+    public String record(String buildId, List<CompilationError> errors, List<TestFailure> failures) {
+        if (buildId == null) {
+            buildId = nextBuildId();
+        }
+        Snapshot snapshot = Snapshot.of(errors, failures);
+        synchronized (snapshots) {
+            snapshots.put(buildId, snapshot);
+        }
+        return buildId;
+    }
+
+    /**
+     * Look up a previously recorded build.
+     *
+     * @param buildId build ID returned by {@link #record}, may be null
+     * @return the snapshot, or empty if unknown or already evicted
+     */
+    public Optional<Snapshot> find(String buildId) {
+        if (buildId == null) {
+            return Optional.empty();
+        }
+        synchronized (snapshots) {
+            return Optional.ofNullable(snapshots.get(buildId));
+        }
+    }
+
+    /**
+     * Remember a test run that ran all tests and passed.
+     *
+     * @param buildId     build ID of the run
+     * @param fingerprint fingerprint of the sources and arguments it ran with
+     * @param summary     its test summary
+     */
+    public void recordVerified(String buildId, String fingerprint, TestSummary summary) {
+        verified = new Verified(buildId, fingerprint, summary);
+    }
+
+    /**
+     * @param fingerprint fingerprint of the sources and arguments of a build about to run
+     * @return the last passing complete test run, if it ran with that fingerprint
+     */
+    public Optional<Verified> findVerified(String fingerprint) {
+        Verified current = verified;
+        return current != null && current.fingerprint().equals(fingerprint) ? Optional.of(current) : Optional.empty();
+    }
+
+    /**
+     * Approximate heap held by the recorded snapshots.
+     */
+    public long estimatedBytes() {
+        synchronized (snapshots) {
+            long bytes = 0;
+            for (Snapshot snapshot : snapshots.values()) {
+                bytes += snapshot.estimatedBytes();
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * Allocate a new build ID, distinct in form from spooled log run IDs.
+     */
+    private String nextBuildId() {
+        return prefix + "-b" + counter.incrementAndGet();
+    }
+
+    /**
+     * A passing complete test run.
+     *
+     * @param buildId     its build ID
+     * @param fingerprint fingerprint of the sources and arguments it ran with
+     * @param summary     its test summary
+     */
+    public record Verified(String buildId, String fingerprint, TestSummary summary) {
+    }
+
+    /**
+     * Compact view of a recorded build with precomputed entry identities.
+     */
+    public record Snapshot(List<CompilationError> errors, long[] errorIds,
+                           List<TestFailure> failures, long[] failureIds) {
+
+        static Snapshot of(List<CompilationError> errors, List<TestFailure> failures) {
+            List<TestFailure> compactFailures = failures == null ? null : failures.stream()
+                    .map(f -> new TestFailure(f.testClass(), f.testMethod(), f.message(), null, null))
+                    .toList();
+            return new Snapshot(
+                    errors == null ? null : List.copyOf(errors),
+                    errors == null ? null : BuildDiff.errorIds(errors),
+                    compactFailures,
+                    failures == null ? null : BuildDiff.failureIds(failures));
+        }
+
+        long estimatedBytes() {
+            long bytes = 64;
+            if (errors != null) {
+                for (CompilationError e : errors) {
+                    bytes += 64 + 2L * (length(e.file()) + length(e.message()));
+                }
+            }
+            if (failures != null) {
+                for (TestFailure f : failures) {
+                    bytes += 64 + 2L * (length(f.testClass()) + length(f.testMethod()) + length(f.message()));
+                }
+            }
+            return bytes;
+        }
+
+        private static int length(String s) {
+            return s == null ? 0 : s.length();
+        }
+    }
+}
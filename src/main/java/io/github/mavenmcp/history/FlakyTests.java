@@ -0,0 +1,157 @@
+package io.github.mavenmcp.history;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import io.github.mavenmcp.model.TestFailure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * How often each test's failures turned out to be noise: per test, the number of failures
+ * that were rerun in isolation and how many of them passed. Kept in a properties file that
+ * survives server restarts and {@code mvn clean}, or only in memory without a directory.
+ * <p>
+ * A test's flakiness is the share of its rerun failures that passed; a test that never
+ * passed on a rerun is not flaky, however often it failed.
+ */
+public final class FlakyTests {
+
+    private static final Logger log = LoggerFactory.getLogger(FlakyTests.class);
+
+    static final String FILE_NAME = "flaky-tests.properties";
+    /** Tests kept, the least recently rerun ones dropped first. */
+    static final int MAX_TESTS = 2000;
+
+    /**
+     * @param failures rerun failures
+     * @param flakes   those that passed on the rerun
+     * @param lastRun  when the test was last rerun, epoch milliseconds
+     */
+    private record Entry(int failures, int flakes, long lastRun) {
+    }
+
+    private final Path file;
+    private Map<String, Entry> tests;
+
+    /**
+     * @param directory directory for the properties file, or null to keep the rates in memory
+     */
+    public FlakyTests(Path directory) {
+        this.file = directory == null ? null : directory.resolve(FILE_NAME);
+    }
+
+    /**
+     * @return the ID a test is recorded under, {@code Class#method}
+     */
+    public static String id(TestFailure failure) {
+        return failure.testClass() + "#" + failure.testMethod();
+    }
+
+    /**
+     * Record the outcome of rerunning failed tests.
+     *
+     * @param outcomes per test ID, whether the test passed on its rerun
+     */
+    public synchronized void record(Map<String, Boolean> outcomes) {
+        if (outcomes.isEmpty()) {
+            return;
+        }
+        Map<String, Entry> current = tests();
+        long now = System.currentTimeMillis();
+        outcomes.forEach((id, passed) -> {
+            Entry entry = current.getOrDefault(id, new Entry(0, 0, 0));
+            current.put(id, new Entry(entry.failures() + 1, entry.flakes() + (passed ? 1 : 0), now));
+        });
+        if (current.size() > MAX_TESTS) {
+            current.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().lastRun()))
+                    .limit(current.size() - MAX_TESTS)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(current::remove);
+        }
+        write(current);
+    }
+
+    /**
+     * @return share of the test's rerun failures that passed, null if none did
+     */
+    public synchronized Double flakiness(String testId) {
+        Entry entry = tests().get(testId);
+        return entry == null || entry.flakes() == 0 ? null : (double) entry.flakes() / entry.failures();
+    }
+
+    /**
+     * @return the failures, the known-flaky ones with their flakiness
+     */
+    public List<TestFailure> mark(List<TestFailure> failures) {
+        return failures.stream()
+                .map(f -> {
+                    Double flakiness = flakiness(id(f));
+                    return flakiness == null ? f : f.withFlakiness(flakiness);
+                })
+                .toList();
+    }
+
+    private Map<String, Entry> tests() {
+        if (tests == null) {
+            tests = read();
+        }
+        return tests;
+    }
+
+    private Map<String, Entry> read() {
+        Map<String, Entry> read = new HashMap<>();
+        if (file == null || !Files.isRegularFile(file)) {
+            return read;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException | IllegalArgumentException e) {
+            log.debug("Ignoring unreadable flaky test record {}: {}", file, e.getMessage());
+            return read;
+        }
+        for (String id : properties.stringPropertyNames()) {
+            String[] counts = properties.getProperty(id).split(",");
+            try {
+                read.put(id, new Entry(Integer.parseInt(counts[0]), Integer.parseInt(counts[1]),
+                        Long.parseLong(counts[2])));
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                log.debug("Ignoring malformed flaky test entry {}", id);
+            }
+        }
+        return read;
+    }
+
+    private void write(Map<String, Entry> current) {
+        if (file == null) {
+            return;
+        }
+        Properties properties = new Properties();
+        current.forEach((id, entry) -> properties.setProperty(id,
+                entry.failures() + "," + entry.flakes() + "," + entry.lastRun()));
+        try {
+            Files.createDirectories(file.getParent());
+            // Write aside and move, so that another server never reads half a file
+            Path temp = Files.createTempFile(file.getParent(), "flaky", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                properties.store(writer, "test=rerun failures,passed on rerun,last rerun; kept by maven-mcp");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.debug("Cannot write flaky test record {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.mavenmcp.history;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+import io.github.mavenmcp.model.ProjectModel;
+
+/**
+ * Fingerprint of what a build's outcome depends on: every file of the project tree, by
+ * path, modification time and size, and the Maven arguments that may change the build.
+ * <p>
+ * Build directories, dot directories (except {@code .mvn}) and {@code node_modules} are
+ * left out; they hold outputs and tool state, not inputs. Arguments that only change how
+ * Maven runs ({@code -o}, {@code -U}, {@code -T}, {@code -B}, {@code -q}) are ignored.
+ */
+public final class SourceFingerprint {
+
+    private static final Set<String> NEUTRAL_ARGS = Set.of(
+            "-o", "--offline", "-U", "--update-snapshots", "-B", "--batch-mode", "-q", "--quiet");
+
+    private SourceFingerprint() {
+    }
+
+    /**
+     * @param projectDir project directory
+     * @param model      the project's modules, for their build directories
+     * @param args       Maven arguments of the build
+     * @return hex-encoded SHA-256 of the tree and arguments
+     */
+    public static String of(Path projectDir, ProjectModel model, List<String> args) {
+        Set<Path> buildDirectories = new HashSet<>();
+        for (ProjectModel.Module module : model.modules()) {
+            buildDirectories.add(projectDir.resolve(module.buildDirectory()).normalize());
+        }
+        if (buildDirectories.isEmpty()) {
+            buildDirectories.add(projectDir.resolve("target").normalize());
+        }
+        MessageDigest digest = sha256();
+        List<String> entries = new ArrayList<>();
+        try {
+            Files.walkFileTree(projectDir, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    String name = dir.getFileName() == null ? "" : dir.getFileName().toString();
+                    boolean skipped = !dir.equals(projectDir) && (buildDirectories.contains(dir.normalize())
+                            || name.startsWith(".") && !name.equals(".mvn") || name.equals("node_modules"));
+                    return skipped ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    entries.add(projectDir.relativize(file) + ":" + attrs.lastModifiedTime().toMillis()
+                            + ":" + attrs.size());
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    entries.add(projectDir.relativize(file) + ":-");
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // The walk order depends on the file system
+        entries.sort(null);
+        entries.forEach(entry -> digest.update((entry + "\n").getBytes(StandardCharsets.UTF_8)));
+        boolean threadsValue = false;
+        for (String arg : args == null ? List.<String>of() : args) {
+            boolean neutral = threadsValue || NEUTRAL_ARGS.contains(arg) || arg.startsWith("-T")
+                    || arg.startsWith("--threads");
+            threadsValue = arg.equals("-T") || arg.equals("--threads");
+            if (!neutral) {
+                digest.update(("arg:" + arg + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
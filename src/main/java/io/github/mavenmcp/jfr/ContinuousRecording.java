@@ -0,0 +1,48 @@
+package io.github.mavenmcp.jfr;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * Continuous JFR recording with the JDK's low-overhead "default" settings plus the
+ * Maven MCP events, dumped to a file when the JVM exits.
+ */
+public final class ContinuousRecording {
+
+    /** How much history the recording keeps on disk before the oldest chunks are dropped. */
+    public static final Duration MAX_AGE = Duration.ofHours(1);
+
+    private ContinuousRecording() {
+    }
+
+    /**
+     * Start the recording.
+     *
+     * @param dumpPath file the recording is written to on JVM exit
+     * @return the running recording
+     * @throws IllegalStateException if the recording cannot be started
+     */
+    public static Recording start(Path dumpPath) {
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration("default"));
+            recording.setName("maven-mcp");
+            recording.setToDisk(true);
+            recording.setMaxAge(MAX_AGE);
+            recording.setDumpOnExit(true);
+            recording.setDestination(dumpPath.toAbsolutePath());
+            recording.enable(ToolInvocationEvent.class);
+            recording.enable(MavenProcessEvent.class);
+            recording.enable(ReportParsingEvent.class);
+            recording.enable(SerializationEvent.class);
+            recording.start();
+            return recording;
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Cannot start JFR recording: " + e.getMessage(), e);
+        }
+    }
+}
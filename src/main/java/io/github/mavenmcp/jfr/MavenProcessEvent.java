@@ -0,0 +1,55 @@
+package io.github.mavenmcp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event spanning the lifetime of a Maven child process.
+ */
+@Name("io.github.mavenmcp.MavenProcess")
+@Label("Maven Process")
+@Category("Maven MCP")
+@Description("A Maven child process, from spawn until its output has been read")
+@StackTrace(false)
+public class MavenProcessEvent extends Event {
+
+    @Label("PID")
+    public long pid;
+
+    @Label("Goal")
+    public String goal;
+
+    @Label("Arguments")
+    public String arguments;
+
+    @Label("Project Directory")
+    public String projectDir;
+
+    @Label("Exit Code")
+    @Description("Process exit code, -1 if the process could not be started or was interrupted")
+    public int exitCode;
+
+    @Label("Run ID")
+    @Description("ID of the spooled log, if any")
+    public String runId;
+
+    @Label("Peak RSS")
+    @Description("Peak resident memory of Maven and its child processes together")
+    @DataAmount
+    public long peakRss;
+
+    @Label("CPU Time")
+    @Description("CPU time of Maven and its child processes together")
+    @Timespan(Timespan.MILLISECONDS)
+    public long cpuTime;
+
+    @Label("Forked JVMs")
+    @Description("JVMs started by Maven, such as Surefire forks")
+    public int forkedJvms;
+}
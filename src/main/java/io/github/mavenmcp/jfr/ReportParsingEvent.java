@@ -0,0 +1,26 @@
+package io.github.mavenmcp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning the parsing of Maven output or Surefire reports.
+ */
+@Name("io.github.mavenmcp.ReportParsing")
+@Label("Report Parsing")
+@Category("Maven MCP")
+@Description("Parsing of compiler output or Surefire XML reports")
+@StackTrace(false)
+public class ReportParsingEvent extends Event {
+
+    @Label("Tool")
+    public String tool;
+
+    @Label("Kind")
+    @Description("What was parsed: parseOutput or parseReports")
+    public String kind;
+}
@@ -0,0 +1,25 @@
+package io.github.mavenmcp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning the JSON serialization of a tool response.
+ */
+@Name("io.github.mavenmcp.Serialization")
+@Label("Response Serialization")
+@Category("Maven MCP")
+@Description("JSON serialization of a tool response")
+@StackTrace(false)
+public class SerializationEvent extends Event {
+
+    @Label("Tool")
+    public String tool;
+
+    @Label("Characters")
+    public long characters;
+}
@@ -0,0 +1,22 @@
+package io.github.mavenmcp.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning one MCP tool call.
+ */
+@Name("io.github.mavenmcp.ToolInvocation")
+@Label("Tool Invocation")
+@Category("Maven MCP")
+@Description("An MCP tool call, from request to serialized response")
+@StackTrace(false)
+public class ToolInvocationEvent extends Event {
+
+    @Label("Tool")
+    public String tool;
+}
@@ -0,0 +1,536 @@
+package io.github.mavenmcp.log;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import io.github.mavenmcp.log.LogSpool.SpooledLog;
+import io.github.mavenmcp.model.LogMatch;
+import io.github.mavenmcp.model.LogSearchResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * On-disk archive of past build logs with an inverted index over their diagnostics.
+ * <p>
+ * Each run is stored as a gzip-compressed log plus a small plain-text file holding only
+ * its [ERROR] and [WARNING] lines. The diagnostics of all retained runs are indexed in
+ * memory by token, so searches never touch the compressed logs. The index is rebuilt
+ * from the diagnostics files on startup, when files a crashed server left half written
+ * are deleted.
+ * <p>
+ * Archiving and searching run on a single worker thread that owns the index, so
+ * compressing a finished run never delays the tool response that produced it and the
+ * index needs no locking.
+ */
+public class LogArchive implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(LogArchive.class);
+
+    public static final int DEFAULT_RETAINED_RUNS = 200;
+    public static final Duration DEFAULT_MAX_AGE = Duration.ofDays(30);
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
+
+    /** Diagnostics kept per run; the rest are still in the compressed log. */
+    static final int MAX_DIAGNOSTICS_PER_RUN = 5_000;
+
+    private static final String LOG_SUFFIX = ".log.gz";
+    private static final String DIAGNOSTICS_SUFFIX = ".diag";
+    private static final String TEMP_SUFFIX = ".tmp";
+    /** Age after which a file still being written is taken for the leftover of a crashed server. */
+    static final Duration STALE_TEMP_AGE = Duration.ofHours(1);
+    private static final int MIN_TOKEN_LENGTH = 2;
+    /** Rough heap cost of an index entry and of one posting, for {@link #estimatedBytes()}. */
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+    private static final int POSTING_BYTES = 8;
+
+    private final Path directory;
+    private final int retainedRuns;
+    private final Duration maxAge;
+    private final ExecutorService worker;
+    private final Map<String, ArchivedRun> runsById = new ConcurrentHashMap<>();
+
+    // Owned by the worker thread
+    private final Deque<ArchivedRun> runs = new ArrayDeque<>();
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private volatile long indexedBytes;
+
+    public LogArchive(Path directory, int retainedRuns, Duration maxAge) {
+        this.directory = directory;
+        this.retainedRuns = retainedRuns;
+        this.maxAge = maxAge;
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "maven-mcp-log-archive");
+            t.setDaemon(true);
+            return t;
+        });
+        worker.execute(this::load);
+    }
+
+    /**
+     * Archive a completed run asynchronously. The spool file is opened right away, so
+     * the run is archived even if the spool evicts it before the worker gets to it.
+     */
+    public void add(SpooledLog spooled) {
+        InputStream in;
+        try {
+            in = Files.newInputStream(spooled.file());
+        } catch (IOException e) {
+            log.warn("Failed to archive log of run {}: {}", spooled.runId(), e.getMessage());
+            return;
+        }
+        worker.execute(() -> {
+            try (in) {
+                archive(spooled, in);
+            } catch (IOException | UncheckedIOException e) {
+                log.warn("Failed to archive log of run {}: {}", spooled.runId(), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Find archived diagnostic lines containing every token of the query.
+     *
+     * @param query      free text; matched token-wise, case-insensitively
+     * @param severity   "ERROR" or "WARNING" to restrict matches, or null for both
+     * @param lastBuilds number of most recent archived builds to search
+     * @param limit      maximum number of matches to return
+     * @throws IllegalArgumentException if the query contains no searchable token
+     */
+    public LogSearchResult search(String query, String severity, int lastBuilds, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "Query must contain at least one word of " + MIN_TOKEN_LENGTH + " or more characters");
+        }
+        try {
+            return worker.submit(() -> doSearch(query, tokens, severity, lastBuilds, limit)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Log search interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Log search failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * @return the archived run, or empty if unknown or already expired
+     */
+    public Optional<ArchivedRun> find(String runId) {
+        return Optional.ofNullable(runsById.get(runId));
+    }
+
+    /**
+     * Read a range of lines from an archived log by streaming through its compressed file.
+     *
+     * @param fromLine first line, 1-based, inclusive
+     * @param toLine   last line, 1-based, inclusive
+     * @return the lines joined with '\n', or empty if the run is not archived
+     */
+    public Optional<String> readLines(String runId, int fromLine, int toLine) {
+        if (find(runId).isEmpty()) {
+            return Optional.empty();
+        }
+        try (BufferedReader reader = gzipReader(directory.resolve(runId + LOG_SUFFIX))) {
+            StringBuilder sb = new StringBuilder();
+            String line;
+            int number = 0;
+            while (number < toLine && (line = reader.readLine()) != null) {
+                number++;
+                if (number >= fromLine) {
+                    if (!sb.isEmpty()) {
+                        sb.append('\n');
+                    }
+                    sb.append(line);
+                }
+            }
+            return Optional.of(sb.toString());
+        } catch (IOException e) {
+            // Expired between the lookup and the read
+            log.debug("Failed to read archived log {}: {}", runId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Wait until all previously submitted archiving work has completed.
+     */
+    void awaitIdle() throws InterruptedException, ExecutionException {
+        worker.submit(() -> { }).get();
+    }
+
+    /**
+     * Approximate heap held by the in-memory search index; the logs themselves stay on disk.
+     */
+    public long estimatedBytes() {
+        return indexedBytes;
+    }
+
+    /**
+     * Stop the worker once it has archived the runs handed to it, so that their spool
+     * files may be deleted afterwards.
+     */
+    @Override
+    public void close() {
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(CLOSE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Log archive {} still busy after {}s, closing anyway", directory, CLOSE_TIMEOUT.toSeconds());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void load() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<ArchivedRun> loaded = new ArrayList<>();
+        Map<ArchivedRun, List<Entry>> loadedEntries = new HashMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    deleteIfStale(file);
+                } else if (name.endsWith(DIAGNOSTICS_SUFFIX)) {
+                    try {
+                        readDiagnostics(file, loaded, loadedEntries);
+                    } catch (IOException | RuntimeException e) {
+                        log.warn("Skipping unreadable log archive entry {}: {}", file, e.getMessage());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to load log archive from {}: {}", directory, e.getMessage());
+            return;
+        }
+        loaded.sort(Comparator.comparingLong(ArchivedRun::timestamp));
+        for (ArchivedRun run : loaded) {
+            register(run, loadedEntries.get(run));
+        }
+        enforceRetention();
+        log.info("Loaded {} archived build logs from {}", runs.size(), directory);
+    }
+
+    /**
+     * Delete a file left half written by an archiving that never finished. A recent one may
+     * still be written by another server sharing the directory, and is left alone.
+     */
+    private static void deleteIfStale(Path file) {
+        try {
+            long age = System.currentTimeMillis() - Files.getLastModifiedTime(file).toMillis();
+            if (age > STALE_TEMP_AGE.toMillis()) {
+                Files.deleteIfExists(file);
+                log.debug("Deleted stale log archive file {}", file);
+            }
+        } catch (IOException e) {
+            log.debug("Cannot delete stale log archive file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void archive(SpooledLog spooled, InputStream in) throws IOException {
+        Files.createDirectories(directory);
+        String runId = spooled.runId();
+        if (Files.exists(directory.resolve(runId + LOG_SUFFIX))) {
+            // Never replace another server's run of the same ID
+            throw new FileAlreadyExistsException(directory.resolve(runId + LOG_SUFFIX).toString());
+        }
+        Path logTmp = directory.resolve(runId + LOG_SUFFIX + TEMP_SUFFIX);
+        Path diagTmp = directory.resolve(runId + DIAGNOSTICS_SUFFIX + TEMP_SUFFIX);
+        long timestamp = System.currentTimeMillis();
+        ArchivedRun run = new ArchivedRun(runId, timestamp, spooled.lineCount(), spooled.size());
+        List<Entry> diagnostics = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(
+                     new GZIPOutputStream(Files.newOutputStream(logTmp, StandardOpenOption.CREATE_NEW,
+                             StandardOpenOption.WRITE), 64 * 1024), StandardCharsets.UTF_8))) {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                out.write(line);
+                out.write('\n');
+                Entry entry = diagnostic(run, number, line);
+                if (entry != null && diagnostics.size() < MAX_DIAGNOSTICS_PER_RUN) {
+                    diagnostics.add(entry);
+                }
+            }
+        }
+        try (Writer out = Files.newBufferedWriter(diagTmp, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            out.write("# " + timestamp + "\t" + run.lineCount() + "\t" + run.size() + "\n");
+            for (Entry e : diagnostics) {
+                out.write(e.line() + "\t" + e.severity() + "\t" + e.text() + "\n");
+            }
+        }
+        Files.move(logTmp, directory.resolve(runId + LOG_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+        Files.move(diagTmp, directory.resolve(runId + DIAGNOSTICS_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+
+        register(run, diagnostics);
+        enforceRetention();
+        log.debug("Archived run {} with {} diagnostics", runId, diagnostics.size());
+    }
+
+    private void readDiagnostics(Path file, List<ArchivedRun> loaded,
+                                 Map<ArchivedRun, List<Entry>> loadedEntries) throws IOException {
+        String name = file.getFileName().toString();
+        String runId = name.substring(0, name.length() - DIAGNOSTICS_SUFFIX.length());
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !header.startsWith("# ")) {
+                throw new IOException("missing header");
+            }
+            String[] h = header.substring(2).split("\t");
+            ArchivedRun run = new ArchivedRun(runId, Long.parseLong(h[0]), Integer.parseInt(h[1]), Long.parseLong(h[2]));
+            List<Entry> runEntries = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t", 3);
+                if (parts.length == 3) {
+                    runEntries.add(new Entry(run, Integer.parseInt(parts[0]), parts[1], parts[2]));
+                }
+            }
+            loaded.add(run);
+            loadedEntries.put(run, runEntries);
+        }
+    }
+
+    private void register(ArchivedRun run, List<Entry> runEntries) {
+        runs.addLast(run);
+        runsById.put(run.runId(), run);
+        for (Entry entry : runEntries) {
+            index(entry);
+        }
+    }
+
+    private void index(Entry entry) {
+        int id = entries.size();
+        entries.add(entry);
+        Set<String> tokens = new LinkedHashSet<>(tokenize(entry.text()));
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, k -> new Postings()).add(id);
+        }
+        indexedBytes += ENTRY_OVERHEAD_BYTES + 2L * entry.text().length() + (long) POSTING_BYTES * tokens.size();
+    }
+
+    /**
+     * Drop runs beyond the retention count or age, and compact the index once
+     * most of it refers to dropped runs.
+     */
+    private void enforceRetention() {
+        long cutoff = System.currentTimeMillis() - maxAge.toMillis();
+        Iterator<ArchivedRun> it = runs.iterator();
+        while (it.hasNext()) {
+            ArchivedRun run = it.next();
+            if (runs.size() <= retainedRuns && run.timestamp() >= cutoff) {
+                break;
+            }
+            it.remove();
+            runsById.remove(run.runId());
+            run.expired = true;
+            try {
+                Files.deleteIfExists(directory.resolve(run.runId() + LOG_SUFFIX));
+                Files.deleteIfExists(directory.resolve(run.runId() + DIAGNOSTICS_SUFFIX));
+            } catch (IOException e) {
+                log.debug("Failed to delete archived run {}: {}", run.runId(), e.getMessage());
+            }
+        }
+        List<Entry> live = entries.stream().filter(e -> !e.run().expired).toList();
+        if (live.size() < entries.size() / 2) {
+            entries.clear();
+            postings.clear();
+            indexedBytes = 0;
+            live.forEach(this::index);
+        }
+    }
+
+    private LogSearchResult doSearch(String query, List<String> tokens, String severity,
+                                     int lastBuilds, int limit) {
+        // The most recent runs, up to the requested count
+        Set<ArchivedRun> window = new HashSet<>();
+        Iterator<ArchivedRun> newestFirst = runs.descendingIterator();
+        while (window.size() < lastBuilds && newestFirst.hasNext()) {
+            window.add(newestFirst.next());
+        }
+
+        int[] ids = null;
+        for (String token : tokens) {
+            Postings p = postings.get(token);
+            if (p == null) {
+                return new LogSearchResult(query, window.size(), 0, 0, List.of());
+            }
+            ids = ids == null ? p.toArray() : intersect(ids, p);
+        }
+
+        List<LogMatch> matches = new ArrayList<>();
+        Set<ArchivedRun> matchingRuns = new HashSet<>();
+        int total = 0;
+        // Entry IDs grow with archive order, so walking backwards yields newest builds first
+        for (int i = ids.length - 1; i >= 0; i--) {
+            Entry e = entries.get(ids[i]);
+            if (!window.contains(e.run())) {
+                if (!e.run().expired) {
+                    break;
+                }
+                continue;
+            }
+            if (severity != null && !severity.equalsIgnoreCase(e.severity())) {
+                continue;
+            }
+            total++;
+            matchingRuns.add(e.run());
+            if (matches.size() < limit) {
+                matches.add(new LogMatch(e.run().runId(), e.run().timestamp(), e.line(), e.severity(), e.text()));
+            }
+        }
+        return new LogSearchResult(query, window.size(), matchingRuns.size(), total, matches);
+    }
+
+    private static int[] intersect(int[] sorted, Postings p) {
+        int[] result = new int[Math.min(sorted.length, p.size)];
+        int n = 0;
+        int j = 0;
+        for (int id : sorted) {
+            while (j < p.size && p.ids[j] < id) {
+                j++;
+            }
+            if (j < p.size && p.ids[j] == id) {
+                result[n++] = id;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static Entry diagnostic(ArchivedRun run, int number, String line) {
+        if (line.startsWith("[ERROR]")) {
+            return new Entry(run, number, "ERROR", line.substring("[ERROR]".length()).strip());
+        }
+        if (line.startsWith("[WARNING]")) {
+            return new Entry(run, number, "WARNING", line.substring("[WARNING]".length()).strip());
+        }
+        return null;
+    }
+
+    /**
+     * Split text into lower-case word tokens. Dots and other punctuation separate tokens,
+     * so "com.example.Foo" matches lines mentioning that class in any form.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length()
+                    && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_');
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                if (i - start >= MIN_TOKEN_LENGTH) {
+                    tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static BufferedReader gzipReader(Path file) throws IOException {
+        return new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file), 64 * 1024), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * An archived run.
+     */
+    public static final class ArchivedRun {
+        private final String runId;
+        private final long timestamp;
+        private final int lineCount;
+        private final long size;
+        private volatile boolean expired;
+
+        ArchivedRun(String runId, long timestamp, int lineCount, long size) {
+            this.runId = runId;
+            this.timestamp = timestamp;
+            this.lineCount = lineCount;
+            this.size = size;
+        }
+
+        public String runId() {
+            return runId;
+        }
+
+        public long timestamp() {
+            return timestamp;
+        }
+
+        public int lineCount() {
+            return lineCount;
+        }
+
+        public long size() {
+            return size;
+        }
+    }
+
+    private record Entry(ArchivedRun run, int line, String severity, String text) {
+    }
+
+    /**
+     * Ascending, growable list of entry IDs.
+     */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package io.github.mavenmcp.log;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Spools the complete output of each Maven run to disk so it can be paged through later
+ * without re-running Maven.
+ * <p>
+ * Lines are appended as they are read from the process, and the byte offset of every
+ * line is recorded at the same time, so line-range reads need neither a scan nor a
+ * decode of the preceding content. Reads are served from memory-mapped regions of the
+ * spool file. Only the most recent runs are retained, and closing the spool deletes them.
+ */
+public class LogSpool implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(LogSpool.class);
+
+    public static final int DEFAULT_RETAINED_RUNS = 20;
+
+    private final Path directory;
+    private final int retainedRuns;
+    /** Whether the spool created its directory, and deletes it on close. */
+    private final boolean temporary;
+    private final Map<String, SpooledLog> logs = new LinkedHashMap<>();
+    // Shared by all spools, so that run IDs stay unique when several projects have one each
+    private static final AtomicLong COUNTER = new AtomicLong();
+    private static final int MAX_OPEN_ATTEMPTS = 10;
+
+    /** Start second and a random part, so that servers started in the same second differ. */
+    private final String prefix = Long.toString(System.currentTimeMillis() / 1000, 36) + "-"
+            + Integer.toString(ThreadLocalRandom.current().nextInt(36 * 36 * 36, 36 * 36 * 36 * 36), 36);
+    private final List<Consumer<SpooledLog>> listeners = new CopyOnWriteArrayList<>();
+
+    public LogSpool(Path directory, int retainedRuns) {
+        this(directory, retainedRuns, false);
+    }
+
+    private LogSpool(Path directory, int retainedRuns, boolean temporary) {
+        this.directory = directory;
+        this.retainedRuns = retainedRuns;
+        this.temporary = temporary;
+    }
+
+    /**
+     * Create a spool in a fresh temporary directory, which {@link #close()} removes.
+     */
+    public static LogSpool createTemporary() throws IOException {
+        return new LogSpool(Files.createTempDirectory("maven-mcp-logs"), DEFAULT_RETAINED_RUNS, true);
+    }
+
+    /**
+     * Start capturing a new run.
+     *
+     * @return the capture; its run ID identifies the log once closed
+     * @throws UncheckedIOException if the spool file cannot be created
+     */
+    public Capture open() {
+        String runId = prefix + "-" + COUNTER.incrementAndGet();
+        try {
+            Files.createDirectories(directory);
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return new Capture(runId, directory.resolve(runId + ".log"));
+                } catch (FileAlreadyExistsException e) {
+                    // Another server spooling into the same directory took the run ID
+                    if (attempt == MAX_OPEN_ATTEMPTS) {
+                        throw e;
+                    }
+                    runId = prefix + "-" + COUNTER.incrementAndGet();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create log spool file for run " + runId, e);
+        }
+    }
+
+    /**
+     * @param runId run ID of a completed capture
+     * @return the spooled log, or empty if unknown or no longer retained
+     */
+    public Optional<SpooledLog> find(String runId) {
+        synchronized (logs) {
+            return Optional.ofNullable(logs.get(runId));
+        }
+    }
+
+    /**
+     * Approximate heap held by the line-offset indexes of the retained logs; the logs
+     * themselves stay on disk.
+     */
+    public long estimatedBytes() {
+        synchronized (logs) {
+            long bytes = 0;
+            for (SpooledLog spooled : logs.values()) {
+                bytes += 64 + 2L * spooled.runId().length() + 8L * spooled.lineOffsets().length;
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * Register a callback invoked on the capturing thread whenever a run's log is complete.
+     * Callbacks should hand off slow work; the spool file is deleted once it falls
+     * out of the retained runs.
+     */
+    public void addListener(Consumer<SpooledLog> listener) {
+        listeners.add(listener);
+    }
+
+    private void register(SpooledLog spooled) {
+        synchronized (logs) {
+            logs.put(spooled.runId(), spooled);
+            Iterator<SpooledLog> it = logs.values().iterator();
+            while (logs.size() > retainedRuns && it.hasNext()) {
+                SpooledLog evicted = it.next();
+                it.remove();
+                delete(evicted.file());
+            }
+        }
+        for (Consumer<SpooledLog> listener : listeners) {
+            listener.accept(spooled);
+        }
+    }
+
+    /**
+     * Delete the retained logs and, for a temporary spool, its directory with the logs of
+     * runs still being captured. The spool is not to be used afterwards.
+     */
+    @Override
+    public void close() {
+        synchronized (logs) {
+            for (SpooledLog spooled : logs.values()) {
+                delete(spooled.file());
+            }
+            logs.clear();
+        }
+        if (!temporary) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(LogSpool::delete);
+        } catch (IOException e) {
+            log.debug("Failed to delete log spool {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Failed to delete {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Line sink for one running Maven process. Lines from stdout and stderr may be
+     * appended concurrently; they are interleaved in arrival order.
+     */
+    public final class Capture implements AutoCloseable {
+
+        private final String runId;
+        private final Path file;
+        private final OutputStream out;
+        private long[] offsets = new long[1024];
+        private int lineCount;
+        private long size;
+        private boolean failed;
+
+        private Capture(String runId, Path file) throws IOException {
+            this.runId = runId;
+            this.file = file;
+            this.out = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE), 64 * 1024);
+        }
+
+        public String runId() {
+            return runId;
+        }
+
+        /**
+         * Append one line (without terminator) to the spool.
+         */
+        public synchronized void append(String line) {
+            if (failed) {
+                return;
+            }
+            if (lineCount == offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[lineCount++] = size;
+            byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+            try {
+                out.write(bytes);
+                out.write('\n');
+                size += bytes.length + 1;
+            } catch (IOException e) {
+                // Spooling is best effort: the run itself must not fail because of it
+                log.warn("Failed to spool log line for run {}: {}", runId, e.getMessage());
+                failed = true;
+                lineCount--;
+            }
+        }
+
+        /**
+         * Finish the capture and make the log readable through {@link #find}.
+         */
+        @Override
+        public synchronized void close() {
+            try {
+                out.close();
+            } catch (IOException e) {
+                log.warn("Failed to close spooled log for run {}: {}", runId, e.getMessage());
+            }
+            register(new SpooledLog(runId, file, Arrays.copyOf(offsets, lineCount), size));
+        }
+    }
+
+    /**
+     * A completed, immutable spooled log with its line-offset index.
+     *
+     * @param runId       run ID
+     * @param file        spool file
+     * @param lineOffsets byte offset of the start of each line
+     * @param size        total size in bytes
+     */
+    public record SpooledLog(String runId, Path file, long[] lineOffsets, long size) {
+
+        public int lineCount() {
+            return lineOffsets.length;
+        }
+
+        /**
+         * Read a range of lines.
+         *
+         * @param fromLine first line, 1-based, inclusive
+         * @param toLine   last line, 1-based, inclusive (clamped to the line count)
+         * @return the lines joined with '\n', empty if the range is outside the log
+         */
+        public String readLines(int fromLine, int toLine) {
+            int from = Math.max(1, fromLine);
+            int to = Math.min(lineCount(), toLine);
+            if (from > to) {
+                return "";
+            }
+            long start = lineOffsets[from - 1];
+            // Exclude the terminator of the last line
+            long end = (to < lineCount() ? lineOffsets[to] : size) - 1;
+            return readRegion(start, end - start);
+        }
+
+        /**
+         * Read a byte range. The range may split a multi-byte character at its edges.
+         *
+         * @param offset start offset, inclusive
+         * @param length maximum number of bytes
+         * @return the decoded bytes, empty if the offset is beyond the end
+         */
+        public String readBytes(long offset, long length) {
+            long start = Math.max(0, offset);
+            long end = Math.min(size, start + Math.max(0, length));
+            return start >= end ? "" : readRegion(start, end - start);
+        }
+
+        private String readRegion(long start, long length) {
+            if (length <= 0) {
+                return "";
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+                return StandardCharsets.UTF_8.decode(region).toString();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read spooled log " + runId, e);
+            }
+        }
+    }
+}
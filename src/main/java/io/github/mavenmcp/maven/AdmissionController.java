@@ -0,0 +1,285 @@
+package io.github.mavenmcp.maven;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.LongSupplier;
+
+import io.github.mavenmcp.history.BuildDurations;
+import io.github.mavenmcp.model.AdmissionStats;
+import io.github.mavenmcp.model.DurationPrediction;
+import io.github.mavenmcp.model.QueueWait;
+import io.github.mavenmcp.stats.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Limits the Maven builds running at once over all projects of the server, so that the
+ * test suites of several agents do not run the host out of memory together.
+ * <p>
+ * A build beyond the limit waits in a queue that favors short builds: it is ranked by its
+ * expected duration (from the durations of the same builds before, or else
+ * {@link #SHORT_ESTIMATE} for builds that compile or run selected tests and
+ * {@link #FULL_SUITE_ESTIMATE} for those that run all tests), less {@link #AGING} times
+ * how long it has waited. Since every waiting build ages at the same rate, the ranking
+ * only changes when builds arrive: a full suite is only passed by short builds that arrive
+ * within a bounded time after it, so it cannot starve. When the queue is full, a build is
+ * rejected right away.
+ * <p>
+ * The expected wait is estimated when a build joins the queue, from the remaining expected
+ * durations of the running builds and of those ranked ahead of it; builds arriving later
+ * may still pass it.
+ * <p>
+ * The server's own Maven runs (the dependency prefetch, {@code mvn -v}) run in a lane of
+ * their own, {@link #BACKGROUND_RUNS} at a time: they neither take a build's slot, which
+ * would keep an agent's first build waiting for a prefetch of minutes, nor count against
+ * the queue's limit, and are never rejected. They are ranked by their timeout.
+ */
+public final class AdmissionController {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionController.class);
+
+    public static final int DEFAULT_MAX_QUEUED = 32;
+    static final Duration SHORT_ESTIMATE = Duration.ofSeconds(30);
+    static final Duration FULL_SUITE_ESTIMATE = Duration.ofMinutes(5);
+    /** Milliseconds of expected duration a waiting build is credited per millisecond waited. */
+    static final long AGING = 2;
+    /** Most of the server's own Maven runs at once, besides the builds. */
+    static final int BACKGROUND_RUNS = 1;
+
+    private static final List<String> TEST_PHASES = List.of(
+            "test", "package", "integration-test", "verify", "install", "deploy");
+    private static final List<String> NO_TESTS = List.of("-DskipTests", "-Dmaven.test.skip");
+    private static final List<String> SELECTED_TESTS = List.of("-Dtest=", "-Dit.test=");
+
+    /**
+     * A build, waiting or running.
+     */
+    private static final class Ticket {
+        /** Expected duration in milliseconds. */
+        private final long estimate;
+        /** Estimate plus {@link #AGING} times the time it joined the queue; the lowest runs first. */
+        private final long rank;
+        private final long sequence;
+        private final Lane lane;
+        private long startedAt = -1;
+
+        private Ticket(long estimate, long rank, long sequence, Lane lane) {
+            this.estimate = estimate;
+            this.rank = rank;
+            this.sequence = sequence;
+            this.lane = lane;
+        }
+    }
+
+    /**
+     * Builds that share a limit: those of tool calls, or the server's own runs.
+     */
+    private static final class Lane {
+        private final int limit;
+        private final PriorityQueue<Ticket> waiting = new PriorityQueue<>(
+                Comparator.<Ticket>comparingLong(t -> t.rank).thenComparingLong(t -> t.sequence));
+        private final List<Ticket> running = new ArrayList<>();
+
+        private Lane(int limit) {
+            this.limit = limit;
+        }
+    }
+
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final LongSupplier clock;
+    private final Lane builds;
+    private final Lane background = new Lane(BACKGROUND_RUNS);
+    private final LatencyHistogram waits = new LatencyHistogram();
+    private long sequence;
+    private long admitted;
+    private long waited;
+    private long rejected;
+
+    /**
+     * @param maxConcurrent most builds running at once
+     * @param maxQueued     most builds waiting; further ones are rejected
+     */
+    public AdmissionController(int maxConcurrent, int maxQueued) {
+        this(maxConcurrent, maxQueued, System::currentTimeMillis);
+    }
+
+    AdmissionController(int maxConcurrent, int maxQueued, LongSupplier clock) {
+        if (maxConcurrent < 1 || maxQueued < 0) {
+            throw new IllegalArgumentException("Invalid admission limits: " + maxConcurrent + " running, "
+                    + maxQueued + " queued");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.clock = clock;
+        this.builds = new Lane(maxConcurrent);
+    }
+
+    /**
+     * Admission that never makes a build wait.
+     */
+    public static AdmissionController unlimited() {
+        return new AdmissionController(Integer.MAX_VALUE, 0);
+    }
+
+    /**
+     * The expected duration a build is ranked by.
+     *
+     * @param prediction prediction from the durations of the same builds before, or null
+     */
+    static long estimate(String goal, List<String> args, DurationPrediction prediction) {
+        if (prediction != null && prediction.expected() != null) {
+            return prediction.expected();
+        }
+        boolean runsTests = List.of(goal.trim().split("\\s+")).stream().anyMatch(TEST_PHASES::contains)
+                && args.stream().noneMatch(arg -> NO_TESTS.stream().anyMatch(arg::startsWith));
+        boolean selected = args.stream().anyMatch(arg -> SELECTED_TESTS.stream().anyMatch(arg::startsWith));
+        return (runsTests && !selected ? FULL_SUITE_ESTIMATE : SHORT_ESTIMATE).toMillis();
+    }
+
+    /**
+     * Wait until the build may run. Close the permit once it has finished.
+     *
+     * @param prediction prediction from the durations of the same builds before, or null
+     * @throws MavenExecutionException if the queue is full, or the wait was interrupted
+     */
+    public Permit admit(String goal, List<String> args, DurationPrediction prediction) {
+        return admit(goal, args, estimate(goal, args, prediction), builds);
+    }
+
+    /**
+     * Wait until a Maven run of the server's own may run, in the background lane. Close
+     * the permit once it has finished.
+     *
+     * @param timeout how long the run may take, which it is ranked by
+     * @throws MavenExecutionException if the wait was interrupted
+     */
+    public Permit admitBackground(String goal, List<String> args, Duration timeout) {
+        return admit(goal, args, timeout.toMillis(), background);
+    }
+
+    private Permit admit(String goal, List<String> args, long estimate, Lane lane) {
+        synchronized (this) {
+            long now = clock.getAsLong();
+            Ticket ticket = new Ticket(estimate, estimate + AGING * now, sequence++, lane);
+            PriorityQueue<Ticket> waiting = lane.waiting;
+            if (waiting.isEmpty() && lane.running.size() < lane.limit) {
+                start(ticket, now);
+                if (lane == builds) {
+                    admitted++;
+                }
+                return new Permit(ticket, null);
+            }
+            int runningNow = lane.running.size();
+            if (lane == builds && waiting.size() >= maxQueued) {
+                rejected++;
+                long expected = expectedWait(ticket, now);
+                throw new MavenExecutionException("Too many builds: " + runningNow + " running and "
+                        + waiting.size() + " waiting, expected wait " + expected / 1000 + "s; retry later, "
+                        + "or start the server with a higher --max-builds or --max-queued-builds", null, 0);
+            }
+            waiting.add(ticket);
+            if (lane == builds) {
+                waited++;
+            }
+            long expected = expectedWait(ticket, now);
+            int ahead = (int) waiting.stream().filter(t -> waiting.comparator().compare(t, ticket) < 0).count();
+            log.info("Queued {} behind {} running and {} waiting builds, expected wait {}s",
+                    BuildDurations.invocation(goal, args), runningNow, ahead, expected / 1000);
+            try {
+                while (ticket.startedAt < 0) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                if (!waiting.remove(ticket)) {
+                    release(ticket);
+                }
+                Thread.currentThread().interrupt();
+                throw new MavenExecutionException("Interrupted while waiting to run Maven", e,
+                        clock.getAsLong() - now);
+            }
+            long millis = ticket.startedAt - now;
+            if (lane == builds) {
+                waits.record(millis * 1_000_000);
+                admitted++;
+            }
+            return new Permit(ticket, new QueueWait(millis, expected, runningNow, ahead));
+        }
+    }
+
+    private void start(Ticket ticket, long now) {
+        ticket.startedAt = now;
+        ticket.lane.running.add(ticket);
+    }
+
+    private synchronized void release(Ticket ticket) {
+        Lane lane = ticket.lane;
+        if (!lane.running.remove(ticket)) {
+            return;
+        }
+        long now = clock.getAsLong();
+        while (lane.running.size() < lane.limit && !lane.waiting.isEmpty()) {
+            start(lane.waiting.poll(), now);
+        }
+        notifyAll();
+    }
+
+    /**
+     * When a waiting build is expected to start: the running builds of its lane and those
+     * ranked ahead of it each take a slot for their expected duration, the earliest free
+     * slot first.
+     */
+    private long expectedWait(Ticket ticket, long now) {
+        Lane lane = ticket.lane;
+        PriorityQueue<Ticket> waiting = lane.waiting;
+        PriorityQueue<Long> freeAt = new PriorityQueue<>();
+        for (Ticket build : lane.running) {
+            freeAt.add(Math.max(0, build.estimate - (now - build.startedAt)));
+        }
+        while (freeAt.size() < Math.min(lane.limit, lane.running.size() + waiting.size() + 1)) {
+            freeAt.add(0L);
+        }
+        waiting.stream()
+                .filter(t -> t != ticket && waiting.comparator().compare(t, ticket) < 0)
+                .sorted(waiting.comparator())
+                .forEach(t -> freeAt.add(freeAt.poll() + t.estimate));
+        return freeAt.isEmpty() ? 0 : freeAt.peek();
+    }
+
+    /**
+     * @return the limits and counts of the builds of tool calls, without the server's own runs
+     */
+    public synchronized AdmissionStats stats() {
+        return new AdmissionStats(maxConcurrent, maxQueued, builds.running.size(), builds.waiting.size(),
+                admitted, waited, rejected, waited == 0 ? null : waits.snapshot());
+    }
+
+    /**
+     * The right to run one build.
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final Ticket ticket;
+        private final QueueWait queueWait;
+
+        private Permit(Ticket ticket, QueueWait queueWait) {
+            this.ticket = ticket;
+            this.queueWait = queueWait;
+        }
+
+        /**
+         * @return how long the build waited for its turn, null if it did not have to
+         */
+        public QueueWait queueWait() {
+            return queueWait;
+        }
+
+        @Override
+        public void close() {
+            release(ticket);
+        }
+    }
+}
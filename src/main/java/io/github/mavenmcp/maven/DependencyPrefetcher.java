@@ -0,0 +1,423 @@
+package io.github.mavenmcp.maven;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.github.mavenmcp.model.OfflineStatus;
+import io.github.mavenmcp.parser.XmlUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
+
+/**
+ * Resolves a project's plugins and dependencies in the background, so that its builds can
+ * run offline and skip the remote repository checks an online build makes.
+ * <p>
+ * At startup, and again whenever a POM of the reactor changes, the prefetcher runs
+ * {@code dependency:go-offline} on a daemon thread. Once that has succeeded for the
+ * current POMs, {@link #execute} adds {@code -o} to builds, unless the call asks for
+ * remote access or passes {@code -U}. POM changes are noticed on the next build, which
+ * then runs online while resolution starts over. A project loaded again whose POMs were
+ * resolved earlier in the server's lifetime skips go-offline: the local repository still
+ * holds what it fetched.
+ * <p>
+ * go-offline does not see everything a build needs (for example the test framework
+ * provider Surefire picks at runtime). An offline build that fails because an artifact is
+ * missing locally is therefore repeated online, which also downloads it; if that happens
+ * twice in a row, offline mode is given up until the POMs change.
+ * <p>
+ * The prefetch runs in the admission controller's background lane, beside the builds of
+ * tool calls rather than in their slots, and with the {@code MAVEN_OPTS} the resource planner gives a build.
+ * <p>
+ * The network time saved is estimated from Maven's transfer lines ({@code Downloaded from
+ * ...: url (size at rate)}): the average transfer time of online builds (at most their
+ * duration, as transfers run in parallel), times the number of builds run offline.
+ */
+public final class DependencyPrefetcher implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DependencyPrefetcher.class);
+
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(10);
+
+    static final String GOAL = "dependency:go-offline";
+    private static final Pattern OFFLINE_FAILURE = Pattern.compile(
+            "in offline mode|repository system is offline");
+    private static final Pattern TRANSFER = Pattern.compile(
+            "^(?:\\[INFO] )?Downloaded from [^:]+: \\S+ \\(([\\d.,]+) ([kKMG]?B) at ([\\d.,]+) ([kKMG]?B)/s\\)",
+            Pattern.MULTILINE);
+    private static final Pattern ERROR_LINE = Pattern.compile("^\\[ERROR] (.+)$", Pattern.MULTILINE);
+
+    public enum State { RESOLVING, RESOLVED, FAILED }
+
+    private final Path executable;
+    private final Path projectDir;
+    private final Duration timeout;
+    private final AdmissionController admission;
+    private final ResourcePlanner planner;
+    private final Map<Path, String> resolvedPoms;
+
+    private volatile State state = State.RESOLVING;
+    private volatile String error;
+    private volatile List<Path> pomFiles = List.of();
+    /** Fingerprint of the POMs the last prefetch started with */
+    private volatile String fingerprint;
+    private volatile Long prefetchMillis;
+    private Thread worker;
+    private Process process;
+    private boolean closed;
+    private int consecutiveFallbacks;
+
+    private final AtomicLong offlineBuilds = new AtomicLong();
+    private final AtomicLong onlineBuilds = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final AtomicLong fallbackMillis = new AtomicLong();
+    private final AtomicLong onlineNetworkMillis = new AtomicLong();
+
+    /**
+     * @param executable Maven executable of the project
+     * @param projectDir project directory, holding the root POM
+     * @param timeout    how long a prefetch may take
+     */
+    public DependencyPrefetcher(Path executable, Path projectDir, Duration timeout) {
+        this(executable, projectDir, timeout, AdmissionController.unlimited(), null);
+    }
+
+    /**
+     * @param executable Maven executable of the project
+     * @param projectDir project directory, holding the root POM
+     * @param timeout    how long a prefetch may take, once admitted
+     * @param admission  limit of builds at once the prefetch waits for
+     * @param planner    planner of the build's {@code MAVEN_OPTS}, or null to leave them as they are
+     */
+    public DependencyPrefetcher(Path executable, Path projectDir, Duration timeout,
+                                AdmissionController admission, ResourcePlanner planner) {
+        this(executable, projectDir, timeout, admission, planner, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * @param executable   Maven executable of the project
+     * @param projectDir   project directory, holding the root POM
+     * @param timeout      how long a prefetch may take, once admitted
+     * @param admission    limit of builds at once the prefetch waits for
+     * @param planner      planner of the build's {@code MAVEN_OPTS}, or null to leave them as they are
+     * @param resolvedPoms fingerprint of the POMs resolved by project directory, shared by the
+     *                     prefetchers of one server so that a reloaded project is not resolved again
+     */
+    public DependencyPrefetcher(Path executable, Path projectDir, Duration timeout,
+                                AdmissionController admission, ResourcePlanner planner,
+                                Map<Path, String> resolvedPoms) {
+        this.executable = executable;
+        this.projectDir = projectDir;
+        this.timeout = timeout;
+        this.admission = admission;
+        this.planner = planner;
+        this.resolvedPoms = resolvedPoms;
+    }
+
+    /**
+     * Resolve on a daemon thread, unless a resolution is already running.
+     */
+    public synchronized void startInBackground() {
+        if (closed || (worker != null && worker.isAlive())) {
+            return;
+        }
+        state = State.RESOLVING;
+        worker = new Thread(this::prefetch, "maven-mcp-prefetch");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Resolve synchronously; the POM files are fingerprinted before Maven starts, so that
+     * a change during resolution is noticed afterwards. POMs resolved before are not
+     * resolved again.
+     */
+    void prefetch() {
+        List<Path> poms = pomFiles(projectDir);
+        pomFiles = poms;
+        fingerprint = fingerprint(poms);
+        if (fingerprint.equals(resolvedPoms.get(projectDir))) {
+            resolved(null);
+            log.info("Dependencies of {} were resolved before, builds run offline", projectDir.getFileName());
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            run();
+            resolved(System.currentTimeMillis() - start);
+            resolvedPoms.put(projectDir, fingerprint);
+            log.info("Dependencies of {} resolved in {}ms, builds now run offline",
+                    projectDir.getFileName(), prefetchMillis);
+        } catch (IOException e) {
+            log.warn("Dependency prefetch of {} failed: {}", projectDir.getFileName(), e.getMessage());
+            failed(e.getMessage());
+        }
+    }
+
+    /**
+     * @param millis how long resolution took, or null if it was skipped
+     */
+    private synchronized void resolved(Long millis) {
+        if (millis != null) {
+            prefetchMillis = millis;
+        }
+        consecutiveFallbacks = 0;
+        error = null;
+        state = State.RESOLVED;
+    }
+
+    private synchronized void failed(String message) {
+        resolvedPoms.remove(projectDir);
+        error = message;
+        state = State.FAILED;
+    }
+
+    private void run() throws IOException {
+        Path output = Files.createTempFile("maven-mcp-prefetch", ".txt");
+        try (AdmissionController.Permit permit = admission.admitBackground(GOAL, List.of(), timeout)) {
+            Process started;
+            synchronized (this) {
+                if (closed) {
+                    throw new IOException("Closed");
+                }
+                ProcessBuilder builder = new ProcessBuilder(executable.toString(), GOAL, "-B")
+                        .directory(projectDir.toFile())
+                        .redirectErrorStream(true)
+                        .redirectOutput(output.toFile());
+                String mavenOpts = planner == null ? null : planner.mavenOpts(projectDir);
+                if (mavenOpts != null) {
+                    builder.environment().put("MAVEN_OPTS", mavenOpts);
+                }
+                started = builder.start();
+                process = started;
+            }
+            if (!started.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                started.descendants().forEach(ProcessHandle::destroyForcibly);
+                started.destroyForcibly();
+                throw new IOException(GOAL + " did not finish within " + timeout.toSeconds() + "s");
+            }
+            if (started.exitValue() != 0) {
+                Matcher errorLine = ERROR_LINE.matcher(Files.readString(output, StandardCharsets.UTF_8));
+                throw new IOException(GOAL + " exited with code " + started.exitValue()
+                        + (errorLine.find() ? ": " + errorLine.group(1) : ""));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running " + GOAL, e);
+        } catch (MavenExecutionException e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            synchronized (this) {
+                process = null;
+            }
+            Files.deleteIfExists(output);
+        }
+    }
+
+    /**
+     * Execute a build, offline if the dependencies of the current POMs have been resolved.
+     *
+     * @param runner      runner of the project
+     * @param goal        Maven goal
+     * @param args        arguments of the call
+     * @param forceOnline whether the call asked for remote repository access
+     */
+    public MavenExecutionResult execute(MavenRunner runner, String goal, List<String> args, boolean forceOnline) {
+        return execute(runner, goal, args, forceOnline, null, null);
+    }
+
+    /**
+     * Execute a build with a timeout, offline if the dependencies of the current POMs have
+     * been resolved.
+     *
+     * @param timeout       how long the build may run, or null for no limit
+     * @param onlineTimeout how long a repeat online may run, which downloads what the offline
+     *                      build missed, or null for no limit
+     */
+    public MavenExecutionResult execute(MavenRunner runner, String goal, List<String> args, boolean forceOnline,
+                                        Duration timeout, Duration onlineTimeout) {
+        List<String> effective = arguments(args, forceOnline);
+        if (effective == args) {
+            MavenExecutionResult result = runner.execute(goal, args, executable, projectDir, timeout);
+            if (!hasFlag(args, "-o", "--offline")) {
+                onlineBuilds.incrementAndGet();
+                onlineNetworkMillis.addAndGet(networkMillis(result));
+            }
+            return result;
+        }
+        MavenExecutionResult result = runner.execute(goal, effective, executable, projectDir, timeout);
+        if (result.isSuccess() || result.timedOut() || !OFFLINE_FAILURE.matcher(result.stdout()).find()) {
+            offlineBuilds.incrementAndGet();
+            synchronized (this) {
+                consecutiveFallbacks = 0;
+            }
+            return result;
+        }
+        fellBack(result.duration());
+        log.info("Offline build of {} is missing an artifact, repeating it online", projectDir.getFileName());
+        MavenExecutionResult online = runner.execute(goal, args, executable, projectDir, onlineTimeout);
+        onlineBuilds.incrementAndGet();
+        onlineNetworkMillis.addAndGet(networkMillis(online));
+        return online;
+    }
+
+    private synchronized void fellBack(long millis) {
+        fallbacks.incrementAndGet();
+        fallbackMillis.addAndGet(millis);
+        if (++consecutiveFallbacks >= 2) {
+            failed("Offline builds kept missing artifacts; building online until the POMs change");
+        }
+    }
+
+    /**
+     * The arguments to build with: those given, or a copy with {@code -o} added.
+     * Notices changed POMs, and starts resolving them again.
+     */
+    public List<String> arguments(List<String> args, boolean forceOnline) {
+        String current = fingerprint(pomFiles);
+        boolean changed = !current.equals(fingerprint);
+        if (changed && state != State.RESOLVING) {
+            // After a failure too: the POM change may be the fix
+            startInBackground();
+        }
+        if (forceOnline || changed || state != State.RESOLVED
+                || hasFlag(args, "-o", "--offline") || hasFlag(args, "-U", "--update-snapshots")) {
+            return args;
+        }
+        List<String> offline = new ArrayList<>(args == null ? List.of() : args);
+        offline.add("-o");
+        return offline;
+    }
+
+    private static boolean hasFlag(List<String> args, String shortFlag, String longFlag) {
+        return args != null && (args.contains(shortFlag) || args.contains(longFlag));
+    }
+
+    public State state() {
+        return state;
+    }
+
+    public OfflineStatus status() {
+        long online = onlineBuilds.get();
+        long average = online == 0 ? 0 : onlineNetworkMillis.get() / online;
+        return new OfflineStatus(state.name(), error, prefetchMillis, offlineBuilds.get(), online,
+                fallbacks.get(), average, offlineBuilds.get() * average - fallbackMillis.get());
+    }
+
+    /**
+     * Stop a running prefetch, or one waiting for admission.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (worker != null) {
+            worker.interrupt();
+        }
+        if (process != null) {
+            process.descendants().forEach(ProcessHandle::destroyForcibly);
+            process.destroyForcibly();
+        }
+    }
+
+    /**
+     * Transfer time of a build; Maven downloads in parallel, so at most its duration.
+     */
+    private static long networkMillis(MavenExecutionResult result) {
+        return Math.min(transferMillis(result.stdout()), result.duration());
+    }
+
+    /**
+     * Transfer time in Maven output, from the size and rate of each {@code Downloaded from} line.
+     */
+    static long transferMillis(String output) {
+        if (output == null || output.isEmpty()) {
+            return 0;
+        }
+        double seconds = 0;
+        Matcher transfer = TRANSFER.matcher(output);
+        while (transfer.find()) {
+            double rate = bytes(transfer.group(3), transfer.group(4));
+            if (rate > 0) {
+                seconds += bytes(transfer.group(1), transfer.group(2)) / rate;
+            }
+        }
+        return Math.round(seconds * 1000);
+    }
+
+    private static double bytes(String amount, String unit) {
+        double value = Double.parseDouble(amount.replace(',', '.'));
+        return switch (unit.toUpperCase(Locale.ROOT)) {
+            case "KB" -> value * 1_000;
+            case "MB" -> value * 1_000_000;
+            case "GB" -> value * 1_000_000_000;
+            default -> value;
+        };
+    }
+
+    /**
+     * The POMs of the reactor, following {@code <module>} elements from the root POM, plus
+     * the project's {@code .mvn} configuration.
+     */
+    static List<Path> pomFiles(Path projectDir) {
+        Set<Path> poms = new LinkedHashSet<>();
+        Deque<Path> pending = new ArrayDeque<>();
+        pending.add(projectDir.resolve("pom.xml"));
+        while (!pending.isEmpty()) {
+            Path pom = pending.poll().normalize();
+            if (!Files.isRegularFile(pom) || !poms.add(pom)) {
+                continue;
+            }
+            try {
+                Document document = XmlUtils.newSecureDocumentBuilder().parse(pom.toFile());
+                NodeList modules = document.getElementsByTagName("module");
+                for (int i = 0; i < modules.getLength(); i++) {
+                    Path module = pom.getParent().resolve(modules.item(i).getTextContent().trim());
+                    pending.add(Files.isDirectory(module) ? module.resolve("pom.xml") : module);
+                }
+            } catch (Exception e) {
+                log.debug("Cannot read modules of {}: {}", pom, e.getMessage());
+            }
+        }
+        for (String config : List.of(".mvn/extensions.xml", ".mvn/maven.config")) {
+            Path file = projectDir.resolve(config);
+            if (Files.isRegularFile(file)) {
+                poms.add(file);
+            }
+        }
+        return List.copyOf(poms);
+    }
+
+    /**
+     * Modification time and size of each file; a file that disappeared changes it too.
+     */
+    static String fingerprint(List<Path> files) {
+        StringBuilder fingerprint = new StringBuilder();
+        for (Path file : files) {
+            fingerprint.append(file).append(':');
+            try {
+                fingerprint.append(Files.getLastModifiedTime(file).toMillis()).append(':').append(Files.size(file));
+            } catch (IOException e) {
+                fingerprint.append('-');
+            }
+            fingerprint.append('\n');
+        }
+        return fingerprint.toString();
+    }
+}
@@ -0,0 +1,523 @@
+package io.github.mavenmcp.maven;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import io.github.mavenmcp.model.DependencyNode;
+import io.github.mavenmcp.model.DependencyTreeResult.DependencyChange;
+import io.github.mavenmcp.model.ProjectModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dependency trees of a project's modules, parsed from {@code dependency:tree -Dverbose}
+ * and kept until a POM changes.
+ * <p>
+ * Each module has a key: a hash of its POM's content, of its parent's key (or the parent's
+ * coordinates outside the reactor) and of the project's {@code .mvn} configuration. The
+ * reactor's key combines the module keys; trees are cached in memory and on disk under it,
+ * so that the same POMs are never resolved twice, also across restarts. When only some
+ * modules changed, and not the root, Maven resolves just those with the modules they
+ * depend on and the modules depending on them ({@code -pl ... -am -amd}); the trees of the
+ * other modules are taken over.
+ * <p>
+ * Whenever the trees change, the resolved versions are compared with those before, and the
+ * differences are reported once, with the trees that caused them.
+ */
+public final class DependencyTreeService {
+
+    private static final Logger log = LoggerFactory.getLogger(DependencyTreeService.class);
+
+    public static final String GOAL = "dependency:tree";
+
+    private static final int CACHE_FORMAT = 1;
+    private static final int RETAINED_SNAPSHOTS = 20;
+    private static final String LATEST = "latest";
+    private static final Pattern BANNER = Pattern.compile("^--- \\S+:tree \\(.*\\) @ .+ ---$");
+    private static final Pattern NODE = Pattern.compile("^((?:[| ] {2})*)[+\\\\]- (.+)$");
+    private static final Pattern OMITTED = Pattern.compile("omitted for ([^;)]+)");
+
+    private final Path projectDir;
+    private final Path cacheDirectory;
+    /** Trees in memory; read without the lock, which a resolution holds while Maven runs. */
+    private volatile Snapshot current;
+
+    /**
+     * @param projectDir     project directory
+     * @param cacheDirectory where trees are kept between restarts, or null to keep them in memory only
+     */
+    public DependencyTreeService(Path projectDir, Path cacheDirectory) {
+        this.projectDir = projectDir;
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * Outcome of {@link #resolve}.
+     *
+     * @param trees           tree per module directory, in reactor order; null if Maven failed
+     * @param source          "memory", "disk", "resolved" or "partial"
+     * @param resolvedModules modules Maven resolved again, only for "partial"
+     * @param diff            changes against the trees before, null if unchanged or unknown
+     * @param execution       the Maven run, null if cached
+     */
+    public record Resolution(Map<String, DependencyNode> trees, String source, List<String> resolvedModules,
+                             List<DependencyChange> diff, MavenExecutionResult execution) {
+    }
+
+    /**
+     * Trees and the keys they were resolved for.
+     */
+    private record Snapshot(String key, Map<String, String> moduleKeys, Map<String, DependencyNode> trees) {
+    }
+
+    /**
+     * The current trees, resolved by Maven only for modules whose POMs changed.
+     *
+     * @param model   the project's modules
+     * @param maven   runs {@link #GOAL} with the given arguments
+     * @param refresh resolve the whole reactor regardless of the cache, e.g. after SNAPSHOT updates
+     */
+    public synchronized Resolution resolve(ProjectModel model, Function<List<String>, MavenExecutionResult> maven,
+                                           boolean refresh) {
+        Map<String, String> moduleKeys = moduleKeys(model);
+        String key = reactorKey(moduleKeys);
+        Snapshot previous = current != null ? current : read(LATEST);
+        if (!refresh && current != null && current.key().equals(key)) {
+            return new Resolution(current.trees(), "memory", null, null, null);
+        }
+        Snapshot cached = refresh ? null : read(key);
+        if (cached != null) {
+            return update(previous, cached, "disk", null, null);
+        }
+
+        List<String> changed = previous == null || refresh ? List.of() : moduleKeys.keySet().stream()
+                .filter(module -> !moduleKeys.get(module).equals(previous.moduleKeys().get(module)))
+                .toList();
+        boolean partial = !changed.isEmpty() && changed.size() < moduleKeys.size() && !changed.contains(".");
+        if (partial) {
+            MavenExecutionResult execution = maven.apply(List.of("-Dverbose", "-pl", String.join(",", changed),
+                    "-am", "-amd"));
+            if (!execution.isSuccess()) {
+                return new Resolution(null, "partial", changed, null, execution);
+            }
+            Map<String, DependencyNode> resolved = byModule(model, parse(execution.stdout()));
+            Map<String, DependencyNode> trees = new LinkedHashMap<>();
+            for (String module : moduleKeys.keySet()) {
+                DependencyNode tree = resolved.containsKey(module) ? resolved.get(module)
+                        : previous.trees().get(module);
+                if (tree != null) {
+                    trees.put(module, tree);
+                }
+            }
+            if (trees.size() == moduleKeys.size()) {
+                return update(previous, new Snapshot(key, moduleKeys, trees), "partial",
+                        List.copyOf(resolved.keySet()), execution);
+            }
+            log.debug("Partial resolution of {} missed modules, resolving the reactor", changed);
+        }
+        MavenExecutionResult execution = maven.apply(List.of("-Dverbose"));
+        if (!execution.isSuccess()) {
+            return new Resolution(null, "resolved", null, null, execution);
+        }
+        Map<String, DependencyNode> trees = byModule(model, parse(execution.stdout()));
+        return update(previous, new Snapshot(key, moduleKeys, trees), "resolved", null, execution);
+    }
+
+    private Resolution update(Snapshot previous, Snapshot snapshot, String source, List<String> resolvedModules,
+                              MavenExecutionResult execution) {
+        List<DependencyChange> diff = previous == null ? null : diff(previous.trees(), snapshot.trees());
+        current = snapshot;
+        if (execution != null) {
+            write(snapshot.key(), snapshot);
+        }
+        write(LATEST, snapshot);
+        return new Resolution(snapshot.trees(), source, resolvedModules,
+                diff == null || diff.isEmpty() ? null : diff, execution);
+    }
+
+    /**
+     * Approximate heap held by the trees in memory.
+     */
+    public long estimatedBytes() {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            return 0;
+        }
+        long bytes = 64;
+        for (Map.Entry<String, String> module : snapshot.moduleKeys().entrySet()) {
+            bytes += 64 + 2L * (module.getKey().length() + module.getValue().length());
+        }
+        Deque<DependencyNode> pending = new ArrayDeque<>(snapshot.trees().values());
+        while (!pending.isEmpty()) {
+            DependencyNode node = pending.pop();
+            bytes += 96 + 2L * (length(node.groupId()) + length(node.artifactId()) + length(node.type())
+                    + length(node.classifier()) + length(node.version()) + length(node.scope())
+                    + length(node.omitted()));
+            if (node.children() != null) {
+                pending.addAll(node.children());
+            }
+        }
+        return bytes;
+    }
+
+    private static int length(String s) {
+        return s == null ? 0 : s.length();
+    }
+
+    // --- Keys ---
+
+    private Map<String, String> moduleKeys(ProjectModel model) {
+        byte[] config = readAll(projectDir.resolve(".mvn").resolve("maven.config"),
+                projectDir.resolve(".mvn").resolve("extensions.xml"));
+        Map<String, String> keys = new LinkedHashMap<>();
+        Map<String, String> ordered = new LinkedHashMap<>();
+        for (ProjectModel.Module module : model.modules()) {
+            ordered.put(module.path(), moduleKey(model, module, config, keys));
+        }
+        return ordered;
+    }
+
+    private String moduleKey(ProjectModel model, ProjectModel.Module module, byte[] config,
+                             Map<String, String> keys) {
+        String known = keys.get(module.path());
+        if (known != null) {
+            return known;
+        }
+        // Guards against a parent cycle; Maven rejects those anyway
+        keys.put(module.path(), "");
+        MessageDigest digest = sha256();
+        digest.update(config);
+        digest.update(readAll(projectDir.resolve(module.path()).resolve("pom.xml")));
+        if (module.parent() != null) {
+            ProjectModel.Module parent = model.modules().stream()
+                    .filter(m -> module.parent().startsWith(m.groupId() + ":" + m.artifactId() + ":"))
+                    .findFirst().orElse(null);
+            String parentKey = parent == null ? module.parent() : moduleKey(model, parent, config, keys);
+            digest.update(parentKey.getBytes(StandardCharsets.UTF_8));
+        }
+        String key = HexFormat.of().formatHex(digest.digest());
+        keys.put(module.path(), key);
+        return key;
+    }
+
+    private static String reactorKey(Map<String, String> moduleKeys) {
+        MessageDigest digest = sha256();
+        moduleKeys.forEach((module, key) -> digest.update((module + "=" + key + "\n").getBytes(StandardCharsets.UTF_8)));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static byte[] readAll(Path... files) {
+        MessageDigest digest = sha256();
+        for (Path file : files) {
+            try {
+                digest.update(Files.readAllBytes(file));
+            } catch (IOException e) {
+                digest.update((byte) 0);
+            }
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // --- Parsing ---
+
+    /**
+     * The trees in the output of {@code dependency:tree}, in the order Maven printed them.
+     * Lines may carry Maven's {@code [INFO]} prefix.
+     */
+    static List<DependencyNode> parse(String output) {
+        List<DependencyNode> trees = new ArrayList<>();
+        TreeBuilder tree = null;
+        boolean expectRoot = false;
+        for (String raw : output.split("\\R")) {
+            String line = raw.startsWith("[INFO] ") ? raw.substring(7).stripTrailing()
+                    : raw.equals("[INFO]") ? "" : raw.stripTrailing();
+            if (BANNER.matcher(line).matches()) {
+                expectRoot = true;
+                tree = finish(tree, trees);
+            } else if (expectRoot) {
+                if (!line.isEmpty()) {
+                    tree = new TreeBuilder(node(line));
+                    expectRoot = false;
+                }
+            } else if (tree != null && !tree.add(line)) {
+                tree = finish(tree, trees);
+            }
+        }
+        finish(tree, trees);
+        return trees;
+    }
+
+    private static TreeBuilder finish(TreeBuilder tree, List<DependencyNode> trees) {
+        if (tree != null) {
+            trees.add(tree.build());
+        }
+        return null;
+    }
+
+    /**
+     * Builds a tree from its lines, keeping the path to the last node read.
+     */
+    private static final class TreeBuilder {
+
+        private final Deque<Entry> path = new ArrayDeque<>();
+
+        private record Entry(DependencyNode node, List<Entry> children) {
+            DependencyNode build() {
+                return node.withChildren(children.stream().map(Entry::build).toList());
+            }
+        }
+
+        TreeBuilder(DependencyNode root) {
+            path.push(new Entry(root, new ArrayList<>()));
+        }
+
+        /**
+         * @return false if the line is not a node, which ends the tree
+         */
+        boolean add(String line) {
+            Matcher matcher = NODE.matcher(line);
+            if (!matcher.matches()) {
+                return false;
+            }
+            int depth = matcher.group(1).length() / 3 + 1;
+            while (path.size() > depth) {
+                path.pop();
+            }
+            Entry entry = new Entry(node(matcher.group(2)), new ArrayList<>());
+            path.peek().children().add(entry);
+            path.push(entry);
+            return true;
+        }
+
+        DependencyNode build() {
+            return path.getLast().build();
+        }
+    }
+
+    /**
+     * One node, e.g. {@code g:a:jar:1.0:compile (optional)} or, left out in verbose mode,
+     * {@code (g:a:jar:1.0:compile - omitted for conflict with 2.0)}.
+     */
+    private static DependencyNode node(String text) {
+        String coordinates;
+        String notes;
+        String omitted = null;
+        int separator = text.indexOf(" - ");
+        if (text.startsWith("(") && separator > 0) {
+            coordinates = text.substring(1, separator);
+            notes = text.substring(separator);
+            Matcher matcher = OMITTED.matcher(notes);
+            if (matcher.find()) {
+                omitted = matcher.group(1).trim();
+            }
+        } else {
+            int space = text.indexOf(' ');
+            coordinates = space < 0 ? text : text.substring(0, space);
+            notes = space < 0 ? "" : text.substring(space);
+        }
+        String[] parts = coordinates.split(":");
+        String groupId = parts[0];
+        String artifactId = parts.length > 1 ? parts[1] : "";
+        String type = parts.length > 2 && !parts[2].equals("jar") ? parts[2] : null;
+        String classifier = parts.length > 5 ? parts[3] : null;
+        String version = parts.length > 5 ? parts[4] : parts.length > 3 ? parts[3] : null;
+        String scope = parts.length > 5 ? parts[5] : parts.length > 4 ? parts[4] : null;
+        Boolean optional = notes.contains("(optional") || notes.contains(" optional)") ? Boolean.TRUE : null;
+        return new DependencyNode(groupId, artifactId, type, classifier, version, scope, optional, omitted, null);
+    }
+
+    /**
+     * Trees by the directory of the module they belong to; trees of unknown modules are dropped.
+     */
+    private static Map<String, DependencyNode> byModule(ProjectModel model, List<DependencyNode> trees) {
+        Map<String, DependencyNode> byModule = new LinkedHashMap<>();
+        for (DependencyNode tree : trees) {
+            model.modules().stream()
+                    .filter(m -> tree.groupId().equals(m.groupId()) && tree.artifactId().equals(m.artifactId()))
+                    .findFirst()
+                    .ifPresent(module -> byModule.put(module.path(), tree));
+        }
+        if (byModule.isEmpty() && trees.size() == 1 && model.modules().size() <= 1) {
+            byModule.put(".", trees.get(0));
+        }
+        return byModule;
+    }
+
+    // --- Diff ---
+
+    /**
+     * Dependencies added, removed or resolved to another version, per module. Nodes Maven
+     * left out do not count.
+     */
+    static List<DependencyChange> diff(Map<String, DependencyNode> before, Map<String, DependencyNode> after) {
+        List<DependencyChange> changes = new ArrayList<>();
+        List<String> modules = new ArrayList<>(after.keySet());
+        before.keySet().stream().filter(module -> !after.containsKey(module)).forEach(modules::add);
+        for (String module : modules) {
+            Map<String, String> from = resolvedVersions(before.get(module));
+            Map<String, String> to = resolvedVersions(after.get(module));
+            to.forEach((dependency, version) -> {
+                if (!version.equals(from.get(dependency))) {
+                    changes.add(new DependencyChange(module, dependency, from.get(dependency), version));
+                }
+            });
+            from.forEach((dependency, version) -> {
+                if (!to.containsKey(dependency)) {
+                    changes.add(new DependencyChange(module, dependency, version, null));
+                }
+            });
+        }
+        return changes;
+    }
+
+    private static Map<String, String> resolvedVersions(DependencyNode root) {
+        Map<String, String> versions = new LinkedHashMap<>();
+        if (root == null) {
+            return versions;
+        }
+        Deque<DependencyNode> pending = new ArrayDeque<>(root.dependencies());
+        while (!pending.isEmpty()) {
+            DependencyNode node = pending.poll();
+            if (node.omitted() == null) {
+                versions.putIfAbsent(node.key(), Objects.requireNonNullElse(node.version(), ""));
+                pending.addAll(node.dependencies());
+            }
+        }
+        return versions;
+    }
+
+    // --- Cache ---
+
+    /**
+     * Trees are stored as Maven prints them, below a line naming the module and its key.
+     */
+    private void write(String name, Snapshot snapshot) {
+        if (cacheDirectory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(cacheDirectory);
+            // Write aside and move, so that a concurrent reader never sees half a file
+            Path temp = Files.createTempFile(cacheDirectory, "tree", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write("# maven-mcp dependency trees " + CACHE_FORMAT + " " + snapshot.key() + "\n");
+                for (Map.Entry<String, DependencyNode> tree : snapshot.trees().entrySet()) {
+                    writer.write("--- maven-mcp:tree (cache) @ " + snapshot.moduleKeys().get(tree.getKey())
+                            + " " + tree.getKey() + " ---\n");
+                    writer.write(coordinates(tree.getValue()) + "\n");
+                    render(tree.getValue().dependencies(), "", writer);
+                }
+            }
+            Files.move(temp, cacheDirectory.resolve(name + ".txt"),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (!name.equals(LATEST)) {
+                prune();
+            }
+        } catch (IOException e) {
+            log.debug("Cannot write dependency tree cache {}: {}", name, e.getMessage());
+        }
+    }
+
+    private static void render(List<DependencyNode> nodes, String indent, Writer writer) throws IOException {
+        for (int i = 0; i < nodes.size(); i++) {
+            DependencyNode node = nodes.get(i);
+            boolean last = i == nodes.size() - 1;
+            String text = node.omitted() != null ? "(" + coordinates(node) + " - omitted for " + node.omitted() + ")"
+                    : coordinates(node);
+            writer.write(indent + (last ? "\\- " : "+- ") + text
+                    + (Boolean.TRUE.equals(node.optional()) ? " (optional)" : "") + "\n");
+            render(node.dependencies(), indent + (last ? "   " : "|  "), writer);
+        }
+    }
+
+    private static String coordinates(DependencyNode node) {
+        StringBuilder text = new StringBuilder(node.groupId()).append(':').append(node.artifactId())
+                .append(':').append(node.type() == null ? "jar" : node.type());
+        if (node.classifier() != null) {
+            text.append(':').append(node.classifier());
+        }
+        text.append(':').append(node.version());
+        if (node.scope() != null) {
+            text.append(':').append(node.scope());
+        }
+        return text.toString();
+    }
+
+    private Snapshot read(String name) {
+        if (cacheDirectory == null) {
+            return null;
+        }
+        Path file = cacheDirectory.resolve(name + ".txt");
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            String text = Files.readString(file, StandardCharsets.UTF_8);
+            String[] header = text.substring(0, Math.max(text.indexOf('\n'), 0)).split(" ");
+            if (header.length != 6 || !header[4].equals(String.valueOf(CACHE_FORMAT))) {
+                return null;
+            }
+            Map<String, String> moduleKeys = new LinkedHashMap<>();
+            Map<String, DependencyNode> trees = new LinkedHashMap<>();
+            List<DependencyNode> parsed = parse(text);
+            Matcher banner = Pattern.compile("^--- maven-mcp:tree \\(cache\\) @ (\\S+) (.+) ---$", Pattern.MULTILINE)
+                    .matcher(text);
+            for (int i = 0; banner.find() && i < parsed.size(); i++) {
+                moduleKeys.put(banner.group(2), banner.group(1));
+                trees.put(banner.group(2), parsed.get(i));
+            }
+            return new Snapshot(header[5], moduleKeys, trees);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Ignoring unreadable dependency tree cache {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void prune() throws IOException {
+        List<Path> snapshots;
+        try (Stream<Path> files = Files.list(cacheDirectory)) {
+            snapshots = files.filter(f -> f.getFileName().toString().endsWith(".txt"))
+                    .filter(f -> !f.getFileName().toString().equals(LATEST + ".txt"))
+                    .sorted(Comparator.comparingLong(DependencyTreeService::lastModified).reversed())
+                    .toList();
+        }
+        for (Path stale : snapshots.subList(Math.min(RETAINED_SNAPSHOTS, snapshots.size()), snapshots.size())) {
+            Files.deleteIfExists(stale);
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package io.github.mavenmcp.maven;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.mavenmcp.model.BuildMode;
+import io.github.mavenmcp.model.ProjectModel;
+import io.github.mavenmcp.model.ProjectModel.Execution;
+import io.github.mavenmcp.model.ProjectModel.Module;
+import io.github.mavenmcp.model.ProjectModel.Plugin;
+
+/**
+ * The arguments of a fast build: skip properties for the checks, reports and frontend
+ * builds a project binds into its lifecycle, and a thread per core for a multi-module
+ * reactor.
+ * <p>
+ * Instead of asking Maven for the effective POM, which would cost a Maven run, the
+ * profile takes the {@link ProjectModelService project model} and finds the known plugins
+ * declared in {@code <build><plugins>} of a module with an execution at or before the
+ * goal's phase, taking phases from the executions, also those in
+ * {@code <pluginManagement>}, or the plugin's default. Plugins that are only declared in
+ * profiles are not considered.
+ * <p>
+ * Fast mode does not turn off the compiler's own change detection
+ * ({@code useIncrementalCompilation=false} would compile only changed sources, and miss
+ * errors in the classes that use them).
+ */
+public final class FastProfile {
+
+    static final List<String> PHASES = List.of(
+            "validate", "initialize", "generate-sources", "process-sources", "generate-resources",
+            "process-resources", "compile", "process-classes", "generate-test-sources", "process-test-sources",
+            "generate-test-resources", "process-test-resources", "test-compile", "process-test-classes", "test",
+            "prepare-package", "package", "pre-integration-test", "integration-test", "post-integration-test",
+            "verify", "install", "deploy");
+
+    /**
+     * A plugin fast mode skips, the phase its usual goal binds to, and the properties that skip it.
+     */
+    private record Skip(String artifactId, String defaultPhase, List<String> properties) {
+    }
+
+    private static final List<Skip> SKIPS = List.of(
+            new Skip("maven-enforcer-plugin", "validate", List.of("enforcer.skip")),
+            new Skip("apache-rat-plugin", "validate", List.of("rat.skip")),
+            new Skip("jacoco-maven-plugin", "initialize", List.of("jacoco.skip")),
+            new Skip("git-commit-id-plugin", "initialize", List.of("maven.gitcommitid.skip")),
+            new Skip("git-commit-id-maven-plugin", "initialize", List.of("maven.gitcommitid.skip")),
+            new Skip("formatter-maven-plugin", "process-sources", List.of("formatter.skip")),
+            new Skip("impsort-maven-plugin", "process-sources", List.of("impsort.skip")),
+            new Skip("fmt-maven-plugin", "process-sources", List.of("fmt.skip")),
+            new Skip("frontend-maven-plugin", "generate-resources", List.of(
+                    "skip.installnodenpm", "skip.installnodeyarn", "skip.installnodepnpm", "skip.installbun",
+                    "skip.npm", "skip.npx", "skip.yarn", "skip.pnpm", "skip.bun", "skip.corepack", "skip.bower",
+                    "skip.grunt", "skip.gulp", "skip.jspm", "skip.karma", "skip.webpack", "skip.ember")),
+            new Skip("modernizer-maven-plugin", "process-test-classes", List.of("modernizer.skip")),
+            new Skip("forbiddenapis", "verify", List.of("forbiddenapis.skip")),
+            new Skip("maven-source-plugin", "package", List.of("maven.source.skip")),
+            new Skip("maven-javadoc-plugin", "package", List.of("maven.javadoc.skip")),
+            new Skip("license-maven-plugin", "verify", List.of("license.skip")),
+            new Skip("maven-checkstyle-plugin", "verify", List.of("checkstyle.skip")),
+            new Skip("spotbugs-maven-plugin", "verify", List.of("spotbugs.skip")),
+            new Skip("maven-pmd-plugin", "verify", List.of("pmd.skip", "cpd.skip")),
+            new Skip("spotless-maven-plugin", "verify", List.of("spotless.check.skip", "spotless.apply.skip")),
+            new Skip("sortpom-maven-plugin", "verify", List.of("sort.skip")),
+            new Skip("japicmp-maven-plugin", "verify", List.of("japicmp.skip")),
+            new Skip("revapi-maven-plugin", "verify", List.of("revapi.skip")),
+            new Skip("maven-gpg-plugin", "verify", List.of("gpg.skip")));
+
+    private final ProjectModelService models;
+
+    /**
+     * @param models the project's POMs
+     */
+    public FastProfile(ProjectModelService models) {
+        this.models = models;
+    }
+
+    /**
+     * The fast-mode arguments for a goal.
+     *
+     * @param goal            lifecycle phase the build runs to, e.g. "compile" or "test"
+     * @param args            arguments of the call, whose {@code -T} is kept
+     * @param localRepository local repository to find parent POMs in
+     */
+    public BuildMode plan(String goal, List<String> args, Path localRepository) {
+        ProjectModel model = models.model(localRepository);
+        int goalPhase = PHASES.indexOf(goal);
+        List<String> skipped = new ArrayList<>();
+        List<String> arguments = new ArrayList<>();
+        for (Skip skip : SKIPS) {
+            int phase = earliestPhase(model, skip);
+            if (phase >= 0 && (goalPhase < 0 || phase <= goalPhase)) {
+                skipped.add(skip.artifactId());
+                skip.properties().forEach(property -> arguments.add("-D" + property + "=true"));
+            }
+        }
+        boolean threadsGiven = args != null && args.stream()
+                .anyMatch(arg -> arg.startsWith("-T") || arg.startsWith("--threads"));
+        if (model.modules().size() > 1 && !threadsGiven) {
+            arguments.add("-T");
+            arguments.add("1C");
+        }
+        return new BuildMode(BuildMode.FAST, skipped, arguments);
+    }
+
+    /**
+     * The earliest phase any module runs the plugin in, or -1 if none declares an
+     * execution of it (then none of its goals run).
+     */
+    private static int earliestPhase(ProjectModel model, Skip skip) {
+        int defaultPhase = PHASES.indexOf(skip.defaultPhase());
+        int min = Integer.MAX_VALUE;
+        for (Module module : model.modules()) {
+            Plugin plugin = module.plugin(skip.artifactId());
+            if (plugin == null) {
+                continue;
+            }
+            for (Execution execution : plugin.executions()) {
+                if ("none".equals(execution.phase())) {
+                    continue;
+                }
+                int index = execution.phase() == null ? defaultPhase : PHASES.indexOf(execution.phase());
+                // A phase from an unresolved property may not run at all; count it as the default
+                min = Math.min(min, index >= 0 ? index : defaultPhase);
+            }
+        }
+        return min == Integer.MAX_VALUE ? -1 : min;
+    }
+}
@@ -1,8 +1,12 @@
 package io.github.mavenmcp.maven;
 
-import java.io.IOException;
+import java.io.File;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,6 +18,8 @@ import org.slf4j.LoggerFactory;
 public final class MavenDetector {
 
     private static final Logger log = LoggerFactory.getLogger(MavenDetector.class);
+    private static final boolean WINDOWS =
+            System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows");
 
     private MavenDetector() {
         // utility class
@@ -46,19 +52,39 @@ public final class MavenDetector {
     }
 
     private static Path findSystemMvn() {
-        try {
-            ProcessBuilder pb = new ProcessBuilder("which", "mvn");
-            pb.redirectErrorStream(true);
-            Process process = pb.start();
-            String output = new String(process.getInputStream().readAllBytes()).trim();
-            int exitCode = process.waitFor();
-            if (exitCode == 0 && !output.isEmpty()) {
-                return Path.of(output);
+        return findOnPath("mvn", System.getenv("PATH"));
+    }
+
+    /**
+     * Resolve an executable the way the shell would, by scanning the directories of a
+     * {@code PATH} value in order. Done in-process: forking {@code which} costs more
+     * than the whole scan.
+     *
+     * @param name         executable name, without extension
+     * @param pathVariable value of {@code PATH}, may be null
+     * @return the first executable regular file found, or null
+     */
+    static Path findOnPath(String name, String pathVariable) {
+        if (pathVariable == null || pathVariable.isEmpty()) {
+            return null;
+        }
+        List<String> candidates = WINDOWS
+                ? List.of(name + ".cmd", name + ".bat", name + ".exe", name)
+                : List.of(name);
+        for (String directory : pathVariable.split(Pattern.quote(File.pathSeparator))) {
+            if (directory.isEmpty()) {
+                continue;
             }
-        } catch (IOException | InterruptedException e) {
-            log.debug("Failed to locate system mvn: {}", e.getMessage());
-            if (e instanceof InterruptedException) {
-                Thread.currentThread().interrupt();
+            for (String candidate : candidates) {
+                try {
+                    Path file = Path.of(directory, candidate);
+                    if (Files.isRegularFile(file) && Files.isExecutable(file)) {
+                        return file;
+                    }
+                } catch (InvalidPathException e) {
+                    log.debug("Skipping invalid PATH entry {}: {}", directory, e.getMessage());
+                    break;
+                }
             }
         }
         return null;
@@ -0,0 +1,406 @@
+package io.github.mavenmcp.maven;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.github.mavenmcp.model.MavenEnvironment;
+import io.github.mavenmcp.model.MavenEnvironment.Mirror;
+import io.github.mavenmcp.parser.XmlUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Finds out which Maven and JDK the server's builds run with.
+ * <p>
+ * {@code mvn -v} starts a JVM and, for a wrapper, may download Maven, so its output is
+ * cached on disk, keyed by the executable's path and modification time (and for a
+ * wrapper, that of {@code .mvn/wrapper/maven-wrapper.properties}, plus {@code JAVA_HOME}).
+ * Later starts read the cache instead of forking Maven. The settings files are cheap to
+ * read and may change at any time, so they are parsed on every probe.
+ * <p>
+ * The server probes in the background at startup; {@link #environment()} returns the
+ * result once it is known. {@code mvn -v} runs in the admission controller's background
+ * lane, beside the builds of tool calls rather than in their slots.
+ */
+public final class MavenEnvironmentProbe {
+
+    private static final Logger log = LoggerFactory.getLogger(MavenEnvironmentProbe.class);
+
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(60);
+
+    private static final int CACHE_FORMAT = 1;
+    private static final Pattern ANSI_ESCAPE = Pattern.compile("\u001B\\[[;\\d]*m");
+    private static final Pattern MAVEN_VERSION = Pattern.compile("^Apache Maven (\\S+)", Pattern.MULTILINE);
+    private static final Pattern MAVEN_HOME = Pattern.compile("^Maven home: (.+)$", Pattern.MULTILINE);
+    private static final Pattern JAVA = Pattern.compile(
+            "^Java version: ([^,]+), vendor: ([^,]+), runtime: (.+)$", Pattern.MULTILINE);
+    private static final Pattern OS = Pattern.compile(
+            "^OS name: \"([^\"]*)\", version: \"([^\"]*)\", arch: \"([^\"]*)\"", Pattern.MULTILINE);
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{(env\\.)?([^}]+)}");
+
+    private final Path cacheDirectory;
+    private final Path userHome;
+    private final Duration timeout;
+    private final AdmissionController admission;
+    private final ResourcePlanner planner;
+    private volatile CompletableFuture<MavenEnvironment> pending = CompletableFuture.completedFuture(null);
+
+    /**
+     * @param cacheDirectory where probe results are kept between restarts
+     * @param userHome       home directory holding {@code .m2/settings.xml}
+     * @param timeout        how long {@code mvn -v} may take
+     */
+    public MavenEnvironmentProbe(Path cacheDirectory, Path userHome, Duration timeout) {
+        this(cacheDirectory, userHome, timeout, AdmissionController.unlimited(), null);
+    }
+
+    /**
+     * @param cacheDirectory where probe results are kept between restarts
+     * @param userHome       home directory holding {@code .m2/settings.xml}
+     * @param timeout        how long {@code mvn -v} may take, once admitted
+     * @param admission      limit of builds at once {@code mvn -v} waits for
+     * @param planner        planner of the build's {@code MAVEN_OPTS}, or null to leave them as they are
+     */
+    public MavenEnvironmentProbe(Path cacheDirectory, Path userHome, Duration timeout,
+                                 AdmissionController admission, ResourcePlanner planner) {
+        this.cacheDirectory = cacheDirectory;
+        this.userHome = userHome;
+        this.timeout = timeout;
+        this.admission = admission;
+        this.planner = planner;
+    }
+
+    /**
+     * Probe under the user cache directory with the default timeout.
+     */
+    public static MavenEnvironmentProbe createDefault() {
+        return createDefault(AdmissionController.unlimited(), null);
+    }
+
+    /**
+     * Probe under the user cache directory with the default timeout, running {@code mvn -v}
+     * under the server's admission control.
+     *
+     * @param planner planner of the build's {@code MAVEN_OPTS}, or null to leave them as they are
+     */
+    public static MavenEnvironmentProbe createDefault(AdmissionController admission, ResourcePlanner planner) {
+        Path home = Path.of(System.getProperty("user.home"));
+        return new MavenEnvironmentProbe(home.resolve(".cache").resolve("maven-mcp").resolve("env"),
+                home, DEFAULT_TIMEOUT, admission, planner);
+    }
+
+    /**
+     * Probe on a daemon thread; the result becomes available through {@link #environment()}.
+     */
+    public CompletableFuture<MavenEnvironment> startInBackground(Path executable, Path projectDir) {
+        CompletableFuture<MavenEnvironment> future = new CompletableFuture<>();
+        pending = future;
+        Thread thread = new Thread(() -> {
+            try {
+                future.complete(probe(executable, projectDir));
+            } catch (RuntimeException e) {
+                log.warn("Maven environment probe failed: {}", e.getMessage());
+                future.completeExceptionally(e);
+            }
+        }, "maven-mcp-env-probe");
+        thread.setDaemon(true);
+        thread.start();
+        return future;
+    }
+
+    /**
+     * @return the environment found by the last background probe, or null while it is
+     *         still running (or if it failed)
+     */
+    public MavenEnvironment environment() {
+        CompletableFuture<MavenEnvironment> future = pending;
+        return future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    /**
+     * Probe synchronously: {@code mvn -v} from the cache or by running it, then the
+     * settings files.
+     *
+     * @param executable Maven executable
+     * @param projectDir directory to run it in (a wrapper resolves its config from there)
+     */
+    public MavenEnvironment probe(Path executable, Path projectDir) {
+        Map<String, String> key = cacheKey(executable, projectDir);
+        Path cacheFile = cacheDirectory.resolve(
+                Integer.toHexString(executable.toAbsolutePath().normalize().toString().hashCode()) + ".properties");
+
+        VersionInfo version = readCache(cacheFile, key);
+        boolean cached = version != null;
+        String error = null;
+        if (version == null) {
+            try {
+                version = parseVersionOutput(runVersion(executable, projectDir));
+                writeCache(cacheFile, key, version);
+            } catch (IOException e) {
+                log.debug("Cannot probe {}: {}", executable, e.getMessage());
+                error = e.getMessage();
+                version = new VersionInfo(null, null, null, null, null, null);
+            }
+        }
+
+        Settings settings = readSettings(version.mavenHome());
+        return new MavenEnvironment(executable.toString(), version.mavenVersion(), version.mavenHome(),
+                version.javaVersion(), version.javaVendor(), version.javaHome(), version.os(),
+                settings.localRepository(), settings.mirrors(), cached, error);
+    }
+
+    // --- mvn -v ---
+
+    /**
+     * What {@code mvn -v} reports.
+     */
+    record VersionInfo(String mavenVersion, String mavenHome, String javaVersion, String javaVendor,
+                       String javaHome, String os) {
+    }
+
+    private String runVersion(Path executable, Path projectDir) throws IOException {
+        Path output = Files.createTempFile("maven-mcp-version", ".txt");
+        try (AdmissionController.Permit permit = admission.admitBackground("-v", List.of(), timeout)) {
+            ProcessBuilder builder = new ProcessBuilder(executable.toString(), "-v", "-B")
+                    .directory(projectDir.toFile())
+                    .redirectErrorStream(true)
+                    .redirectOutput(output.toFile());
+            String mavenOpts = planner == null ? null : planner.mavenOpts(projectDir);
+            if (mavenOpts != null) {
+                builder.environment().put("MAVEN_OPTS", mavenOpts);
+            }
+            Process process = builder.start();
+            if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+                throw new IOException("mvn -v did not finish within " + timeout.toSeconds() + "s");
+            }
+            String text = Files.readString(output, StandardCharsets.UTF_8);
+            if (process.exitValue() != 0) {
+                throw new IOException("mvn -v exited with code " + process.exitValue());
+            }
+            return text;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running mvn -v", e);
+        } catch (MavenExecutionException e) {
+            throw new IOException(e.getMessage(), e);
+        } finally {
+            Files.deleteIfExists(output);
+        }
+    }
+
+    /**
+     * Parse the output of {@code mvn -v}.
+     *
+     * @throws IOException if it does not contain a Maven version
+     */
+    static VersionInfo parseVersionOutput(String output) throws IOException {
+        String text = ANSI_ESCAPE.matcher(output).replaceAll("");
+        Matcher version = MAVEN_VERSION.matcher(text);
+        if (!version.find()) {
+            throw new IOException("Unrecognized output of mvn -v");
+        }
+        Matcher home = MAVEN_HOME.matcher(text);
+        Matcher java = JAVA.matcher(text);
+        boolean hasJava = java.find();
+        Matcher os = OS.matcher(text);
+        boolean hasOs = os.find();
+        return new VersionInfo(
+                version.group(1),
+                home.find() ? home.group(1).trim() : null,
+                hasJava ? java.group(1).trim() : null,
+                hasJava ? java.group(2).trim() : null,
+                hasJava ? java.group(3).trim() : null,
+                hasOs ? os.group(1) + " " + os.group(2) + " " + os.group(3) : null);
+    }
+
+    // --- Cache ---
+
+    private static Map<String, String> cacheKey(Path executable, Path projectDir) {
+        Map<String, String> key = new LinkedHashMap<>();
+        key.put("format", String.valueOf(CACHE_FORMAT));
+        key.put("executable", realPath(executable).toString());
+        key.put("executableModified", modified(executable));
+        if (executable.getFileName().toString().startsWith("mvnw")) {
+            key.put("wrapperPropertiesModified",
+                    modified(projectDir.resolve(".mvn").resolve("wrapper").resolve("maven-wrapper.properties")));
+        }
+        key.put("javaHome", Objects.requireNonNullElse(System.getenv("JAVA_HOME"), ""));
+        return key;
+    }
+
+    private static VersionInfo readCache(Path cacheFile, Map<String, String> key) {
+        if (!Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException | IllegalArgumentException e) {
+            log.debug("Ignoring unreadable environment cache {}: {}", cacheFile, e.getMessage());
+            return null;
+        }
+        for (Map.Entry<String, String> entry : key.entrySet()) {
+            if (!entry.getValue().equals(properties.getProperty("key." + entry.getKey()))) {
+                return null;
+            }
+        }
+        return new VersionInfo(
+                properties.getProperty("mavenVersion"),
+                properties.getProperty("mavenHome"),
+                properties.getProperty("javaVersion"),
+                properties.getProperty("javaVendor"),
+                properties.getProperty("javaHome"),
+                properties.getProperty("os"));
+    }
+
+    private void writeCache(Path cacheFile, Map<String, String> key, VersionInfo version) {
+        Properties properties = new Properties();
+        key.forEach((name, value) -> properties.setProperty("key." + name, value));
+        putIfNotNull(properties, "mavenVersion", version.mavenVersion());
+        putIfNotNull(properties, "mavenHome", version.mavenHome());
+        putIfNotNull(properties, "javaVersion", version.javaVersion());
+        putIfNotNull(properties, "javaVendor", version.javaVendor());
+        putIfNotNull(properties, "javaHome", version.javaHome());
+        putIfNotNull(properties, "os", version.os());
+        try {
+            Files.createDirectories(cacheDirectory);
+            // Write aside and move, so that a concurrent start never reads half a file
+            Path temp = Files.createTempFile(cacheDirectory, "probe", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                properties.store(writer, "mvn -v, cached by maven-mcp");
+            }
+            Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.debug("Cannot write environment cache {}: {}", cacheFile, e.getMessage());
+        }
+    }
+
+    private static void putIfNotNull(Properties properties, String name, String value) {
+        if (value != null) {
+            properties.setProperty(name, value);
+        }
+    }
+
+    private static Path realPath(Path path) {
+        try {
+            return path.toRealPath();
+        } catch (IOException e) {
+            return path.toAbsolutePath().normalize();
+        }
+    }
+
+    private static String modified(Path path) {
+        try {
+            return String.valueOf(Files.getLastModifiedTime(path).toMillis());
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    // --- settings.xml ---
+
+    record Settings(String localRepository, List<Mirror> mirrors) {
+    }
+
+    /**
+     * Read the user settings, then the global ones, the way Maven merges them: the user's
+     * local repository wins, and a mirror id defined by the user hides the global one.
+     */
+    Settings readSettings(String mavenHome) {
+        List<Path> files = new ArrayList<>();
+        files.add(userHome.resolve(".m2").resolve("settings.xml"));
+        if (mavenHome != null) {
+            files.add(Path.of(mavenHome, "conf", "settings.xml"));
+        }
+        String localRepository = null;
+        Map<String, Mirror> mirrors = new LinkedHashMap<>();
+        for (Path file : files) {
+            Document document = parse(file);
+            if (document == null) {
+                continue;
+            }
+            Element root = document.getDocumentElement();
+            if (localRepository == null) {
+                String value = childText(root, "localRepository");
+                if (value != null && !value.isBlank()) {
+                    localRepository = interpolate(value.trim());
+                }
+            }
+            NodeList mirrorElements = root.getElementsByTagName("mirror");
+            for (int i = 0; i < mirrorElements.getLength(); i++) {
+                Element mirror = (Element) mirrorElements.item(i);
+                String id = childText(mirror, "id");
+                mirrors.putIfAbsent(id == null ? "default" : id,
+                        new Mirror(id, childText(mirror, "mirrorOf"), interpolate(childText(mirror, "url"))));
+            }
+        }
+        if (localRepository == null) {
+            localRepository = userHome.resolve(".m2").resolve("repository").toString();
+        }
+        return new Settings(localRepository, List.copyOf(mirrors.values()));
+    }
+
+    private static Document parse(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return XmlUtils.newSecureDocumentBuilder().parse(file.toFile());
+        } catch (Exception e) {
+            log.debug("Cannot parse {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String childText(Element parent, String name) {
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element element && name.equals(element.getTagName())) {
+                return element.getTextContent().trim();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolve {@code ${user.home}}-style system properties and {@code ${env.NAME}};
+     * unknown placeholders are left as they are.
+     */
+    private String interpolate(String value) {
+        if (value == null) {
+            return null;
+        }
+        return PLACEHOLDER.matcher(value).replaceAll(match -> {
+            String name = match.group(2);
+            String resolved;
+            if (match.group(1) != null) {
+                resolved = System.getenv(name);
+            } else if ("user.home".equals(name)) {
+                resolved = userHome.toString();
+            } else {
+                resolved = System.getProperty(name);
+            }
+            return Matcher.quoteReplacement(resolved != null ? resolved : match.group());
+        });
+    }
+}
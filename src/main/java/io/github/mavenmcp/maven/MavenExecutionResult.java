@@ -1,19 +1,53 @@
 package io.github.mavenmcp.maven;
 
+import io.github.mavenmcp.model.DurationPrediction;
+import io.github.mavenmcp.model.QueueWait;
+import io.github.mavenmcp.model.ResourceAllocation;
+import io.github.mavenmcp.model.ResourceUsage;
+
 /**
  * Raw result of a Maven process execution.
  *
- * @param exitCode process exit code (0 = success)
- * @param stdout   complete captured standard output
- * @param stderr   complete captured standard error
- * @param duration wall-clock execution time in milliseconds
+ * @param exitCode   process exit code (0 = success)
+ * @param stdout     complete captured standard output
+ * @param stderr     complete captured standard error
+ * @param duration   wall-clock execution time in milliseconds
+ * @param runId      ID of the spooled full log, or null if the output was not spooled
+ * @param timings    process timing milestones, null if not measured
+ * @param timedOut   whether the process was killed for running past its timeout
+ * @param prediction expected duration and timeout the build ran with, null if not predicted
+ * @param resources  memory, CPU and processes used by Maven and its children, null if not sampled
+ * @param queue      how long the build waited for its turn, null if it did not have to
+ * @param allocation cores and memory the build was given, null if not planned
  */
-public record MavenExecutionResult(int exitCode, String stdout, String stderr, long duration) {
+public record MavenExecutionResult(int exitCode, String stdout, String stderr, long duration, String runId,
+                                   ProcessTimings timings, boolean timedOut, DurationPrediction prediction,
+                                   ResourceUsage resources, QueueWait queue,
+                                   ResourceAllocation allocation) {
+
+    public MavenExecutionResult(int exitCode, String stdout, String stderr, long duration) {
+        this(exitCode, stdout, stderr, duration, null, null);
+    }
+
+    public MavenExecutionResult(int exitCode, String stdout, String stderr, long duration, String runId,
+                                ProcessTimings timings) {
+        this(exitCode, stdout, stderr, duration, runId, timings, false, null, null, null, null);
+    }
+
+    public MavenExecutionResult withPrediction(DurationPrediction prediction) {
+        return new MavenExecutionResult(exitCode, stdout, stderr, duration, runId, timings, timedOut, prediction,
+                resources, queue, allocation);
+    }
+
+    public MavenExecutionResult withQueue(QueueWait queue) {
+        return new MavenExecutionResult(exitCode, stdout, stderr, duration, runId, timings, timedOut, prediction,
+                resources, queue, allocation);
+    }
 
     /**
      * @return true if Maven exited successfully (exit code 0)
      */
     public boolean isSuccess() {
-        return exitCode == 0;
+        return exitCode == 0 && !timedOut;
     }
 }
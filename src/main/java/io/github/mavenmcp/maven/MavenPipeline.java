@@ -0,0 +1,314 @@
+package io.github.mavenmcp.maven;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.github.mavenmcp.model.ProjectModel;
+
+/**
+ * Ordered build steps run in one Maven invocation, and the attribution of its output to them.
+ * <p>
+ * Steps are lifecycle phases ({@code clean}, {@code compile}, {@code test}, ...) or plugin
+ * goals ({@code dependency:tree}). Consecutive phases of one lifecycle become a single Maven
+ * task up to the last of them, since running a phase runs all phases before it:
+ * {@code clean, compile, test} runs as {@code mvn clean test}, and compiles once.
+ * <p>
+ * Maven prints a banner before every mojo ({@code --- compiler:3.13.0:compile (default-compile)
+ * @ core ---}). Each mojo is attributed to a step by the phase it is bound to, taken from the
+ * module's plugin executions or else from the default lifecycle bindings, and by the order in
+ * which each module goes through the tasks; the lines up to the next banner are its output.
+ * Mojos with an unknown phase stay with the step before them.
+ */
+public final class MavenPipeline {
+
+    static final List<String> CLEAN_PHASES = List.of("pre-clean", "clean", "post-clean");
+
+    private static final Map<String, String> DEFAULT_BINDINGS = Map.ofEntries(
+            Map.entry("clean:clean", "clean"),
+            Map.entry("resources:resources", "process-resources"),
+            Map.entry("compiler:compile", "compile"),
+            Map.entry("resources:testResources", "process-test-resources"),
+            Map.entry("compiler:testCompile", "test-compile"),
+            Map.entry("surefire:test", "test"),
+            Map.entry("jar:jar", "package"),
+            Map.entry("war:war", "package"),
+            Map.entry("ear:ear", "package"),
+            Map.entry("ejb:ejb", "package"),
+            Map.entry("rar:rar", "package"),
+            Map.entry("source:jar-no-fork", "package"),
+            Map.entry("javadoc:jar", "package"),
+            Map.entry("failsafe:integration-test", "integration-test"),
+            Map.entry("failsafe:verify", "verify"),
+            Map.entry("install:install", "install"),
+            Map.entry("deploy:deploy", "deploy"));
+    private static final Pattern FAILED_GOAL = Pattern.compile(
+            "^\\[ERROR] Failed to execute goal \\S+ \\(\\S+\\) on project ([^:\\s]+)");
+    private static final Pattern BUILD_END = Pattern.compile(
+            "^\\[INFO] (Reactor Summary|BUILD SUCCESS|BUILD FAILURE)");
+
+    /**
+     * One Maven task: a lifecycle phase covering one or more steps, or a plugin goal.
+     *
+     * @param goal      what is passed to Maven
+     * @param lifecycle phases of its lifecycle, null for a plugin goal
+     * @param steps     indexes of its steps
+     * @param phases    index of each step's phase in the lifecycle
+     */
+    private record Task(String goal, List<String> lifecycle, List<Integer> steps, List<Integer> phases) {
+        int maxPhase() {
+            return phases.getLast();
+        }
+    }
+
+    /**
+     * Where a module is in the tasks.
+     */
+    private static final class Position {
+        int task;
+        int phase = -1;
+        int step;
+    }
+
+    /**
+     * The output of one step.
+     *
+     * @param step     the step as given
+     * @param mojos    number of mojo executions attributed to it, over all modules
+     * @param tests    whether it ran Surefire or Failsafe tests
+     * @param duration time its mojos took in milliseconds, null if not measured
+     * @param output   its lines of Maven output
+     */
+    public record StepOutput(String step, int mojos, boolean tests, Long duration, String output) {
+    }
+
+    /**
+     * @param steps      output per step, in step order
+     * @param failedStep index of the step whose mojo failed the build, -1 if it succeeded
+     */
+    public record Attribution(List<StepOutput> steps, int failedStep) {
+    }
+
+    private final List<String> steps;
+    private final List<Task> tasks;
+
+    private MavenPipeline(List<String> steps, List<Task> tasks) {
+        this.steps = steps;
+        this.tasks = tasks;
+    }
+
+    /**
+     * Plan the Maven tasks for the steps.
+     *
+     * @throws IllegalArgumentException if there are no steps or one is not a phase or goal
+     */
+    public static MavenPipeline plan(List<String> steps) {
+        if (steps == null || steps.isEmpty()) {
+            throw new IllegalArgumentException("No steps given");
+        }
+        List<String> trimmed = steps.stream().map(String::trim).toList();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < trimmed.size(); i++) {
+            String step = trimmed.get(i);
+            List<String> lifecycle = CLEAN_PHASES.contains(step) ? CLEAN_PHASES
+                    : FastProfile.PHASES.contains(step) ? FastProfile.PHASES : null;
+            if (lifecycle == null) {
+                if (step.indexOf(':') <= 0 || step.contains(" ")) {
+                    throw new IllegalArgumentException("Unknown step '" + step + "': expected a lifecycle phase "
+                            + "such as compile or test, or a plugin goal such as dependency:tree");
+                }
+                tasks.add(new Task(step, null, List.of(i), List.of(-1)));
+                continue;
+            }
+            int phase = lifecycle.indexOf(step);
+            Task last = tasks.isEmpty() ? null : tasks.getLast();
+            if (last != null && last.lifecycle() == lifecycle && last.maxPhase() < phase) {
+                tasks.set(tasks.size() - 1, new Task(step, lifecycle, append(last.steps(), i),
+                        append(last.phases(), phase)));
+            } else {
+                tasks.add(new Task(step, lifecycle, List.of(i), List.of(phase)));
+            }
+        }
+        return new MavenPipeline(trimmed, List.copyOf(tasks));
+    }
+
+    private static List<Integer> append(List<Integer> list, int value) {
+        List<Integer> appended = new ArrayList<>(list);
+        appended.add(value);
+        return List.copyOf(appended);
+    }
+
+    public List<String> steps() {
+        return steps;
+    }
+
+    /**
+     * @return the Maven tasks, separated by spaces, e.g. "clean test"
+     */
+    public String goals() {
+        return String.join(" ", tasks.stream().map(Task::goal).toList());
+    }
+
+    /**
+     * @param step index of a step
+     * @return index of its phase in the default lifecycle, -1 for other steps
+     */
+    public int defaultPhase(int step) {
+        return phaseIndex(steps.get(step));
+    }
+
+    /**
+     * @return index of a phase in the default lifecycle, -1 if it is not one of its phases
+     */
+    public static int phaseIndex(String phase) {
+        return FastProfile.PHASES.indexOf(phase);
+    }
+
+    /**
+     * Split the output of a run of {@link #goals()} between the steps.
+     *
+     * @param stdout  Maven's standard output
+     * @param timings the run's timings, for the start of each mojo; may be null
+     * @param model   the project's modules, for the phases of their plugin executions
+     * @param success whether the build succeeded
+     */
+    public Attribution attribute(String stdout, ProcessTimings timings, ProjectModel model, boolean success) {
+        int count = steps.size();
+        StringBuilder[] outputs = new StringBuilder[count];
+        int[] mojos = new int[count];
+        boolean[] tests = new boolean[count];
+        long[] nanos = new long[count];
+        for (int i = 0; i < count; i++) {
+            outputs[i] = new StringBuilder();
+        }
+        List<Long> starts = timings == null ? List.of() : timings.mojoStartNanos();
+        Map<String, Position> positions = new HashMap<>();
+        StringBuilder preamble = new StringBuilder();
+        StringBuilder summary = null;
+        String failedModule = null;
+        int current = -1;
+        int mojo = -1;
+        for (String line : stdout.split("\\R")) {
+            Matcher banner = MavenRunner.MOJO_BANNER.matcher(line);
+            if (summary == null && banner.matches()) {
+                String[] parts = banner.group(1).split(":");
+                String prefix = prefix(parts[0]);
+                String goal = parts[parts.length - 1];
+                String module = banner.group(3);
+                int step = attribute(positions.computeIfAbsent(module, m -> new Position()),
+                        prefix, goal, banner.group(2), module(model, module));
+                mojo++;
+                if (mojo < starts.size() && current >= 0 && mojo > 0) {
+                    nanos[current] += starts.get(mojo) - starts.get(mojo - 1);
+                }
+                current = step;
+                mojos[step]++;
+                tests[step] |= prefix.equals("surefire") && goal.equals("test")
+                        || prefix.equals("failsafe") && goal.equals("integration-test");
+            } else if (summary == null && BUILD_END.matcher(line).find()) {
+                summary = new StringBuilder();
+            }
+            Matcher failed = FAILED_GOAL.matcher(line);
+            if (failed.find()) {
+                failedModule = failed.group(1);
+            }
+            (summary != null ? summary : current < 0 ? preamble : outputs[current]).append(line).append('\n');
+        }
+        boolean timed = timings != null && mojo >= 0 && starts.size() == mojo + 1;
+        if (timed) {
+            nanos[current] += timings.exitNanos() - starts.get(mojo);
+        }
+
+        int failedStep = -1;
+        if (!success) {
+            Position position = failedModule == null ? null : positions.get(failedModule);
+            failedStep = position != null ? position.step : Math.max(current, 0);
+            outputs[failedStep].insert(0, current < 0 ? preamble : "");
+            if (summary != null) {
+                outputs[failedStep].append(summary);
+            }
+        }
+        List<StepOutput> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(new StepOutput(steps.get(i), mojos[i], tests[i], timed ? nanos[i] / 1_000_000 : null,
+                    outputs[i].toString()));
+        }
+        return new Attribution(result, failedStep);
+    }
+
+    /**
+     * The step of a mojo a module runs, moving the module's position forward.
+     */
+    private int attribute(Position position, String prefix, String goal, String executionId,
+                          ProjectModel.Module module) {
+        boolean direct = executionId.startsWith("default-cli");
+        String phaseName = direct ? null : phase(prefix, goal, executionId, module);
+        List<String> lifecycle = phaseName == null ? null
+                : CLEAN_PHASES.contains(phaseName) ? CLEAN_PHASES
+                : FastProfile.PHASES.contains(phaseName) ? FastProfile.PHASES : null;
+        int phase = lifecycle == null ? -1 : lifecycle.indexOf(phaseName);
+        for (int t = position.task; t < tasks.size(); t++) {
+            Task task = tasks.get(t);
+            boolean fits = direct ? task.lifecycle() == null
+                    : lifecycle == null ? t == position.task && task.lifecycle() != null
+                    : task.lifecycle() == lifecycle && phase <= task.maxPhase()
+                            && (t > position.task || phase >= position.phase);
+            if (fits) {
+                // A plugin goal only runs once per module
+                position.task = direct ? t + 1 : t;
+                position.phase = direct ? -1 : lifecycle == null ? position.phase : phase;
+                position.step = direct ? task.steps().getFirst() : step(task, position.phase);
+                return position.step;
+            }
+        }
+        return position.step;
+    }
+
+    private static int step(Task task, int phase) {
+        for (int i = 0; i < task.steps().size(); i++) {
+            if (task.phases().get(i) >= phase) {
+                return task.steps().get(i);
+            }
+        }
+        return task.steps().getLast();
+    }
+
+    private static String phase(String prefix, String goal, String executionId, ProjectModel.Module module) {
+        if (module != null) {
+            for (ProjectModel.Plugin plugin : module.plugins()) {
+                if (!prefix.equals(prefix(plugin.artifactId()))) {
+                    continue;
+                }
+                for (ProjectModel.Execution execution : plugin.executions()) {
+                    if (executionId.equals(execution.id()) && execution.phase() != null) {
+                        return execution.phase();
+                    }
+                }
+            }
+        }
+        return DEFAULT_BINDINGS.get(prefix + ":" + goal);
+    }
+
+    /**
+     * The goal prefix of a plugin: {@code maven-compiler-plugin} and
+     * {@code jacoco-maven-plugin} become {@code compiler} and {@code jacoco}.
+     */
+    static String prefix(String plugin) {
+        if (plugin.startsWith("maven-") && plugin.endsWith("-plugin")) {
+            return plugin.substring("maven-".length(), plugin.length() - "-plugin".length());
+        }
+        if (plugin.endsWith("-maven-plugin")) {
+            return plugin.substring(0, plugin.length() - "-maven-plugin".length());
+        }
+        return plugin;
+    }
+
+    private static ProjectModel.Module module(ProjectModel model, String artifactId) {
+        return model == null ? null : model.modules().stream()
+                .filter(m -> artifactId.equals(m.artifactId()))
+                .findFirst().orElse(null);
+    }
+}
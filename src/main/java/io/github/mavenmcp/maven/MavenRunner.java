@@ -5,28 +5,96 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 
+import io.github.mavenmcp.jfr.MavenProcessEvent;
+import io.github.mavenmcp.log.LogSpool;
+import io.github.mavenmcp.model.ProjectModel;
+import io.github.mavenmcp.model.ResourceAllocation;
+import io.github.mavenmcp.model.ResourceUsage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Executes Maven commands as child processes and captures their output.
  * <p>
- * Stdout and stderr are consumed on separate threads via {@link CompletableFuture}
+ * Stdout and stderr are consumed on threads of their own, outside the common pool,
  * to prevent deadlock when Maven produces large output on both streams.
+ * When a {@link LogSpool} is configured, every line of both streams is also spooled
+ * as it is read, and the result carries the run ID of the spooled log. Each process is
+ * also emitted as a {@link MavenProcessEvent} for JFR recordings. The time each mojo
+ * started is taken from when its banner was read, so that the output of a multi-goal
+ * run can be timed per goal. A build given a timeout is killed, with the processes it
+ * started, once it runs past it. With a {@link ResourcePlanner}, each build is given its
+ * share of the host's cores and memory through its arguments and {@code MAVEN_OPTS}.
  */
 public class MavenRunner {
 
     private static final Logger log = LoggerFactory.getLogger(MavenRunner.class);
 
+    /** Two threads per running process, created as needed and kept a minute for the next one. */
+    private static final ExecutorService STREAM_READERS = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "maven-mcp-output-reader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static final Pattern MOJO_BANNER = Pattern.compile("^\\[INFO] --- (\\S+) \\((\\S+)\\) @ (\\S+) ---$");
+
+    /** How long a timed-out build gets to stop before it is killed forcibly. */
+    static final Duration KILL_GRACE = Duration.ofSeconds(10);
+
+    private final LogSpool spool;
+    private final ResourcePlanner planner;
+    private final Supplier<ProjectModel> model;
+
+    public MavenRunner() {
+        this(null);
+    }
+
+    /**
+     * @param spool spool for complete run logs, or null to keep output in memory only
+     */
+    public MavenRunner(LogSpool spool) {
+        this(spool, null);
+    }
+
+    /**
+     * @param spool   spool for complete run logs, or null to keep output in memory only
+     * @param planner sizes the threads, test JVMs and heaps of each build, or null to leave them to Maven
+     */
+    public MavenRunner(LogSpool spool, ResourcePlanner planner) {
+        this(spool, planner, ProjectModel::empty);
+    }
+
+    /**
+     * @param spool   spool for complete run logs, or null to keep output in memory only
+     * @param planner sizes the threads, test JVMs and heaps of each build, or null to leave them to Maven
+     * @param model   the project's POMs, whose {@code argLine} and {@code forkCount} the planner keeps
+     */
+    public MavenRunner(LogSpool spool, ResourcePlanner planner, Supplier<ProjectModel> model) {
+        this.spool = spool;
+        this.planner = planner;
+        this.model = model;
+    }
+
     /**
      * Execute a Maven goal as a child process.
      *
-     * @param goal            the Maven goal to execute (e.g., "compile", "test")
+     * @param goal            the Maven goal to execute (e.g., "compile", "test"), or several
+     *                        separated by spaces (e.g., "clean test")
      * @param extraArgs       additional Maven CLI arguments (e.g., ["-DskipTests"])
      * @param mavenExecutable path to the Maven executable (mvnw or mvn)
      * @param projectDir      the project working directory
@@ -35,29 +103,103 @@ public class MavenRunner {
      */
     public MavenExecutionResult execute(String goal, List<String> extraArgs,
                                         Path mavenExecutable, Path projectDir) {
-        List<String> command = buildCommand(mavenExecutable, goal, extraArgs);
+        return execute(goal, extraArgs, mavenExecutable, projectDir, null);
+    }
+
+    /**
+     * Execute a Maven goal as a child process, killing it with the processes it started
+     * (forked test JVMs, ...) if it runs past the timeout.
+     *
+     * @param timeout how long the build may run, or null for no limit
+     * @see #execute(String, List, Path, Path)
+     */
+    public MavenExecutionResult execute(String goal, List<String> extraArgs,
+                                        Path mavenExecutable, Path projectDir, Duration timeout) {
+        ResourceAllocation allocation = planner == null ? null : planner.allocate(extraArgs, projectDir, model.get());
+        List<String> command = buildCommand(mavenExecutable, goal,
+                allocation == null ? extraArgs : allocation.apply(extraArgs));
         log.info("Executing: {}", String.join(" ", command));
 
         ProcessBuilder pb = new ProcessBuilder(command);
         pb.directory(projectDir.toFile());
+        if (allocation != null && allocation.mavenOpts() != null) {
+            pb.environment().put("MAVEN_OPTS", allocation.mavenOpts());
+        }
         // Do NOT redirect streams — we capture them separately
 
+        MavenProcessEvent event = new MavenProcessEvent();
+        event.goal = goal;
+        event.arguments = String.join(" ", command.subList(command.indexOf("-B"), command.size()));
+        event.projectDir = projectDir.toString();
+        event.exitCode = -1;
+        event.begin();
+
         long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        LogSpool.Capture capture = null;
+        ProcessSampler sampler = null;
         try {
             Process process = pb.start();
+            event.pid = process.pid();
+            sampler = ProcessSampler.start(process.toHandle());
+            long spawnNanos = System.nanoTime() - startNanos;
+            capture = spool != null ? spool.open() : null;
+            Consumer<String> spoolSink = capture != null ? capture::append : line -> { };
+            AtomicLong firstOutput = new AtomicLong(-1);
+            Consumer<String> sink = line -> {
+                if (firstOutput.get() < 0) {
+                    firstOutput.compareAndSet(-1, System.nanoTime() - startNanos);
+                }
+                spoolSink.accept(line);
+            };
+            List<Long> mojoStarts = new ArrayList<>();
+            Consumer<String> stdoutSink = line -> {
+                if (line.startsWith("[INFO] --- ") && MOJO_BANNER.matcher(line).matches()) {
+                    mojoStarts.add(System.nanoTime() - startNanos);
+                }
+                sink.accept(line);
+            };
 
             // Consume stdout and stderr concurrently to prevent deadlock
-            CompletableFuture<String> stdoutFuture = readStreamAsync(process.getInputStream());
-            CompletableFuture<String> stderrFuture = readStreamAsync(process.getErrorStream());
+            CompletableFuture<String> stdoutFuture = readStreamAsync(process.getInputStream(), stdoutSink);
+            CompletableFuture<String> stderrFuture = readStreamAsync(process.getErrorStream(), sink);
 
+            boolean timedOut = timeout != null && !process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (timedOut) {
+                log.warn("Maven did not finish within {}s, killing it", timeout.toSeconds());
+                kill(process);
+            }
             int exitCode = process.waitFor();
+            long exitNanos = System.nanoTime() - startNanos;
             long duration = System.currentTimeMillis() - startTime;
+            ResourceUsage resources = sampler == null ? null : sampler.finish();
+            sampler = null;
 
             String stdout = stdoutFuture.join();
             String stderr = stderrFuture.join();
+            if (timedOut) {
+                String killed = "[ERROR] Maven did not finish within " + timeout.toSeconds() + "s and was killed";
+                spoolSink.accept(killed);
+                stdout = stdout.isEmpty() ? killed : stdout + "\n" + killed;
+            }
 
             log.info("Maven exited with code {} in {}ms", exitCode, duration);
-            return new MavenExecutionResult(exitCode, stdout, stderr, duration);
+            String runId = null;
+            if (capture != null) {
+                capture.close();
+                runId = capture.runId();
+                capture = null;
+            }
+            event.exitCode = exitCode;
+            event.runId = runId;
+            if (resources != null) {
+                event.peakRss = resources.peakRss();
+                event.cpuTime = resources.cpuTime();
+                event.forkedJvms = resources.forkedJvms();
+            }
+            return new MavenExecutionResult(exitCode, stdout, stderr, duration, runId,
+                    new ProcessTimings(spawnNanos, firstOutput.get(), exitNanos, List.copyOf(mojoStarts)),
+                    timedOut, null, resources, null, allocation);
 
         } catch (IOException e) {
             long duration = System.currentTimeMillis() - startTime;
@@ -68,13 +210,45 @@ public class MavenRunner {
             long duration = System.currentTimeMillis() - startTime;
             throw new MavenExecutionException(
                     "Maven process interrupted", e, duration);
+        } finally {
+            if (sampler != null) {
+                sampler.finish();
+            }
+            if (capture != null) {
+                capture.close();
+            }
+            event.commit();
+        }
+    }
+
+    /**
+     * Stop a process and everything it started: politely first, so that Maven and forked
+     * JVMs can run their shutdown hooks, then forcibly. The descendants are listed before
+     * the process dies, since they are no longer its descendants afterwards; one left
+     * holding the output pipes would keep the stream readers from ever finishing.
+     */
+    private static void kill(Process process) throws InterruptedException {
+        List<ProcessHandle> tree = new ArrayList<>(process.descendants().toList());
+        tree.add(process.toHandle());
+        tree.forEach(ProcessHandle::destroy);
+        long deadline = System.nanoTime() + KILL_GRACE.toNanos();
+        for (ProcessHandle handle : tree) {
+            long left = deadline - System.nanoTime();
+            try {
+                if (left > 0) {
+                    handle.onExit().get(left, TimeUnit.NANOSECONDS);
+                }
+            } catch (ExecutionException | TimeoutException e) {
+                // Killed forcibly below
+            }
         }
+        tree.stream().filter(ProcessHandle::isAlive).forEach(ProcessHandle::destroyForcibly);
     }
 
     private List<String> buildCommand(Path mavenExecutable, String goal, List<String> extraArgs) {
         List<String> command = new ArrayList<>();
         command.add(mavenExecutable.toString());
-        command.add(goal);
+        command.addAll(List.of(goal.trim().split("\\s+")));
         command.add("-B"); // batch mode — always
         if (extraArgs != null) {
             command.addAll(extraArgs);
@@ -82,14 +256,28 @@ public class MavenRunner {
         return command;
     }
 
-    private CompletableFuture<String> readStreamAsync(InputStream inputStream) {
+    /**
+     * Read a stream of the process on a thread of its own: the reads block for as long as
+     * Maven runs, so on a shared pool the streams of concurrent builds would wait for each
+     * other's, and a build whose pipe nobody reads stalls.
+     */
+    private CompletableFuture<String> readStreamAsync(InputStream inputStream, Consumer<String> sink) {
         return CompletableFuture.supplyAsync(() -> {
             try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
-                return reader.lines().collect(Collectors.joining("\n"));
+                StringBuilder sb = new StringBuilder();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!sb.isEmpty()) {
+                        sb.append('\n');
+                    }
+                    sb.append(line);
+                    sink.accept(line);
+                }
+                return sb.toString();
             } catch (IOException e) {
                 log.warn("Error reading process stream: {}", e.getMessage());
                 return "";
             }
-        });
+        }, STREAM_READERS);
     }
 }
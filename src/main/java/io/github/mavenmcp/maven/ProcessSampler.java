@@ -0,0 +1,141 @@
+package io.github.mavenmcp.maven;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.github.mavenmcp.model.ResourceUsage;
+
+/**
+ * Samples the resource use of a process and its descendants from {@code /proc} while it
+ * runs: resident memory and threads from {@code /proc/<pid>/status}, CPU time and command
+ * name from {@code /proc/<pid>/stat}.
+ * <p>
+ * Memory and threads are summed over the processes alive at each sample, and the peak is
+ * kept. CPU time is the last value seen of each process, summed; whatever a process uses
+ * after the last sample before it exits is missed, so short-lived processes are
+ * undercounted. Every JVM in the tree but one, Maven's own, counts as forked. All builds
+ * share one sampling thread. Where there is no {@code /proc}, nothing is sampled.
+ */
+final class ProcessSampler {
+
+    static final Duration INTERVAL = Duration.ofMillis(200);
+    /** Clock ticks per second of the CPU times in {@code /proc/<pid>/stat} (USER_HZ). */
+    static final long CLOCK_TICKS = 100;
+
+    private static final Path PROC = Path.of("/proc");
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "maven-mcp-process-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ProcessHandle root;
+    private final Path proc;
+    private final Map<Long, Long> cpuTicks = new HashMap<>();
+    private final Set<Long> jvms = new HashSet<>();
+    private long peakRss;
+    private int peakThreads;
+    private int samples;
+    private ScheduledFuture<?> task;
+
+    ProcessSampler(ProcessHandle root, Path proc) {
+        this.root = root;
+        this.proc = proc;
+    }
+
+    /**
+     * Start sampling a process every {@link #INTERVAL}, beginning right away.
+     *
+     * @return the sampler, or null where there is no {@code /proc}
+     */
+    static ProcessSampler start(ProcessHandle root) {
+        if (!Files.isDirectory(PROC.resolve("self"))) {
+            return null;
+        }
+        ProcessSampler sampler = new ProcessSampler(root, PROC);
+        sampler.task = SCHEDULER.scheduleAtFixedRate(sampler::sample, 0, INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+        return sampler;
+    }
+
+    /**
+     * Stop sampling.
+     *
+     * @return what was sampled, null if the process ended before the first sample
+     */
+    synchronized ResourceUsage finish() {
+        if (task != null) {
+            task.cancel(false);
+        }
+        if (samples == 0) {
+            return null;
+        }
+        long ticks = cpuTicks.values().stream().mapToLong(Long::longValue).sum();
+        return new ResourceUsage(peakRss, ticks * 1000 / CLOCK_TICKS, peakThreads, Math.max(0, jvms.size() - 1),
+                samples);
+    }
+
+    /**
+     * Take one sample of the process and its current descendants.
+     */
+    synchronized void sample() {
+        List<Long> pids = new ArrayList<>();
+        pids.add(root.pid());
+        root.descendants().forEach(handle -> pids.add(handle.pid()));
+        long rss = 0;
+        int threads = 0;
+        boolean any = false;
+        for (long pid : pids) {
+            try {
+                String stat = Files.readString(proc.resolve(pid + "/stat"), StandardCharsets.UTF_8);
+                String status = Files.readString(proc.resolve(pid + "/status"), StandardCharsets.UTF_8);
+                // The command name may contain spaces and parentheses; fields follow the last ')'
+                int open = stat.indexOf('(');
+                int close = stat.lastIndexOf(')');
+                String[] fields = stat.substring(close + 2).split(" ");
+                // utime and stime are fields 14 and 15, the 12th and 13th after the state
+                cpuTicks.put(pid, Long.parseLong(fields[11]) + Long.parseLong(fields[12]));
+                if (stat.substring(open + 1, close).equals("java")) {
+                    jvms.add(pid);
+                }
+                rss += kilobytes(status, "VmRSS:") * 1024;
+                threads += (int) kilobytes(status, "Threads:");
+                any = true;
+            } catch (IOException | RuntimeException e) {
+                // Exited since it was listed, or no longer readable
+            }
+        }
+        if (any) {
+            samples++;
+            peakRss = Math.max(peakRss, rss);
+            peakThreads = Math.max(peakThreads, threads);
+        }
+    }
+
+    /**
+     * The number in a line of {@code /proc/<pid>/status}, e.g. 1234 of "VmRSS:  1234 kB";
+     * 0 if the line is missing, as VmRSS is for a zombie.
+     */
+    private static long kilobytes(String status, String field) {
+        int start = status.indexOf(field);
+        if (start < 0) {
+            return 0;
+        }
+        int end = status.indexOf('\n', start);
+        String value = status.substring(start + field.length(), end < 0 ? status.length() : end).trim();
+        int space = value.indexOf(' ');
+        return Long.parseLong(space < 0 ? value : value.substring(0, space));
+    }
+}
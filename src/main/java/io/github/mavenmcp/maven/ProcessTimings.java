@@ -0,0 +1,19 @@
+package io.github.mavenmcp.maven;
+
+import java.util.List;
+
+/**
+ * Timing milestones of a Maven process, measured from the moment it was started.
+ *
+ * @param spawnNanos       time until the process handle was returned
+ * @param firstOutputNanos time until the first line of output was read, -1 if there was none
+ * @param exitNanos        time until the process exited
+ * @param mojoStartNanos   time until each mojo banner ({@code --- plugin:version:goal (id) @ module ---})
+ *                         was read from standard output, in output order
+ */
+public record ProcessTimings(long spawnNanos, long firstOutputNanos, long exitNanos, List<Long> mojoStartNanos) {
+
+    public ProcessTimings(long spawnNanos, long firstOutputNanos, long exitNanos) {
+        this(spawnNanos, firstOutputNanos, exitNanos, List.of());
+    }
+}
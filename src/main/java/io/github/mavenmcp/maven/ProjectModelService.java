@@ -0,0 +1,511 @@
+package io.github.mavenmcp.maven;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.github.mavenmcp.model.ProjectModel;
+import io.github.mavenmcp.model.ProjectModel.Execution;
+import io.github.mavenmcp.model.ProjectModel.Module;
+import io.github.mavenmcp.model.ProjectModel.Plugin;
+import io.github.mavenmcp.parser.XmlUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * The project's POM hierarchy, parsed once and shared by the tools: the modules of the
+ * reactor with their coordinates, source and build directories, properties and plugins,
+ * with inheritance from parent POMs (by relative path, or from the local repository) and
+ * {@code ${...}} properties resolved.
+ * <p>
+ * This is not Maven's effective POM: profiles, imported BOMs and the default lifecycle
+ * bindings are not applied, and a parent that is neither on disk nor in the local
+ * repository ends the chain. It is cheap enough to consult on every call, though: the
+ * model is kept until one of the files it was read from changes, which costs a
+ * {@code stat} per file to check.
+ */
+public final class ProjectModelService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectModelService.class);
+
+    static final String DEFAULT_PLUGIN_GROUP = "org.apache.maven.plugins";
+    private static final int MAX_PARENTS = 10;
+    private static final int MAX_INTERPOLATIONS = 10;
+    private static final Pattern PROPERTY = Pattern.compile("\\$\\{([^}]+)}");
+
+    /**
+     * A model with the files it was read from and their fingerprint at that time.
+     */
+    private record Cached(Path localRepository, List<Path> files, String fingerprint, ProjectModel model) {
+    }
+
+    private final Path projectDir;
+    private volatile Cached cached;
+
+    /**
+     * @param projectDir project directory, holding the root POM
+     */
+    public ProjectModelService(Path projectDir) {
+        this.projectDir = projectDir;
+    }
+
+    /**
+     * The current model, read again only if a POM it came from has changed.
+     *
+     * @param localRepository local repository to find parent POMs in, or null
+     */
+    public ProjectModel model(Path localRepository) {
+        Cached current = cached;
+        if (isCurrent(current, localRepository)) {
+            return current.model();
+        }
+        synchronized (this) {
+            current = cached;
+            if (isCurrent(current, localRepository)) {
+                return current.model();
+            }
+            Reader reader = new Reader(localRepository);
+            ProjectModel model = reader.read(projectDir);
+            cached = new Cached(localRepository, List.copyOf(reader.files), reader.fingerprint.toString(), model);
+            log.debug("Read project model of {} from {} POMs", projectDir, reader.files.size());
+            return model;
+        }
+    }
+
+    /**
+     * Fingerprint of the POMs the current model was read from, which changes with any of them.
+     *
+     * @param localRepository local repository to find parent POMs in, or null
+     */
+    public String fingerprint(Path localRepository) {
+        model(localRepository);
+        return cached.fingerprint();
+    }
+
+    /**
+     * Approximate heap held by the cached model.
+     */
+    public long estimatedBytes() {
+        Cached current = cached;
+        if (current == null) {
+            return 0;
+        }
+        long bytes = 64 + 2L * current.fingerprint().length() + 64L * current.files().size();
+        for (Module module : current.model().modules()) {
+            bytes += 128 + 2L * (length(module.path()) + length(module.groupId()) + length(module.artifactId())
+                    + length(module.version()) + length(module.packaging()) + length(module.parent())
+                    + length(module.sourceDirectory()) + length(module.testSourceDirectory())
+                    + length(module.buildDirectory()) + length(module.reportsDirectory()));
+            bytes += estimatedBytes(module.properties());
+            for (Plugin plugin : module.plugins()) {
+                bytes += 64 + 2L * (length(plugin.groupId()) + length(plugin.artifactId()) + length(plugin.version()))
+                        + estimatedBytes(plugin.configuration());
+                for (Execution execution : plugin.executions()) {
+                    bytes += 64 + 2L * (length(execution.id()) + length(execution.phase()));
+                    for (String goal : execution.goals()) {
+                        bytes += 48 + 2L * goal.length();
+                    }
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static long estimatedBytes(Map<String, String> values) {
+        long bytes = 0;
+        if (values != null) {
+            for (Map.Entry<String, String> value : values.entrySet()) {
+                bytes += 64 + 2L * (length(value.getKey()) + length(value.getValue()));
+            }
+        }
+        return bytes;
+    }
+
+    private static int length(String s) {
+        return s == null ? 0 : s.length();
+    }
+
+    private static boolean isCurrent(Cached current, Path localRepository) {
+        return current != null && Objects.equals(current.localRepository(), localRepository)
+                && current.fingerprint().equals(DependencyPrefetcher.fingerprint(current.files()));
+    }
+
+    /**
+     * Resolve {@code ${name}} references, also nested ones; unknown properties are left as they are.
+     */
+    static String interpolate(String value, Map<String, String> properties) {
+        String result = value;
+        for (int i = 0; result != null && i < MAX_INTERPOLATIONS; i++) {
+            Matcher matcher = PROPERTY.matcher(result);
+            StringBuilder resolved = new StringBuilder();
+            boolean replaced = false;
+            while (matcher.find()) {
+                String name = matcher.group(1);
+                String replacement = name.startsWith("env.") ? System.getenv(name.substring(4)) : properties.get(name);
+                replaced |= replacement != null;
+                matcher.appendReplacement(resolved,
+                        Matcher.quoteReplacement(replacement != null ? replacement : matcher.group()));
+            }
+            matcher.appendTail(resolved);
+            result = resolved.toString();
+            if (!replaced) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A POM file and its parent, if found.
+     */
+    private record Pom(Path file, Element project, Pom parent) {
+    }
+
+    /**
+     * Reads one model, remembering every file it looked at.
+     */
+    private static final class Reader {
+
+        private final Path localRepository;
+        private final Map<Path, Pom> poms = new HashMap<>();
+        private final Set<Path> files = new LinkedHashSet<>();
+        private final StringBuilder fingerprint = new StringBuilder();
+
+        Reader(Path localRepository) {
+            this.localRepository = localRepository;
+        }
+
+        ProjectModel read(Path projectDir) {
+            List<Module> modules = new ArrayList<>();
+            Set<Path> seen = new LinkedHashSet<>();
+            Deque<Path> pending = new ArrayDeque<>();
+            pending.add(projectDir.resolve("pom.xml"));
+            while (!pending.isEmpty()) {
+                Path file = pending.poll().normalize();
+                if (!seen.add(file)) {
+                    continue;
+                }
+                Pom pom = load(file, 0);
+                if (pom == null) {
+                    continue;
+                }
+                modules.add(module(projectDir, pom));
+                for (Element module : children(child(pom.project(), "modules"), "module")) {
+                    String path = text(module);
+                    if (path != null) {
+                        Path target = file.getParent().resolve(path);
+                        pending.add(Files.isDirectory(target) ? target.resolve("pom.xml") : target);
+                    }
+                }
+            }
+            if (modules.isEmpty()) {
+                return ProjectModel.empty();
+            }
+            Module root = modules.get(0);
+            return new ProjectModel(root.groupId(), root.artifactId(), root.version(), List.copyOf(modules));
+        }
+
+        /**
+         * Parse a POM and its parents; null if it does not exist or is not readable.
+         */
+        private Pom load(Path file, int depth) {
+            Path normalized = file.normalize();
+            if (poms.containsKey(normalized)) {
+                return poms.get(normalized);
+            }
+            if (files.add(normalized)) {
+                fingerprint.append(DependencyPrefetcher.fingerprint(List.of(normalized)));
+            }
+            Element project = Files.isRegularFile(normalized) ? parse(normalized) : null;
+            Pom pom = null;
+            if (project != null) {
+                Path parentFile = depth < MAX_PARENTS
+                        ? parentPom(normalized, child(project, "parent"), localRepository)
+                        : null;
+                pom = new Pom(normalized, project, parentFile == null ? null : load(parentFile, depth + 1));
+            }
+            poms.put(normalized, pom);
+            return pom;
+        }
+
+        private Module module(Path projectDir, Pom pom) {
+            Deque<Pom> chain = new ArrayDeque<>();
+            for (Pom p = pom; p != null; p = p.parent()) {
+                chain.addFirst(p);
+            }
+            Element project = pom.project();
+            Element parent = child(project, "parent");
+            Path basedir = pom.file().getParent();
+
+            Map<String, String> declared = new TreeMap<>();
+            for (Pom p : chain) {
+                for (Element property : children(child(p.project(), "properties"), null)) {
+                    declared.put(property.getTagName(), property.getTextContent().trim());
+                }
+            }
+            Map<String, String> properties = new HashMap<>(declared);
+            String groupId = firstNonNull(text(child(project, "groupId")), text(child(parent, "groupId")));
+            String artifactId = text(child(project, "artifactId"));
+            String version = firstNonNull(text(child(project, "version")), text(child(parent, "version")));
+            String packaging = firstNonNull(text(child(project, "packaging")), "jar");
+            putBuiltIn(properties, "groupId", groupId);
+            putBuiltIn(properties, "artifactId", artifactId);
+            putBuiltIn(properties, "version", version);
+            putBuiltIn(properties, "packaging", packaging);
+            putBuiltIn(properties, "basedir", basedir.toString());
+            properties.put("basedir", basedir.toString());
+            if (parent != null) {
+                putBuiltIn(properties, "parent.groupId", text(child(parent, "groupId")));
+                putBuiltIn(properties, "parent.artifactId", text(child(parent, "artifactId")));
+                putBuiltIn(properties, "parent.version", text(child(parent, "version")));
+            }
+            groupId = interpolate(groupId, properties);
+            version = interpolate(version, properties);
+            putBuiltIn(properties, "groupId", groupId);
+            putBuiltIn(properties, "version", version);
+
+            Path buildDirectory = directory(chain, "directory", "target", basedir, properties);
+            putBuiltIn(properties, "build.directory", buildDirectory.toString());
+            Path sourceDirectory = directory(chain, "sourceDirectory", "src/main/java", basedir, properties);
+            Path testSourceDirectory = directory(chain, "testSourceDirectory", "src/test/java", basedir, properties);
+            putBuiltIn(properties, "build.sourceDirectory", sourceDirectory.toString());
+            putBuiltIn(properties, "build.testSourceDirectory", testSourceDirectory.toString());
+
+            List<Plugin> plugins = plugins(chain, properties);
+            Plugin surefire = plugins.stream()
+                    .filter(p -> p.artifactId().equals("maven-surefire-plugin")).findFirst().orElse(null);
+            String reports = surefire == null ? null : surefire.configuration().get("reportsDirectory");
+            Path reportsDirectory = reports != null
+                    ? basedir.resolve(reports).normalize()
+                    : buildDirectory.resolve("surefire-reports");
+
+            String parentCoordinates = parent == null ? null : text(child(parent, "groupId")) + ":"
+                    + text(child(parent, "artifactId")) + ":" + text(child(parent, "version"));
+            return new Module(relative(projectDir, basedir), groupId, artifactId, version, packaging,
+                    parentCoordinates, relative(projectDir, sourceDirectory), relative(projectDir, testSourceDirectory),
+                    relative(projectDir, buildDirectory), relative(projectDir, reportsDirectory), declared, plugins);
+        }
+
+        /**
+         * A {@code <build>} directory; the nearest POM declaring it wins, and a relative path
+         * is taken from the module's own directory, as Maven does.
+         */
+        private static Path directory(Deque<Pom> chain, String name, String defaultValue, Path basedir,
+                                      Map<String, String> properties) {
+            String value = defaultValue;
+            for (Pom p : chain) {
+                String declared = text(child(child(p.project(), "build"), name));
+                if (declared != null) {
+                    value = declared;
+                }
+            }
+            return basedir.resolve(interpolate(value, properties)).normalize();
+        }
+
+        /**
+         * The plugins of {@code <build><plugins>} along the chain, each with what
+         * {@code <pluginManagement>} and the parents say about it.
+         */
+        private static List<Plugin> plugins(Deque<Pom> chain, Map<String, String> properties) {
+            Map<String, PluginDeclaration> managed = new LinkedHashMap<>();
+            Map<String, PluginDeclaration> declared = new LinkedHashMap<>();
+            for (Pom p : chain) {
+                Element build = child(p.project(), "build");
+                collect(child(child(build, "pluginManagement"), "plugins"), managed);
+                collect(child(build, "plugins"), declared);
+            }
+            List<Plugin> plugins = new ArrayList<>();
+            for (PluginDeclaration plugin : declared.values()) {
+                PluginDeclaration management = managed.get(plugin.artifactId);
+                PluginDeclaration merged = management == null ? plugin : management.overriddenBy(plugin);
+                plugins.add(merged.toPlugin(properties));
+            }
+            return List.copyOf(plugins);
+        }
+
+        private static void collect(Element plugins, Map<String, PluginDeclaration> declarations) {
+            for (Element element : children(plugins, "plugin")) {
+                String artifactId = text(child(element, "artifactId"));
+                if (artifactId == null) {
+                    continue;
+                }
+                PluginDeclaration declaration = new PluginDeclaration(artifactId);
+                declaration.groupId = text(child(element, "groupId"));
+                declaration.version = text(child(element, "version"));
+                for (Element parameter : children(child(element, "configuration"), null)) {
+                    declaration.configuration.put(parameter.getTagName(), value(parameter));
+                }
+                for (Element execution : children(child(element, "executions"), "execution")) {
+                    String id = firstNonNull(text(child(execution, "id")), "default");
+                    List<String> goals = children(child(execution, "goals"), "goal").stream()
+                            .map(ProjectModelService::text).filter(Objects::nonNull).toList();
+                    declaration.executions.put(id, new Execution(id, text(child(execution, "phase")), goals));
+                }
+                PluginDeclaration existing = declarations.get(artifactId);
+                declarations.put(artifactId, existing == null ? declaration : existing.overriddenBy(declaration));
+            }
+        }
+
+        /**
+         * A configuration parameter: its text, or for a list its items joined with commas,
+         * or for a map its entries as name=value.
+         */
+        private static String value(Element parameter) {
+            List<Element> items = children(parameter, null);
+            if (items.isEmpty()) {
+                return parameter.getTextContent().trim();
+            }
+            boolean list = items.stream().map(Element::getTagName).distinct().count() == 1 && items.size() > 1
+                    || items.size() == 1 && parameter.getTagName().equals(items.get(0).getTagName() + "s");
+            List<String> values = new ArrayList<>();
+            for (Element item : items) {
+                values.add(list ? value(item) : item.getTagName() + "=" + value(item));
+            }
+            return String.join(",", values);
+        }
+    }
+
+    /**
+     * What the POMs read so far say about a plugin.
+     */
+    private static final class PluginDeclaration {
+
+        private final String artifactId;
+        private String groupId;
+        private String version;
+        private final Map<String, String> configuration = new LinkedHashMap<>();
+        private final Map<String, Execution> executions = new LinkedHashMap<>();
+
+        PluginDeclaration(String artifactId) {
+            this.artifactId = artifactId;
+        }
+
+        /**
+         * This declaration with the given one's values taking precedence; executions with
+         * the same id are merged.
+         */
+        PluginDeclaration overriddenBy(PluginDeclaration other) {
+            PluginDeclaration merged = new PluginDeclaration(artifactId);
+            merged.groupId = firstNonNull(other.groupId, groupId);
+            merged.version = firstNonNull(other.version, version);
+            merged.configuration.putAll(configuration);
+            merged.configuration.putAll(other.configuration);
+            merged.executions.putAll(executions);
+            other.executions.forEach((id, execution) -> merged.executions.merge(id, execution, (base, override) -> {
+                Set<String> goals = new LinkedHashSet<>(base.goals());
+                goals.addAll(override.goals());
+                return new Execution(id, firstNonNull(override.phase(), base.phase()), List.copyOf(goals));
+            }));
+            return merged;
+        }
+
+        Plugin toPlugin(Map<String, String> properties) {
+            Map<String, String> resolved = new LinkedHashMap<>();
+            configuration.forEach((name, value) -> resolved.put(name, interpolate(value, properties)));
+            List<Execution> resolvedExecutions = executions.values().stream()
+                    .map(e -> new Execution(e.id(), interpolate(e.phase(), properties), e.goals()))
+                    .toList();
+            return new Plugin(firstNonNull(groupId, DEFAULT_PLUGIN_GROUP), artifactId,
+                    interpolate(version, properties), resolved, resolvedExecutions);
+        }
+    }
+
+    private static void putBuiltIn(Map<String, String> properties, String name, String value) {
+        if (value != null) {
+            properties.put("project." + name, value);
+            properties.put("pom." + name, value);
+        }
+    }
+
+    private static String relative(Path projectDir, Path path) {
+        String relative = projectDir.toAbsolutePath().normalize()
+                .relativize(path.toAbsolutePath().normalize()).toString();
+        return relative.isEmpty() ? "." : relative;
+    }
+
+    private static String firstNonNull(String first, String second) {
+        return first != null ? first : second;
+    }
+
+    /**
+     * The parent's POM file: at its relative path if that holds the parent, otherwise in
+     * the local repository; null if neither has it.
+     */
+    private static Path parentPom(Path pom, Element parent, Path localRepository) {
+        if (parent == null) {
+            return null;
+        }
+        String groupId = text(child(parent, "groupId"));
+        String artifactId = text(child(parent, "artifactId"));
+        String version = text(child(parent, "version"));
+        Element relativePathElement = child(parent, "relativePath");
+        String relativePath = relativePathElement == null ? "../pom.xml" : text(relativePathElement);
+        if (relativePath != null) {
+            Path candidate = pom.getParent().resolve(relativePath);
+            if (Files.isDirectory(candidate)) {
+                candidate = candidate.resolve("pom.xml");
+            }
+            Element project = Files.isRegularFile(candidate) ? parse(candidate) : null;
+            if (project != null && artifactId != null && artifactId.equals(text(child(project, "artifactId")))) {
+                return candidate;
+            }
+        }
+        if (groupId == null || artifactId == null || version == null || localRepository == null) {
+            return null;
+        }
+        Path inRepository = localRepository.resolve(groupId.replace('.', '/')).resolve(artifactId)
+                .resolve(version).resolve(artifactId + "-" + version + ".pom");
+        return Files.isRegularFile(inRepository) ? inRepository : null;
+    }
+
+    private static Element parse(Path pom) {
+        try {
+            return XmlUtils.newSecureDocumentBuilder().parse(pom.toFile()).getDocumentElement();
+        } catch (Exception e) {
+            log.debug("Cannot read {}: {}", pom, e.getMessage());
+            return null;
+        }
+    }
+
+    private static Element child(Element parent, String name) {
+        List<Element> children = children(parent, name);
+        return children.isEmpty() ? null : children.get(0);
+    }
+
+    /**
+     * Child elements with the given name, or all child elements if name is null.
+     */
+    private static List<Element> children(Element parent, String name) {
+        List<Element> children = new ArrayList<>();
+        if (parent != null) {
+            for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+                if (node instanceof Element element && (name == null || name.equals(element.getTagName()))) {
+                    children.add(element);
+                }
+            }
+        }
+        return children;
+    }
+
+    private static String text(Element element) {
+        if (element == null) {
+            return null;
+        }
+        String text = element.getTextContent().trim();
+        return text.isEmpty() ? null : text;
+    }
+}
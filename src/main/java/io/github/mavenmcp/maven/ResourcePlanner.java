@@ -0,0 +1,346 @@
+package io.github.mavenmcp.maven;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import io.github.mavenmcp.model.ProjectModel;
+import io.github.mavenmcp.model.ProjectModel.Module;
+import io.github.mavenmcp.model.ProjectModel.Plugin;
+import io.github.mavenmcp.model.ResourceAllocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Divides the cores and memory the server may use between the builds it runs at once,
+ * and sizes each build's parallelism and heaps to its share.
+ * <p>
+ * In a container, Maven and Surefire size {@code -T 1C}, {@code forkCount} and their heaps
+ * from the host's cores and memory, or at best from the container's; several builds at
+ * once then each take all of it. The limits are read from the cgroup v2 files of the
+ * server's cgroup and its ancestors ({@code cpu.max}, {@code memory.max}), or else taken
+ * from what the JVM reports, and split evenly between the builds admission control runs
+ * at once, less the server's own heap.
+ * <p>
+ * Within its share, a build gets a quarter of the memory for Maven's heap, within
+ * {@link #MIN_MAVEN_HEAP} and {@link #MAX_MAVEN_HEAP}, and runs as many test JVMs as its
+ * cores allow, divided by its reactor threads (each module forks its own), and as its
+ * memory allows at {@link #MIN_FORK_HEAP} each; the rest of the memory goes to their heaps.
+ * A JVM is assumed to need {@link #JVM_OVERHEAD} times its heap, and each is told its
+ * cores with {@code -XX:ActiveProcessorCount}, which sizes its GC and common pool.
+ * <p>
+ * What the call or the project already sets is left as it is: a heap in {@code MAVEN_OPTS}
+ * or {@code .mvn/jvm.config}, and {@code forkCount} or {@code argLine} in the call's
+ * arguments or the {@link ProjectModelService project model}. A {@code -DargLine} would
+ * replace the project's own (with JaCoCo's agent or its {@code --add-opens}), so a
+ * project that sets {@code argLine} as a property, in the configuration of Surefire or
+ * Failsafe, or through JaCoCo (unless the call skips it, as fast mode does) keeps it.
+ * Its test JVMs are then not sized at all: more of them without a heap limit would only
+ * take more memory. A {@code forkCount} of the project is kept, and the test JVMs' heaps
+ * are sized for it. The model does not apply profiles, so a project that sets either in
+ * a profile should pass them with the call.
+ */
+public final class ResourcePlanner {
+
+    private static final Logger log = LoggerFactory.getLogger(ResourcePlanner.class);
+
+    static final long MB = 1024 * 1024;
+    static final long MIN_MAVEN_HEAP = 256 * MB;
+    static final long MAX_MAVEN_HEAP = 2048 * MB;
+    static final long MIN_FORK_HEAP = 256 * MB;
+    static final long MAX_FORK_HEAP = 4096 * MB;
+    static final double JVM_OVERHEAD = 1.5;
+    /** Memory below which a build is not worth running alongside another. */
+    static final long MIN_BUILD_MEMORY = 1024 * MB;
+
+    private static final List<String> TEST_PLUGINS = List.of("maven-surefire-plugin", "maven-failsafe-plugin");
+    /** Sets {@code argLine} to its agent in {@code prepare-agent}. */
+    private static final String JACOCO_PLUGIN = "jacoco-maven-plugin";
+
+    /**
+     * The cores and memory the server may use.
+     *
+     * @param cpus   cores, rounded up as the JVM does
+     * @param memory bytes
+     * @param source "cgroup" if a cgroup v2 limit applies, else "host"
+     */
+    public record Limits(int cpus, long memory, String source) {
+
+        /**
+         * The limits of the server's cgroup, or the host's.
+         */
+        public static Limits detect() {
+            long memory = ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+                    .getTotalMemorySize();
+            return read(Path.of("/proc/self/cgroup"), Path.of("/sys/fs/cgroup"),
+                    Runtime.getRuntime().availableProcessors(), memory);
+        }
+
+        /**
+         * @param cgroupFile the process's {@code /proc/self/cgroup}
+         * @param root       where the cgroup v2 hierarchy is mounted
+         * @param hostCpus   cores otherwise
+         * @param hostMemory memory otherwise
+         */
+        static Limits read(Path cgroupFile, Path root, int hostCpus, long hostMemory) {
+            String cgroup = null;
+            try {
+                for (String line : Files.readAllLines(cgroupFile, StandardCharsets.UTF_8)) {
+                    // The unified (v2) hierarchy has ID 0 and no controllers
+                    if (line.startsWith("0::")) {
+                        cgroup = line.substring(3);
+                    }
+                }
+            } catch (IOException e) {
+                log.debug("No cgroup of the server: {}", e.getMessage());
+            }
+            Double cpuQuota = null;
+            Long memoryMax = null;
+            if (cgroup != null) {
+                Path top = root.toAbsolutePath().normalize();
+                // A limit of an ancestor applies as well
+                for (Path dir = top.resolve(cgroup.replaceFirst("^/+", "")).normalize();
+                     dir != null && dir.startsWith(top); dir = dir.getParent()) {
+                    String[] cpu = read(dir.resolve("cpu.max"));
+                    if (cpu != null && cpu.length == 2 && !cpu[0].equals("max")) {
+                        double quota = Double.parseDouble(cpu[0]) / Double.parseDouble(cpu[1]);
+                        cpuQuota = cpuQuota == null ? quota : Math.min(cpuQuota, quota);
+                    }
+                    String[] mem = read(dir.resolve("memory.max"));
+                    if (mem != null && mem.length == 1 && !mem[0].equals("max")) {
+                        long max = Long.parseLong(mem[0]);
+                        memoryMax = memoryMax == null ? max : Math.min(memoryMax, max);
+                    }
+                }
+            }
+            int cpus = cpuQuota == null ? hostCpus : Math.max(1, Math.min(hostCpus, (int) Math.ceil(cpuQuota)));
+            long memory = memoryMax == null ? hostMemory : Math.min(hostMemory, memoryMax);
+            return new Limits(cpus, memory, cpuQuota != null || memoryMax != null ? "cgroup" : "host");
+        }
+
+        private static String[] read(Path file) {
+            try {
+                return Files.readString(file, StandardCharsets.UTF_8).trim().split("\\s+");
+            } catch (IOException e) {
+                return null;
+            } catch (RuntimeException e) {
+                log.debug("Ignoring malformed cgroup file {}", file);
+                return null;
+            }
+        }
+    }
+
+    private final Limits limits;
+    private final int builds;
+    private final long reserved;
+
+    /**
+     * @param limits   cores and memory of the server
+     * @param builds   builds run at once, sharing them
+     * @param reserved memory kept for the server itself
+     */
+    public ResourcePlanner(Limits limits, int builds, long reserved) {
+        this.limits = limits;
+        this.builds = builds;
+        this.reserved = reserved;
+    }
+
+    /**
+     * A planner for the server's limits, keeping its own maximum heap.
+     */
+    public static ResourcePlanner create(Limits limits, int builds) {
+        return new ResourcePlanner(limits, builds, Runtime.getRuntime().maxMemory());
+    }
+
+    /**
+     * Builds to run at once by default: one per two cores, as memory allows.
+     */
+    public static int defaultBuilds(Limits limits) {
+        return (int) Math.max(1, Math.min(limits.cpus() / 2, limits.memory() / MIN_BUILD_MEMORY));
+    }
+
+    public Limits limits() {
+        return limits;
+    }
+
+    /**
+     * Plan a build of a project.
+     *
+     * @param args  arguments of the call
+     * @param model the project's POMs
+     */
+    public ResourceAllocation allocate(List<String> args, Path projectDir, ProjectModel model) {
+        String mavenOpts = System.getenv("MAVEN_OPTS");
+        String jvmConfig = "";
+        try {
+            Path file = projectDir.resolve(".mvn/jvm.config");
+            if (Files.isRegularFile(file)) {
+                jvmConfig = Files.readString(file, StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            log.debug("Cannot read .mvn/jvm.config: {}", e.getMessage());
+        }
+        return allocate(args, mavenOpts, jvmConfig, model);
+    }
+
+    /**
+     * The {@code MAVEN_OPTS} of a Maven run of the project that runs no tests, such as the
+     * dependency prefetch, or null to leave them as they are.
+     */
+    public String mavenOpts(Path projectDir) {
+        return allocate(List.of(), projectDir, ProjectModel.empty()).mavenOpts();
+    }
+
+    ResourceAllocation allocate(List<String> args, String mavenOpts, String jvmConfig, ProjectModel model) {
+        int cpus = Math.max(1, limits.cpus() / builds);
+        long memory = Math.max(MIN_BUILD_MEMORY, (limits.memory() - reserved) / builds);
+
+        String threadsArg = threads(args);
+        Integer threads = null;
+        int parallel = 1;
+        if (threadsArg != null && threadsArg.endsWith("C")) {
+            double perCore = parse(threadsArg.substring(0, threadsArg.length() - 1), 1);
+            threads = Math.max(1, (int) Math.round(perCore * cpus));
+            parallel = threads;
+        } else if (threadsArg != null) {
+            parallel = Math.max(1, (int) parse(threadsArg, 1));
+        }
+
+        String opts = Objects.requireNonNullElse(mavenOpts, "").trim();
+        boolean heapSet = opts.contains("-Xmx") || jvmConfig.contains("-Xmx");
+        Long mavenHeap = heapSet ? null : Math.clamp(memory / 4, MIN_MAVEN_HEAP, MAX_MAVEN_HEAP);
+        long forkMemory = memory - (long) ((mavenHeap == null ? memory / 4 : mavenHeap) * JVM_OVERHEAD);
+
+        List<String> arguments = new ArrayList<>();
+        Integer forkCount = null;
+        Long forkHeap = null;
+        boolean jacocoSkipped = "true".equals(property(args, "jacoco.skip"));
+        if (property(args, "argLine") == null && !setsArgLine(model, jacocoSkipped)) {
+            String given = property(args, "forkCount");
+            if (given == null) {
+                given = forkCount(model);
+            }
+            int forksPerModule;
+            if (given == null) {
+                long byMemory = forkMemory / (long) (MIN_FORK_HEAP * JVM_OVERHEAD) / parallel;
+                forkCount = (int) Math.max(1, Math.min(Math.max(1, cpus / parallel), byMemory));
+                forksPerModule = forkCount;
+                arguments.add("-DforkCount=" + forkCount);
+            } else {
+                forksPerModule = forks(given, cpus);
+            }
+            int forks = parallel * forksPerModule;
+            forkHeap = Math.clamp((long) (forkMemory / forks / JVM_OVERHEAD) / MB * MB, MIN_FORK_HEAP, MAX_FORK_HEAP);
+            arguments.add("-DargLine=-Xmx" + forkHeap / MB + "m -XX:ActiveProcessorCount="
+                    + Math.max(1, cpus / forks));
+        }
+
+        List<String> added = new ArrayList<>();
+        if (mavenHeap != null) {
+            added.add("-Xmx" + mavenHeap / MB + "m");
+        }
+        if (!opts.contains("ActiveProcessorCount") && !jvmConfig.contains("ActiveProcessorCount")) {
+            added.add("-XX:ActiveProcessorCount=" + cpus);
+        }
+        String newOpts = added.isEmpty() ? null
+                : (opts.isEmpty() ? "" : opts + " ") + String.join(" ", added);
+        return new ResourceAllocation(cpus, memory, limits.source(), threads, forkCount, mavenHeap, forkHeap,
+                List.copyOf(arguments), newOpts);
+    }
+
+    /**
+     * The value of the call's {@code -T}, or null.
+     */
+    private static String threads(List<String> args) {
+        for (int i = 0; i < args.size(); i++) {
+            String arg = args.get(i);
+            if ((arg.equals("-T") || arg.equals("--threads")) && i + 1 < args.size()) {
+                return args.get(i + 1);
+            }
+            if (arg.startsWith("-T") && arg.length() > 2) {
+                return arg.substring(2);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The value of a {@code -D} property of the call, "" if it has none, or null if the
+     * call does not set it.
+     */
+    private static String property(List<String> args, String name) {
+        for (String arg : args) {
+            if (arg.equals("-D" + name)) {
+                return "";
+            }
+            if (arg.startsWith("-D" + name + "=")) {
+                return arg.substring(name.length() + 3);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether a module of the project sets {@code argLine}.
+     *
+     * @param jacocoSkipped whether the call skips JaCoCo (as fast mode does)
+     */
+    static boolean setsArgLine(ProjectModel model, boolean jacocoSkipped) {
+        for (Module module : model.modules()) {
+            if ((module.properties() != null && module.properties().containsKey("argLine"))
+                    || (!jacocoSkipped && module.plugin(JACOCO_PLUGIN) != null)) {
+                return true;
+            }
+            for (String name : TEST_PLUGINS) {
+                Plugin plugin = module.plugin(name);
+                if (plugin != null && plugin.configuration().containsKey("argLine")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The {@code forkCount} a module of the project sets, or null.
+     */
+    static String forkCount(ProjectModel model) {
+        for (Module module : model.modules()) {
+            if (module.properties() != null && module.properties().containsKey("forkCount")) {
+                return module.properties().get("forkCount");
+            }
+            for (String name : TEST_PLUGINS) {
+                Plugin plugin = module.plugin(name);
+                if (plugin != null && plugin.configuration().containsKey("forkCount")) {
+                    return plugin.configuration().get("forkCount");
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Test JVMs a {@code forkCount} starts per module: "2" or, in cores of Maven's JVM
+     * (which are the build's), "1C"; at least one, and the build's cores if unknown.
+     */
+    private static int forks(String forkCount, int cpus) {
+        String value = forkCount.trim();
+        if (value.endsWith("C")) {
+            return Math.max(1, (int) Math.round(parse(value.substring(0, value.length() - 1), 1) * cpus));
+        }
+        return Math.max(1, (int) parse(value, cpus));
+    }
+
+    private static double parse(String number, double otherwise) {
+        try {
+            return Double.parseDouble(number);
+        } catch (NumberFormatException e) {
+            return otherwise;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.mavenmcp.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Builds running and waiting under the server's limit, reported by maven_server_stats.
+ *
+ * @param maxBuilds  most builds running at once
+ * @param maxQueued  most builds waiting; further ones are rejected
+ * @param running    builds running now
+ * @param queued     builds waiting now
+ * @param admitted   builds started, right away or after waiting
+ * @param waited     builds that had to wait
+ * @param rejected   builds rejected because the queue was full
+ * @param waitTimes  time the waiting builds waited, in milliseconds; null if none had to
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AdmissionStats(int maxBuilds, int maxQueued, int running, int queued, long admitted, long waited,
+                             long rejected, PhaseStats waitTimes) {
+}
@@ -0,0 +1,12 @@
+package io.github.mavenmcp.model;
+
+/**
+ * An artifact built by maven_package.
+ *
+ * @param path   path relative to the project directory
+ * @param name   file name
+ * @param size   size in bytes
+ * @param sha256 SHA-256 checksum, hex-encoded
+ */
+public record ArtifactInfo(String path, String name, long size, String sha256) {
+}
@@ -0,0 +1,40 @@
+package io.github.mavenmcp.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Changes of a build compared to an earlier build identified by its build ID.
+ * Error and failure lists are null when the compared builds did not both produce them;
+ * empty lists are omitted from JSON.
+ *
+ * @param since             build ID the result is compared against
+ * @param newErrors         compilation errors not present in the earlier build
+ * @param resolvedErrors    compilation errors of the earlier build that are gone
+ * @param unchangedErrors   number of compilation errors present in both builds
+ * @param newFailures       test failures not present in the earlier build
+ * @param resolvedFailures  test failures of the earlier build that are gone (without stack traces)
+ * @param unchangedFailures number of test failures present in both builds
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record BuildDelta(
+        String since,
+        List<CompilationError> newErrors,
+        List<CompilationError> resolvedErrors,
+        Integer unchangedErrors,
+        List<TestFailure> newFailures,
+        List<TestFailure> resolvedFailures,
+        Integer unchangedFailures
+) {
+
+    public BuildDelta withErrors(List<CompilationError> newErrors, List<CompilationError> resolvedErrors) {
+        return new BuildDelta(since, newErrors, resolvedErrors, unchangedErrors,
+                newFailures, resolvedFailures, unchangedFailures);
+    }
+
+    public BuildDelta withFailures(List<TestFailure> newFailures, List<TestFailure> resolvedFailures) {
+        return new BuildDelta(since, newErrors, resolvedErrors, unchangedErrors,
+                newFailures, resolvedFailures, unchangedFailures);
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.mavenmcp.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What a fast-mode build left out, reported with its result.
+ *
+ * @param mode           "fast"
+ * @param skippedPlugins plugins bound at or before the goal's phase whose work was skipped
+ * @param arguments      Maven arguments added for fast mode, before those of the call
+ */
+public record BuildMode(String mode, List<String> skippedPlugins, List<String> arguments) {
+
+    public static final String FAST = "fast";
+    public static final String FULL = "full";
+
+    /**
+     * @return the added arguments followed by those of the call, which so take precedence
+     */
+    public List<String> apply(List<String> args) {
+        List<String> combined = new ArrayList<>(arguments);
+        if (args != null) {
+            combined.addAll(args);
+        }
+        return combined;
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.mavenmcp.model;
 
 import java.util.List;
+import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 
@@ -8,14 +9,28 @@ import com.fasterxml.jackson.annotation.JsonInclude;
  * Top-level response returned by all Maven MCP tools.
  * Null fields are omitted from JSON serialization to keep responses compact.
  *
- * @param status   SUCCESS, FAILURE, or TIMEOUT
+ * @param status   SUCCESS, FAILURE, or TIMEOUT; SKIPPED for a pipeline step an earlier one kept from running
  * @param duration wall-clock time of Maven execution in milliseconds
  * @param errors   compilation errors (severity=ERROR), null if not applicable
  * @param warnings compilation warnings (severity=WARNING), null if not applicable
  * @param summary  test execution summary, null for non-test tools
  * @param failures individual test failures, null for non-test tools
- * @param artifact built artifact info, null unless maven_package succeeds
+ * @param failureClusters test failures grouped by root cause, null unless failures were grouped
+ * @param artifact built artifact info ({@link ArtifactInfo}, or a list of them for a
+ *                 reactor with several artifacts), null unless maven_package succeeds
  * @param output   raw Maven output, only populated on FAILURE
+ * @param omitted  number of entries dropped per section to respect the response budget, null if none
+ * @param buildId  identifier of this build, usable as {@code since} in a later call
+ * @param delta    changes against the build given as {@code since}; when present, errors and
+ *                 failures are reported only through it
+ * @param timings  per-phase durations of this call in milliseconds, only when requested
+ * @param mode     what a fast-mode build skipped, null for a full build
+ * @param testReuse whether maven_package reused an earlier passing test run, null for other tools
+ * @param rerun    outcome of rerunning the failed tests, null unless maven_test was asked to
+ * @param prediction expected duration and timeout of the build, from the durations of the same builds before
+ * @param resources memory, CPU and processes used by Maven and its children, only with the timings
+ * @param queue    how long the build waited for its turn, null if it did not have to
+ * @param allocation cores, memory, threads, test JVMs and heaps the build was given, only with the timings
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public record BuildResult(
@@ -25,12 +40,114 @@ public record BuildResult(
         List<CompilationError> warnings,
         TestSummary summary,
         List<TestFailure> failures,
+        List<FailureCluster> failureClusters,
         Object artifact,
-        String output
+        String output,
+        Map<String, Integer> omitted,
+        String buildId,
+        BuildDelta delta,
+        Map<String, Double> timings,
+        BuildMode mode,
+        TestReuse testReuse,
+        TestRerun rerun,
+        DurationPrediction prediction,
+        ResourceUsage resources,
+        QueueWait queue,
+        ResourceAllocation allocation
 ) {
 
+    public BuildResult(String status, long duration,
+                       List<CompilationError> errors, List<CompilationError> warnings,
+                       TestSummary summary, List<TestFailure> failures,
+                       Object artifact, String output) {
+        this(status, duration, errors, warnings, summary, failures, null, artifact, output, null, null, null, null, null,
+                null, null, null, null, null, null);
+    }
+
+    public BuildResult(String status, long duration,
+                       List<CompilationError> errors, List<CompilationError> warnings,
+                       TestSummary summary, List<TestFailure> failures,
+                       List<FailureCluster> failureClusters, Object artifact, String output,
+                       Map<String, Integer> omitted) {
+        this(status, duration, errors, warnings, summary, failures, failureClusters, artifact, output,
+                omitted, null, null, null, null, null, null, null, null, null, null);
+    }
+
+    public BuildResult withBuildId(String buildId) {
+        return new BuildResult(status, duration, errors, warnings, summary, failures, failureClusters,
+                artifact, output, omitted, buildId, delta, timings, mode, testReuse, rerun, prediction, resources,
+                queue, allocation);
+    }
+
+    public BuildResult withDelta(BuildDelta delta) {
+        return new BuildResult(status, duration, errors, warnings, summary, failures, failureClusters,
+                artifact, output, omitted, buildId, delta, timings, mode, testReuse, rerun, prediction, resources,
+                queue, allocation);
+    }
+
+    public BuildResult withTimings(Map<String, Double> timings) {
+        return new BuildResult(status, duration, errors, warnings, summary, failures, failureClusters,
+                artifact, output, omitted, buildId, delta, timings, mode, testReuse, rerun, prediction, resources,
+                queue, allocation);
+    }
+
+    public BuildResult withMode(BuildMode mode) {
+        return new BuildResult(status, duration, errors, warnings, summary, failures, failureClusters,
+                artifact, output, omitted, buildId, delta, timings, mode, testReuse, rerun, prediction, resources,
+                queue, allocation);
+    }
+
+    public BuildResult withTestReuse(TestReuse testReuse) {
+        return new BuildResult(status, duration, errors, warnings, summary, failures, failureClusters,
+                artifact, output, omitted, buildId, delta, timings, mode, testReuse, rerun, prediction, resources,
+                queue, allocation);
+    }
+
+    public BuildResult withRerun(TestRerun rerun) {
+        return new BuildResult(status, duration, errors, warnings, summary, failures, failureClusters,
+                artifact, output, omitted, buildId, delta, timings, mode, testReuse, rerun, prediction, resources,
+                queue, allocation);
+    }
+
+    public BuildResult withPrediction(DurationPrediction prediction) {
+        return new BuildResult(status, duration, errors, warnings, summary, failures, failureClusters,
+                artifact, output, omitted, buildId, delta, timings, mode, testReuse, rerun, prediction, resources,
+                queue, allocation);
+    }
+
+    public BuildResult withResources(ResourceUsage resources) {
+        return new BuildResult(status, duration, errors, warnings, summary, failures, failureClusters,
+                artifact, output, omitted, buildId, delta, timings, mode, testReuse, rerun, prediction, resources,
+                queue, allocation);
+    }
+
+    public BuildResult withQueue(QueueWait queue) {
+        return new BuildResult(status, duration, errors, warnings, summary, failures, failureClusters,
+                artifact, output, omitted, buildId, delta, timings, mode, testReuse, rerun, prediction, resources,
+                queue, allocation);
+    }
+
+    public BuildResult withAllocation(ResourceAllocation allocation) {
+        return new BuildResult(status, duration, errors, warnings, summary, failures, failureClusters,
+                artifact, output, omitted, buildId, delta, timings, mode, testReuse, rerun, prediction, resources,
+                queue, allocation);
+    }
+
+    public BuildResult withSummary(TestSummary summary) {
+        return new BuildResult(status, duration, errors, warnings, summary, failures, failureClusters,
+                artifact, output, omitted, buildId, delta, timings, mode, testReuse, rerun, prediction, resources,
+                queue, allocation);
+    }
+
+    public BuildResult withArtifact(Object artifact) {
+        return new BuildResult(status, duration, errors, warnings, summary, failures, failureClusters,
+                artifact, output, omitted, buildId, delta, timings, mode, testReuse, rerun, prediction, resources,
+                queue, allocation);
+    }
+
     /** Status constants */
     public static final String SUCCESS = "SUCCESS";
     public static final String FAILURE = "FAILURE";
     public static final String TIMEOUT = "TIMEOUT";
+    public static final String SKIPPED = "SKIPPED";
 }
@@ -0,0 +1,50 @@
+package io.github.mavenmcp.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A node of a dependency tree as {@code dependency:tree} prints it.
+ *
+ * @param groupId    groupId
+ * @param artifactId artifactId
+ * @param type       type, null for "jar"
+ * @param classifier classifier, or null
+ * @param version    version
+ * @param scope      scope, null for the module itself
+ * @param optional   true if declared optional, null otherwise
+ * @param omitted    why Maven left this node out of the resolved graph ("duplicate",
+ *                   "conflict with 2.0", "cycle"), null if it was resolved
+ * @param children   its dependencies, null if none
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DependencyNode(String groupId, String artifactId, String type, String classifier, String version,
+                             String scope, Boolean optional, String omitted, List<DependencyNode> children) {
+
+    /**
+     * @return groupId:artifactId, with the classifier and a type other than jar if present
+     */
+    public String key() {
+        StringBuilder key = new StringBuilder(groupId).append(':').append(artifactId);
+        if (type != null) {
+            key.append(':').append(type);
+        }
+        if (classifier != null) {
+            key.append(':').append(classifier);
+        }
+        return key.toString();
+    }
+
+    /**
+     * @return the dependencies, empty if none
+     */
+    public List<DependencyNode> dependencies() {
+        return children == null ? List.of() : children;
+    }
+
+    public DependencyNode withChildren(List<DependencyNode> children) {
+        return new DependencyNode(groupId, artifactId, type, classifier, version, scope, optional, omitted,
+                children == null || children.isEmpty() ? null : children);
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.mavenmcp.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Response of maven_dependency_tree.
+ *
+ * @param status          SUCCESS or FAILURE
+ * @param duration        time Maven took to resolve the trees in milliseconds, 0 if cached
+ * @param source          where the trees came from: "memory" or "disk" cache, or Maven
+ *                        ("resolved" for the whole reactor, "partial" for changed modules only)
+ * @param resolvedModules modules Maven resolved again, only for a partial resolution
+ * @param trees           dependency tree per module, null when a query was given
+ * @param matches         nodes matching {@code filter}, with their paths, null unless filtered
+ * @param conflicts       version conflicts Maven resolved, null unless requested
+ * @param diff            changes against the trees before the last POM edit, null if none
+ * @param output          filtered Maven output, only on FAILURE
+ * @param buildId         build ID of the Maven run, null if cached
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DependencyTreeResult(
+        String status,
+        long duration,
+        String source,
+        List<String> resolvedModules,
+        List<ModuleTree> trees,
+        List<DependencyMatch> matches,
+        List<DependencyConflict> conflicts,
+        List<DependencyChange> diff,
+        String output,
+        String buildId
+) {
+
+    /**
+     * @param module module directory relative to the project, "." for the root
+     * @param root   the module and its dependencies
+     */
+    public record ModuleTree(String module, DependencyNode root) {
+    }
+
+    /**
+     * @param module     module directory
+     * @param dependency groupId:artifactId:version of the matching node
+     * @param scope      its scope
+     * @param omitted    why Maven left it out, null if resolved
+     * @param path       dependencies leading to it from the module, ending with it
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record DependencyMatch(String module, String dependency, String scope, String omitted, List<String> path) {
+    }
+
+    /**
+     * @param module     module directory
+     * @param dependency groupId:artifactId
+     * @param resolved   version Maven picked
+     * @param requested  version this path asked for
+     * @param path       dependencies leading to the request, ending with it
+     */
+    public record DependencyConflict(String module, String dependency, String resolved, String requested,
+                                     List<String> path) {
+    }
+
+    /**
+     * @param module     module directory
+     * @param dependency groupId:artifactId
+     * @param from       version before, null if added
+     * @param to         version now, null if removed
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record DependencyChange(String module, String dependency, String from, String to) {
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.mavenmcp.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * How long a build was expected to take, and how long it was allowed to.
+ *
+ * @param expected median duration of the same invocation in milliseconds, null without
+ *                 enough of its own history
+ * @param timeout  time after which the build is killed, in milliseconds
+ * @param samples  number of past durations the timeout was derived from, 0 for the default
+ * @param basedOn  invocation whose past durations set the timeout (the build's own, or a
+ *                 wider one such as all tests of the module), null for the default
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DurationPrediction(Long expected, long timeout, int samples, String basedOn) {
+}
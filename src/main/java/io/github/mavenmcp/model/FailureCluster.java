@@ -0,0 +1,30 @@
+package io.github.mavenmcp.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A group of test failures sharing the same normalized root cause.
+ *
+ * @param signature       hex hash of the normalized root-cause signature
+ * @param exceptionType   root cause exception class, null if the failure had no stack trace
+ * @param messageTemplate root cause message with numbers and ids masked
+ * @param count           number of failing tests in this cluster
+ * @param tests           member test IDs ({@code Class#method}) in report order
+ * @param representative  first failure of the cluster, carrying the processed stack trace
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record FailureCluster(
+        String signature,
+        String exceptionType,
+        String messageTemplate,
+        int count,
+        List<String> tests,
+        TestFailure representative
+) {
+
+    public FailureCluster withRepresentative(TestFailure representative) {
+        return new FailureCluster(signature, exceptionType, messageTemplate, count, tests, representative);
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.mavenmcp.model;
+
+/**
+ * A single archived [ERROR] or [WARNING] line matching a log search.
+ *
+ * @param buildId   build ID of the run the line belongs to
+ * @param timestamp when the run finished, epoch milliseconds
+ * @param line      1-based line number in the run's full log
+ * @param severity  "ERROR" or "WARNING"
+ * @param text      line text without the severity prefix
+ */
+public record LogMatch(String buildId, long timestamp, int line, String severity, String text) {
+}
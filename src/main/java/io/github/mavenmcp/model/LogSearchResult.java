@@ -0,0 +1,19 @@
+package io.github.mavenmcp.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Result of searching archived build logs.
+ *
+ * @param query          the query as given
+ * @param searchedBuilds number of archived builds searched
+ * @param matchingBuilds number of searched builds with at least one match
+ * @param totalMatches   total number of matching lines, including those not returned
+ * @param matches        matching lines, newest build first, limited by the request
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record LogSearchResult(String query, int searchedBuilds, int matchingBuilds, int totalMatches,
+                              List<LogMatch> matches) {
+}
@@ -0,0 +1,47 @@
+package io.github.mavenmcp.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Maven and JDK environment the server runs builds with, as reported by {@code mvn -v}
+ * and the Maven settings files.
+ *
+ * @param executable      Maven executable (mvnw or mvn)
+ * @param mavenVersion    Maven version, null if the probe failed
+ * @param mavenHome       Maven installation directory
+ * @param javaVersion     version of the JDK Maven runs on
+ * @param javaVendor      vendor of that JDK
+ * @param javaHome        runtime directory of that JDK
+ * @param os              operating system name, version and architecture
+ * @param localRepository local repository directory
+ * @param mirrors         mirrors configured in settings.xml, empty if none
+ * @param cached          whether the {@code mvn -v} part came from the on-disk cache
+ * @param error           why {@code mvn -v} could not be probed, null on success
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MavenEnvironment(
+        String executable,
+        String mavenVersion,
+        String mavenHome,
+        String javaVersion,
+        String javaVendor,
+        String javaHome,
+        String os,
+        String localRepository,
+        List<Mirror> mirrors,
+        boolean cached,
+        String error
+) {
+
+    /**
+     * A {@code <mirror>} from settings.xml.
+     *
+     * @param id       mirror id
+     * @param mirrorOf repositories it replaces, e.g. {@code central} or {@code *}
+     * @param url      mirror URL
+     */
+    public record Mirror(String id, String mirrorOf, String url) {
+    }
+}
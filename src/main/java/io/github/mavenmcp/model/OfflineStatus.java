@@ -0,0 +1,22 @@
+package io.github.mavenmcp.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Dependency prefetch and automatic offline mode of a project, reported by maven_server_stats.
+ *
+ * @param state                       RESOLVING, RESOLVED (builds run offline) or FAILED
+ * @param error                       why the last prefetch failed or offline mode was given up, null if not
+ * @param prefetchMillis              duration of the last completed prefetch, null before one completed
+ *                                    (or when the POMs were resolved before the project was loaded)
+ * @param offlineBuilds               builds run with {@code -o} added
+ * @param onlineBuilds                builds run with remote repository access
+ * @param fallbacks                   offline builds repeated online because an artifact was missing locally
+ * @param averageNetworkMillis        time per online build spent on transfers, from Maven's transfer lines
+ * @param estimatedNetworkMillisSaved offline builds times the average, less the time of failed offline attempts
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record OfflineStatus(String state, String error, Long prefetchMillis, long offlineBuilds,
+                            long onlineBuilds, long fallbacks, long averageNetworkMillis,
+                            long estimatedNetworkMillisSaved) {
+}
@@ -0,0 +1,14 @@
+package io.github.mavenmcp.model;
+
+/**
+ * Latency summary of one phase of one tool, in milliseconds.
+ *
+ * @param count number of observations
+ * @param mean  mean duration
+ * @param p50   median
+ * @param p90   90th percentile
+ * @param p99   99th percentile
+ * @param max   maximum
+ */
+public record PhaseStats(long count, double mean, double p50, double p90, double p99, double max) {
+}
@@ -0,0 +1,72 @@
+package io.github.mavenmcp.model;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Response of maven_pipeline: one Maven run, reported per step.
+ *
+ * @param status   SUCCESS, FAILURE or TIMEOUT of the run
+ * @param duration wall-clock time of the Maven run in milliseconds
+ * @param goals    the goals Maven was run with, e.g. "clean test"
+ * @param steps    result per step, in the order given
+ * @param overhead time not spent in any step's mojos (JVM start, reading the POMs, resolving
+ *                 the reactor) in milliseconds, null if not measured
+ * @param buildId  identifier of this build, usable as {@code since} in a later call
+ * @param timings  per-phase durations of this call in milliseconds, only when requested
+ * @param prediction expected duration and timeout of the run
+ * @param resources memory, CPU and processes used by Maven and its children, only with the timings
+ * @param queue    how long the run waited for its turn, null if it did not have to
+ * @param allocation cores, memory, threads, test JVMs and heaps the run was given, only with the timings
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PipelineResult(
+        String status,
+        long duration,
+        String goals,
+        List<StepResult> steps,
+        Long overhead,
+        String buildId,
+        Map<String, Double> timings,
+        DurationPrediction prediction,
+        ResourceUsage resources,
+        QueueWait queue,
+        ResourceAllocation allocation
+) {
+
+    /**
+     * @param step   the step as given
+     * @param mojos  mojo executions attributed to the step, over all modules
+     * @param result its outcome, as the tool for the step would report it; the duration is
+     *               the time its mojos took
+     */
+    public record StepResult(String step, int mojos, BuildResult result) {
+    }
+
+    public PipelineResult withTimings(Map<String, Double> timings) {
+        return new PipelineResult(status, duration, goals, steps, overhead, buildId, timings, prediction, resources,
+                queue, allocation);
+    }
+
+    public PipelineResult withPrediction(DurationPrediction prediction) {
+        return new PipelineResult(status, duration, goals, steps, overhead, buildId, timings, prediction, resources,
+                queue, allocation);
+    }
+
+    public PipelineResult withResources(ResourceUsage resources) {
+        return new PipelineResult(status, duration, goals, steps, overhead, buildId, timings, prediction, resources,
+                queue, allocation);
+    }
+
+    public PipelineResult withQueue(QueueWait queue) {
+        return new PipelineResult(status, duration, goals, steps, overhead, buildId, timings, prediction, resources,
+                queue, allocation);
+    }
+
+    public PipelineResult withAllocation(ResourceAllocation allocation) {
+        return new PipelineResult(status, duration, goals, steps, overhead, buildId, timings, prediction, resources,
+                queue, allocation);
+    }
+}
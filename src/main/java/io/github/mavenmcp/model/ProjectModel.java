@@ -0,0 +1,94 @@
+package io.github.mavenmcp.model;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The reactor of a project as its POMs declare it, with inheritance and properties
+ * resolved, reported by maven_project_info.
+ *
+ * @param groupId    groupId of the root POM, inherited from its parent if not declared
+ * @param artifactId artifactId of the root POM
+ * @param version    version of the root POM, inherited from its parent if not declared
+ * @param modules    the root POM and its modules, in reactor order; empty without a root POM
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProjectModel(String groupId, String artifactId, String version, List<Module> modules) {
+
+    /**
+     * A model for a directory without a POM.
+     */
+    public static ProjectModel empty() {
+        return new ProjectModel(null, null, null, List.of());
+    }
+
+    /**
+     * @param path                module directory relative to the project directory, "." for the root
+     * @param groupId             groupId, inherited from the parent if not declared
+     * @param artifactId          artifactId
+     * @param version             version, inherited from the parent if not declared
+     * @param packaging           packaging, "jar" if not declared
+     * @param parent              parent coordinates (groupId:artifactId:version), or null
+     * @param sourceDirectory     main sources, relative to the project directory
+     * @param testSourceDirectory test sources, relative to the project directory
+     * @param buildDirectory      build output directory, relative to the project directory
+     * @param reportsDirectory    where Surefire writes its XML reports, relative to the project directory
+     * @param properties          properties after inheritance, or null when not requested
+     * @param plugins             plugins declared in {@code <build><plugins>} here or in a parent
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Module(String path, String groupId, String artifactId, String version, String packaging,
+                         String parent, String sourceDirectory, String testSourceDirectory,
+                         String buildDirectory, String reportsDirectory, Map<String, String> properties,
+                         List<Plugin> plugins) {
+
+        /**
+         * @return the declared plugin with this artifactId, or null
+         */
+        public Plugin plugin(String artifactId) {
+            return plugins.stream().filter(p -> p.artifactId().equals(artifactId)).findFirst().orElse(null);
+        }
+
+        public Module withProperties(Map<String, String> properties) {
+            return new Module(path, groupId, artifactId, version, packaging, parent, sourceDirectory,
+                    testSourceDirectory, buildDirectory, reportsDirectory, properties, plugins);
+        }
+    }
+
+    /**
+     * A plugin with its configuration and executions merged from {@code <pluginManagement>}
+     * and the parents.
+     *
+     * @param groupId       groupId, "org.apache.maven.plugins" if not declared
+     * @param artifactId    artifactId
+     * @param version       version, or null if left to Maven's defaults
+     * @param configuration plugin-level configuration; a list parameter is joined with commas
+     * @param executions    executions bound in the POMs, empty if only the CLI or lifecycle runs it
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Plugin(String groupId, String artifactId, String version, Map<String, String> configuration,
+                         List<Execution> executions) {
+    }
+
+    /**
+     * @param id    execution id, "default" if not declared
+     * @param phase phase it is bound to, or null for the goal's default phase
+     * @param goals goals it runs
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Execution(String id, String phase, List<String> goals) {
+    }
+
+    /**
+     * @return the module in the given directory (relative to the project), or null
+     */
+    public Module module(String path) {
+        return modules.stream().filter(m -> m.path().equals(path)).findFirst().orElse(null);
+    }
+
+    public ProjectModel withModules(List<Module> modules) {
+        return new ProjectModel(groupId, artifactId, version, modules);
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.mavenmcp.model;
+
+/**
+ * How long a build waited for its turn because the server's limit of builds at once was
+ * reached.
+ *
+ * @param waited       time spent waiting in milliseconds
+ * @param expectedWait wait expected when the build joined the queue, in milliseconds
+ * @param running      builds running when it joined the queue
+ * @param ahead        builds waiting ahead of it when it joined the queue
+ */
+public record QueueWait(long waited, long expectedWait, int running, int ahead) {
+}
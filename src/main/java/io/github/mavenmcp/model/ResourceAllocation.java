@@ -0,0 +1,53 @@
+package io.github.mavenmcp.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The share of the host's cores and memory one build was given, and how it was passed
+ * to Maven.
+ *
+ * @param cpus      cores of the build
+ * @param memory    memory of the build in bytes
+ * @param source    where the host's limits come from: "cgroup" (v2 {@code cpu.max} and
+ *                  {@code memory.max}) or "host"
+ * @param threads   reactor threads a {@code -T} of the call in cores ({@code 1C}) was
+ *                  replaced with, null if the call had none
+ * @param forkCount test JVMs per module, null if the call or the project sets {@code forkCount}
+ *                  or {@code argLine}
+ * @param mavenHeap maximum heap of Maven's JVM in bytes, null if {@code MAVEN_OPTS} or
+ *                  {@code .mvn/jvm.config} set one
+ * @param forkHeap  maximum heap of each test JVM in bytes, null if the call or the project
+ *                  sets {@code argLine}
+ * @param arguments Maven arguments added, after those of the call
+ * @param mavenOpts {@code MAVEN_OPTS} Maven was run with, null if left as it was
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ResourceAllocation(int cpus, long memory, String source, Integer threads, Integer forkCount,
+                                 Long mavenHeap, Long forkHeap, List<String> arguments, String mavenOpts) {
+
+    /**
+     * @return the arguments of the call, with a {@code -T} in cores replaced by
+     *         {@link #threads()}, followed by the added ones
+     */
+    public List<String> apply(List<String> args) {
+        List<String> combined = new ArrayList<>();
+        for (int i = 0; i < args.size(); i++) {
+            String arg = args.get(i);
+            if (threads != null && (arg.equals("-T") || arg.equals("--threads")) && i + 1 < args.size()
+                    && args.get(i + 1).endsWith("C")) {
+                combined.add(arg);
+                combined.add(String.valueOf(threads));
+                i++;
+            } else if (threads != null && arg.startsWith("-T") && arg.endsWith("C")) {
+                combined.add("-T" + threads);
+            } else {
+                combined.add(arg);
+            }
+        }
+        combined.addAll(arguments);
+        return combined;
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.mavenmcp.model;
+
+/**
+ * Resource use of a Maven process and all processes it started (forked test JVMs, ...),
+ * sampled while it ran.
+ *
+ * @param peakRss     highest resident memory of the processes together, in bytes
+ * @param cpuTime     user and system CPU time of the processes, summed, in milliseconds
+ * @param peakThreads highest number of threads of the processes together
+ * @param forkedJvms  JVMs started besides Maven's own
+ * @param samples     number of samples taken
+ */
+public record ResourceUsage(long peakRss, long cpuTime, int peakThreads, int forkedJvms, int samples) {
+
+    /**
+     * Resource use of two builds of one call: the higher peaks, the summed totals.
+     */
+    public ResourceUsage plus(ResourceUsage other) {
+        return new ResourceUsage(Math.max(peakRss, other.peakRss), cpuTime + other.cpuTime,
+                Math.max(peakThreads, other.peakThreads), forkedJvms + other.forkedJvms,
+                samples + other.samples);
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.mavenmcp.model;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Server statistics returned by maven_server_stats.
+ *
+ * @param uptime      server uptime in milliseconds
+ * @param tools       latency per tool name and phase
+ * @param environment Maven and JDK of the project, null while still being probed
+ * @param offline     dependency prefetch and offline builds of the project, null if disabled
+ * @param workspace   projects and their memory use, null when serving a single project
+ * @param sessions    client sessions, null unless serving over HTTP
+ * @param resources   memory (MiB), CPU time (ms), threads and forked JVMs of the Maven runs
+ *                    per tool, null until a run was sampled
+ * @param admission   builds running and waiting under the limit of builds at once, null if unlimited
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ServerStatsResult(long uptime, Map<String, Map<String, PhaseStats>> tools,
+                                MavenEnvironment environment, OfflineStatus offline,
+                                WorkspaceStats workspace, SessionStats sessions,
+                                Map<String, Map<String, ValueStats>> resources, AdmissionStats admission) {
+
+    public ServerStatsResult(long uptime, Map<String, Map<String, PhaseStats>> tools) {
+        this(uptime, tools, null, null, null, null, null, null);
+    }
+
+    public ServerStatsResult withEnvironment(MavenEnvironment environment) {
+        return new ServerStatsResult(uptime, tools, environment, offline, workspace, sessions, resources,
+                admission);
+    }
+
+    public ServerStatsResult withOffline(OfflineStatus offline) {
+        return new ServerStatsResult(uptime, tools, environment, offline, workspace, sessions, resources,
+                admission);
+    }
+
+    public ServerStatsResult withWorkspace(WorkspaceStats workspace) {
+        return new ServerStatsResult(uptime, tools, environment, offline, workspace, sessions, resources,
+                admission);
+    }
+
+    public ServerStatsResult withSessions(SessionStats sessions) {
+        return new ServerStatsResult(uptime, tools, environment, offline, workspace, sessions, resources,
+                admission);
+    }
+
+    public ServerStatsResult withResources(Map<String, Map<String, ValueStats>> resources) {
+        return new ServerStatsResult(uptime, tools, environment, offline, workspace, sessions, resources,
+                admission);
+    }
+
+    public ServerStatsResult withAdmission(AdmissionStats admission) {
+        return new ServerStatsResult(uptime, tools, environment, offline, workspace, sessions, resources,
+                admission);
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.mavenmcp.model;
+
+import java.util.List;
+
+/**
+ * Client sessions of the HTTP transport, reported by maven_server_stats.
+ *
+ * @param activeSessions sessions opened and not yet closed or expired
+ * @param closedSessions sessions closed by their client or expired
+ * @param inFlight       requests being processed
+ * @param requests       requests received since start
+ * @param rejected       requests refused while draining or for a foreign origin
+ * @param draining       whether the server is shutting down
+ * @param sessions       most recently active sessions, most recent first
+ */
+public record SessionStats(int activeSessions, long closedSessions, int inFlight, long requests,
+                           long rejected, boolean draining, List<Session> sessions) {
+
+    /**
+     * @param id         MCP session ID
+     * @param ageMillis  time since the session was opened
+     * @param idleMillis time since its last request
+     * @param requests   requests received
+     * @param errors     requests answered with an HTTP error status
+     * @param inFlight   requests being processed
+     */
+    public record Session(String id, long ageMillis, long idleMillis, long requests, long errors, int inFlight) {
+    }
+}
@@ -10,15 +10,34 @@ import com.fasterxml.jackson.annotation.JsonInclude;
  * @param message    failure/error message
  * @param stackTrace truncated stack trace (nullable)
  * @param testOutput extracted stdout/stderr from test execution (nullable)
+ * @param rerun      PASSED or FAILED when the test was rerun in isolation, null otherwise
+ * @param flakiness  share of the test's earlier rerun failures that passed, null unless it is known to be flaky
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
-public record TestFailure(String testClass, String testMethod, String message, String stackTrace, String testOutput) {
+public record TestFailure(String testClass, String testMethod, String message, String stackTrace, String testOutput,
+                          String rerun, Double flakiness) {
+
+    public TestFailure(String testClass, String testMethod, String message, String stackTrace, String testOutput) {
+        this(testClass, testMethod, message, stackTrace, testOutput, null, null);
+    }
 
     public TestFailure withStackTrace(String stackTrace) {
-        return new TestFailure(testClass, testMethod, message, stackTrace, testOutput);
+        return new TestFailure(testClass, testMethod, message, stackTrace, testOutput, rerun, flakiness);
     }
 
     public TestFailure withTestOutput(String testOutput) {
-        return new TestFailure(testClass, testMethod, message, stackTrace, testOutput);
+        return new TestFailure(testClass, testMethod, message, stackTrace, testOutput, rerun, flakiness);
+    }
+
+    public TestFailure withRerun(String rerun) {
+        return new TestFailure(testClass, testMethod, message, stackTrace, testOutput, rerun, flakiness);
     }
+
+    public TestFailure withFlakiness(Double flakiness) {
+        return new TestFailure(testClass, testMethod, message, stackTrace, testOutput, rerun, flakiness);
+    }
+
+    /** Rerun outcomes */
+    public static final String PASSED = "PASSED";
+    public static final String FAILED = "FAILED";
 }
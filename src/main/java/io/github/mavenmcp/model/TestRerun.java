@@ -0,0 +1,24 @@
+package io.github.mavenmcp.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of rerunning the failed tests of a maven_test run in one follow-up invocation.
+ *
+ * @param tests    number of failed tests rerun
+ * @param duration wall-clock time of the rerun in milliseconds
+ * @param flaky    tests that passed on the rerun, as Class#method
+ * @param failing  tests that failed again
+ * @param buildId  build ID of the rerun, for its log
+ * @param reason   why the failures were not rerun, null if they were
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TestRerun(int tests, long duration, List<String> flaky, List<String> failing, String buildId,
+                        String reason) {
+
+    public static TestRerun skipped(String reason) {
+        return new TestRerun(0, 0, null, null, null, reason);
+    }
+}
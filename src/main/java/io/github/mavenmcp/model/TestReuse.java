@@ -0,0 +1,22 @@
+package io.github.mavenmcp.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Whether maven_package ran the tests or relied on an earlier maven_test.
+ *
+ * @param reused  true if tests were skipped because they passed on the same sources
+ * @param buildId build ID of the maven_test run relied on, null unless reused
+ * @param reason  why the tests ran (or were skipped by the caller), null if reused
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TestReuse(boolean reused, String buildId, String reason) {
+
+    public static TestReuse reused(String buildId) {
+        return new TestReuse(true, buildId, null);
+    }
+
+    public static TestReuse executed(String reason) {
+        return new TestReuse(false, null, reason);
+    }
+}
@@ -0,0 +1,12 @@
+package io.github.mavenmcp.model;
+
+/**
+ * Summary of a quantity measured once per tool call, in the unit of the quantity.
+ *
+ * @param count number of observations
+ * @param mean  mean value
+ * @param min   smallest value
+ * @param max   largest value
+ */
+public record ValueStats(long count, double mean, long min, long max) {
+}
@@ -0,0 +1,26 @@
+package io.github.mavenmcp.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * State of a multi-project workspace, reported by maven_server_stats.
+ *
+ * @param memoryCap      estimated bytes above which idle projects are unloaded, null if unlimited
+ * @param estimatedBytes estimated bytes held by all loaded projects
+ * @param evictions      number of times an idle project was unloaded
+ * @param projects       configured projects
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record WorkspaceStats(Long memoryCap, long estimatedBytes, long evictions, List<ProjectStatus> projects) {
+
+    /**
+     * @param name           name to pass as {@code project}
+     * @param projectDir     project directory
+     * @param loaded         whether its state is in memory
+     * @param estimatedBytes estimated bytes held by its state
+     */
+    public record ProjectStatus(String name, String projectDir, boolean loaded, long estimatedBytes) {
+    }
+}
@@ -0,0 +1,161 @@
+package io.github.mavenmcp.parser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import io.github.mavenmcp.model.FailureCluster;
+import io.github.mavenmcp.model.TestFailure;
+
+/**
+ * Groups test failures by a normalized root-cause signature so that one broken fixture
+ * failing hundreds of tests is reported once.
+ *
+ * <p>The signature combines the root cause exception type, its message with numbers and
+ * ids masked, and the top application frames of the root cause (excluding the failing
+ * test method itself). Clustering is a single pass over the failures with a hash map
+ * keyed by the signature, so it stays linear in the number of failures.</p>
+ */
+public final class FailureClusterer {
+
+    static final int SIGNATURE_FRAMES = 3;
+
+    private static final Pattern UUID = Pattern.compile(
+            "\\b[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}\\b");
+    private static final Pattern IDENTITY_HASH = Pattern.compile("@[0-9a-fA-F]{4,}\\b");
+    private static final Pattern HEX_NUMBER = Pattern.compile("\\b0x[0-9a-fA-F]+\\b");
+    private static final Pattern LONG_HEX = Pattern.compile("\\b(?=[0-9a-fA-F]*\\d)[0-9a-fA-F]{12,}\\b");
+    private static final Pattern NUMBER = Pattern.compile("\\d+(\\.\\d+)?");
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private FailureClusterer() {
+    }
+
+    /**
+     * Cluster failures by root-cause signature, preserving first-seen order.
+     * The representative of each cluster is its first failure, unprocessed.
+     *
+     * @param failures   raw test failures as parsed from Surefire reports
+     * @param appPackage application package prefix for frame selection (null/blank = derive from test class)
+     * @return one cluster per distinct signature
+     */
+    public static List<FailureCluster> cluster(List<TestFailure> failures, String appPackage) {
+        Map<String, Group> groups = new LinkedHashMap<>();
+        for (TestFailure failure : failures) {
+            Signature sig = signatureOf(failure, appPackage);
+            groups.computeIfAbsent(sig.key(), k -> new Group(sig, failure))
+                    .tests.add(failure.testClass() + "#" + failure.testMethod());
+        }
+
+        List<FailureCluster> clusters = new ArrayList<>(groups.size());
+        for (Group group : groups.values()) {
+            clusters.add(new FailureCluster(
+                    hash(group.signature.key()),
+                    group.signature.exceptionType(),
+                    group.signature.messageTemplate(),
+                    group.tests.size(),
+                    List.copyOf(group.tests),
+                    group.representative));
+        }
+        return clusters;
+    }
+
+    /**
+     * Compute the normalized root-cause signature of a single failure.
+     */
+    static Signature signatureOf(TestFailure failure, String appPackage) {
+        String header = StackTraceProcessor.rootCauseHeader(failure.stackTrace());
+        String exceptionType = null;
+        String message = failure.message();
+        if (header != null) {
+            int colon = header.indexOf(':');
+            exceptionType = colon < 0 ? header : header.substring(0, colon).strip();
+            message = colon < 0 ? null : header.substring(colon + 1).strip();
+        }
+        String template = maskMessage(message);
+
+        String framePackage = appPackage != null && !appPackage.isBlank()
+                ? appPackage : packageOf(failure.testClass());
+        List<String> frames = new ArrayList<>(SIGNATURE_FRAMES);
+        String ownFrame = null;
+        for (String frame : StackTraceProcessor.rootCauseFrames(
+                failure.stackTrace(), framePackage, Integer.MAX_VALUE)) {
+            if (isOwnTestFrame(frame, failure)) {
+                if (ownFrame == null) {
+                    ownFrame = frame;
+                }
+                continue;
+            }
+            frames.add(frame);
+            if (frames.size() == SIGNATURE_FRAMES) {
+                break;
+            }
+        }
+        // Failure raised directly in the test body: the test itself is the root cause site
+        if (frames.isEmpty() && ownFrame != null) {
+            frames.add(ownFrame);
+        }
+
+        String key = exceptionType + "|" + template + "|" + String.join("|", frames);
+        return new Signature(key, exceptionType, template);
+    }
+
+    /**
+     * Mask volatile parts of a message (UUIDs, identity hashes, hex values, numbers).
+     */
+    static String maskMessage(String message) {
+        if (message == null || message.isBlank()) {
+            return null;
+        }
+        String masked = UUID.matcher(message).replaceAll("<uuid>");
+        masked = IDENTITY_HASH.matcher(masked).replaceAll("@<id>");
+        masked = HEX_NUMBER.matcher(masked).replaceAll("<hex>");
+        masked = LONG_HEX.matcher(masked).replaceAll("<id>");
+        return NUMBER.matcher(masked).replaceAll("<n>");
+    }
+
+    private static boolean isOwnTestFrame(String frame, TestFailure failure) {
+        String prefix = failure.testClass() + ".";
+        return frame.startsWith(prefix + failure.testMethod() + "(")
+                || frame.startsWith(prefix + "lambda$" + failure.testMethod() + "$");
+    }
+
+    private static String packageOf(String className) {
+        if (className == null) {
+            return null;
+        }
+        int dot = className.lastIndexOf('.');
+        return dot < 0 ? null : className.substring(0, dot + 1);
+    }
+
+    /**
+     * 64-bit FNV-1a hash rendered as hex, used as a stable cluster identifier.
+     */
+    static String hash(String value) {
+        long h = FNV_OFFSET;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= FNV_PRIME;
+        }
+        return String.format("%016x", h);
+    }
+
+    record Signature(String key, String exceptionType, String messageTemplate) {
+    }
+
+    private static final class Group {
+        final Signature signature;
+        final TestFailure representative;
+        final List<String> tests = new ArrayList<>();
+
+        Group(Signature signature, TestFailure representative) {
+            this.signature = signature;
+            this.representative = representative;
+        }
+    }
+}
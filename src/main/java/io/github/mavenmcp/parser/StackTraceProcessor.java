@@ -73,6 +73,46 @@ public final class StackTraceProcessor {
         return String.join("\n", outputLines);
     }
 
+    /**
+     * Return the root cause header of a stack trace (the last "Caused by:" line, or the
+     * first line when there is no chain), with any "Caused by: " prefix removed.
+     *
+     * @param stackTrace raw stack trace string
+     * @return root cause header, or null if input is null/blank
+     */
+    static String rootCauseHeader(String stackTrace) {
+        if (stackTrace == null || stackTrace.isBlank()) {
+            return null;
+        }
+        String header = parseSegments(stackTrace.strip()).getLast().header.strip();
+        return header.startsWith("Caused by:") ? header.substring("Caused by:".length()).strip() : header;
+    }
+
+    /**
+     * Return the top application frames of the root cause segment, without the leading "at ".
+     *
+     * @param stackTrace raw stack trace string
+     * @param appPackage application package prefix (null/blank = every frame is an application frame)
+     * @param limit      maximum number of frames to return
+     * @return application frames in stack order, empty if none
+     */
+    static List<String> rootCauseFrames(String stackTrace, String appPackage, int limit) {
+        if (stackTrace == null || stackTrace.isBlank()) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>();
+        for (String frame : parseSegments(stackTrace.strip()).getLast().frames) {
+            if (result.size() >= limit) {
+                break;
+            }
+            String trimmed = frame.strip();
+            if (trimmed.startsWith("at ") && isApplicationFrame(frame, appPackage)) {
+                result.add(trimmed.substring(3));
+            }
+        }
+        return result;
+    }
+
     /**
      * Parse a stack trace into segments. Each segment has a header line and frame lines.
      */
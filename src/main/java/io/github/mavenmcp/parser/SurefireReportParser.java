@@ -52,18 +52,47 @@ public final class SurefireReportParser {
      */
     public static Optional<SurefireResult> parse(Path projectDir,
                                                   boolean includeTestLogs, int testOutputLimit) {
-        Path reportsDir = projectDir.resolve(REPORTS_DIR);
+        return parse(projectDir, includeTestLogs, testOutputLimit, DEFAULT_TOTAL_OUTPUT_LIMIT);
+    }
 
-        if (!Files.isDirectory(reportsDir)) {
-            log.debug("Surefire reports directory not found: {}", reportsDir);
-            return Optional.empty();
-        }
+    /**
+     * Parse Surefire XML reports with log extraction options and a total output limit.
+     *
+     * @param projectDir       project root directory
+     * @param includeTestLogs  whether to extract system-out/system-err from test cases
+     * @param testOutputLimit  per-test character limit for extracted output
+     * @param totalOutputLimit character limit across all extracted output (0 = no limit,
+     *                         e.g. when the caller applies its own response budget)
+     * @return parsed test results, or empty if no reports found
+     */
+    public static Optional<SurefireResult> parse(Path projectDir, boolean includeTestLogs,
+                                                  int testOutputLimit, int totalOutputLimit) {
+        return parse(List.of(projectDir.resolve(REPORTS_DIR)), includeTestLogs, testOutputLimit, totalOutputLimit);
+    }
 
-        File[] xmlFiles = reportsDir.toFile().listFiles(
-                (dir, name) -> name.startsWith("TEST-") && name.endsWith(".xml"));
+    /**
+     * Parse the Surefire XML reports of several modules into one result.
+     *
+     * @param reportsDirs      report directories, e.g. target/surefire-reports of each module
+     * @param includeTestLogs  whether to extract system-out/system-err from test cases
+     * @param testOutputLimit  per-test character limit for extracted output
+     * @param totalOutputLimit character limit across all extracted output (0 = no limit)
+     * @return parsed test results, or empty if no directory holds reports
+     */
+    public static Optional<SurefireResult> parse(List<Path> reportsDirs, boolean includeTestLogs,
+                                                  int testOutputLimit, int totalOutputLimit) {
+        List<File> xmlFiles = new ArrayList<>();
+        for (Path reportsDir : reportsDirs) {
+            File[] reports = Files.isDirectory(reportsDir)
+                    ? reportsDir.toFile().listFiles((dir, name) -> name.startsWith("TEST-") && name.endsWith(".xml"))
+                    : null;
+            if (reports != null) {
+                xmlFiles.addAll(List.of(reports));
+            }
+        }
 
-        if (xmlFiles == null || xmlFiles.length == 0) {
-            log.debug("No TEST-*.xml files found in {}", reportsDir);
+        if (xmlFiles.isEmpty()) {
+            log.debug("No TEST-*.xml files found in {}", reportsDirs);
             return Optional.empty();
         }
 
@@ -98,7 +127,9 @@ public final class SurefireReportParser {
         }
 
         // Apply total output limit across all failures
-        applyTotalOutputLimit(failures);
+        if (totalOutputLimit > 0) {
+            applyTotalOutputLimit(failures, totalOutputLimit);
+        }
 
         var summary = new TestSummary(totalTests, totalFailures, totalSkipped, totalErrors);
         return Optional.of(new SurefireResult(summary, failures));
@@ -187,13 +218,13 @@ public final class SurefireReportParser {
      * Apply total character limit across all test outputs (default 10000).
      * When the limit is reached, remaining tests have testOutput set to null.
      */
-    private static void applyTotalOutputLimit(List<TestFailure> failures) {
+    private static void applyTotalOutputLimit(List<TestFailure> failures, int totalOutputLimit) {
         int totalChars = 0;
         for (int i = 0; i < failures.size(); i++) {
             TestFailure f = failures.get(i);
             if (f.testOutput() != null) {
                 totalChars += f.testOutput().length();
-                if (totalChars > DEFAULT_TOTAL_OUTPUT_LIMIT) {
+                if (totalChars > totalOutputLimit) {
                     // Null out this and remaining testOutputs
                     for (int j = i; j < failures.size(); j++) {
                         TestFailure orig = failures.get(j);
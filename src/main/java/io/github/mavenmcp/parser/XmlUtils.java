@@ -19,8 +19,39 @@ public final class XmlUtils {
      * @throws ParserConfigurationException if the parser cannot be configured
      */
     public static DocumentBuilder newSecureDocumentBuilder() throws ParserConfigurationException {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
-        return factory.newDocumentBuilder();
+        DocumentBuilderFactory factory = FactoryHolder.factory();
+        // A factory is not thread-safe, but creating builders from a configured one is cheap
+        synchronized (factory) {
+            return factory.newDocumentBuilder();
+        }
+    }
+
+    /**
+     * Looks up and configures the factory on first use only: the service lookup is slow
+     * and not needed until the first report is parsed.
+     */
+    private static final class FactoryHolder {
+
+        private static final DocumentBuilderFactory FACTORY;
+        private static final ParserConfigurationException FAILURE;
+
+        static {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            ParserConfigurationException failure = null;
+            try {
+                factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            } catch (ParserConfigurationException e) {
+                failure = e;
+            }
+            FACTORY = factory;
+            FAILURE = failure;
+        }
+
+        static DocumentBuilderFactory factory() throws ParserConfigurationException {
+            if (FAILURE != null) {
+                throw FAILURE;
+            }
+            return FACTORY;
+        }
     }
 }
@@ -0,0 +1,222 @@
+package io.github.mavenmcp.resource;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.mavenmcp.log.LogArchive;
+import io.github.mavenmcp.log.LogArchive.ArchivedRun;
+import io.github.mavenmcp.log.LogSpool;
+import io.github.mavenmcp.log.LogSpool.SpooledLog;
+import io.github.mavenmcp.workspace.ProjectContext;
+import io.github.mavenmcp.workspace.Workspace;
+import io.modelcontextprotocol.server.McpServerFeatures.SyncResourceTemplateSpecification;
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema.ErrorCodes;
+import io.modelcontextprotocol.spec.McpSchema.ReadResourceResult;
+import io.modelcontextprotocol.spec.McpSchema.ResourceTemplate;
+import io.modelcontextprotocol.spec.McpSchema.TextResourceContents;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * MCP resource: maven-log://{runId} — pages through the full spooled log of a Maven run.
+ * <p>
+ * The range is selected with a query: {@code ?lines=201-400} (1-based, inclusive) or
+ * {@code ?bytes=0-65535} (0-based, inclusive). Without a query the first page of lines
+ * is returned. The result metadata carries the log size and the URI of the next page.
+ * <p>
+ * Runs no longer in the spool are served from the compressed log archive, which supports
+ * line ranges only.
+ */
+public final class LogResource {
+
+    private static final Logger log = LoggerFactory.getLogger(LogResource.class);
+
+    static final String SCHEME = "maven-log://";
+    static final int DEFAULT_PAGE_LINES = 200;
+    static final int MAX_PAGE_LINES = 2_000;
+    static final long MAX_PAGE_BYTES = 256 * 1024;
+
+    private static final String URI_TEMPLATE = SCHEME + "{runId}";
+    private static final String MIME_TYPE = "text/plain";
+    private static final String DESCRIPTION =
+            "Full stdout/stderr of a Maven run, by the buildId returned from a tool call. "
+                    + "Select a page with ?lines=FROM-TO (1-based) or ?bytes=FROM-TO (0-based); "
+                    + "default is the first " + DEFAULT_PAGE_LINES + " lines.";
+
+    private LogResource() {
+    }
+
+    public static SyncResourceTemplateSpecification create(LogSpool spool) {
+        return create(spool, null);
+    }
+
+    public static SyncResourceTemplateSpecification create(LogSpool spool, LogArchive archive) {
+        return new SyncResourceTemplateSpecification(
+                template(),
+                (exchange, request) -> read(spool, archive, request.uri())
+        );
+    }
+
+    private static ResourceTemplate template() {
+        return ResourceTemplate.builder()
+                .uriTemplate(URI_TEMPLATE)
+                .name("maven-log")
+                .title("Maven build log")
+                .description(DESCRIPTION)
+                .mimeType(MIME_TYPE)
+                .build();
+    }
+
+    /**
+     * Serve logs of every loaded project of a workspace. Run IDs are unique across
+     * projects, so the run identifies the project.
+     */
+    public static SyncResourceTemplateSpecification create(Workspace workspace) {
+        return new SyncResourceTemplateSpecification(
+                template(),
+                (exchange, request) -> read(workspace, request.uri())
+        );
+    }
+
+    static ReadResourceResult read(Workspace workspace, String uri) {
+        String runId = runId(uri);
+        for (ProjectContext project : workspace.loaded()) {
+            LogSpool spool = project.logSpool();
+            LogArchive archive = project.logArchive();
+            if ((spool != null && spool.find(runId).isPresent())
+                    || (archive != null && archive.find(runId).isPresent())) {
+                return read(spool, archive, uri);
+            }
+        }
+        throw McpError.RESOURCE_NOT_FOUND.apply(uri);
+    }
+
+    /**
+     * Serve one page of a spooled log.
+     *
+     * @throws McpError if the run is unknown or the range is malformed
+     */
+    static ReadResourceResult read(LogSpool spool, String uri) {
+        return read(spool, null, uri);
+    }
+
+    /**
+     * Serve one page of a spooled or archived log.
+     *
+     * @param archive archive to fall back to, or null
+     * @throws McpError if the run is unknown or the range is malformed
+     */
+    static ReadResourceResult read(LogSpool spool, LogArchive archive, String uri) {
+        String runId = runId(uri);
+        String path = uri.substring(SCHEME.length());
+        int q = path.indexOf('?');
+        String query = q < 0 ? "" : path.substring(q + 1);
+
+        SpooledLog spooled = spool.find(runId).orElse(null);
+        if (spooled == null) {
+            ArchivedRun archived = archive == null ? null : archive.find(runId).orElse(null);
+            if (archived == null) {
+                throw McpError.RESOURCE_NOT_FOUND.apply(uri);
+            }
+            return readArchived(archive, archived, uri, query);
+        }
+        log.debug("Reading {} ({} lines, {} bytes)", uri, spooled.lineCount(), spooled.size());
+
+        Map<String, Object> meta = new LinkedHashMap<>();
+        meta.put("totalLines", spooled.lineCount());
+        meta.put("totalBytes", spooled.size());
+
+        String text;
+        if (query.startsWith("bytes=")) {
+            long[] range = parseRange(query.substring("bytes=".length()), 0);
+            long from = range[0];
+            long to = Math.min(range[1], from + MAX_PAGE_BYTES - 1);
+            text = spooled.readBytes(from, to - from + 1);
+            meta.put("range", "bytes=" + from + "-" + Math.min(to, spooled.size() - 1));
+            if (to + 1 < spooled.size()) {
+                meta.put("next", SCHEME + runId + "?bytes=" + (to + 1) + "-" + (to + MAX_PAGE_BYTES));
+            }
+        } else {
+            int[] range = lineRange(query);
+            text = spooled.readLines(range[0], range[1]);
+            putLinePaging(meta, runId, range, spooled.lineCount());
+        }
+
+        return new ReadResourceResult(
+                List.of(new TextResourceContents(uri, MIME_TYPE, text)), meta);
+    }
+
+    private static String runId(String uri) {
+        if (!uri.startsWith(SCHEME)) {
+            throw invalid("Not a maven-log URI: " + uri);
+        }
+        String path = uri.substring(SCHEME.length());
+        int q = path.indexOf('?');
+        return q < 0 ? path : path.substring(0, q);
+    }
+
+    private static ReadResourceResult readArchived(LogArchive archive, ArchivedRun run, String uri, String query) {
+        if (query.startsWith("bytes=")) {
+            throw invalid("Run " + run.runId() + " is only available from the archive, which supports lines=FROM-TO only");
+        }
+        int[] range = lineRange(query);
+        String text = archive.readLines(run.runId(), range[0], range[1])
+                .orElseThrow(() -> McpError.RESOURCE_NOT_FOUND.apply(uri));
+        Map<String, Object> meta = new LinkedHashMap<>();
+        meta.put("totalLines", run.lineCount());
+        meta.put("totalBytes", run.size());
+        meta.put("archived", true);
+        putLinePaging(meta, run.runId(), range, run.lineCount());
+        return new ReadResourceResult(
+                List.of(new TextResourceContents(uri, MIME_TYPE, text)), meta);
+    }
+
+    /**
+     * Resolve an empty or "lines=" query to a 1-based inclusive range of at most
+     * {@link #MAX_PAGE_LINES} lines.
+     */
+    private static int[] lineRange(String query) {
+        if (!query.isEmpty() && !query.startsWith("lines=")) {
+            throw invalid("Unsupported query '" + query + "', expected lines=FROM-TO or bytes=FROM-TO");
+        }
+        long[] range = query.isEmpty()
+                ? new long[] {1, DEFAULT_PAGE_LINES}
+                : parseRange(query.substring("lines=".length()), 1);
+        int from = (int) Math.min(range[0], Integer.MAX_VALUE - MAX_PAGE_LINES);
+        int to = (int) Math.min(range[1], (long) from + MAX_PAGE_LINES - 1);
+        return new int[] {from, to};
+    }
+
+    private static void putLinePaging(Map<String, Object> meta, String runId, int[] range, int lineCount) {
+        meta.put("range", "lines=" + range[0] + "-" + Math.min(range[1], lineCount));
+        if (range[1] < lineCount) {
+            int pageSize = range[1] - range[0] + 1;
+            meta.put("next", SCHEME + runId + "?lines=" + (range[1] + 1) + "-" + (range[1] + pageSize));
+        }
+    }
+
+    /**
+     * Parse "FROM-TO" or "FROM-" (open end) into an inclusive range.
+     */
+    private static long[] parseRange(String spec, long min) {
+        int dash = spec.indexOf('-');
+        try {
+            long from = Long.parseLong(dash < 0 ? spec : spec.substring(0, dash));
+            long to = dash < 0 || dash == spec.length() - 1
+                    ? Long.MAX_VALUE / 2
+                    : Long.parseLong(spec.substring(dash + 1));
+            if (from < min || to < from) {
+                throw invalid("Invalid range: " + spec);
+            }
+            return new long[] {from, to};
+        } catch (NumberFormatException e) {
+            throw invalid("Invalid range: " + spec);
+        }
+    }
+
+    private static McpError invalid(String message) {
+        return McpError.builder(ErrorCodes.INVALID_PARAMS).message(message).build();
+    }
+}
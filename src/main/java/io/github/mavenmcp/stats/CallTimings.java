@@ -0,0 +1,138 @@
+package io.github.mavenmcp.stats;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import io.github.mavenmcp.jfr.ReportParsingEvent;
+import io.github.mavenmcp.jfr.ToolInvocationEvent;
+import io.github.mavenmcp.maven.MavenExecutionResult;
+import io.github.mavenmcp.maven.ProcessTimings;
+import io.github.mavenmcp.model.ResourceUsage;
+
+/**
+ * Phase durations of a single tool call. Confined to the thread handling the call.
+ * <p>
+ * When created for a tool, the call and its parsing phases are also emitted as JFR
+ * events, so that tool activity lines up with GC and thread data in a recording.
+ */
+public final class CallTimings {
+
+    private final long startNanos = System.nanoTime();
+    private final EnumMap<Phase, Long> nanos = new EnumMap<>(Phase.class);
+    private final String tool;
+    private final ToolInvocationEvent invocation;
+    private ResourceUsage resources;
+
+    /**
+     * Timings not attributed to a tool; no JFR events are emitted.
+     */
+    public CallTimings() {
+        this.tool = null;
+        this.invocation = null;
+    }
+
+    /**
+     * Timings of a call to the given tool.
+     */
+    public CallTimings(String tool) {
+        this.tool = tool;
+        this.invocation = new ToolInvocationEvent();
+        invocation.tool = tool;
+        invocation.begin();
+    }
+
+    /**
+     * @return the tool name, or null if not attributed to a tool
+     */
+    public String tool() {
+        return tool;
+    }
+
+    /**
+     * Add to a phase; repeated phases (such as stack trace processing) are summed.
+     */
+    public void add(Phase phase, long durationNanos) {
+        nanos.merge(phase, durationNanos, Long::sum);
+    }
+
+    /**
+     * Add the milestones of a Maven process, if measured.
+     */
+    public void add(ProcessTimings process) {
+        if (process == null) {
+            return;
+        }
+        add(Phase.SPAWN, process.spawnNanos());
+        if (process.firstOutputNanos() >= 0) {
+            add(Phase.FIRST_OUTPUT, process.firstOutputNanos());
+        }
+        add(Phase.MAVEN, process.exitNanos());
+    }
+
+    /**
+     * Add the queue wait, milestones and resource use of a Maven run, if measured.
+     */
+    public void add(MavenExecutionResult execution) {
+        if (execution.queue() != null) {
+            add(Phase.QUEUE, execution.queue().waited() * 1_000_000);
+        }
+        add(execution.timings());
+        if (execution.resources() != null) {
+            resources = resources == null ? execution.resources() : resources.plus(execution.resources());
+        }
+    }
+
+    /**
+     * @return resource use of the Maven runs of this call, null if none was sampled
+     */
+    public ResourceUsage resources() {
+        return resources;
+    }
+
+    /**
+     * Run an action and add its duration to a phase.
+     */
+    public <T> T time(Phase phase, Supplier<T> action) {
+        ReportParsingEvent event = null;
+        if (tool != null && (phase == Phase.PARSE_OUTPUT || phase == Phase.PARSE_REPORTS)) {
+            event = new ReportParsingEvent();
+            event.tool = tool;
+            event.kind = phase.key();
+            event.begin();
+        }
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            add(phase, System.nanoTime() - start);
+            if (event != null) {
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Close the {@link Phase#TOTAL} phase at the current time.
+     */
+    public void finish() {
+        nanos.put(Phase.TOTAL, System.nanoTime() - startNanos);
+        if (invocation != null) {
+            invocation.commit();
+        }
+    }
+
+    Map<Phase, Long> nanos() {
+        return nanos;
+    }
+
+    /**
+     * @return measured phases in milliseconds, in phase order, for inclusion in a response
+     */
+    public Map<String, Double> toMillis() {
+        Map<String, Double> result = new LinkedHashMap<>();
+        nanos.forEach((phase, value) -> result.put(phase.key(), Math.round(value / 10_000.0) / 100.0));
+        return result;
+    }
+}
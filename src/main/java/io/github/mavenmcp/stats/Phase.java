@@ -0,0 +1,35 @@
+package io.github.mavenmcp.stats;
+
+/**
+ * Measured phases of a tool call, in the order they usually occur.
+ */
+public enum Phase {
+    /** Waiting for the server's limit of builds at once to let the build run. */
+    QUEUE("queue"),
+    /** From {@code ProcessBuilder.start()} until the process handle is returned. */
+    SPAWN("spawn"),
+    /** From process start until the first line of output is read. */
+    FIRST_OUTPUT("firstOutput"),
+    /** From process start until Maven exits. */
+    MAVEN("maven"),
+    /** Parsing compiler output. */
+    PARSE_OUTPUT("parseOutput"),
+    /** Parsing Surefire XML reports. */
+    PARSE_REPORTS("parseReports"),
+    /** Stack trace processing, summed over all failures. */
+    STACK_TRACES("stackTraces"),
+    /** JSON serialization of the response. */
+    SERIALIZE("serialize"),
+    /** The whole tool call. */
+    TOTAL("total");
+
+    private final String key;
+
+    Phase(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.mavenmcp.stats;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.mavenmcp.model.PhaseStats;
+import io.github.mavenmcp.model.ResourceUsage;
+import io.github.mavenmcp.model.ServerStatsResult;
+import io.github.mavenmcp.model.ValueStats;
+
+/**
+ * Server-wide latency statistics: one histogram per tool and phase, and per tool a summary
+ * of each resource its Maven runs used.
+ */
+public class ServerStats {
+
+    /** Peak resident memory of a call's Maven runs, in MiB. */
+    static final String PEAK_RSS = "peakRssMb";
+    /** CPU time of a call's Maven runs, in milliseconds. */
+    static final String CPU_TIME = "cpuTime";
+    static final String THREADS = "peakThreads";
+    static final String FORKED_JVMS = "forkedJvms";
+
+    private final long startMillis = System.currentTimeMillis();
+    private final Map<String, Map<Phase, LatencyHistogram>> histograms = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, ValueAggregator>> resources = new ConcurrentHashMap<>();
+
+    /**
+     * Record the phases of a finished tool call.
+     */
+    public void record(String tool, CallTimings timings) {
+        Map<Phase, LatencyHistogram> perPhase = histograms.computeIfAbsent(tool, t -> new ConcurrentHashMap<>());
+        timings.nanos().forEach((phase, nanos) ->
+                perPhase.computeIfAbsent(phase, p -> new LatencyHistogram()).record(nanos));
+        ResourceUsage usage = timings.resources();
+        if (usage != null) {
+            Map<String, ValueAggregator> perResource = resources.computeIfAbsent(tool,
+                    t -> new ConcurrentHashMap<>());
+            record(perResource, PEAK_RSS, usage.peakRss() / (1024 * 1024));
+            record(perResource, CPU_TIME, usage.cpuTime());
+            record(perResource, THREADS, usage.peakThreads());
+            record(perResource, FORKED_JVMS, usage.forkedJvms());
+        }
+    }
+
+    private static void record(Map<String, ValueAggregator> perResource, String resource, long value) {
+        perResource.computeIfAbsent(resource, r -> new ValueAggregator()).record(value);
+    }
+
+    public ServerStatsResult snapshot() {
+        Map<String, Map<String, PhaseStats>> tools = new TreeMap<>();
+        histograms.forEach((tool, perPhase) -> {
+            Map<String, PhaseStats> byPhase = new LinkedHashMap<>();
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram histogram = perPhase.get(phase);
+                if (histogram != null) {
+                    byPhase.put(phase.key(), histogram.snapshot());
+                }
+            }
+            tools.put(tool, byPhase);
+        });
+        Map<String, Map<String, ValueStats>> byTool = new TreeMap<>();
+        resources.forEach((tool, perResource) -> {
+            Map<String, ValueStats> byResource = new LinkedHashMap<>();
+            for (String resource : List.of(PEAK_RSS, CPU_TIME, THREADS, FORKED_JVMS)) {
+                ValueAggregator values = perResource.get(resource);
+                if (values != null) {
+                    byResource.put(resource, values.snapshot());
+                }
+            }
+            byTool.put(tool, byResource);
+        });
+        return new ServerStatsResult(System.currentTimeMillis() - startMillis, tools)
+                .withResources(byTool.isEmpty() ? null : byTool);
+    }
+}
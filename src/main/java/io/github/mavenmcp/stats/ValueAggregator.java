@@ -0,0 +1,39 @@
+package io.github.mavenmcp.stats;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.github.mavenmcp.model.ValueStats;
+
+/**
+ * Lock-free count, mean and extremes of a quantity such as memory or a number of JVMs.
+ * Unlike {@link LatencyHistogram}, values are kept exactly and in their own unit.
+ */
+public final class ValueAggregator {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Record one observation.
+     */
+    public void record(long value) {
+        count.increment();
+        sum.add(value);
+        min.accumulateAndGet(value, Math::min);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * @return the summary, all zero if nothing was recorded
+     */
+    public ValueStats snapshot() {
+        long total = count.sum();
+        if (total == 0) {
+            return new ValueStats(0, 0, 0, 0);
+        }
+        return new ValueStats(total, (double) sum.sum() / total, min.get(), max.get());
+    }
+}
@@ -4,10 +4,17 @@ import java.util.List;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.mavenmcp.config.ServerConfig;
+import io.github.mavenmcp.history.BuildHistory;
 import io.github.mavenmcp.maven.MavenExecutionException;
 import io.github.mavenmcp.maven.MavenExecutionResult;
 import io.github.mavenmcp.maven.MavenRunner;
 import io.github.mavenmcp.model.BuildResult;
+import io.github.mavenmcp.parser.MavenOutputFilter;
+import io.github.mavenmcp.stats.CallTimings;
+import io.github.mavenmcp.stats.ServerStats;
+import io.github.mavenmcp.tool.ResponseBudget.Section;
+import io.github.mavenmcp.workspace.ProjectContext;
+import io.github.mavenmcp.workspace.Workspace;
 import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
 import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
 import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
@@ -29,10 +36,26 @@ public final class CleanTool {
             {
               "type": "object",
               "properties": {
+                "project": {
+                  "type": "string",
+                  "description": "Project name or directory; required when the server was started with several projects"
+                },
                 "args": {
                   "type": "array",
                   "items": { "type": "string" },
                   "description": "Additional Maven CLI arguments"
+                },
+                "online": {
+                  "type": "boolean",
+                  "description": "Keep remote repository access even once dependencies have been prefetched and builds run offline (default: false)"
+                },
+                "maxResponseChars": {
+                  "type": "integer",
+                  "description": "Response size budget in characters for failure output (default: 40000)"
+                },
+                "includeTimings": {
+                  "type": "boolean",
+                  "description": "Include per-phase durations of this call in a 'timings' block, and the memory, CPU time and forked JVMs of the Maven run in a 'resources' block (default: false)"
                 }
               }
             }
@@ -43,6 +66,16 @@ public final class CleanTool {
 
     public static SyncToolSpecification create(ServerConfig config, MavenRunner runner,
                                                ObjectMapper objectMapper) {
+        return create(config, runner, objectMapper, new ServerStats());
+    }
+
+    public static SyncToolSpecification create(ServerConfig config, MavenRunner runner,
+                                               ObjectMapper objectMapper, ServerStats stats) {
+        return create(Workspace.of(ProjectContext.of(config, runner, new BuildHistory())), objectMapper, stats);
+    }
+
+    public static SyncToolSpecification create(Workspace workspace, ObjectMapper objectMapper,
+                                               ServerStats stats) {
         var jsonMapper = new JacksonMcpJsonMapper(objectMapper);
         Tool tool = Tool.builder()
                 .name(TOOL_NAME)
@@ -52,32 +85,60 @@ public final class CleanTool {
         return new SyncToolSpecification(
                 tool,
                 (exchange, params) -> {
+                    CallTimings timings = new CallTimings(TOOL_NAME);
+                    Workspace.Lease lease = null;
                     try {
+                        lease = workspace.acquire(ToolUtils.extractString(params, "project"));
+                        ProjectContext project = lease.project();
                         List<String> args = ToolUtils.extractArgs(params);
+                        boolean online = ToolUtils.extractBoolean(params, "online", false);
+                        int maxResponseChars = ToolUtils.extractMaxResponseChars(params);
+                        boolean includeTimings = ToolUtils.extractBoolean(params, "includeTimings", false);
                         log.info("maven_clean called with args: {}", args);
 
-                        MavenExecutionResult execResult = runner.execute(
-                                "clean", args,
-                                config.mavenExecutable(), config.projectDir());
+                        MavenExecutionResult execResult = project.execute("clean", args, online);
+                        timings.add(execResult);
 
-                        String status = execResult.isSuccess() ? BuildResult.SUCCESS : BuildResult.FAILURE;
-                        String output = execResult.isSuccess() ? null : execResult.stdout();
+                        String status = ToolUtils.status(execResult);
+                        String output = execResult.isSuccess() ? null
+                                : MavenOutputFilter.filter(execResult.stdout());
+                        ResponseBudget budget = ResponseBudget.demands()
+                                .add(Section.OUTPUT, ResponseBudget.length(output))
+                                .budget(maxResponseChars);
 
                         var buildResult = new BuildResult(
                                 status, execResult.duration(),
-                                null, null, null, null, null, output);
+                                null, null, null, null, null, null,
+                                budget.fitText(Section.OUTPUT, output), budget.omitted())
+                                .withBuildId(execResult.runId());
+                        buildResult = buildResult.withPrediction(execResult.prediction())
+                                .withQueue(execResult.queue());
+                        if (includeTimings) {
+                            buildResult = buildResult.withTimings(timings.toMillis())
+                                    .withResources(timings.resources())
+                                    .withAllocation(execResult.allocation());
+                        }
 
-                        String json = objectMapper.writeValueAsString(buildResult);
+                        String json = ToolUtils.serialize(objectMapper, buildResult, timings);
                         return new CallToolResult(List.of(new TextContent(json)), false);
 
                     } catch (MavenExecutionException e) {
                         log.error("maven_clean failed: {}", e.getMessage());
                         return new CallToolResult(
                                 List.of(new TextContent("Error: " + e.getMessage())), true);
+                    } catch (IllegalArgumentException e) {
+                        return new CallToolResult(
+                                List.of(new TextContent("Error: " + e.getMessage())), true);
                     } catch (Exception e) {
                         log.error("Unexpected error in maven_clean", e);
                         return new CallToolResult(
                                 List.of(new TextContent("Internal error: " + e.getMessage())), true);
+                    } finally {
+                        if (lease != null) {
+                            lease.close();
+                        }
+                        timings.finish();
+                        stats.record(TOOL_NAME, timings);
                     }
                 }
         );
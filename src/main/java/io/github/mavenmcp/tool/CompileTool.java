@@ -4,11 +4,24 @@ import java.util.List;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.mavenmcp.config.ServerConfig;
+import io.github.mavenmcp.history.BuildDiff;
+import io.github.mavenmcp.history.BuildHistory;
+import io.github.mavenmcp.history.BuildHistory.Snapshot;
 import io.github.mavenmcp.maven.MavenExecutionException;
 import io.github.mavenmcp.maven.MavenExecutionResult;
 import io.github.mavenmcp.maven.MavenRunner;
+import io.github.mavenmcp.model.BuildDelta;
+import io.github.mavenmcp.model.BuildMode;
 import io.github.mavenmcp.model.BuildResult;
 import io.github.mavenmcp.parser.CompilationOutputParser;
+import io.github.mavenmcp.parser.CompilationOutputParser.ParseResult;
+import io.github.mavenmcp.parser.MavenOutputFilter;
+import io.github.mavenmcp.stats.CallTimings;
+import io.github.mavenmcp.stats.Phase;
+import io.github.mavenmcp.stats.ServerStats;
+import io.github.mavenmcp.tool.ResponseBudget.Section;
+import io.github.mavenmcp.workspace.ProjectContext;
+import io.github.mavenmcp.workspace.Workspace;
 import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
 import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
 import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
@@ -26,15 +39,41 @@ public final class CompileTool {
 
     private static final String TOOL_NAME = "maven_compile";
     private static final String DESCRIPTION =
-            "Compile a Maven project. Returns structured compilation errors with file, line, column, and message.";
+            "Compile a Maven project. Returns structured compilation errors with file, line, column, and message. "
+                    + "The full build log is available as the resource maven-log://<buildId>.";
     private static final String INPUT_SCHEMA = """
             {
               "type": "object",
               "properties": {
+                "project": {
+                  "type": "string",
+                  "description": "Project name or directory; required when the server was started with several projects"
+                },
                 "args": {
                   "type": "array",
                   "items": { "type": "string" },
                   "description": "Additional Maven CLI arguments (e.g. [\\"-DskipFrontend\\", \\"-Pdev\\"])"
+                },
+                "online": {
+                  "type": "boolean",
+                  "description": "Keep remote repository access even once dependencies have been prefetched and builds run offline (default: false)"
+                },
+                "mode": {
+                  "type": "string",
+                  "enum": ["fast", "full"],
+                  "description": "fast skips checks, reports and frontend builds bound before the goal (enforcer, jacoco, checkstyle, ...) and builds modules in parallel; the response lists what was skipped (default: full)"
+                },
+                "since": {
+                  "type": "string",
+                  "description": "buildId from an earlier maven_compile or maven_test response. Only new and resolved errors are returned, plus the count of unchanged ones."
+                },
+                "maxResponseChars": {
+                  "type": "integer",
+                  "description": "Response size budget in characters, shared by errors, warnings and output in that priority (default: 40000)"
+                },
+                "includeTimings": {
+                  "type": "boolean",
+                  "description": "Include per-phase durations of this call in a 'timings' block, and the memory, CPU time and forked JVMs of the Maven run in a 'resources' block (default: false)"
                 }
               }
             }
@@ -45,6 +84,22 @@ public final class CompileTool {
 
     public static SyncToolSpecification create(ServerConfig config, MavenRunner runner,
                                                ObjectMapper objectMapper) {
+        return create(config, runner, objectMapper, new BuildHistory());
+    }
+
+    public static SyncToolSpecification create(ServerConfig config, MavenRunner runner,
+                                               ObjectMapper objectMapper, BuildHistory history) {
+        return create(config, runner, objectMapper, history, new ServerStats());
+    }
+
+    public static SyncToolSpecification create(ServerConfig config, MavenRunner runner,
+                                               ObjectMapper objectMapper, BuildHistory history,
+                                               ServerStats stats) {
+        return create(Workspace.of(ProjectContext.of(config, runner, history)), objectMapper, stats);
+    }
+
+    public static SyncToolSpecification create(Workspace workspace, ObjectMapper objectMapper,
+                                               ServerStats stats) {
         var jsonMapper = new JacksonMcpJsonMapper(objectMapper);
         Tool tool = Tool.builder()
                 .name(TOOL_NAME)
@@ -54,40 +109,117 @@ public final class CompileTool {
         return new SyncToolSpecification(
                 tool,
                 (exchange, params) -> {
+                    CallTimings timings = new CallTimings(TOOL_NAME);
+                    Workspace.Lease lease = null;
                     try {
+                        lease = workspace.acquire(ToolUtils.extractString(params, "project"));
+                        ProjectContext project = lease.project();
+                        ServerConfig config = project.config();
+                        BuildHistory history = project.history();
                         List<String> args = ToolUtils.extractArgs(params);
-                        log.info("maven_compile called with args: {}", args);
+                        boolean online = ToolUtils.extractBoolean(params, "online", false);
+                        boolean fast = ToolUtils.extractFastMode(params);
+                        int maxResponseChars = ToolUtils.extractMaxResponseChars(params);
+                        String since = ToolUtils.extractString(params, "since");
+                        boolean includeTimings = ToolUtils.extractBoolean(params, "includeTimings", false);
+                        log.info("maven_compile called with args: {}, since: {}", args, since);
 
-                        MavenExecutionResult execResult = runner.execute(
-                                "compile", args,
-                                config.mavenExecutable(), config.projectDir());
+                        BuildMode mode = fast ? project.fastMode("compile", args) : null;
+                        MavenExecutionResult execResult = project.execute("compile",
+                                mode == null ? args : mode.apply(args), online);
+                        timings.add(execResult);
 
                         // Parse compilation output
-                        var parseResult = CompilationOutputParser.parse(
-                                execResult.stdout(), config.projectDir());
+                        var parseResult = timings.time(Phase.PARSE_OUTPUT, () -> CompilationOutputParser.parse(
+                                execResult.stdout(), config.projectDir()));
 
-                        String status = execResult.isSuccess() ? BuildResult.SUCCESS : BuildResult.FAILURE;
-                        // Raw output only on failure
-                        String output = execResult.isSuccess() ? null : execResult.stdout();
+                        String status = ToolUtils.status(execResult);
+                        // Filtered output only on failure; the full log stays in the spool
+                        String output = execResult.isSuccess() ? null
+                                : MavenOutputFilter.filter(execResult.stdout());
 
-                        var buildResult = new BuildResult(
-                                status, execResult.duration(),
-                                parseResult.errors(), parseResult.warnings(),
-                                null, null, null, output);
+                        var previous = ToolUtils.findPrevious(history, since);
+                        var buildResult = previous.isPresent()
+                                ? compilationDeltaResult(status, execResult.duration(), since,
+                                        previous.get(), parseResult, output, maxResponseChars)
+                                : compilationResult(status, execResult.duration(),
+                                        parseResult, output, maxResponseChars);
+                        buildResult = buildResult.withBuildId(history.record(execResult.runId(), parseResult.errors(), null));
+                        buildResult = buildResult.withPrediction(execResult.prediction())
+                                .withQueue(execResult.queue());
+                        if (includeTimings) {
+                            buildResult = buildResult.withTimings(timings.toMillis())
+                                    .withResources(timings.resources())
+                                    .withAllocation(execResult.allocation());
+                        }
+                        if (mode != null) {
+                            buildResult = buildResult.withMode(mode);
+                        }
 
-                        String json = objectMapper.writeValueAsString(buildResult);
+                        String json = ToolUtils.serialize(objectMapper, buildResult, timings);
                         return new CallToolResult(List.of(new TextContent(json)), false);
 
                     } catch (MavenExecutionException e) {
                         log.error("maven_compile failed: {}", e.getMessage());
                         return new CallToolResult(
                                 List.of(new TextContent("Error: " + e.getMessage())), true);
+                    } catch (IllegalArgumentException e) {
+                        return new CallToolResult(
+                                List.of(new TextContent("Error: " + e.getMessage())), true);
                     } catch (Exception e) {
                         log.error("Unexpected error in maven_compile", e);
                         return new CallToolResult(
                                 List.of(new TextContent("Internal error: " + e.getMessage())), true);
+                    } finally {
+                        if (lease != null) {
+                            lease.close();
+                        }
+                        timings.finish();
+                        stats.record(TOOL_NAME, timings);
                     }
                 }
         );
     }
+
+    /**
+     * Build a compilation result within the response budget: errors first, then warnings,
+     * then raw output.
+     */
+    static BuildResult compilationResult(String status, long duration, ParseResult parseResult,
+                                         String output, int maxResponseChars) {
+        ResponseBudget budget = ResponseBudget.demands()
+                .add(Section.ERRORS, parseResult.errors(), ResponseBudget::sizeOf)
+                .add(Section.WARNINGS, parseResult.warnings(), ResponseBudget::sizeOf)
+                .add(Section.OUTPUT, ResponseBudget.length(output))
+                .budget(maxResponseChars);
+        var errors = budget.fitEntries(Section.ERRORS, parseResult.errors(), ResponseBudget::sizeOf);
+        var warnings = budget.fitEntries(Section.WARNINGS, parseResult.warnings(), ResponseBudget::sizeOf);
+        return new BuildResult(status, duration, errors, warnings, null, null, null,
+                null, budget.fitText(Section.OUTPUT, output), budget.omitted());
+    }
+
+    /**
+     * Build a compilation result containing only the changes against an earlier build.
+     * Falls back to the full result when the earlier build reported no compilation errors
+     * to compare with. A failed build without new errors keeps the filtered output, which
+     * is then all that tells why it failed.
+     */
+    static BuildResult compilationDeltaResult(String status, long duration, String since, Snapshot previous,
+                                              ParseResult parseResult, String output, int maxResponseChars) {
+        BuildDelta delta = BuildDiff.diff(since, previous, parseResult.errors(), null);
+        if (delta.newErrors() == null) {
+            return compilationResult(status, duration, parseResult, output, maxResponseChars).withDelta(delta);
+        }
+        String unexplained = delta.newErrors().isEmpty() ? output : null;
+        ResponseBudget budget = ResponseBudget.demands()
+                .add(Section.ERRORS, delta.newErrors(), ResponseBudget::sizeOf)
+                .add(Section.ERRORS, delta.resolvedErrors(), ResponseBudget::sizeOf)
+                .add(Section.OUTPUT, ResponseBudget.length(unexplained))
+                .budget(maxResponseChars);
+        var newErrors = budget.fitEntries(Section.ERRORS, delta.newErrors(), ResponseBudget::sizeOf);
+        var resolvedErrors = budget.fitEntries(Section.ERRORS, delta.resolvedErrors(), ResponseBudget::sizeOf);
+        return new BuildResult(status, duration, null, null, null, null, null, null,
+                budget.fitText(Section.OUTPUT, unexplained), budget.omitted())
+                .withDelta(delta.withErrors(newErrors, resolvedErrors));
+    }
 }
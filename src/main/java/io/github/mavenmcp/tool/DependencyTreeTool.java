@@ -0,0 +1,261 @@
+package io.github.mavenmcp.tool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.maven.DependencyTreeService;
+import io.github.mavenmcp.maven.DependencyTreeService.Resolution;
+import io.github.mavenmcp.maven.MavenExecutionException;
+import io.github.mavenmcp.maven.MavenExecutionResult;
+import io.github.mavenmcp.model.BuildResult;
+import io.github.mavenmcp.model.DependencyNode;
+import io.github.mavenmcp.model.DependencyTreeResult;
+import io.github.mavenmcp.model.DependencyTreeResult.DependencyConflict;
+import io.github.mavenmcp.model.DependencyTreeResult.DependencyMatch;
+import io.github.mavenmcp.model.DependencyTreeResult.ModuleTree;
+import io.github.mavenmcp.model.ProjectModel;
+import io.github.mavenmcp.parser.MavenOutputFilter;
+import io.github.mavenmcp.stats.CallTimings;
+import io.github.mavenmcp.stats.ServerStats;
+import io.github.mavenmcp.workspace.ProjectContext;
+import io.github.mavenmcp.workspace.Workspace;
+import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
+import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
+import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import io.modelcontextprotocol.spec.McpSchema.Tool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * MCP tool: maven_dependency_tree — resolved dependency trees, cached per POM content,
+ * with queries for artifacts and version conflicts and a diff after POM edits.
+ */
+public final class DependencyTreeTool {
+
+    private static final Logger log = LoggerFactory.getLogger(DependencyTreeTool.class);
+
+    private static final String TOOL_NAME = "maven_dependency_tree";
+    private static final String DESCRIPTION =
+            "Get the resolved dependency tree of each module as structured JSON. Trees are cached per POM "
+                    + "content: repeated calls do not run Maven, and after a POM edit only the changed modules "
+                    + "(with the modules they depend on and that depend on them) are resolved again. "
+                    + "'source' says where the trees came from. After a change, 'diff' lists dependencies "
+                    + "added, removed or resolved to another version. Use 'filter' to find an artifact and the "
+                    + "path that pulls it in, or 'conflicts' to list the versions Maven rejected, instead of "
+                    + "reading whole trees.";
+    private static final String INPUT_SCHEMA = """
+            {
+              "type": "object",
+              "properties": {
+                "project": {
+                  "type": "string",
+                  "description": "Project name or directory; required when the server was started with several projects"
+                },
+                "module": {
+                  "type": "string",
+                  "description": "Only this module, by directory relative to the project (e.g. \\"core\\", \\".\\" for the root)"
+                },
+                "filter": {
+                  "type": "string",
+                  "description": "Return the nodes matching groupId[:artifactId], '*' as wildcard (e.g. \\"com.fasterxml.*\\" or \\"*:guava\\"), each with its path from the module, instead of the trees"
+                },
+                "conflicts": {
+                  "type": "boolean",
+                  "description": "Return the version conflicts Maven resolved, with the path requesting the losing version, instead of the trees (default: false)"
+                },
+                "depth": {
+                  "type": "integer",
+                  "description": "Levels of the trees to return, 1 for direct dependencies (default: all)"
+                },
+                "includeOmitted": {
+                  "type": "boolean",
+                  "description": "Keep nodes Maven left out as duplicates or conflicts in the trees (default: false)"
+                },
+                "refresh": {
+                  "type": "boolean",
+                  "description": "Resolve the whole reactor again even if the POMs did not change, e.g. after new SNAPSHOTs were deployed (default: false)"
+                },
+                "online": {
+                  "type": "boolean",
+                  "description": "Keep remote repository access even once dependencies have been prefetched and builds run offline (default: false)"
+                }
+              }
+            }
+            """;
+
+    private DependencyTreeTool() {
+    }
+
+    public static SyncToolSpecification create(Workspace workspace, ObjectMapper objectMapper,
+                                               ServerStats stats) {
+        var jsonMapper = new JacksonMcpJsonMapper(objectMapper);
+        Tool tool = Tool.builder()
+                .name(TOOL_NAME)
+                .description(DESCRIPTION)
+                .inputSchema(jsonMapper, INPUT_SCHEMA)
+                .build();
+        return new SyncToolSpecification(
+                tool,
+                (exchange, params) -> {
+                    CallTimings timings = new CallTimings(TOOL_NAME);
+                    Workspace.Lease lease = null;
+                    try {
+                        lease = workspace.acquire(ToolUtils.extractString(params, "project"));
+                        ProjectContext project = lease.project();
+                        String module = ToolUtils.extractString(params, "module");
+                        String filter = ToolUtils.extractString(params, "filter");
+                        boolean conflicts = ToolUtils.extractBoolean(params, "conflicts", false);
+                        int depth = ToolUtils.extractInt(params, "depth", Integer.MAX_VALUE);
+                        boolean includeOmitted = ToolUtils.extractBoolean(params, "includeOmitted", false);
+                        boolean refresh = ToolUtils.extractBoolean(params, "refresh", false);
+                        boolean online = ToolUtils.extractBoolean(params, "online", false);
+                        log.info("maven_dependency_tree called with module: {}, filter: {}, conflicts: {}",
+                                module, filter, conflicts);
+
+                        ProjectModel model = project.model();
+                        if (model.modules().isEmpty()) {
+                            throw new IllegalArgumentException("No pom.xml in " + project.config().projectDir());
+                        }
+                        if (module != null && model.module(module) == null) {
+                            throw new IllegalArgumentException("Unknown module '" + module + "'; modules: "
+                                    + model.modules().stream().map(ProjectModel.Module::path).toList());
+                        }
+                        Pattern pattern = filter == null ? null : filterPattern(filter);
+
+                        Resolution resolution = project.dependencyTrees().resolve(model,
+                                args -> project.execute(DependencyTreeService.GOAL, args, online), refresh);
+                        MavenExecutionResult execution = resolution.execution();
+                        String buildId = null;
+                        if (execution != null) {
+                            timings.add(execution);
+                            buildId = project.history().record(execution.runId(), List.of(), null);
+                        }
+                        long duration = execution == null ? 0 : execution.duration();
+
+                        DependencyTreeResult result;
+                        if (resolution.trees() == null) {
+                            result = new DependencyTreeResult(BuildResult.FAILURE, duration, resolution.source(),
+                                    resolution.resolvedModules(), null, null, null, null,
+                                    MavenOutputFilter.filter(execution.stdout()), buildId);
+                        } else {
+                            Map<String, DependencyNode> trees = resolution.trees();
+                            if (module != null) {
+                                trees = trees.containsKey(module) ? Map.of(module, trees.get(module)) : Map.of();
+                            }
+                            result = new DependencyTreeResult(BuildResult.SUCCESS, duration, resolution.source(),
+                                    resolution.resolvedModules(),
+                                    pattern == null && !conflicts ? trees(trees, depth, includeOmitted) : null,
+                                    pattern == null ? null : find(trees, pattern),
+                                    conflicts ? conflicts(trees) : null,
+                                    resolution.diff(), null, buildId);
+                        }
+
+                        String json = ToolUtils.serialize(objectMapper, result, timings);
+                        return new CallToolResult(List.of(new TextContent(json)), false);
+
+                    } catch (MavenExecutionException e) {
+                        log.error("maven_dependency_tree failed: {}", e.getMessage());
+                        return new CallToolResult(
+                                List.of(new TextContent("Error: " + e.getMessage())), true);
+                    } catch (IllegalArgumentException e) {
+                        return new CallToolResult(
+                                List.of(new TextContent("Error: " + e.getMessage())), true);
+                    } catch (Exception e) {
+                        log.error("Unexpected error in maven_dependency_tree", e);
+                        return new CallToolResult(
+                                List.of(new TextContent("Internal error: " + e.getMessage())), true);
+                    } finally {
+                        if (lease != null) {
+                            lease.close();
+                        }
+                        timings.finish();
+                        stats.record(TOOL_NAME, timings);
+                    }
+                }
+        );
+    }
+
+    /**
+     * Pattern for {@code groupId[:artifactId]} with {@code *} as wildcard, matched against
+     * a node's groupId:artifactId.
+     */
+    static Pattern filterPattern(String filter) {
+        String[] parts = filter.trim().split(":", -1);
+        if (parts.length > 2 || parts[0].isEmpty()) {
+            throw new IllegalArgumentException("Invalid filter '" + filter + "'; expected groupId[:artifactId]");
+        }
+        return Pattern.compile(glob(parts[0]) + ":" + (parts.length == 2 ? glob(parts[1]) : "[^:]*"));
+    }
+
+    private static String glob(String part) {
+        return Arrays.stream(part.split("\\*", -1))
+                .map(literal -> literal.isEmpty() ? "" : Pattern.quote(literal))
+                .collect(Collectors.joining("[^:]*"));
+    }
+
+    static List<ModuleTree> trees(Map<String, DependencyNode> trees, int depth, boolean includeOmitted) {
+        return trees.entrySet().stream()
+                .map(tree -> new ModuleTree(tree.getKey(), prune(tree.getValue(), depth, includeOmitted)))
+                .toList();
+    }
+
+    private static DependencyNode prune(DependencyNode node, int depth, boolean includeOmitted) {
+        if (depth <= 0) {
+            return node.withChildren(null);
+        }
+        return node.withChildren(node.dependencies().stream()
+                .filter(child -> includeOmitted || child.omitted() == null)
+                .map(child -> prune(child, depth - 1, includeOmitted))
+                .toList());
+    }
+
+    /**
+     * Nodes whose groupId:artifactId matches, resolved or not, with their paths.
+     */
+    static List<DependencyMatch> find(Map<String, DependencyNode> trees, Pattern pattern) {
+        List<DependencyMatch> matches = new ArrayList<>();
+        trees.forEach((module, root) -> walk(root, new ArrayList<>(), (node, path) -> {
+            if (pattern.matcher(node.groupId() + ":" + node.artifactId()).matches()) {
+                matches.add(new DependencyMatch(module, label(node), node.scope(), node.omitted(), path));
+            }
+        }));
+        return matches;
+    }
+
+    /**
+     * Nodes Maven left out because another version won, with the path that requested them.
+     */
+    static List<DependencyConflict> conflicts(Map<String, DependencyNode> trees) {
+        List<DependencyConflict> conflicts = new ArrayList<>();
+        trees.forEach((module, root) -> walk(root, new ArrayList<>(), (node, path) -> {
+            if (node.omitted() != null && node.omitted().startsWith("conflict with ")) {
+                conflicts.add(new DependencyConflict(module, node.groupId() + ":" + node.artifactId(),
+                        node.omitted().substring("conflict with ".length()), node.version(), path));
+            }
+        }));
+        return conflicts;
+    }
+
+    private interface Visitor {
+        void visit(DependencyNode node, List<String> path);
+    }
+
+    private static void walk(DependencyNode parent, List<String> path, Visitor visitor) {
+        for (DependencyNode node : parent.dependencies()) {
+            path.add(label(node));
+            visitor.visit(node, List.copyOf(path));
+            walk(node, path, visitor);
+            path.removeLast();
+        }
+    }
+
+    private static String label(DependencyNode node) {
+        return node.key() + ":" + node.version();
+    }
+}
@@ -0,0 +1,134 @@
+package io.github.mavenmcp.tool;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.log.LogArchive;
+import io.github.mavenmcp.model.LogSearchResult;
+import io.github.mavenmcp.stats.CallTimings;
+import io.github.mavenmcp.stats.ServerStats;
+import io.github.mavenmcp.workspace.Workspace;
+import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
+import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
+import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import io.modelcontextprotocol.spec.McpSchema.Tool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * MCP tool: maven_log_search — searches [ERROR] and [WARNING] lines of archived build logs.
+ */
+public final class LogSearchTool {
+
+    private static final Logger log = LoggerFactory.getLogger(LogSearchTool.class);
+
+    private static final String TOOL_NAME = "maven_log_search";
+    private static final String DESCRIPTION =
+            "Search [ERROR] and [WARNING] lines of past Maven builds, e.g. to check whether a warning appeared before. "
+                    + "Matches lines containing all words of the query. Does not run Maven.";
+    private static final String INPUT_SCHEMA = """
+            {
+              "type": "object",
+              "properties": {
+                "project": {
+                  "type": "string",
+                  "description": "Project name or directory; required when the server was started with several projects"
+                },
+                "query": {
+                  "type": "string",
+                  "description": "Words to search for, case-insensitive (e.g. \\"deprecation UserService\\")"
+                },
+                "severity": {
+                  "type": "string",
+                  "enum": ["ERROR", "WARNING"],
+                  "description": "Restrict matches to one severity (default: both)"
+                },
+                "lastBuilds": {
+                  "type": "integer",
+                  "description": "Number of most recent builds to search (default: 20)"
+                },
+                "limit": {
+                  "type": "integer",
+                  "description": "Maximum number of matching lines to return (default: 50)"
+                }
+              },
+              "required": ["query"]
+            }
+            """;
+
+    static final int DEFAULT_LAST_BUILDS = 20;
+    static final int DEFAULT_LIMIT = 50;
+
+    private LogSearchTool() {
+    }
+
+    public static SyncToolSpecification create(LogArchive archive, ObjectMapper objectMapper) {
+        return create(archive, objectMapper, new ServerStats());
+    }
+
+    public static SyncToolSpecification create(LogArchive archive, ObjectMapper objectMapper,
+                                               ServerStats stats) {
+        return create(null, archive, objectMapper, stats);
+    }
+
+    public static SyncToolSpecification create(Workspace workspace, ObjectMapper objectMapper,
+                                               ServerStats stats) {
+        return create(workspace, null, objectMapper, stats);
+    }
+
+    /**
+     * @param workspace workspace to look up the project's archive in, or null to use {@code archive}
+     */
+    private static SyncToolSpecification create(Workspace workspace, LogArchive archive,
+                                                ObjectMapper objectMapper, ServerStats stats) {
+        var jsonMapper = new JacksonMcpJsonMapper(objectMapper);
+        Tool tool = Tool.builder()
+                .name(TOOL_NAME)
+                .description(DESCRIPTION)
+                .inputSchema(jsonMapper, INPUT_SCHEMA)
+                .build();
+        return new SyncToolSpecification(
+                tool,
+                (exchange, params) -> {
+                    CallTimings timings = new CallTimings(TOOL_NAME);
+                    Workspace.Lease lease = null;
+                    try {
+                        LogArchive projectArchive = archive;
+                        if (workspace != null) {
+                            lease = workspace.acquire(ToolUtils.extractString(params, "project"));
+                            projectArchive = lease.project().logArchive();
+                        }
+                        if (projectArchive == null) {
+                            throw new IllegalArgumentException("Build logs are not archived for this project");
+                        }
+                        String query = ToolUtils.extractString(params, "query");
+                        String severity = ToolUtils.extractString(params, "severity");
+                        int lastBuilds = Math.max(1, ToolUtils.extractInt(params, "lastBuilds", DEFAULT_LAST_BUILDS));
+                        int limit = Math.max(1, ToolUtils.extractInt(params, "limit", DEFAULT_LIMIT));
+                        log.info("maven_log_search called with query: {}, severity: {}, lastBuilds: {}",
+                                query, severity, lastBuilds);
+
+                        LogSearchResult result = projectArchive.search(query, severity, lastBuilds, limit);
+
+                        String json = ToolUtils.serialize(objectMapper, result, timings);
+                        return new CallToolResult(List.of(new TextContent(json)), false);
+
+                    } catch (IllegalArgumentException e) {
+                        return new CallToolResult(
+                                List.of(new TextContent("Error: " + e.getMessage())), true);
+                    } catch (Exception e) {
+                        log.error("Unexpected error in maven_log_search", e);
+                        return new CallToolResult(
+                                List.of(new TextContent("Internal error: " + e.getMessage())), true);
+                    } finally {
+                        if (lease != null) {
+                            lease.close();
+                        }
+                        timings.finish();
+                        stats.record(TOOL_NAME, timings);
+                    }
+                }
+        );
+    }
+}
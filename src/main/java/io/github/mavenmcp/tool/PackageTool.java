@@ -0,0 +1,307 @@
+package io.github.mavenmcp.tool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.config.ServerConfig;
+import io.github.mavenmcp.history.BuildHistory;
+import io.github.mavenmcp.history.BuildHistory.Verified;
+import io.github.mavenmcp.history.SourceFingerprint;
+import io.github.mavenmcp.maven.MavenExecutionException;
+import io.github.mavenmcp.maven.MavenExecutionResult;
+import io.github.mavenmcp.maven.MavenRunner;
+import io.github.mavenmcp.model.ArtifactInfo;
+import io.github.mavenmcp.model.BuildResult;
+import io.github.mavenmcp.model.ProjectModel;
+import io.github.mavenmcp.model.TestReuse;
+import io.github.mavenmcp.parser.CompilationOutputParser;
+import io.github.mavenmcp.parser.MavenOutputFilter;
+import io.github.mavenmcp.parser.SurefireReportParser;
+import io.github.mavenmcp.parser.SurefireReportParser.SurefireResult;
+import io.github.mavenmcp.stats.CallTimings;
+import io.github.mavenmcp.stats.Phase;
+import io.github.mavenmcp.stats.ServerStats;
+import io.github.mavenmcp.workspace.ProjectContext;
+import io.github.mavenmcp.workspace.Workspace;
+import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
+import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
+import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import io.modelcontextprotocol.spec.McpSchema.Tool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * MCP tool: maven_package — packages the project and reports the built artifacts.
+ * <p>
+ * Packaging runs the test phase again. When the last complete maven_test run passed on
+ * exactly the same sources and arguments, the tests are skipped instead and the response
+ * names that run.
+ */
+public final class PackageTool {
+
+    private static final Logger log = LoggerFactory.getLogger(PackageTool.class);
+
+    private static final String TOOL_NAME = "maven_package";
+    private static final String DESCRIPTION =
+            "Package the Maven project (JAR/WAR) and return the artifacts with path, size and SHA-256. "
+                    + "Tests are skipped when the last full maven_test passed on the same sources; "
+                    + "'testReuse' says whether they were reused or ran. "
+                    + "The full build log is available as the resource maven-log://<buildId>.";
+    private static final String INPUT_SCHEMA = """
+            {
+              "type": "object",
+              "properties": {
+                "project": {
+                  "type": "string",
+                  "description": "Project name or directory; required when the server was started with several projects"
+                },
+                "args": {
+                  "type": "array",
+                  "items": { "type": "string" },
+                  "description": "Additional Maven CLI arguments"
+                },
+                "online": {
+                  "type": "boolean",
+                  "description": "Keep remote repository access even once dependencies have been prefetched and builds run offline (default: false)"
+                },
+                "reuseTests": {
+                  "type": "boolean",
+                  "description": "Skip tests when the last full maven_test passed on the same sources and arguments (default: true)"
+                },
+                "maxResponseChars": {
+                  "type": "integer",
+                  "description": "Response size budget in characters, shared by errors, failures and output (default: 40000)"
+                },
+                "includeTimings": {
+                  "type": "boolean",
+                  "description": "Include per-phase durations of this call in a 'timings' block, and the memory, CPU time and forked JVMs of the Maven run in a 'resources' block (default: false)"
+                }
+              }
+            }
+            """;
+
+    private static final List<String> EXTENSIONS = List.of(".jar", ".war", ".ear");
+    private static final List<String> CLASSIFIERS = List.of(
+            "-sources", "-javadoc", "-tests", "-test-sources", "-test-javadoc");
+
+    private PackageTool() {
+    }
+
+    public static SyncToolSpecification create(ServerConfig config, MavenRunner runner,
+                                               ObjectMapper objectMapper, BuildHistory history) {
+        return create(Workspace.of(ProjectContext.of(config, runner, history)), objectMapper, new ServerStats());
+    }
+
+    public static SyncToolSpecification create(Workspace workspace, ObjectMapper objectMapper,
+                                               ServerStats stats) {
+        var jsonMapper = new JacksonMcpJsonMapper(objectMapper);
+        Tool tool = Tool.builder()
+                .name(TOOL_NAME)
+                .description(DESCRIPTION)
+                .inputSchema(jsonMapper, INPUT_SCHEMA)
+                .build();
+        return new SyncToolSpecification(
+                tool,
+                (exchange, params) -> {
+                    CallTimings timings = new CallTimings(TOOL_NAME);
+                    Workspace.Lease lease = null;
+                    try {
+                        lease = workspace.acquire(ToolUtils.extractString(params, "project"));
+                        ProjectContext project = lease.project();
+                        ServerConfig config = project.config();
+                        BuildHistory history = project.history();
+                        List<String> args = ToolUtils.extractArgs(params);
+                        boolean online = ToolUtils.extractBoolean(params, "online", false);
+                        boolean reuseTests = ToolUtils.extractBoolean(params, "reuseTests", true);
+                        int maxResponseChars = ToolUtils.extractMaxResponseChars(params);
+                        boolean includeTimings = ToolUtils.extractBoolean(params, "includeTimings", false);
+
+                        ProjectModel model = project.model();
+                        boolean partial = ToolUtils.runsPartialTests(args);
+                        String fingerprint = partial ? null : SourceFingerprint.of(config.projectDir(), model, args);
+                        Optional<Verified> verified = reuseTests && fingerprint != null
+                                ? history.findVerified(fingerprint)
+                                : Optional.empty();
+                        TestReuse testReuse = verified.isPresent() ? TestReuse.reused(verified.get().buildId())
+                                : partial ? TestReuse.executed("arguments skip or select tests")
+                                : !reuseTests ? TestReuse.executed("reuseTests is false")
+                                : TestReuse.executed("no passing maven_test on these sources and arguments");
+                        log.info("maven_package called with args: {}, tests reused: {}", args, testReuse.reused());
+
+                        List<String> packageArgs = args;
+                        if (verified.isPresent()) {
+                            packageArgs = new ArrayList<>(args);
+                            packageArgs.add("-DskipTests");
+                        }
+                        MavenExecutionResult execResult = project.execute("package", packageArgs, online);
+                        timings.add(execResult);
+
+                        String status = ToolUtils.status(execResult);
+                        String output = execResult.isSuccess() ? null
+                                : MavenOutputFilter.filter(execResult.stdout());
+                        // Reports on disk are from the reused run when tests were skipped
+                        Optional<SurefireResult> surefireResult = verified.isPresent() ? Optional.empty()
+                                : timings.time(Phase.PARSE_REPORTS, () -> SurefireReportParser.parse(
+                                        TestTool.reportsDirectories(config.projectDir(), model), true,
+                                        SurefireReportParser.DEFAULT_PER_TEST_OUTPUT_LIMIT, 0));
+
+                        BuildResult buildResult;
+                        if (!execResult.isSuccess() && surefireResult.isPresent()
+                                && surefireResult.get().summary().testsFailed()
+                                + surefireResult.get().summary().testsErrored() > 0) {
+                            var sr = new SurefireResult(surefireResult.get().summary(),
+                                    project.flakyTests().mark(surefireResult.get().failures()));
+                            buildResult = TestTool.testResult(status, execResult.duration(), sr, output,
+                                    model.groupId(), SurefireReportParser.DEFAULT_STACK_TRACE_LINES, true,
+                                    maxResponseChars, timings)
+                                    .withBuildId(history.record(execResult.runId(), List.of(), sr.failures()));
+                        } else {
+                            var parseResult = timings.time(Phase.PARSE_OUTPUT, () -> CompilationOutputParser.parse(
+                                    execResult.stdout(), config.projectDir()));
+                            buildResult = CompileTool.compilationResult(status, execResult.duration(),
+                                    parseResult, output, maxResponseChars)
+                                    .withBuildId(history.record(execResult.runId(), parseResult.errors(), null));
+                            if (execResult.isSuccess()) {
+                                List<ArtifactInfo> artifacts = detectArtifacts(config.projectDir(), model);
+                                buildResult = buildResult.withArtifact(artifacts.isEmpty() ? null
+                                        : artifacts.size() == 1 ? artifacts.get(0) : artifacts);
+                                if (surefireResult.isPresent()) {
+                                    buildResult = buildResult.withSummary(surefireResult.get().summary());
+                                }
+                            }
+                        }
+                        if (execResult.isSuccess() && verified.isEmpty() && fingerprint != null
+                                && surefireResult.isPresent()
+                                && fingerprint.equals(SourceFingerprint.of(config.projectDir(), model, args))) {
+                            // Packaging ran all tests, which verifies these sources as well as maven_test
+                            history.recordVerified(buildResult.buildId(), fingerprint, surefireResult.get().summary());
+                        }
+                        buildResult = buildResult.withTestReuse(testReuse);
+                        buildResult = buildResult.withPrediction(execResult.prediction())
+                                .withQueue(execResult.queue());
+                        if (includeTimings) {
+                            buildResult = buildResult.withTimings(timings.toMillis())
+                                    .withResources(timings.resources())
+                                    .withAllocation(execResult.allocation());
+                        }
+
+                        String json = ToolUtils.serialize(objectMapper, buildResult, timings);
+                        return new CallToolResult(List.of(new TextContent(json)), false);
+
+                    } catch (MavenExecutionException e) {
+                        log.error("maven_package failed: {}", e.getMessage());
+                        return new CallToolResult(
+                                List.of(new TextContent("Error: " + e.getMessage())), true);
+                    } catch (IllegalArgumentException e) {
+                        return new CallToolResult(
+                                List.of(new TextContent("Error: " + e.getMessage())), true);
+                    } catch (Exception e) {
+                        log.error("Unexpected error in maven_package", e);
+                        return new CallToolResult(
+                                List.of(new TextContent("Internal error: " + e.getMessage())), true);
+                    } finally {
+                        if (lease != null) {
+                            lease.close();
+                        }
+                        timings.finish();
+                        stats.record(TOOL_NAME, timings);
+                    }
+                }
+        );
+    }
+
+    /**
+     * The artifact of each module that builds one: {@code <artifactId>-<version>} with the
+     * packaging's extension if present, otherwise the newest JAR, WAR or EAR in its build
+     * directory that is not a sources, javadoc or tests attachment (as with a custom
+     * {@code finalName}).
+     */
+    static List<ArtifactInfo> detectArtifacts(Path projectDir, ProjectModel model) throws IOException {
+        List<ArtifactInfo> artifacts = new ArrayList<>();
+        if (model.modules().isEmpty()) {
+            Path artifact = findArtifact(projectDir.resolve("target"), null);
+            if (artifact != null) {
+                artifacts.add(describe(projectDir, artifact));
+            }
+            return artifacts;
+        }
+        for (ProjectModel.Module module : model.modules()) {
+            if ("pom".equals(module.packaging())) {
+                continue;
+            }
+            String extension = switch (module.packaging()) {
+                case "war", "ear" -> "." + module.packaging();
+                default -> ".jar";
+            };
+            Path artifact = findArtifact(projectDir.resolve(module.buildDirectory()),
+                    module.artifactId() + "-" + module.version() + extension);
+            if (artifact != null) {
+                artifacts.add(describe(projectDir, artifact));
+            }
+        }
+        return artifacts;
+    }
+
+    private static Path findArtifact(Path buildDirectory, String expectedName) throws IOException {
+        if (!Files.isDirectory(buildDirectory)) {
+            return null;
+        }
+        if (expectedName != null && Files.isRegularFile(buildDirectory.resolve(expectedName))) {
+            return buildDirectory.resolve(expectedName);
+        }
+        try (Stream<Path> files = Files.list(buildDirectory)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(PackageTool::isMainArtifact)
+                    .max(Comparator.comparingLong(PackageTool::lastModified))
+                    .orElse(null);
+        }
+    }
+
+    private static boolean isMainArtifact(Path file) {
+        String name = file.getFileName().toString();
+        for (String extension : EXTENSIONS) {
+            if (name.endsWith(extension)) {
+                String base = name.substring(0, name.length() - extension.length());
+                return CLASSIFIERS.stream().noneMatch(base::endsWith);
+            }
+        }
+        return false;
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static ArtifactInfo describe(Path projectDir, Path artifact) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = Files.newInputStream(artifact)) {
+            byte[] buffer = new byte[64 * 1024];
+            for (int n; (n = in.read(buffer)) > 0; ) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        return new ArtifactInfo(projectDir.relativize(artifact).toString(), artifact.getFileName().toString(),
+                Files.size(artifact), HexFormat.of().formatHex(digest.digest()));
+    }
+}
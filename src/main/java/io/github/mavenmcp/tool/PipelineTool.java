@@ -0,0 +1,277 @@
+package io.github.mavenmcp.tool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.config.ServerConfig;
+import io.github.mavenmcp.maven.MavenExecutionException;
+import io.github.mavenmcp.maven.MavenExecutionResult;
+import io.github.mavenmcp.maven.MavenPipeline;
+import io.github.mavenmcp.maven.MavenPipeline.Attribution;
+import io.github.mavenmcp.maven.MavenPipeline.StepOutput;
+import io.github.mavenmcp.model.ArtifactInfo;
+import io.github.mavenmcp.model.BuildResult;
+import io.github.mavenmcp.model.CompilationError;
+import io.github.mavenmcp.model.PipelineResult;
+import io.github.mavenmcp.model.PipelineResult.StepResult;
+import io.github.mavenmcp.model.ProjectModel;
+import io.github.mavenmcp.model.TestFailure;
+import io.github.mavenmcp.parser.CompilationOutputParser;
+import io.github.mavenmcp.parser.MavenOutputFilter;
+import io.github.mavenmcp.parser.SurefireReportParser;
+import io.github.mavenmcp.parser.SurefireReportParser.SurefireResult;
+import io.github.mavenmcp.stats.CallTimings;
+import io.github.mavenmcp.stats.Phase;
+import io.github.mavenmcp.stats.ServerStats;
+import io.github.mavenmcp.tool.ResponseBudget.Section;
+import io.github.mavenmcp.workspace.ProjectContext;
+import io.github.mavenmcp.workspace.Workspace;
+import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
+import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
+import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import io.modelcontextprotocol.spec.McpSchema.Tool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * MCP tool: maven_pipeline — runs several steps in one Maven invocation and reports each
+ * the way its own tool would.
+ */
+public final class PipelineTool {
+
+    private static final Logger log = LoggerFactory.getLogger(PipelineTool.class);
+
+    private static final String TOOL_NAME = "maven_pipeline";
+    private static final String DESCRIPTION =
+            "Run several build steps in one Maven process, e.g. [\"clean\", \"compile\", \"test\"] instead of three "
+                    + "tool calls, and get a result per step: compilation errors for compile, test summary and "
+                    + "failures for test, artifacts for package, each with the time its mojos took. Steps are "
+                    + "lifecycle phases or plugin goals, in order; consecutive phases run as one (clean, compile, "
+                    + "test runs 'mvn clean test' and compiles once). A step after a failed one is SKIPPED. "
+                    + "'overhead' is the time outside any step (JVM start, reading the POMs). "
+                    + "The full build log is available as the resource maven-log://<buildId>.";
+    private static final String INPUT_SCHEMA = """
+            {
+              "type": "object",
+              "properties": {
+                "project": {
+                  "type": "string",
+                  "description": "Project name or directory; required when the server was started with several projects"
+                },
+                "steps": {
+                  "type": "array",
+                  "items": { "type": "string" },
+                  "description": "Lifecycle phases (clean, compile, test, package, verify, install, ...) or plugin goals (e.g. dependency:tree), in the order to run them"
+                },
+                "args": {
+                  "type": "array",
+                  "items": { "type": "string" },
+                  "description": "Additional Maven CLI arguments, for all steps"
+                },
+                "online": {
+                  "type": "boolean",
+                  "description": "Keep remote repository access even once dependencies have been prefetched and builds run offline (default: false)"
+                },
+                "stackTraceLines": {
+                  "type": "integer",
+                  "description": "Max stack trace lines per test failure (default: 50). 0 disables line cap."
+                },
+                "appPackage": {
+                  "type": "string",
+                  "description": "Application package prefix for smart stack trace filtering (e.g. 'com.example.myapp'). Auto-derived from pom.xml groupId if not provided."
+                },
+                "includeTestLogs": {
+                  "type": "boolean",
+                  "description": "Include stdout/stderr from failing tests (default: true)"
+                },
+                "testOutputLimit": {
+                  "type": "integer",
+                  "description": "Per-test character limit for stdout/stderr output (default: 2000)"
+                },
+                "groupFailures": {
+                  "type": "boolean",
+                  "description": "Group test failures sharing the same root cause into clusters with one representative stack trace (default: true)"
+                },
+                "maxResponseChars": {
+                  "type": "integer",
+                  "description": "Response size budget in characters, shared by all steps' errors, failures and output, the failed step first (default: 40000)"
+                },
+                "includeTimings": {
+                  "type": "boolean",
+                  "description": "Include per-phase durations of this call in a 'timings' block, and the memory, CPU time and forked JVMs of the Maven run in a 'resources' block (default: false)"
+                }
+              },
+              "required": ["steps"]
+            }
+            """;
+
+    private PipelineTool() {
+    }
+
+    public static SyncToolSpecification create(Workspace workspace, ObjectMapper objectMapper,
+                                               ServerStats stats) {
+        var jsonMapper = new JacksonMcpJsonMapper(objectMapper);
+        Tool tool = Tool.builder()
+                .name(TOOL_NAME)
+                .description(DESCRIPTION)
+                .inputSchema(jsonMapper, INPUT_SCHEMA)
+                .build();
+        return new SyncToolSpecification(
+                tool,
+                (exchange, params) -> {
+                    CallTimings timings = new CallTimings(TOOL_NAME);
+                    Workspace.Lease lease = null;
+                    try {
+                        lease = workspace.acquire(ToolUtils.extractString(params, "project"));
+                        ProjectContext project = lease.project();
+                        ServerConfig config = project.config();
+                        MavenPipeline pipeline = MavenPipeline.plan(extractSteps(params));
+                        List<String> args = ToolUtils.extractArgs(params);
+                        boolean online = ToolUtils.extractBoolean(params, "online", false);
+                        int maxResponseChars = ToolUtils.extractMaxResponseChars(params);
+                        int stackTraceLines = TestTool.extractStackTraceLines(params);
+                        boolean includeTestLogs = ToolUtils.extractBoolean(params, "includeTestLogs", true);
+                        int testOutputLimit = ToolUtils.extractInt(params, "testOutputLimit",
+                                SurefireReportParser.DEFAULT_PER_TEST_OUTPUT_LIMIT);
+                        boolean groupFailures = ToolUtils.extractBoolean(params, "groupFailures", true);
+                        boolean includeTimings = ToolUtils.extractBoolean(params, "includeTimings", false);
+                        log.info("maven_pipeline called with steps: {}, goals: {}, args: {}",
+                                pipeline.steps(), pipeline.goals(), args);
+
+                        ProjectModel model = project.model();
+                        String appPackage = TestTool.extractAppPackage(params, model);
+                        MavenExecutionResult execResult = project.execute(pipeline.goals(), args, online);
+                        timings.add(execResult);
+                        Attribution attribution = timings.time(Phase.PARSE_OUTPUT, () -> pipeline.attribute(
+                                execResult.stdout(), execResult.timings(), model, execResult.isSuccess()));
+
+                        // One budget for the whole response, spent on the failed step first
+                        int count = attribution.steps().size();
+                        int failed = attribution.failedStep();
+                        List<Integer> order = new ArrayList<>();
+                        if (failed >= 0 && failed < count) {
+                            order.add(failed);
+                        }
+                        for (int i = 0; i < count; i++) {
+                            if (i != failed) {
+                                order.add(i);
+                            }
+                        }
+                        StepResult[] steps = new StepResult[count];
+                        List<CompilationError> errors = new ArrayList<>();
+                        List<TestFailure> failures = null;
+                        int remaining = maxResponseChars;
+                        for (int i : order) {
+                            StepOutput step = attribution.steps().get(i);
+                            String status = failed < 0 || i < failed ? BuildResult.SUCCESS
+                                    : i == failed ? BuildResult.FAILURE : BuildResult.SKIPPED;
+                            long duration = step.duration() == null ? 0 : step.duration();
+                            String output = status.equals(BuildResult.FAILURE)
+                                    ? MavenOutputFilter.filter(step.output()) : null;
+                            int budget = Math.max(0, remaining);
+
+                            Optional<SurefireResult> surefireResult = !step.tests() ? Optional.empty()
+                                    : timings.time(Phase.PARSE_REPORTS, () -> SurefireReportParser.parse(
+                                            TestTool.reportsDirectories(config.projectDir(), model),
+                                            includeTestLogs, testOutputLimit, 0));
+                            BuildResult result;
+                            if (step.mojos() == 0 && status.equals(BuildResult.SKIPPED)) {
+                                result = new BuildResult(status, 0, null, null, null, null, null, null);
+                            } else if (surefireResult.isPresent()) {
+                                SurefireResult sr = new SurefireResult(surefireResult.get().summary(),
+                                        project.flakyTests().mark(surefireResult.get().failures()));
+                                result = TestTool.testResult(status, duration, sr, output, appPackage,
+                                        stackTraceLines, groupFailures, budget, timings);
+                                failures = surefireResult.get().failures();
+                            } else if (pipeline.defaultPhase(i) >= 0) {
+                                var parseResult = timings.time(Phase.PARSE_OUTPUT, () ->
+                                        CompilationOutputParser.parse(step.output(), config.projectDir()));
+                                result = CompileTool.compilationResult(status, duration, parseResult, output,
+                                        budget);
+                                errors.addAll(parseResult.errors());
+                                if (status.equals(BuildResult.SUCCESS) && producesArtifacts(pipeline, i)) {
+                                    List<ArtifactInfo> artifacts = PackageTool.detectArtifacts(
+                                            config.projectDir(), model);
+                                    result = result.withArtifact(artifacts.isEmpty() ? null
+                                            : artifacts.size() == 1 ? artifacts.get(0) : artifacts);
+                                }
+                            } else {
+                                ResponseBudget sections = ResponseBudget.demands()
+                                        .add(Section.OUTPUT, ResponseBudget.length(output))
+                                        .budget(budget);
+                                result = new BuildResult(status, duration, null, null, null, null, null, null,
+                                        sections.fitText(Section.OUTPUT, output), sections.omitted());
+                            }
+                            remaining -= ResponseBudget.sizeOf(result);
+                            steps[i] = new StepResult(step.step(), step.mojos(), result);
+                        }
+                        Long stepMillis = 0L;
+                        for (StepOutput step : attribution.steps()) {
+                            stepMillis = step.duration() == null || stepMillis == null ? null
+                                    : stepMillis + step.duration();
+                        }
+
+                        String buildId = project.history().record(execResult.runId(), errors, failures);
+                        PipelineResult result = new PipelineResult(
+                                ToolUtils.status(execResult),
+                                execResult.duration(), pipeline.goals(), List.of(steps),
+                                stepMillis == null ? null : Math.max(0, execResult.duration() - stepMillis),
+                                buildId, null, execResult.prediction(), null, execResult.queue(), null);
+                        if (includeTimings) {
+                            result = result.withTimings(timings.toMillis()).withResources(timings.resources())
+                                    .withAllocation(execResult.allocation());
+                        }
+
+                        String json = ToolUtils.serialize(objectMapper, result, timings);
+                        return new CallToolResult(List.of(new TextContent(json)), false);
+
+                    } catch (MavenExecutionException e) {
+                        log.error("maven_pipeline failed: {}", e.getMessage());
+                        return new CallToolResult(
+                                List.of(new TextContent("Error: " + e.getMessage())), true);
+                    } catch (IllegalArgumentException e) {
+                        return new CallToolResult(
+                                List.of(new TextContent("Error: " + e.getMessage())), true);
+                    } catch (Exception e) {
+                        log.error("Unexpected error in maven_pipeline", e);
+                        return new CallToolResult(
+                                List.of(new TextContent("Internal error: " + e.getMessage())), true);
+                    } finally {
+                        if (lease != null) {
+                            lease.close();
+                        }
+                        timings.finish();
+                        stats.record(TOOL_NAME, timings);
+                    }
+                }
+        );
+    }
+
+    private static List<String> extractSteps(Map<String, Object> params) {
+        if (params.get("steps") instanceof List<?> list) {
+            return list.stream().map(Object::toString).toList();
+        }
+        throw new IllegalArgumentException("'steps' must be a list of phases or goals");
+    }
+
+    /**
+     * Whether a step is the last one reaching package or beyond; earlier ones would report
+     * the same artifacts.
+     */
+    private static boolean producesArtifacts(MavenPipeline pipeline, int step) {
+        int packagePhase = MavenPipeline.phaseIndex("package");
+        if (pipeline.defaultPhase(step) < packagePhase) {
+            return false;
+        }
+        for (int i = step + 1; i < pipeline.steps().size(); i++) {
+            if (pipeline.defaultPhase(i) >= packagePhase) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
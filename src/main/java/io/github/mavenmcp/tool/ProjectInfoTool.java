@@ -0,0 +1,110 @@
+package io.github.mavenmcp.tool;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.model.ProjectModel;
+import io.github.mavenmcp.stats.CallTimings;
+import io.github.mavenmcp.stats.ServerStats;
+import io.github.mavenmcp.workspace.Workspace;
+import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
+import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
+import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import io.modelcontextprotocol.spec.McpSchema.Tool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * MCP tool: maven_project_info — reports the modules of the project as its POMs declare them.
+ */
+public final class ProjectInfoTool {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectInfoTool.class);
+
+    private static final String TOOL_NAME = "maven_project_info";
+    private static final String DESCRIPTION =
+            "Describe the project from its POMs: groupId, artifactId and version, and per module its packaging, "
+                    + "parent, source, test source, build and Surefire report directories, and plugins with their "
+                    + "configuration and executions. Parents and properties are resolved; profiles are not applied. "
+                    + "Does not run Maven.";
+    private static final String INPUT_SCHEMA = """
+            {
+              "type": "object",
+              "properties": {
+                "project": {
+                  "type": "string",
+                  "description": "Project name or directory; required when the server was started with several projects"
+                },
+                "module": {
+                  "type": "string",
+                  "description": "Only this module, by directory relative to the project (e.g. \\"core\\", \\".\\" for the root)"
+                },
+                "includeProperties": {
+                  "type": "boolean",
+                  "description": "Include each module's properties after inheritance (default: false)"
+                }
+              }
+            }
+            """;
+
+    private ProjectInfoTool() {
+    }
+
+    public static SyncToolSpecification create(Workspace workspace, ObjectMapper objectMapper,
+                                               ServerStats stats) {
+        var jsonMapper = new JacksonMcpJsonMapper(objectMapper);
+        Tool tool = Tool.builder()
+                .name(TOOL_NAME)
+                .description(DESCRIPTION)
+                .inputSchema(jsonMapper, INPUT_SCHEMA)
+                .build();
+        return new SyncToolSpecification(
+                tool,
+                (exchange, params) -> {
+                    CallTimings timings = new CallTimings(TOOL_NAME);
+                    Workspace.Lease lease = null;
+                    try {
+                        lease = workspace.acquire(ToolUtils.extractString(params, "project"));
+                        String module = ToolUtils.extractString(params, "module");
+                        boolean includeProperties = ToolUtils.extractBoolean(params, "includeProperties", false);
+                        log.info("maven_project_info called with module: {}", module);
+
+                        ProjectModel model = lease.project().model();
+                        if (model.modules().isEmpty()) {
+                            throw new IllegalArgumentException("No pom.xml in " + lease.project().config().projectDir());
+                        }
+                        List<ProjectModel.Module> modules = model.modules();
+                        if (module != null) {
+                            ProjectModel.Module selected = model.module(module);
+                            if (selected == null) {
+                                throw new IllegalArgumentException("Unknown module '" + module + "'; modules: "
+                                        + modules.stream().map(ProjectModel.Module::path).toList());
+                            }
+                            modules = List.of(selected);
+                        }
+                        if (!includeProperties) {
+                            modules = modules.stream().map(m -> m.withProperties(null)).toList();
+                        }
+
+                        String json = ToolUtils.serialize(objectMapper, model.withModules(modules), timings);
+                        return new CallToolResult(List.of(new TextContent(json)), false);
+
+                    } catch (IllegalArgumentException e) {
+                        return new CallToolResult(
+                                List.of(new TextContent("Error: " + e.getMessage())), true);
+                    } catch (Exception e) {
+                        log.error("Unexpected error in maven_project_info", e);
+                        return new CallToolResult(
+                                List.of(new TextContent("Internal error: " + e.getMessage())), true);
+                    } finally {
+                        if (lease != null) {
+                            lease.close();
+                        }
+                        timings.finish();
+                        stats.record(TOOL_NAME, timings);
+                    }
+                }
+        );
+    }
+}
@@ -0,0 +1,264 @@
+package io.github.mavenmcp.tool;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import io.github.mavenmcp.model.BuildResult;
+import io.github.mavenmcp.model.CompilationError;
+import io.github.mavenmcp.model.FailureCluster;
+import io.github.mavenmcp.model.TestFailure;
+
+/**
+ * Distributes a single per-call character budget across the sections of a
+ * {@link io.github.mavenmcp.model.BuildResult}.
+ * <p>
+ * Sections are filled in priority order. Each section first gets a guaranteed reserve
+ * (its weighted share of the budget, capped by what it actually needs); while a section
+ * is being filled it may use everything that is not reserved for lower-priority sections,
+ * so unused space flows down instead of being lost.
+ */
+final class ResponseBudget {
+
+    static final int DEFAULT_MAX_RESPONSE_CHARS = 40_000;
+
+    /** Below this allowance stack traces are not processed at all. */
+    static final int MIN_STACK_TRACE_CHARS = 120;
+
+    // Approximate JSON envelope: status, duration, summary, field names
+    private static final int BASE_OVERHEAD = 200;
+    private static final int ENTRY_OVERHEAD = 60;
+
+    /**
+     * Response sections in priority order, with their share weights.
+     */
+    enum Section {
+        ERRORS("errors", 30),
+        FAILURES("failures", 20),
+        STACK_TRACES("stackTraces", 20),
+        WARNINGS("warnings", 10),
+        TEST_LOGS("testLogs", 10),
+        OUTPUT("output", 10);
+
+        private final String key;
+        private final int weight;
+
+        Section(String key, int weight) {
+            this.key = key;
+            this.weight = weight;
+        }
+    }
+
+    private final int[] reserved = new int[Section.values().length];
+    private final Map<String, Integer> omitted = new LinkedHashMap<>();
+    private int remaining;
+
+    /**
+     * @param maxChars total character budget for the response
+     * @param demands  estimated characters each section would need without a budget
+     */
+    ResponseBudget(int maxChars, Map<Section, Integer> demands) {
+        this.remaining = Math.max(0, maxChars - BASE_OVERHEAD);
+        int totalWeight = 0;
+        for (Section s : Section.values()) {
+            totalWeight += s.weight;
+        }
+        for (Section s : Section.values()) {
+            int share = (int) ((long) remaining * s.weight / totalWeight);
+            reserved[s.ordinal()] = Math.min(demands.getOrDefault(s, 0), share);
+        }
+    }
+
+    /**
+     * Characters the given section may still use without eating into the reserves
+     * of lower-priority sections.
+     */
+    int allowance(Section section) {
+        int lowerReserves = 0;
+        for (int i = section.ordinal() + 1; i < reserved.length; i++) {
+            lowerReserves += reserved[i];
+        }
+        return Math.max(0, remaining - lowerReserves);
+    }
+
+    /**
+     * Charge the given number of characters to a section if they fit its allowance.
+     *
+     * @return true if the characters were charged
+     */
+    boolean tryConsume(Section section, int chars) {
+        if (chars > allowance(section)) {
+            return false;
+        }
+        remaining -= chars;
+        return true;
+    }
+
+    /**
+     * Record entries of a section that were dropped to respect the budget.
+     */
+    void omit(Section section, int count) {
+        if (count > 0) {
+            omitted.merge(section.key, count, Integer::sum);
+        }
+    }
+
+    /**
+     * @return counts of omitted entries per section, or null if nothing was omitted
+     */
+    Map<String, Integer> omitted() {
+        return omitted.isEmpty() ? null : Map.copyOf(omitted);
+    }
+
+    /**
+     * Keep the longest prefix of entries that fits the section's allowance.
+     *
+     * @return kept entries, or null if the input was null
+     */
+    <T> List<T> fitEntries(Section section, List<T> entries, ToIntFunction<T> size) {
+        if (entries == null) {
+            return null;
+        }
+        List<T> kept = new ArrayList<>();
+        for (T entry : entries) {
+            if (!tryConsume(section, size.applyAsInt(entry))) {
+                break;
+            }
+            kept.add(entry);
+        }
+        omit(section, entries.size() - kept.size());
+        return kept;
+    }
+
+    /**
+     * Fit free text into the section's allowance, keeping the tail (where Maven puts
+     * the actionable summary) and marking the truncation.
+     *
+     * @return fitted text, or null if nothing fits
+     */
+    String fitText(Section section, String text) {
+        if (text == null) {
+            return null;
+        }
+        int allowance = allowance(section);
+        if (text.length() <= allowance) {
+            remaining -= text.length();
+            return text;
+        }
+        String marker = "... (" + (text.length() - allowance) + " chars truncated)\n";
+        int keep = allowance - marker.length();
+        if (keep <= 0) {
+            omit(section, 1);
+            return null;
+        }
+        remaining -= allowance;
+        return marker + text.substring(text.length() - keep);
+    }
+
+    /**
+     * Fit an already processed stack trace, cutting whole lines from the end if needed.
+     *
+     * @return fitted trace, or null if not even the header line fits
+     */
+    String fitStackTrace(String trace) {
+        if (trace == null) {
+            return null;
+        }
+        int allowance = allowance(Section.STACK_TRACES);
+        if (trace.length() <= allowance) {
+            remaining -= trace.length();
+            return trace;
+        }
+        String marker = "\n\t... (truncated to fit response budget)";
+        int cut = trace.lastIndexOf('\n', Math.max(0, allowance - marker.length()));
+        if (cut <= 0) {
+            omit(Section.STACK_TRACES, 1);
+            return null;
+        }
+        String fitted = trace.substring(0, cut) + marker;
+        remaining -= fitted.length();
+        return fitted;
+    }
+
+    /**
+     * Start building the demand estimates for a new budget.
+     */
+    static Demands demands() {
+        return new Demands();
+    }
+
+    static int sizeOf(CompilationError error) {
+        return ENTRY_OVERHEAD + length(error.file()) + length(error.message());
+    }
+
+    static int headerSizeOf(TestFailure failure) {
+        return ENTRY_OVERHEAD + length(failure.testClass()) + length(failure.testMethod())
+                + length(failure.message());
+    }
+
+    static int headerSizeOf(FailureCluster cluster) {
+        int size = ENTRY_OVERHEAD + length(cluster.signature()) + length(cluster.exceptionType())
+                + length(cluster.messageTemplate()) + headerSizeOf(cluster.representative());
+        for (String test : cluster.tests()) {
+            size += test.length() + 3;
+        }
+        return size;
+    }
+
+    /**
+     * Estimated size of a fitted result, by the same measures its sections were fitted
+     * with, for a response that shares one budget between several results.
+     */
+    static int sizeOf(BuildResult result) {
+        int size = BASE_OVERHEAD + length(result.output());
+        for (List<CompilationError> errors : List.of(listOrEmpty(result.errors()), listOrEmpty(result.warnings()))) {
+            for (CompilationError error : errors) {
+                size += sizeOf(error);
+            }
+        }
+        for (TestFailure failure : listOrEmpty(result.failures())) {
+            size += headerSizeOf(failure) + length(failure.stackTrace()) + length(failure.testOutput());
+        }
+        for (FailureCluster cluster : listOrEmpty(result.failureClusters())) {
+            size += headerSizeOf(cluster) + length(cluster.representative().stackTrace())
+                    + length(cluster.representative().testOutput());
+        }
+        return size;
+    }
+
+    private static <T> List<T> listOrEmpty(List<T> entries) {
+        return entries == null ? List.of() : entries;
+    }
+
+    static int length(String s) {
+        return s == null ? 0 : s.length();
+    }
+
+    /**
+     * Builder for section demand estimates.
+     */
+    static final class Demands {
+        private final Map<Section, Integer> values = new EnumMap<>(Section.class);
+
+        Demands add(Section section, int chars) {
+            values.merge(section, chars, Integer::sum);
+            return this;
+        }
+
+        <T> Demands add(Section section, List<T> entries, ToIntFunction<T> size) {
+            if (entries != null) {
+                for (T entry : entries) {
+                    add(section, size.applyAsInt(entry));
+                }
+            }
+            return this;
+        }
+
+        ResponseBudget budget(int maxChars) {
+            return new ResponseBudget(maxChars, values);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.mavenmcp.tool;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.maven.AdmissionController;
+import io.github.mavenmcp.model.ServerStatsResult;
+import io.github.mavenmcp.stats.ServerStats;
+import io.github.mavenmcp.transport.SessionAccounting;
+import io.github.mavenmcp.workspace.Workspace;
+import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
+import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
+import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import io.modelcontextprotocol.spec.McpSchema.Tool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * MCP tool: maven_server_stats — reports latency histograms per tool and phase.
+ */
+public final class ServerStatsTool {
+
+    private static final Logger log = LoggerFactory.getLogger(ServerStatsTool.class);
+
+    private static final String TOOL_NAME = "maven_server_stats";
+    private static final String DESCRIPTION =
+            "Report server statistics: call counts and latency percentiles (ms) per tool and phase "
+                    + "(queue, spawn, firstOutput, maven, parseOutput, parseReports, stackTraces, serialize, total), "
+                    + "mean, min and max of peak memory (MiB), CPU time (ms), threads and forked JVMs of the Maven runs per tool, "
+                    + "the Maven environment (Maven and Java versions, local repository, mirrors), "
+                    + "whether builds run offline after the dependency prefetch and the network time saved, "
+                    + "with several projects, which are loaded and their memory use, "
+                    + "builds running and waiting under the limit of builds at once and how long they waited, "
+                    + "and over HTTP, the client sessions and their request counts. "
+                    + "Does not run Maven.";
+    private static final String INPUT_SCHEMA = """
+            {
+              "type": "object",
+              "properties": {
+                "project": {
+                  "type": "string",
+                  "description": "Project whose Maven environment and offline state to report; required for them when the server was started with several projects"
+                }
+              }
+            }
+            """;
+
+    private ServerStatsTool() {
+    }
+
+    public static SyncToolSpecification create(ServerStats stats, ObjectMapper objectMapper) {
+        return create(stats, null, objectMapper);
+    }
+
+    public static SyncToolSpecification create(ServerStats stats, Workspace workspace,
+                                               ObjectMapper objectMapper) {
+        return create(stats, workspace, null, objectMapper);
+    }
+
+    /**
+     * @param workspace projects to report the environment and memory use of, or null
+     * @param sessions  HTTP sessions to report, or null
+     */
+    public static SyncToolSpecification create(ServerStats stats, Workspace workspace,
+                                               SessionAccounting sessions, ObjectMapper objectMapper) {
+        return create(stats, workspace, sessions, null, objectMapper);
+    }
+
+    /**
+     * @param workspace projects to report the environment and memory use of, or null
+     * @param sessions  HTTP sessions to report, or null
+     * @param admission limit of builds at once to report the queue of, or null
+     */
+    public static SyncToolSpecification create(ServerStats stats, Workspace workspace,
+                                               SessionAccounting sessions, AdmissionController admission,
+                                               ObjectMapper objectMapper) {
+        var jsonMapper = new JacksonMcpJsonMapper(objectMapper);
+        Tool tool = Tool.builder()
+                .name(TOOL_NAME)
+                .description(DESCRIPTION)
+                .inputSchema(jsonMapper, INPUT_SCHEMA)
+                .build();
+        return new SyncToolSpecification(
+                tool,
+                (exchange, params) -> {
+                    try {
+                        ServerStatsResult result = stats.snapshot();
+                        if (workspace != null) {
+                            String project = ToolUtils.extractString(params, "project");
+                            if (project != null || workspace.size() == 1) {
+                                try (Workspace.Lease lease = workspace.acquire(project)) {
+                                    result = result.withEnvironment(lease.project().environment())
+                                            .withOffline(lease.project().offlineStatus());
+                                }
+                            }
+                            if (workspace.size() > 1) {
+                                result = result.withWorkspace(workspace.stats());
+                            }
+                        }
+                        if (sessions != null) {
+                            result = result.withSessions(sessions.snapshot());
+                        }
+                        if (admission != null) {
+                            result = result.withAdmission(admission.stats());
+                        }
+                        String json = objectMapper.writeValueAsString(result);
+                        return new CallToolResult(List.of(new TextContent(json)), false);
+                    } catch (IllegalArgumentException e) {
+                        return new CallToolResult(
+                                List.of(new TextContent("Error: " + e.getMessage())), true);
+                    } catch (Exception e) {
+                        log.error("Unexpected error in maven_server_stats", e);
+                        return new CallToolResult(
+                                List.of(new TextContent("Internal error: " + e.getMessage())), true);
+                    }
+                }
+        );
+    }
+}
@@ -1,23 +1,47 @@
 package io.github.mavenmcp.tool;
 
-import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.mavenmcp.config.ServerConfig;
+import io.github.mavenmcp.history.BuildDiff;
+import io.github.mavenmcp.history.BuildHistory;
+import io.github.mavenmcp.history.BuildHistory.Snapshot;
+import io.github.mavenmcp.history.FlakyTests;
+import io.github.mavenmcp.history.SourceFingerprint;
 import io.github.mavenmcp.maven.MavenExecutionException;
 import io.github.mavenmcp.maven.MavenExecutionResult;
 import io.github.mavenmcp.maven.MavenRunner;
+import io.github.mavenmcp.model.BuildDelta;
+import io.github.mavenmcp.model.BuildMode;
 import io.github.mavenmcp.model.BuildResult;
+import io.github.mavenmcp.model.FailureCluster;
+import io.github.mavenmcp.model.ProjectModel;
 import io.github.mavenmcp.model.TestFailure;
+import io.github.mavenmcp.model.TestRerun;
 import io.github.mavenmcp.parser.CompilationOutputParser;
+import io.github.mavenmcp.parser.FailureClusterer;
 import io.github.mavenmcp.parser.MavenOutputFilter;
-import io.github.mavenmcp.parser.XmlUtils;
 import io.github.mavenmcp.parser.StackTraceProcessor;
 import io.github.mavenmcp.parser.SurefireReportParser;
+import io.github.mavenmcp.parser.SurefireReportParser.SurefireResult;
+import io.github.mavenmcp.stats.CallTimings;
+import io.github.mavenmcp.stats.Phase;
+import io.github.mavenmcp.stats.ServerStats;
+import io.github.mavenmcp.tool.ResponseBudget.Section;
+import io.github.mavenmcp.workspace.ProjectContext;
+import io.github.mavenmcp.workspace.Workspace;
 import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
 import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
 import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
@@ -25,8 +49,6 @@ import io.modelcontextprotocol.spec.McpSchema.TextContent;
 import io.modelcontextprotocol.spec.McpSchema.Tool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
-import org.w3c.dom.NodeList;
 
 /**
  * MCP tool: maven_test — runs Maven tests and returns structured results
@@ -38,11 +60,19 @@ public final class TestTool {
 
     private static final String TOOL_NAME = "maven_test";
     private static final String DESCRIPTION =
-            "Run Maven tests. Returns structured test results with pass/fail details, failure messages, and stack traces.";
+            "Run Maven tests. Returns structured test results with pass/fail details, failure messages, and stack traces. "
+                    + "With rerunFailures, failed tests are run once more in a single follow-up invocation and each "
+                    + "failure is marked rerun=PASSED (flaky) or FAILED (consistently failing). Failures of tests "
+                    + "that passed on earlier reruns carry their 'flakiness', the share of their rerun failures "
+                    + "that passed. The full build log is available as the resource maven-log://<buildId>.";
     private static final String INPUT_SCHEMA = """
             {
               "type": "object",
               "properties": {
+                "project": {
+                  "type": "string",
+                  "description": "Project name or directory; required when the server was started with several projects"
+                },
                 "testFilter": {
                   "type": "string",
                   "description": "Test filter: class name (MyTest), method (MyTest#method), or multiple (MyTest,OtherTest)"
@@ -52,6 +82,15 @@ public final class TestTool {
                   "items": { "type": "string" },
                   "description": "Additional Maven CLI arguments"
                 },
+                "online": {
+                  "type": "boolean",
+                  "description": "Keep remote repository access even once dependencies have been prefetched and builds run offline (default: false)"
+                },
+                "mode": {
+                  "type": "string",
+                  "enum": ["fast", "full"],
+                  "description": "fast skips checks, reports and frontend builds bound before the goal (enforcer, jacoco, checkstyle, ...) and builds modules in parallel; the response lists what was skipped (default: full)"
+                },
                 "stackTraceLines": {
                   "type": "integer",
                   "description": "Max stack trace lines per failure (default: 50). 0 disables line cap."
@@ -67,16 +106,55 @@ public final class TestTool {
                 "testOutputLimit": {
                   "type": "integer",
                   "description": "Per-test character limit for stdout/stderr output (default: 2000)"
+                },
+                "since": {
+                  "type": "string",
+                  "description": "buildId from an earlier maven_test or maven_compile response. Only new and resolved failures are returned, plus the count of unchanged ones."
+                },
+                "maxResponseChars": {
+                  "type": "integer",
+                  "description": "Response size budget in characters, shared by failures, stack traces, test logs and output in that priority (default: 40000)"
+                },
+                "rerunFailures": {
+                  "type": "boolean",
+                  "description": "Rerun the failed tests (up to 20) once more in one follow-up invocation to tell flaky from consistent failures (default: false)"
+                },
+                "groupFailures": {
+                  "type": "boolean",
+                  "description": "Group failures sharing the same root cause into clusters with one representative stack trace (default: true)"
+                },
+                "includeTimings": {
+                  "type": "boolean",
+                  "description": "Include per-phase durations of this call in a 'timings' block, and the memory, CPU time and forked JVMs of the Maven run in a 'resources' block (default: false)"
                 }
               }
             }
             """;
 
+    /** Most failed tests rerun; beyond that, the build is broken rather than flaky. */
+    static final int RERUN_LIMIT = 20;
+
     private TestTool() {
     }
 
     public static SyncToolSpecification create(ServerConfig config, MavenRunner runner,
                                                ObjectMapper objectMapper) {
+        return create(config, runner, objectMapper, new BuildHistory());
+    }
+
+    public static SyncToolSpecification create(ServerConfig config, MavenRunner runner,
+                                               ObjectMapper objectMapper, BuildHistory history) {
+        return create(config, runner, objectMapper, history, new ServerStats());
+    }
+
+    public static SyncToolSpecification create(ServerConfig config, MavenRunner runner,
+                                               ObjectMapper objectMapper, BuildHistory history,
+                                               ServerStats stats) {
+        return create(Workspace.of(ProjectContext.of(config, runner, history)), objectMapper, stats);
+    }
+
+    public static SyncToolSpecification create(Workspace workspace, ObjectMapper objectMapper,
+                                               ServerStats stats) {
         var jsonMapper = new JacksonMcpJsonMapper(objectMapper);
         Tool tool = Tool.builder()
                 .name(TOOL_NAME)
@@ -86,80 +164,459 @@ public final class TestTool {
         return new SyncToolSpecification(
                 tool,
                 (exchange, params) -> {
+                    CallTimings timings = new CallTimings(TOOL_NAME);
+                    Workspace.Lease lease = null;
                     try {
+                        lease = workspace.acquire(ToolUtils.extractString(params, "project"));
+                        ProjectContext project = lease.project();
+                        ServerConfig config = project.config();
+                        BuildHistory history = project.history();
                         List<String> args = buildArgs(params);
+                        boolean online = ToolUtils.extractBoolean(params, "online", false);
+                        boolean fast = ToolUtils.extractFastMode(params);
                         int stackTraceLines = extractStackTraceLines(params);
-                        String appPackage = extractAppPackage(params, config.projectDir());
+                        ProjectModel model = project.model();
+                        String appPackage = extractAppPackage(params, model);
                         boolean includeTestLogs = ToolUtils.extractBoolean(params, "includeTestLogs", true);
                         int testOutputLimit = ToolUtils.extractInt(params, "testOutputLimit",
                                 SurefireReportParser.DEFAULT_PER_TEST_OUTPUT_LIMIT);
-                        log.info("maven_test called with args: {}, stackTraceLines: {}, appPackage: {}",
-                                args, stackTraceLines, appPackage);
+                        boolean groupFailures = ToolUtils.extractBoolean(params, "groupFailures", true);
+                        boolean rerunFailures = ToolUtils.extractBoolean(params, "rerunFailures", false);
+                        int maxResponseChars = ToolUtils.extractMaxResponseChars(params);
+                        String since = ToolUtils.extractString(params, "since");
+                        boolean includeTimings = ToolUtils.extractBoolean(params, "includeTimings", false);
+                        log.info("maven_test called with args: {}, stackTraceLines: {}, appPackage: {}, since: {}",
+                                args, stackTraceLines, appPackage, since);
 
-                        MavenExecutionResult execResult = runner.execute(
-                                "test", args,
-                                config.mavenExecutable(), config.projectDir());
+                        // A run of all tests on unchanged sources lets maven_package skip them
+                        List<String> userArgs = ToolUtils.extractArgs(params);
+                        String fingerprint = userArgs.size() == args.size() && !ToolUtils.runsPartialTests(args)
+                                ? SourceFingerprint.of(config.projectDir(), model, userArgs)
+                                : null;
 
-                        String status = execResult.isSuccess() ? BuildResult.SUCCESS : BuildResult.FAILURE;
+                        BuildMode mode = fast ? project.fastMode("test", args) : null;
+                        List<String> runArgs = mode == null ? args : mode.apply(args);
+                        MavenExecutionResult execResult = project.execute("test", runArgs, online);
+                        timings.add(execResult);
+
+                        String status = ToolUtils.status(execResult);
                         String output = execResult.isSuccess() ? null
                                 : MavenOutputFilter.filter(execResult.stdout());
 
-                        // Try Surefire XML reports first
-                        var surefireResult = SurefireReportParser.parse(
-                                config.projectDir(), includeTestLogs, testOutputLimit);
+                        // Try Surefire XML reports first; total log size is governed by the response budget
+                        List<Path> reportsDirectories = reportsDirectories(config.projectDir(), model);
+                        var surefireResult = timings.time(Phase.PARSE_REPORTS, () -> SurefireReportParser.parse(
+                                reportsDirectories, includeTestLogs, testOutputLimit, 0));
 
+                        var previous = ToolUtils.findPrevious(history, since);
                         BuildResult buildResult;
                         if (surefireResult.isPresent()) {
                             // Test results available from XML
                             var sr = surefireResult.get();
-                            // Apply smart stack trace processing
-                            var processedFailures = processStackTraces(
-                                    sr.failures(), appPackage, stackTraceLines);
-                            buildResult = new BuildResult(
-                                    status, execResult.duration(),
-                                    null, null,
-                                    sr.summary(), processedFailures,
-                                    null, output);
+                            // Tests ran, so compilation succeeded
+                            String buildId = history.record(execResult.runId(), List.of(), sr.failures());
+                            TestRerun rerun = null;
+                            if (rerunFailures && !execResult.isSuccess() && !sr.failures().isEmpty()) {
+                                Rerun outcome = rerun(project, runArgs, online, sr.failures(), reportsDirectories,
+                                        timings);
+                                sr = new SurefireResult(sr.summary(), outcome.failures());
+                                rerun = outcome.result();
+                            }
+                            sr = new SurefireResult(sr.summary(), project.flakyTests().mark(sr.failures()));
+                            buildResult = previous.isPresent()
+                                    ? testDeltaResult(status, execResult.duration(), since, previous.get(),
+                                            sr, output, appPackage, stackTraceLines, groupFailures, maxResponseChars, timings)
+                                    : testResult(status, execResult.duration(), sr, output,
+                                            appPackage, stackTraceLines, groupFailures, maxResponseChars, timings);
+                            buildResult = buildResult.withBuildId(buildId).withRerun(rerun);
+                            if (execResult.isSuccess() && fingerprint != null
+                                    && fingerprint.equals(SourceFingerprint.of(config.projectDir(), model, userArgs))) {
+                                history.recordVerified(buildResult.buildId(), fingerprint, sr.summary());
+                            }
                         } else if (!execResult.isSuccess()) {
                             // No XML reports + failure = likely compilation error
-                            var parseResult = CompilationOutputParser.parse(
-                                    execResult.stdout(), config.projectDir());
-                            buildResult = new BuildResult(
-                                    status, execResult.duration(),
-                                    parseResult.errors(), parseResult.warnings(),
-                                    null, null, null, output);
+                            var parseResult = timings.time(Phase.PARSE_OUTPUT, () -> CompilationOutputParser.parse(
+                                    execResult.stdout(), config.projectDir()));
+                            buildResult = previous.isPresent()
+                                    ? CompileTool.compilationDeltaResult(status, execResult.duration(), since,
+                                            previous.get(), parseResult, output, maxResponseChars)
+                                    : CompileTool.compilationResult(status, execResult.duration(),
+                                            parseResult, output, maxResponseChars);
+                            buildResult = buildResult.withBuildId(history.record(execResult.runId(), parseResult.errors(), null));
                         } else {
                             // Success but no XML (shouldn't happen normally)
                             buildResult = new BuildResult(
                                     status, execResult.duration(),
-                                    null, null, null, null, null, null);
+                                    null, null, null, null, null, null)
+                                    .withBuildId(history.record(execResult.runId(), List.of(), null));
+                        }
+                        buildResult = buildResult.withPrediction(execResult.prediction())
+                                .withQueue(execResult.queue());
+                        if (includeTimings) {
+                            buildResult = buildResult.withTimings(timings.toMillis())
+                                    .withResources(timings.resources())
+                                    .withAllocation(execResult.allocation());
+                        }
+                        if (mode != null) {
+                            buildResult = buildResult.withMode(mode);
                         }
 
-                        String json = objectMapper.writeValueAsString(buildResult);
+                        String json = ToolUtils.serialize(objectMapper, buildResult, timings);
                         return new CallToolResult(List.of(new TextContent(json)), false);
 
                     } catch (MavenExecutionException e) {
                         log.error("maven_test failed: {}", e.getMessage());
                         return new CallToolResult(
                                 List.of(new TextContent("Error: " + e.getMessage())), true);
+                    } catch (IllegalArgumentException e) {
+                        return new CallToolResult(
+                                List.of(new TextContent("Error: " + e.getMessage())), true);
                     } catch (Exception e) {
                         log.error("Unexpected error in maven_test", e);
                         return new CallToolResult(
                                 List.of(new TextContent("Internal error: " + e.getMessage())), true);
+                    } finally {
+                        if (lease != null) {
+                            lease.close();
+                        }
+                        timings.finish();
+                        stats.record(TOOL_NAME, timings);
                     }
                 }
         );
     }
 
     /**
-     * Apply smart stack trace processing to all failures.
+     * The failures marked with the outcome of their rerun, and the rerun.
+     */
+    private record Rerun(List<TestFailure> failures, TestRerun result) {
+    }
+
+    /**
+     * Run the failed tests once more, in one invocation with the same arguments and a test
+     * filter selecting only them. A failure the rerun reports again is consistent; one whose
+     * class the rerun reported on without it passed, and is recorded as a flake. Failures of
+     * classes the rerun did not report on (e.g. the build broke first) stay unclassified, and
+     * their earlier reports are kept. If the rerun cannot run at all (e.g. the build queue is
+     * full), the failures stay unclassified and the rerun says why.
+     */
+    private static Rerun rerun(ProjectContext project, List<String> args, boolean online,
+                               List<TestFailure> failures, List<Path> reportsDirectories, CallTimings timings) {
+        if (failures.size() > RERUN_LIMIT) {
+            return new Rerun(failures, TestRerun.skipped(failures.size() + " failures are more than the "
+                    + RERUN_LIMIT + " rerun at most; that many rarely all are flaky"));
+        }
+        List<String> rerunArgs = new ArrayList<>(args.stream()
+                .filter(arg -> !arg.startsWith("-Dtest=") && !arg.startsWith("-DfailIfNoTests=")
+                        && !arg.startsWith("-Dsurefire.failIfNoSpecifiedTests="))
+                .toList());
+        rerunArgs.add("-Dtest=" + rerunFilter(failures));
+        // Modules without any of the tests must not fail the rerun
+        rerunArgs.add("-Dsurefire.failIfNoSpecifiedTests=false");
+        rerunArgs.add("-DfailIfNoTests=false");
+
+        Set<String> testClasses = new LinkedHashSet<>();
+        failures.forEach(f -> testClasses.add(f.testClass()));
+        Map<Path, Path> moved = new LinkedHashMap<>();
+        MavenExecutionResult execResult;
+        List<TestFailure> again;
+        Set<String> reported;
+        try {
+            moved.putAll(moveReportsAside(reportsDirectories, testClasses));
+            execResult = project.execute("test", rerunArgs, online);
+            timings.add(execResult);
+            again = timings.time(Phase.PARSE_REPORTS, () -> SurefireReportParser.parse(
+                            reportsDirectories, false, 0, 0))
+                    .map(SurefireResult::failures)
+                    .orElse(List.of());
+        } catch (RuntimeException e) {
+            // The first run's failures are still worth returning, unclassified
+            log.warn("Rerun of {} failed tests failed: {}", failures.size(), e.getMessage());
+            return new Rerun(failures, TestRerun.skipped("Rerun unavailable: " + e.getMessage()));
+        } finally {
+            reported = restoreReports(moved, testClasses, reportsDirectories);
+        }
+        Set<String> failedAgain = new HashSet<>();
+        again.forEach(f -> failedAgain.add(FlakyTests.id(f)));
+
+        List<TestFailure> marked = new ArrayList<>(failures.size());
+        Map<String, Boolean> outcomes = new LinkedHashMap<>();
+        List<TestFailure> rerunFailures = new ArrayList<>();
+        for (TestFailure f : failures) {
+            String id = FlakyTests.id(f);
+            if (!reported.contains(f.testClass())) {
+                marked.add(f);
+            } else if (failedAgain.contains(id)) {
+                marked.add(f.withRerun(TestFailure.FAILED));
+                outcomes.put(id, false);
+            } else {
+                marked.add(f.withRerun(TestFailure.PASSED));
+                outcomes.put(id, true);
+            }
+        }
+        for (TestFailure f : again) {
+            if (outcomes.containsKey(FlakyTests.id(f))) {
+                rerunFailures.add(f);
+            }
+        }
+        project.flakyTests().record(outcomes);
+        String buildId = project.history().record(execResult.runId(), List.of(), rerunFailures);
+        List<String> flaky = outcomes.entrySet().stream().filter(Map.Entry::getValue).map(Map.Entry::getKey).toList();
+        List<String> failing = outcomes.entrySet().stream().filter(e -> !e.getValue()).map(Map.Entry::getKey).toList();
+        return new Rerun(marked, new TestRerun(failures.size(), execResult.duration(), flaky, failing, buildId, null));
+    }
+
+    /**
+     * Surefire test filter selecting the failed methods, {@code Class#a+b,Other#c}; a class
+     * whose failed method names cannot be selected (display names, class-level failures
+     * without a method) is selected whole.
+     */
+    static String rerunFilter(List<TestFailure> failures) {
+        Map<String, Set<String>> methods = new LinkedHashMap<>();
+        for (TestFailure f : failures) {
+            String method = selectableMethod(f.testMethod());
+            if (method == null) {
+                methods.put(f.testClass(), null);
+            } else if (!methods.containsKey(f.testClass()) || methods.get(f.testClass()) != null) {
+                methods.computeIfAbsent(f.testClass(), c -> new LinkedHashSet<>()).add(method);
+            }
+        }
+        return methods.entrySet().stream()
+                .map(e -> e.getValue() == null ? e.getKey() : e.getKey() + "#" + String.join("+", e.getValue()))
+                .collect(Collectors.joining(","));
+    }
+
+    /**
+     * The method name of a report's test case without the parameters and invocation index
+     * JUnit 5 adds ({@code check(String)[2]}), or null if it is no Java method name.
+     */
+    private static String selectableMethod(String testMethod) {
+        if (testMethod == null) {
+            return null;
+        }
+        int end = testMethod.length();
+        for (int i = 0; i < testMethod.length(); i++) {
+            if (testMethod.charAt(i) == '(' || testMethod.charAt(i) == '[') {
+                end = i;
+                break;
+            }
+        }
+        String method = testMethod.substring(0, end);
+        if (method.isEmpty() || !Character.isJavaIdentifierStart(method.charAt(0))
+                || !method.chars().allMatch(Character::isJavaIdentifierPart)) {
+            return null;
+        }
+        return method;
+    }
+
+    /**
+     * Move the reports of the rerun classes aside, so that a report found after the rerun
+     * is the rerun's own.
+     *
+     * @return per moved report, where it was moved to
+     */
+    private static Map<Path, Path> moveReportsAside(List<Path> reportsDirectories, Set<String> testClasses) {
+        Map<Path, Path> moved = new LinkedHashMap<>();
+        for (Path directory : reportsDirectories) {
+            for (String testClass : testClasses) {
+                Path report = directory.resolve("TEST-" + testClass + ".xml");
+                Path aside = directory.resolve("TEST-" + testClass + ".xml.before-rerun");
+                try {
+                    if (Files.isRegularFile(report)) {
+                        Files.move(report, aside, StandardCopyOption.REPLACE_EXISTING);
+                        moved.put(report, aside);
+                    }
+                } catch (IOException e) {
+                    log.debug("Cannot move {} aside: {}", report, e.getMessage());
+                }
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Put back the reports the rerun did not replace, and drop the others.
+     *
+     * @return the test classes the rerun reported on
      */
-    private static List<TestFailure> processStackTraces(List<TestFailure> failures,
-                                                         String appPackage, int stackTraceLines) {
-        return failures.stream()
-                .map(f -> f.withStackTrace(
-                        StackTraceProcessor.process(f.stackTrace(), appPackage, stackTraceLines)))
-                .toList();
+    private static Set<String> restoreReports(Map<Path, Path> moved, Set<String> testClasses,
+                                              List<Path> reportsDirectories) {
+        Set<String> reported = new HashSet<>();
+        for (String testClass : testClasses) {
+            for (Path directory : reportsDirectories) {
+                if (Files.isRegularFile(directory.resolve("TEST-" + testClass + ".xml"))) {
+                    reported.add(testClass);
+                }
+            }
+        }
+        moved.forEach((report, aside) -> {
+            try {
+                if (Files.isRegularFile(report)) {
+                    Files.delete(aside);
+                } else {
+                    Files.move(aside, report);
+                }
+            } catch (IOException e) {
+                log.debug("Cannot restore {}: {}", report, e.getMessage());
+            }
+        });
+        return reported;
+    }
+
+    /**
+     * Build the test result within the response budget, grouping failures by root cause
+     * when several share one.
+     */
+    static BuildResult testResult(String status, long duration, SurefireResult sr, String output,
+                                  String appPackage, int stackTraceLines, boolean groupFailures,
+                                  int maxResponseChars) {
+        return testResult(status, duration, sr, output, appPackage, stackTraceLines, groupFailures,
+                maxResponseChars, new CallTimings());
+    }
+
+    static BuildResult testResult(String status, long duration, SurefireResult sr, String output,
+                                  String appPackage, int stackTraceLines, boolean groupFailures,
+                                  int maxResponseChars, CallTimings timings) {
+        List<TestFailure> failures = sr.failures();
+        List<FailureCluster> clusters = groupFailures
+                ? FailureClusterer.cluster(failures, appPackage)
+                : null;
+        boolean grouped = clusters != null && clusters.size() < failures.size();
+        List<TestFailure> detailed = grouped
+                ? clusters.stream().map(FailureCluster::representative).toList()
+                : failures;
+
+        var demands = ResponseBudget.demands()
+                .add(Section.STACK_TRACES, detailed, f -> ResponseBudget.length(f.stackTrace()))
+                .add(Section.TEST_LOGS, detailed, f -> ResponseBudget.length(f.testOutput()))
+                .add(Section.OUTPUT, ResponseBudget.length(output));
+        if (grouped) {
+            ResponseBudget budget = demands
+                    .add(Section.FAILURES, clusters, ResponseBudget::headerSizeOf)
+                    .budget(maxResponseChars);
+            List<FailureCluster> kept = fitClusters(budget, clusters);
+            List<TestFailure> shaped = shapeFailures(budget,
+                    kept.stream().map(FailureCluster::representative).toList(),
+                    appPackage, stackTraceLines, timings);
+            List<FailureCluster> result = new ArrayList<>(kept.size());
+            for (int i = 0; i < kept.size(); i++) {
+                result.add(kept.get(i).withRepresentative(shaped.get(i)));
+            }
+            return new BuildResult(status, duration, null, null, sr.summary(), null, result,
+                    null, budget.fitText(Section.OUTPUT, output), budget.omitted());
+        }
+
+        ResponseBudget budget = demands
+                .add(Section.FAILURES, failures, ResponseBudget::headerSizeOf)
+                .budget(maxResponseChars);
+        List<TestFailure> kept = budget.fitEntries(Section.FAILURES, failures, ResponseBudget::headerSizeOf);
+        List<TestFailure> shaped = shapeFailures(budget, kept, appPackage, stackTraceLines, timings);
+        return new BuildResult(status, duration, null, null, sr.summary(), shaped, null,
+                null, budget.fitText(Section.OUTPUT, output), budget.omitted());
+    }
+
+    /**
+     * Build a test result containing only the changes against an earlier build: new failures
+     * with processed stack traces, resolved failures and errors as headers only. Falls back to
+     * the full result when the earlier build has no test results to compare with. A failed
+     * build without new failures keeps the filtered output, which is then all that tells why
+     * it failed (a crashed fork, a plugin error).
+     */
+    static BuildResult testDeltaResult(String status, long duration, String since, Snapshot previous,
+                                       SurefireResult sr, String output, String appPackage,
+                                       int stackTraceLines, boolean groupFailures, int maxResponseChars) {
+        return testDeltaResult(status, duration, since, previous, sr, output, appPackage, stackTraceLines,
+                groupFailures, maxResponseChars, new CallTimings());
+    }
+
+    static BuildResult testDeltaResult(String status, long duration, String since, Snapshot previous,
+                                       SurefireResult sr, String output, String appPackage,
+                                       int stackTraceLines, boolean groupFailures, int maxResponseChars,
+                                       CallTimings timings) {
+        BuildDelta delta = BuildDiff.diff(since, previous, List.of(), sr.failures());
+        if (delta.newFailures() == null) {
+            return testResult(status, duration, sr, output, appPackage, stackTraceLines,
+                    groupFailures, maxResponseChars, timings).withDelta(delta);
+        }
+        String unexplained = delta.newFailures().isEmpty() ? output : null;
+        ResponseBudget budget = ResponseBudget.demands()
+                .add(Section.ERRORS, delta.resolvedErrors(), ResponseBudget::sizeOf)
+                .add(Section.FAILURES, delta.newFailures(), ResponseBudget::headerSizeOf)
+                .add(Section.FAILURES, delta.resolvedFailures(), ResponseBudget::headerSizeOf)
+                .add(Section.STACK_TRACES, delta.newFailures(), f -> ResponseBudget.length(f.stackTrace()))
+                .add(Section.TEST_LOGS, delta.newFailures(), f -> ResponseBudget.length(f.testOutput()))
+                .add(Section.OUTPUT, ResponseBudget.length(unexplained))
+                .budget(maxResponseChars);
+        var resolvedErrors = budget.fitEntries(Section.ERRORS, delta.resolvedErrors(), ResponseBudget::sizeOf);
+        var newFailures = budget.fitEntries(Section.FAILURES, delta.newFailures(), ResponseBudget::headerSizeOf);
+        var resolvedFailures = budget.fitEntries(Section.FAILURES, delta.resolvedFailures(),
+                ResponseBudget::headerSizeOf);
+        newFailures = shapeFailures(budget, newFailures, appPackage, stackTraceLines, timings);
+        return new BuildResult(status, duration, null, null, sr.summary(), null, null, null,
+                budget.fitText(Section.OUTPUT, unexplained), budget.omitted())
+                .withDelta(delta.withErrors(delta.newErrors(), resolvedErrors)
+                        .withFailures(newFailures, resolvedFailures));
+    }
+
+    /**
+     * Keep clusters in order while they fit; the last one that does not fit entirely
+     * keeps its header and as many member test IDs as possible.
+     */
+    private static List<FailureCluster> fitClusters(ResponseBudget budget, List<FailureCluster> clusters) {
+        List<FailureCluster> kept = new ArrayList<>();
+        for (FailureCluster cluster : clusters) {
+            if (budget.tryConsume(Section.FAILURES, ResponseBudget.headerSizeOf(cluster))) {
+                kept.add(cluster);
+                continue;
+            }
+            var headerOnly = new FailureCluster(cluster.signature(), cluster.exceptionType(),
+                    cluster.messageTemplate(), cluster.count(), List.of(), cluster.representative());
+            if (budget.tryConsume(Section.FAILURES, ResponseBudget.headerSizeOf(headerOnly))) {
+                List<String> tests = new ArrayList<>();
+                for (String test : cluster.tests()) {
+                    if (!budget.tryConsume(Section.FAILURES, test.length() + 3)) {
+                        break;
+                    }
+                    tests.add(test);
+                }
+                kept.add(new FailureCluster(cluster.signature(), cluster.exceptionType(),
+                        cluster.messageTemplate(), cluster.count(), tests, cluster.representative()));
+            }
+            break;
+        }
+        budget.omit(Section.FAILURES, clusters.size() - kept.size());
+        return kept;
+    }
+
+    /**
+     * Fit stack traces, then test logs, into the budget. Stack trace processing runs lazily:
+     * once the stack trace allowance is exhausted, remaining traces are dropped unprocessed.
+     */
+    private static List<TestFailure> shapeFailures(ResponseBudget budget, List<TestFailure> failures,
+                                                   String appPackage, int stackTraceLines,
+                                                   CallTimings timings) {
+        List<TestFailure> shaped = new ArrayList<>(failures.size());
+        for (TestFailure f : failures) {
+            String trace = null;
+            if (f.stackTrace() != null) {
+                if (budget.allowance(Section.STACK_TRACES) >= ResponseBudget.MIN_STACK_TRACE_CHARS) {
+                    trace = budget.fitStackTrace(timings.time(Phase.STACK_TRACES,
+                            () -> StackTraceProcessor.process(f.stackTrace(), appPackage, stackTraceLines)));
+                } else {
+                    budget.omit(Section.STACK_TRACES, 1);
+                }
+            }
+            shaped.add(f.withStackTrace(trace));
+        }
+        for (int i = 0; i < shaped.size(); i++) {
+            TestFailure f = shaped.get(i);
+            if (f.testOutput() != null
+                    && !budget.tryConsume(Section.TEST_LOGS, f.testOutput().length())) {
+                shaped.set(i, f.withTestOutput(null));
+                budget.omit(Section.TEST_LOGS, 1);
+            }
+        }
+        return shaped;
     }
 
     private static List<String> buildArgs(Map<String, Object> params) {
@@ -174,44 +631,29 @@ public final class TestTool {
         return args;
     }
 
-    private static int extractStackTraceLines(Map<String, Object> params) {
+    static int extractStackTraceLines(Map<String, Object> params) {
         return ToolUtils.extractInt(params, "stackTraceLines",
                 SurefireReportParser.DEFAULT_STACK_TRACE_LINES);
     }
 
     /**
-     * Extract appPackage from params, or derive from pom.xml groupId.
+     * Extract appPackage from params, or take the root POM's groupId.
      */
-    static String extractAppPackage(Map<String, Object> params, Path projectDir) {
+    static String extractAppPackage(Map<String, Object> params, ProjectModel model) {
         Object value = params.get("appPackage");
         if (value instanceof String pkg && !pkg.isBlank()) {
             return pkg;
         }
-        return deriveGroupId(projectDir);
+        return model.groupId();
     }
 
     /**
-     * Read groupId from pom.xml for use as application package prefix.
+     * The Surefire report directories of all modules, or target/surefire-reports without a POM.
      */
-    static String deriveGroupId(Path projectDir) {
-        try {
-            File pomFile = projectDir.resolve("pom.xml").toFile();
-            if (!pomFile.exists()) {
-                return null;
-            }
-            Document doc = XmlUtils.newSecureDocumentBuilder().parse(pomFile);
-
-            // Look for direct child <groupId> of <project>
-            NodeList groupIds = doc.getDocumentElement().getElementsByTagName("groupId");
-            if (groupIds.getLength() > 0) {
-                String groupId = groupIds.item(0).getTextContent();
-                if (groupId != null && !groupId.isBlank()) {
-                    return groupId.strip();
-                }
-            }
-        } catch (Exception e) {
-            log.debug("Failed to derive groupId from pom.xml: {}", e.getMessage());
+    static List<Path> reportsDirectories(Path projectDir, ProjectModel model) {
+        if (model.modules().isEmpty()) {
+            return List.of(projectDir.resolve("target/surefire-reports"));
         }
-        return null;
+        return model.modules().stream().map(m -> projectDir.resolve(m.reportsDirectory())).toList();
     }
 }
@@ -3,12 +3,28 @@ package io.github.mavenmcp.tool;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.history.BuildHistory;
+import io.github.mavenmcp.history.BuildHistory.Snapshot;
+import io.github.mavenmcp.jfr.SerializationEvent;
+import io.github.mavenmcp.maven.MavenExecutionResult;
+import io.github.mavenmcp.model.BuildMode;
+import io.github.mavenmcp.model.BuildResult;
+import io.github.mavenmcp.stats.CallTimings;
+import io.github.mavenmcp.stats.Phase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Shared utilities for MCP tool handlers.
  */
 final class ToolUtils {
 
+    private static final Logger log = LoggerFactory.getLogger(ToolUtils.class);
+
     private ToolUtils() {
     }
 
@@ -60,4 +76,105 @@ final class ToolUtils {
         }
         return defaultValue;
     }
+
+    /**
+     * Extract the "maxResponseChars" response budget from tool call arguments.
+     *
+     * @param params the tool call parameters map
+     * @return the budget in characters, or the default if absent or not positive
+     */
+    static int extractMaxResponseChars(Map<String, Object> params) {
+        int value = extractInt(params, "maxResponseChars", ResponseBudget.DEFAULT_MAX_RESPONSE_CHARS);
+        return value > 0 ? value : ResponseBudget.DEFAULT_MAX_RESPONSE_CHARS;
+    }
+
+    /**
+     * Extract a string parameter from tool call arguments.
+     *
+     * @param params the tool call parameters map
+     * @param key    the parameter key
+     * @return the string value, or null if absent, blank or not a string
+     */
+    static String extractString(Map<String, Object> params, String key) {
+        Object value = params.get(key);
+        if (value instanceof String s && !s.isBlank()) {
+            return s.strip();
+        }
+        return null;
+    }
+
+    /**
+     * Extract the "mode" parameter: whether the build should skip non-essential plugins.
+     *
+     * @param params the tool call parameters map
+     * @return true for "fast", false for "full" or if absent
+     * @throws IllegalArgumentException for any other value
+     */
+    static boolean extractFastMode(Map<String, Object> params) {
+        String mode = extractString(params, "mode");
+        if (mode == null || BuildMode.FULL.equals(mode)) {
+            return false;
+        }
+        if (BuildMode.FAST.equals(mode)) {
+            return true;
+        }
+        throw new IllegalArgumentException("Unknown mode '" + mode + "'; expected fast or full");
+    }
+
+    /**
+     * Look up the build referenced by a {@code since} parameter.
+     *
+     * @param history build history shared by the tools
+     * @param since   build ID from the tool call, may be null
+     * @return the recorded build, or empty if not requested, unknown or evicted
+     */
+    static Optional<Snapshot> findPrevious(BuildHistory history, String since) {
+        Optional<Snapshot> previous = history.find(since);
+        if (since != null && previous.isEmpty()) {
+            log.info("Unknown or expired buildId '{}', returning full result", since);
+        }
+        return previous;
+    }
+
+    /**
+     * @return TIMEOUT if the build was killed, otherwise SUCCESS or FAILURE by its exit code
+     */
+    static String status(MavenExecutionResult execResult) {
+        return execResult.timedOut() ? BuildResult.TIMEOUT
+                : execResult.isSuccess() ? BuildResult.SUCCESS : BuildResult.FAILURE;
+    }
+
+    /**
+     * Whether Maven arguments leave tests out: skip them, select some, or build only part
+     * of the reactor. Such a run does not verify the project as a whole.
+     */
+    static boolean runsPartialTests(List<String> args) {
+        for (String arg : args) {
+            if (arg.startsWith("-Dtest=") || arg.startsWith("-Dit.test=") || arg.startsWith("-DskipTests")
+                    || arg.startsWith("-Dmaven.test.skip") || arg.startsWith("-Dgroups=")
+                    || arg.startsWith("-DexcludedGroups=") || arg.startsWith("-Dsurefire.skip")
+                    || arg.equals("-pl") || arg.startsWith("--projects") || arg.equals("-rf")
+                    || arg.startsWith("--resume-from")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Serialize a tool response, charging the time to {@link Phase#SERIALIZE} and
+     * emitting a JFR event.
+     */
+    static String serialize(ObjectMapper objectMapper, Object value, CallTimings timings)
+            throws JsonProcessingException {
+        SerializationEvent event = new SerializationEvent();
+        event.tool = timings.tool();
+        event.begin();
+        long start = System.nanoTime();
+        String json = objectMapper.writeValueAsString(value);
+        timings.add(Phase.SERIALIZE, System.nanoTime() - start);
+        event.characters = json.length();
+        event.commit();
+        return json;
+    }
 }
@@ -0,0 +1,262 @@
+package io.github.mavenmcp.transport;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import io.modelcontextprotocol.json.McpJsonMapper;
+import io.modelcontextprotocol.server.transport.HttpServletStreamableServerTransportProvider;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.util.descriptor.web.FilterDef;
+import org.apache.tomcat.util.descriptor.web.FilterMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * MCP streamable HTTP transport on localhost, so that one long-lived server, with its
+ * warm JIT and caches, serves many short agent sessions.
+ * <p>
+ * The SDK's servlet provider runs in an embedded Tomcat bound to the loopback interface,
+ * at {@value #ENDPOINT}. A filter in front of it counts requests per session, refuses
+ * requests from browser pages of other origins (DNS rebinding), and implements the
+ * graceful drain: on {@link #drain}, new requests get 503 while those in flight finish,
+ * then the sessions are closed and Tomcat stops. Its work directory is deleted then.
+ */
+public final class HttpTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpTransport.class);
+
+    public static final String ENDPOINT = "/mcp";
+    public static final Duration DEFAULT_DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    static final String SESSION_HEADER = "Mcp-Session-Id";
+    private static final String HOST = "127.0.0.1";
+    private static final Set<String> LOCAL_HOSTS = Set.of("localhost", "127.0.0.1", "[::1]", "::1");
+
+    private final HttpServletStreamableServerTransportProvider provider;
+    private final SessionAccounting sessions = new SessionAccounting();
+    private final Tomcat tomcat;
+    private final Connector connector;
+    private final Path baseDir;
+
+    /**
+     * @param port       port on the loopback interface, 0 for any free one
+     * @param jsonMapper JSON mapper of the MCP messages
+     */
+    public HttpTransport(int port, McpJsonMapper jsonMapper) throws IOException {
+        provider = HttpServletStreamableServerTransportProvider.builder()
+                .jsonMapper(jsonMapper)
+                .mcpEndpoint(ENDPOINT)
+                .build();
+
+        baseDir = Files.createTempDirectory("maven-mcp-http");
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.toString());
+        connector = new Connector();
+        connector.setPort(port);
+        connector.setProperty("address", HOST);
+        tomcat.setConnector(connector);
+
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "mcp", provider).setAsyncSupported(true);
+        context.addServletMappingDecoded(ENDPOINT, "mcp");
+        FilterDef filterDef = new FilterDef();
+        filterDef.setFilterName("accounting");
+        filterDef.setFilter(new AccountingFilter());
+        filterDef.setAsyncSupported("true");
+        context.addFilterDef(filterDef);
+        FilterMap filterMap = new FilterMap();
+        filterMap.setFilterName("accounting");
+        filterMap.addURLPattern("/*");
+        context.addFilterMap(filterMap);
+    }
+
+    /**
+     * @return the provider to build the MCP server on
+     */
+    public HttpServletStreamableServerTransportProvider provider() {
+        return provider;
+    }
+
+    public SessionAccounting sessions() {
+        return sessions;
+    }
+
+    /**
+     * Start accepting connections.
+     *
+     * @return the URL of the MCP endpoint
+     */
+    public URI start() throws LifecycleException {
+        tomcat.start();
+        return URI.create("http://" + HOST + ":" + connector.getLocalPort() + ENDPOINT);
+    }
+
+    /**
+     * Shut down gracefully: refuse new requests, wait up to the timeout for those in
+     * flight, then close all sessions, stop the container and delete its work directory.
+     */
+    public void drain(Duration timeout) {
+        log.info("Draining HTTP transport, waiting up to {}s for requests in flight", timeout.toSeconds());
+        try {
+            if (!sessions.drain(timeout)) {
+                log.warn("{} requests still in flight after {}s, closing anyway",
+                        sessions.snapshot().inFlight(), timeout.toSeconds());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            provider.closeGracefully().block(Duration.ofSeconds(5));
+        } catch (RuntimeException e) {
+            log.debug("Closing MCP sessions failed: {}", e.getMessage());
+        }
+        try {
+            tomcat.stop();
+            tomcat.destroy();
+        } catch (LifecycleException e) {
+            log.debug("Stopping Tomcat failed: {}", e.getMessage());
+        }
+        try (Stream<Path> files = Files.walk(baseDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            log.debug("Deleting {} failed: {}", baseDir, e.getMessage());
+        }
+        log.info("HTTP transport stopped");
+    }
+
+    Path baseDir() {
+        return baseDir;
+    }
+
+    private static boolean isLocalOrigin(String origin) {
+        if (origin == null) {
+            return true;
+        }
+        try {
+            String host = URI.create(origin).getHost();
+            return host != null && LOCAL_HOSTS.contains(host);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private final class AccountingFilter implements Filter {
+
+        @Override
+        public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain)
+                throws IOException, ServletException {
+            var request = (HttpServletRequest) req;
+            var response = (HttpServletResponse) res;
+            if (!isLocalOrigin(request.getHeader("Origin"))) {
+                sessions.rejected();
+                response.sendError(HttpServletResponse.SC_FORBIDDEN, "Origin not allowed");
+                return;
+            }
+            String method = request.getMethod();
+            String sessionId = request.getHeader(SESSION_HEADER);
+            if ("GET".equals(method)) {
+                // Server-to-client event stream: open until the session ends, not a request
+                if (sessions.isDraining()) {
+                    sessions.rejected();
+                    shuttingDown(response);
+                    return;
+                }
+                chain.doFilter(request, response);
+                return;
+            }
+            SessionAccounting.Session session;
+            try {
+                session = sessions.begin(sessionId);
+            } catch (RejectedExecutionException e) {
+                shuttingDown(response);
+                return;
+            }
+            AtomicBoolean finished = new AtomicBoolean();
+            Runnable finish = () -> {
+                if (finished.compareAndSet(false, true)) {
+                    String id = sessionId != null ? sessionId : response.getHeader(SESSION_HEADER);
+                    sessions.end(session, id, response.getStatus());
+                }
+            };
+            // If the provider goes async, the request ends when the async context completes
+            AtomicBoolean async = new AtomicBoolean();
+            HttpServletRequest tracked = new HttpServletRequestWrapper(request) {
+                @Override
+                public AsyncContext startAsync() {
+                    return track(super.startAsync());
+                }
+
+                @Override
+                public AsyncContext startAsync(ServletRequest asyncRequest, ServletResponse asyncResponse) {
+                    return track(super.startAsync(asyncRequest, asyncResponse));
+                }
+
+                private AsyncContext track(AsyncContext context) {
+                    async.set(true);
+                    context.addListener(new CompletionListener(finish));
+                    return context;
+                }
+            };
+            try {
+                chain.doFilter(tracked, response);
+            } finally {
+                if (!async.get()) {
+                    finish.run();
+                }
+            }
+            if ("DELETE".equals(method)) {
+                sessions.closed(sessionId);
+            }
+        }
+
+        private static void shuttingDown(HttpServletResponse response) throws IOException {
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Server is shutting down");
+        }
+    }
+
+    private record CompletionListener(Runnable finish) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            finish.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            finish.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            finish.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Still the same request
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.mavenmcp.transport;
+
+import java.util.List;
+
+import io.modelcontextprotocol.json.TypeRef;
+import io.modelcontextprotocol.spec.McpSchema.JSONRPCMessage;
+import io.modelcontextprotocol.spec.McpServerSession;
+import io.modelcontextprotocol.spec.McpServerTransport;
+import io.modelcontextprotocol.spec.McpServerTransportProvider;
+import reactor.core.publisher.Mono;
+
+/**
+ * Wraps a transport provider so that each session sends one message at a time.
+ * <p>
+ * Tool calls run concurrently, and each sends its response from its own thread. The
+ * stdio transport queues outgoing messages in a unicast sink, which rejects concurrent
+ * emissions; the rejected response is lost and the session is closed, taking every
+ * in-flight call with it. Sends are cheap (the message is only queued), so a lock
+ * around them costs nothing measurable.
+ */
+public final class SerializingTransportProvider implements McpServerTransportProvider {
+
+    private final McpServerTransportProvider delegate;
+
+    public SerializingTransportProvider(McpServerTransportProvider delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void setSessionFactory(McpServerSession.Factory sessionFactory) {
+        delegate.setSessionFactory(transport -> sessionFactory.create(new SerializingTransport(transport)));
+    }
+
+    @Override
+    public Mono<Void> notifyClients(String method, Object params) {
+        return delegate.notifyClients(method, params);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    @Override
+    public Mono<Void> closeGracefully() {
+        return delegate.closeGracefully();
+    }
+
+    @Override
+    public List<String> protocolVersions() {
+        return delegate.protocolVersions();
+    }
+
+    static final class SerializingTransport implements McpServerTransport {
+
+        private final McpServerTransport delegate;
+        private final Object lock = new Object();
+
+        SerializingTransport(McpServerTransport delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Mono<Void> sendMessage(JSONRPCMessage message) {
+            return Mono.defer(() -> {
+                // Subscribe while holding the lock: the delegate enqueues on subscription
+                synchronized (lock) {
+                    return Mono.fromFuture(delegate.sendMessage(message).toFuture());
+                }
+            });
+        }
+
+        @Override
+        public <T> T unmarshalFrom(Object data, TypeRef<T> typeRef) {
+            return delegate.unmarshalFrom(data, typeRef);
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+
+        @Override
+        public Mono<Void> closeGracefully() {
+            return delegate.closeGracefully();
+        }
+
+        @Override
+        public List<String> protocolVersions() {
+            return delegate.protocolVersions();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package io.github.mavenmcp.transport;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.github.mavenmcp.model.SessionStats;
+
+/**
+ * Per-session request counts of the HTTP transport, and the number of requests in flight
+ * that a graceful shutdown waits for.
+ * <p>
+ * A session is known from its first request carrying an {@code Mcp-Session-Id}, or from
+ * the response to {@code initialize}, which assigns one. Sessions end when the client
+ * deletes them, or are forgotten after an hour without requests.
+ */
+public final class SessionAccounting {
+
+    static final Duration IDLE_EXPIRY = Duration.ofHours(1);
+    static final int REPORTED_SESSIONS = 20;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong closedSessions = new AtomicLong();
+    private volatile boolean draining;
+
+    /**
+     * A request started, unless the transport is draining. Counted in flight before the
+     * check, so that a drain starting at the same time either sees it or refuses it.
+     *
+     * @param sessionId session of the request, null before the session exists
+     * @return the session's counters, or null
+     * @throws RejectedExecutionException if the transport is draining; the request is counted
+     *                                    as rejected
+     */
+    Session begin(String sessionId) {
+        inFlight.incrementAndGet();
+        if (draining) {
+            finished();
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("Server is shutting down");
+        }
+        requests.incrementAndGet();
+        Session session = sessionId == null ? null : session(sessionId);
+        if (session != null) {
+            session.inFlight.incrementAndGet();
+        }
+        return session;
+    }
+
+    /**
+     * A request finished.
+     *
+     * @param session   counters returned by {@link #begin}, or null
+     * @param sessionId session of the request, now possibly known from the response
+     * @param status    HTTP status of the response
+     */
+    void end(Session session, String sessionId, int status) {
+        if (session != null) {
+            session.inFlight.decrementAndGet();
+        } else if (sessionId != null) {
+            // initialize: the session was created by this request
+            session = session(sessionId);
+        }
+        if (session != null) {
+            session.lastRequestMillis = System.currentTimeMillis();
+            if (status >= 400) {
+                session.errors.incrementAndGet();
+            }
+        }
+        finished();
+    }
+
+    private void finished() {
+        if (inFlight.decrementAndGet() == 0) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    void rejected() {
+        rejected.incrementAndGet();
+    }
+
+    /**
+     * The client deleted the session.
+     */
+    void closed(String sessionId) {
+        if (sessionId != null && sessions.remove(sessionId) != null) {
+            closedSessions.incrementAndGet();
+        }
+    }
+
+    private Session session(String sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            expireIdle();
+            session = sessions.computeIfAbsent(sessionId, Session::new);
+        }
+        session.requests.incrementAndGet();
+        return session;
+    }
+
+    private void expireIdle() {
+        long cutoff = System.currentTimeMillis() - IDLE_EXPIRY.toMillis();
+        sessions.values().removeIf(s -> {
+            boolean expired = s.inFlight.get() == 0 && s.lastRequestMillis < cutoff;
+            if (expired) {
+                closedSessions.incrementAndGet();
+            }
+            return expired;
+        });
+    }
+
+    boolean isDraining() {
+        return draining;
+    }
+
+    /**
+     * Refuse new requests from now on and wait for those in flight to finish.
+     *
+     * @return true if none are left in flight, false if the timeout elapsed first
+     */
+    boolean drain(Duration timeout) throws InterruptedException {
+        draining = true;
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (this) {
+            while (inFlight.get() > 0) {
+                long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+                if (remainingMillis <= 0) {
+                    return false;
+                }
+                wait(remainingMillis);
+            }
+        }
+        return true;
+    }
+
+    public SessionStats snapshot() {
+        expireIdle();
+        long now = System.currentTimeMillis();
+        List<SessionStats.Session> recent = sessions.values().stream()
+                .sorted(Comparator.comparingLong((Session s) -> s.lastRequestMillis).reversed())
+                .limit(REPORTED_SESSIONS)
+                .map(s -> new SessionStats.Session(s.id, now - s.startMillis, now - s.lastRequestMillis,
+                        s.requests.get(), s.errors.get(), s.inFlight.get()))
+                .toList();
+        return new SessionStats(sessions.size(), closedSessions.get(), inFlight.get(), requests.get(),
+                rejected.get(), draining, recent);
+    }
+
+    static final class Session {
+        private final String id;
+        private final long startMillis = System.currentTimeMillis();
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile long lastRequestMillis = startMillis;
+
+        private Session(String id) {
+            this.id = id;
+        }
+    }
+}
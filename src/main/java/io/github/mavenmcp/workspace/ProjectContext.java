@@ -0,0 +1,186 @@
+package io.github.mavenmcp.workspace;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import io.github.mavenmcp.config.ServerConfig;
+import io.github.mavenmcp.history.BuildDurations;
+import io.github.mavenmcp.history.BuildHistory;
+import io.github.mavenmcp.history.FlakyTests;
+import io.github.mavenmcp.log.LogArchive;
+import io.github.mavenmcp.log.LogSpool;
+import io.github.mavenmcp.maven.AdmissionController;
+import io.github.mavenmcp.maven.DependencyPrefetcher;
+import io.github.mavenmcp.maven.DependencyTreeService;
+import io.github.mavenmcp.maven.FastProfile;
+import io.github.mavenmcp.maven.MavenEnvironmentProbe;
+import io.github.mavenmcp.maven.MavenExecutionException;
+import io.github.mavenmcp.maven.MavenExecutionResult;
+import io.github.mavenmcp.maven.MavenRunner;
+import io.github.mavenmcp.maven.ProjectModelService;
+import io.github.mavenmcp.model.BuildMode;
+import io.github.mavenmcp.model.DurationPrediction;
+import io.github.mavenmcp.model.MavenEnvironment;
+import io.github.mavenmcp.model.OfflineStatus;
+import io.github.mavenmcp.model.ProjectModel;
+
+/**
+ * Everything the server keeps for one project: its configuration, the runner and log
+ * spool its builds go through, its build history and log archive (each with its own
+ * index and worker thread), its Maven environment, its dependency prefetch, its parsed
+ * POMs with the fast mode and dependency trees based on them, its flaky tests and its build durations. Projects
+ * share nothing, so one project's builds never show up in another's deltas or log searches,
+ * except the admission control that limits the builds of all projects running at once.
+ *
+ * @param config           validated project configuration
+ * @param runner           runner spooling into {@code logSpool}
+ * @param history          recent build outcomes, for {@code since}
+ * @param logSpool         spool of recent full logs, or null
+ * @param logArchive       compressed log archive, or null
+ * @param environmentProbe Maven environment probe, or null
+ * @param prefetcher       dependency prefetch that lets builds run offline, or null
+ * @param modelService     the project's POMs, parsed once per change
+ * @param fastProfile      plugins the project's fast builds skip
+ * @param dependencyTrees  the project's resolved dependency trees
+ * @param flakyTests       how often the project's failed tests passed when rerun
+ * @param durations        recent durations of the project's builds, for their timeouts
+ * @param admission        limit of builds at once, shared by all projects of the server
+ */
+public record ProjectContext(
+        ServerConfig config,
+        MavenRunner runner,
+        BuildHistory history,
+        LogSpool logSpool,
+        LogArchive logArchive,
+        MavenEnvironmentProbe environmentProbe,
+        DependencyPrefetcher prefetcher,
+        ProjectModelService modelService,
+        FastProfile fastProfile,
+        DependencyTreeService dependencyTrees,
+        FlakyTests flakyTests,
+        BuildDurations durations,
+        AdmissionController admission
+) implements AutoCloseable {
+
+    /**
+     * A project with only the state the build tools need.
+     */
+    public static ProjectContext of(ServerConfig config, MavenRunner runner, BuildHistory history) {
+        ProjectModelService modelService = new ProjectModelService(config.projectDir());
+        return new ProjectContext(config, runner, history, null, null, null, null,
+                modelService, new FastProfile(modelService), new DependencyTreeService(config.projectDir(), null),
+                new FlakyTests(null), new BuildDurations(null, BuildDurations.DEFAULT_MAX_TIMEOUT),
+                AdmissionController.unlimited());
+    }
+
+    /**
+     * Run a build of this project once admission control lets it, offline once its
+     * dependencies have been prefetched, with a timeout predicted from the durations of the
+     * same builds before, offline or not; a cold build gets the maximum. The result carries
+     * the prediction and the time waited for admission.
+     *
+     * @param goal        Maven goal
+     * @param args        additional Maven arguments
+     * @param forceOnline whether to keep remote repository access regardless
+     * @throws MavenExecutionException if too many builds are waiting already
+     */
+    public MavenExecutionResult execute(String goal, List<String> args, boolean forceOnline) {
+        List<String> effective = prefetcher == null ? args : prefetcher.arguments(args, forceOnline);
+        DurationPrediction prediction = durations.predict(goal, effective, cold());
+        Duration timeout = Duration.ofMillis(prediction.timeout());
+        try (AdmissionController.Permit permit = admission.admit(goal, args, prediction)) {
+            MavenExecutionResult result = prefetcher == null
+                    ? runner.execute(goal, args, config.mavenExecutable(), config.projectDir(), timeout)
+                    : prefetcher.execute(runner, goal, args, forceOnline, timeout, durations.maxTimeout());
+            durations.record(goal, effective, result.timedOut() ? prediction.timeout() : result.duration());
+            return result.withPrediction(prediction).withQueue(permit.queueWait());
+        }
+    }
+
+    /**
+     * Whether the next build runs cold: the POMs changed since the last one, or a module
+     * has no build output, as after {@code clean}.
+     */
+    private boolean cold() {
+        boolean pomsChanged = durations.pomsChanged(modelService.fingerprint(localRepository()));
+        return pomsChanged || model().modules().stream()
+                .filter(module -> !"pom".equals(module.packaging()))
+                .anyMatch(module -> !Files.isDirectory(config.projectDir().resolve(module.buildDirectory())));
+    }
+
+    /**
+     * The arguments and skipped plugins of a fast build of this project.
+     *
+     * @param goal lifecycle phase the build runs to
+     * @param args arguments of the call
+     */
+    public BuildMode fastMode(String goal, List<String> args) {
+        return fastProfile.plan(goal, args, localRepository());
+    }
+
+    /**
+     * @return the project's POMs as last read, with parents from the local repository
+     */
+    public ProjectModel model() {
+        return modelService.model(localRepository());
+    }
+
+    private Path localRepository() {
+        return localRepository(environment());
+    }
+
+    /**
+     * @param environment the probed Maven environment, or null if not (yet) known
+     * @return its local repository, or the default one
+     */
+    public static Path localRepository(MavenEnvironment environment) {
+        return environment != null && environment.localRepository() != null
+                ? Path.of(environment.localRepository())
+                : Path.of(System.getProperty("user.home"), ".m2", "repository");
+    }
+
+    /**
+     * @return state of dependency prefetch and offline builds, or null without a prefetcher
+     */
+    public OfflineStatus offlineStatus() {
+        return prefetcher == null ? null : prefetcher.status();
+    }
+
+    /**
+     * @return the probed Maven environment, or null if not (yet) known
+     */
+    public MavenEnvironment environment() {
+        return environmentProbe == null ? null : environmentProbe.environment();
+    }
+
+    /**
+     * Approximate heap held by this project's caches: build history, log indexes, project
+     * model and dependency trees.
+     */
+    public long estimatedBytes() {
+        return history.estimatedBytes()
+                + (logSpool == null ? 0 : logSpool.estimatedBytes())
+                + (logArchive == null ? 0 : logArchive.estimatedBytes())
+                + (modelService == null ? 0 : modelService.estimatedBytes())
+                + (dependencyTrees == null ? 0 : dependencyTrees.estimatedBytes());
+    }
+
+    /**
+     * Stop the project's background work and delete its spooled logs. Its archived logs
+     * stay on disk and are loaded again if the project is used later.
+     */
+    @Override
+    public void close() {
+        if (prefetcher != null) {
+            prefetcher.close();
+        }
+        if (logArchive != null) {
+            logArchive.close();
+        }
+        if (logSpool != null) {
+            logSpool.close();
+        }
+    }
+}
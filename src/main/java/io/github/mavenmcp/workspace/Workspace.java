@@ -0,0 +1,286 @@
+package io.github.mavenmcp.workspace;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import io.github.mavenmcp.config.ServerConfig;
+import io.github.mavenmcp.model.WorkspaceStats;
+import io.github.mavenmcp.model.WorkspaceStats.ProjectStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The projects one server builds, addressed by the {@code project} parameter of every tool.
+ * <p>
+ * A project's state ({@link ProjectContext}) is created on first use. When the state of
+ * all loaded projects exceeds the memory cap, the least recently used projects with no
+ * call in progress are unloaded until it fits again; they are loaded afresh on their next
+ * call. Unloading loses the in-memory build history (a {@code since} from before falls back
+ * to a full response), but not the archived logs, which are on disk.
+ */
+public class Workspace implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(Workspace.class);
+
+    public static final long DEFAULT_MEMORY_CAP = 256L * 1024 * 1024;
+
+    private final Map<String, Slot> slots = new LinkedHashMap<>();
+    private final Function<ServerConfig, ProjectContext> factory;
+    private final long memoryCap;
+    private long evictions;
+
+    /**
+     * @param projects  validated configuration of each project, in the order given by the user
+     * @param factory   creates the state of a project on first use (and after eviction)
+     * @param memoryCap estimated bytes above which idle projects are unloaded
+     */
+    public Workspace(List<ServerConfig> projects, Function<ServerConfig, ProjectContext> factory, long memoryCap) {
+        if (projects.isEmpty()) {
+            throw new IllegalArgumentException("A workspace needs at least one project");
+        }
+        this.factory = factory;
+        this.memoryCap = memoryCap;
+        for (ServerConfig config : projects) {
+            String name = nameOf(config);
+            if (slots.containsKey(name)) {
+                // Same directory name twice: the later one is only addressable by path
+                name = config.projectDir().toString();
+            }
+            slots.put(name, new Slot(config));
+        }
+    }
+
+    /**
+     * A workspace of one project whose state is never unloaded.
+     */
+    public static Workspace of(ProjectContext project) {
+        return new Workspace(List.of(project.config()), config -> project, Long.MAX_VALUE);
+    }
+
+    private static String nameOf(ServerConfig config) {
+        Path fileName = config.projectDir().getFileName();
+        return fileName == null ? config.projectDir().toString() : fileName.toString();
+    }
+
+    /**
+     * Resolve a project and keep it loaded until the lease is closed. A project is loaded
+     * outside the lock, so that calls to other projects go on meanwhile; concurrent calls to
+     * the same project wait for the one load.
+     *
+     * @param project name or directory of the project; may be null if there is only one
+     * @throws IllegalArgumentException if the project is unknown or ambiguous
+     */
+    public Lease acquire(String project) {
+        Slot slot;
+        CompletableFuture<ProjectContext> loading;
+        boolean loader = false;
+        synchronized (this) {
+            String name = resolve(project);
+            slot = slots.get(name);
+            // Counts as a call already, so that the project is not unloaded before it is used
+            slot.activeCalls++;
+            slot.lastUsedNanos = System.nanoTime();
+            if (slot.context != null) {
+                return new Lease(slot, slot.context);
+            }
+            if (slot.loading == null) {
+                log.info("Loading project {}", name);
+                slot.loading = new CompletableFuture<>();
+                loader = true;
+            }
+            loading = slot.loading;
+        }
+        if (loader) {
+            load(slot, loading);
+        }
+        try {
+            return new Lease(slot, loading.join());
+        } catch (CompletionException e) {
+            release(slot);
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private void load(Slot slot, CompletableFuture<ProjectContext> loading) {
+        ProjectContext context;
+        try {
+            context = factory.apply(slot.config);
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                slot.loading = null;
+            }
+            loading.completeExceptionally(e);
+            return;
+        }
+        synchronized (this) {
+            slot.context = context;
+            slot.loading = null;
+        }
+        loading.complete(context);
+    }
+
+    private String resolve(String project) {
+        if (project == null || project.isBlank()) {
+            if (slots.size() == 1) {
+                return slots.keySet().iterator().next();
+            }
+            throw new IllegalArgumentException("Several projects are configured; pass 'project' as one of: "
+                    + String.join(", ", slots.keySet()));
+        }
+        if (slots.containsKey(project)) {
+            return project;
+        }
+        Path path = Path.of(project).toAbsolutePath().normalize();
+        for (Map.Entry<String, Slot> entry : slots.entrySet()) {
+            if (entry.getValue().config.projectDir().toAbsolutePath().normalize().equals(path)) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalArgumentException("Unknown project '" + project + "'; configured: "
+                + String.join(", ", slots.keySet()));
+    }
+
+    private void release(Slot slot) {
+        List<ProjectContext> evicted;
+        synchronized (this) {
+            slot.activeCalls--;
+            slot.lastUsedNanos = System.nanoTime();
+            evicted = evictIdle();
+        }
+        // Closing waits for the project's background work; other calls go on meanwhile
+        evicted.forEach(ProjectContext::close);
+    }
+
+    /**
+     * Unload idle projects, least recently used first, until the estimate fits the cap.
+     *
+     * @return the unloaded projects, for the caller to close outside the lock
+     */
+    private List<ProjectContext> evictIdle() {
+        List<ProjectContext> evicted = new ArrayList<>();
+        long total = estimatedBytes();
+        if (total <= memoryCap) {
+            return evicted;
+        }
+        List<Map.Entry<String, Slot>> idle = new ArrayList<>();
+        for (Map.Entry<String, Slot> entry : slots.entrySet()) {
+            if (entry.getValue().context != null && entry.getValue().activeCalls == 0) {
+                idle.add(entry);
+            }
+        }
+        idle.sort(Comparator.comparingLong(entry -> entry.getValue().lastUsedNanos));
+        for (Map.Entry<String, Slot> entry : idle) {
+            if (total <= memoryCap) {
+                break;
+            }
+            Slot slot = entry.getValue();
+            long bytes = slot.context.estimatedBytes();
+            log.info("Unloading idle project {} (~{} KB) to stay under the workspace memory cap",
+                    entry.getKey(), bytes / 1024);
+            evicted.add(slot.context);
+            slot.context = null;
+            evictions++;
+            total -= bytes;
+        }
+        return evicted;
+    }
+
+    private long estimatedBytes() {
+        long total = 0;
+        for (Slot slot : slots.values()) {
+            if (slot.context != null) {
+                total += slot.context.estimatedBytes();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return the currently loaded projects
+     */
+    public synchronized List<ProjectContext> loaded() {
+        List<ProjectContext> loaded = new ArrayList<>();
+        for (Slot slot : slots.values()) {
+            if (slot.context != null) {
+                loaded.add(slot.context);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * @return number of configured projects
+     */
+    public synchronized int size() {
+        return slots.size();
+    }
+
+    public synchronized WorkspaceStats stats() {
+        List<ProjectStatus> projects = new ArrayList<>();
+        slots.forEach((name, slot) -> projects.add(new ProjectStatus(name, slot.config.projectDir().toString(),
+                slot.context != null, slot.context == null ? 0 : slot.context.estimatedBytes())));
+        return new WorkspaceStats(memoryCap == Long.MAX_VALUE ? null : memoryCap, estimatedBytes(), evictions,
+                projects);
+    }
+
+    @Override
+    public void close() {
+        List<ProjectContext> closing = new ArrayList<>();
+        synchronized (this) {
+            for (Slot slot : slots.values()) {
+                if (slot.context != null) {
+                    closing.add(slot.context);
+                    slot.context = null;
+                }
+            }
+        }
+        closing.forEach(ProjectContext::close);
+    }
+
+    private static final class Slot {
+        private final ServerConfig config;
+        private ProjectContext context;
+        /** Completed once the context is loaded, while it is being loaded. */
+        private CompletableFuture<ProjectContext> loading;
+        private int activeCalls;
+        private long lastUsedNanos;
+
+        private Slot(ServerConfig config) {
+            this.config = config;
+        }
+    }
+
+    /**
+     * A project in use by one tool call.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final Slot slot;
+        private final ProjectContext project;
+        private boolean closed;
+
+        private Lease(Slot slot, ProjectContext project) {
+            this.slot = slot;
+            this.project = project;
+        }
+
+        public ProjectContext project() {
+            return project;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                release(slot);
+            }
+        }
+    }
+}
@@ -6,8 +6,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -16,6 +19,8 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class BootstrapTest {
 
+    private static final String JVM = "Eclipse Adoptium 21.0.1+12-LTS amd64";
+
     @Test
     void bootstrapClassHasJava11BytecodeVersion() throws IOException {
         // Java 11 = major version 55
@@ -94,6 +99,80 @@ class BootstrapTest {
         assertThat(ArgCaptor.captured).containsExactly("--project", "/tmp");
     }
 
+    @Test
+    void archiveOptionsAreEmptyWithoutArchive(@TempDir Path dir) throws IOException {
+        Files.writeString(dir.resolve(Bootstrap.ARCHIVE_JVM), JVM + "\n");
+
+        assertThat(Bootstrap.archiveOptions(dir, 21, JVM)).isEmpty();
+    }
+
+    @Test
+    void archiveOptionsAreEmptyForAnArchiveOfAnotherJvm(@TempDir Path dir) throws IOException {
+        Files.createFile(dir.resolve(Bootstrap.CDS_ARCHIVE));
+
+        assertThat(Bootstrap.archiveOptions(dir, 21, JVM)).isEmpty();
+        Files.writeString(dir.resolve(Bootstrap.ARCHIVE_JVM), "Other Corp 21.0.2+13 amd64\n");
+        assertThat(Bootstrap.archiveOptions(dir, 21, JVM)).isEmpty();
+    }
+
+    @Test
+    void trainingRunRecordsTheJvmAsBootstrapComparesIt() {
+        assertThat(TrainingRun.jvm()).isEqualTo(Bootstrap.jvm());
+    }
+
+    @Test
+    void archiveOptionsSelectCdsArchive(@TempDir Path dir) throws IOException {
+        Files.createFile(dir.resolve(Bootstrap.CDS_ARCHIVE));
+        Files.writeString(dir.resolve(Bootstrap.ARCHIVE_JVM), JVM + "\n");
+
+        assertThat(Bootstrap.archiveOptions(dir, 21, JVM))
+                .startsWith("-XX:SharedArchiveFile=" + dir.resolve(Bootstrap.CDS_ARCHIVE))
+                .contains("-Xlog:disable", "-Xlog:all=warning:stderr");
+    }
+
+    @Test
+    void archiveOptionsPreferAotCacheWhereSupported(@TempDir Path dir) throws IOException {
+        Files.createFile(dir.resolve(Bootstrap.CDS_ARCHIVE));
+        Files.createFile(dir.resolve(Bootstrap.AOT_CACHE));
+        Files.writeString(dir.resolve(Bootstrap.ARCHIVE_JVM), JVM + "\n");
+
+        assertThat(Bootstrap.archiveOptions(dir, 25, JVM)).startsWith("-XX:AOTCache=" + dir.resolve(Bootstrap.AOT_CACHE));
+        assertThat(Bootstrap.archiveOptions(dir, 21, JVM)).startsWith("-XX:SharedArchiveFile=" + dir.resolve(Bootstrap.CDS_ARCHIVE));
+    }
+
+    @Test
+    void aotCacheIsIgnoredBeforeJava25(@TempDir Path dir) throws IOException {
+        Files.createFile(dir.resolve(Bootstrap.AOT_CACHE));
+        Files.writeString(dir.resolve(Bootstrap.ARCHIVE_JVM), JVM + "\n");
+
+        assertThat(Bootstrap.archiveOptions(dir, 24, JVM)).isEmpty();
+    }
+
+    @Test
+    void launcherJvmOptionsAreThoseBeforeJar() {
+        String[] arguments = {"-Xmx512m", "-Dfoo=bar", "-jar", "maven-mcp.jar", "--project", "/tmp"};
+
+        assertThat(Bootstrap.launcherJvmOptions(arguments)).containsExactly("-Xmx512m", "-Dfoo=bar");
+    }
+
+    @Test
+    void launcherJvmOptionsSkipClasspath() {
+        String[] arguments = {"-cp", "maven-mcp.jar", "-Xss1m", Bootstrap.class.getName(), "--project", "/tmp"};
+
+        assertThat(Bootstrap.launcherJvmOptions(arguments)).containsExactly("-Xss1m");
+    }
+
+    @Test
+    void launcherJvmOptionsAreEmptyForUnexpectedCommandLine() {
+        assertThat(Bootstrap.launcherJvmOptions(new String[]{"-Xmx1g", "--project", "/tmp"})).isEmpty();
+    }
+
+    @Test
+    void relaunchCommandIsNullWhenNotRunningFromJar() {
+        // Tests load Bootstrap from target/classes
+        assertThat(Bootstrap.relaunchCommand(21, new String[]{"--project", "/tmp"})).isNull();
+    }
+
     /** Test helper: captures args passed to main(). */
     public static class ArgCaptor {
         static String[] captured;
@@ -0,0 +1,87 @@
+package io.github.mavenmcp.history;
+
+import java.util.List;
+
+import io.github.mavenmcp.model.BuildDelta;
+import io.github.mavenmcp.model.CompilationError;
+import io.github.mavenmcp.model.TestFailure;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BuildDiffTest {
+
+    private final BuildHistory history = new BuildHistory();
+
+    @Test
+    void shouldReportNewResolvedAndUnchangedErrors() {
+        var kept = error("Foo.java", 10, "cannot find symbol");
+        var fixed = error("Bar.java", 5, "incompatible types");
+        String since = history.record(List.of(kept, fixed), null);
+
+        // Line shifted for the unchanged error, one new error appeared
+        var shifted = error("Foo.java", 12, "cannot find symbol");
+        var added = error("Baz.java", 1, "missing return statement");
+        BuildDelta delta = BuildDiff.diff(since, history.find(since).orElseThrow(),
+                List.of(shifted, added), null);
+
+        assertThat(delta.since()).isEqualTo(since);
+        assertThat(delta.newErrors()).containsExactly(added);
+        assertThat(delta.resolvedErrors()).containsExactly(fixed);
+        assertThat(delta.unchangedErrors()).isEqualTo(1);
+        assertThat(delta.newFailures()).isNull();
+    }
+
+    @Test
+    void shouldMatchDuplicateErrorsOneByOne() {
+        var dup = error("Foo.java", 10, "cannot find symbol");
+        String since = history.record(List.of(dup), null);
+
+        BuildDelta delta = BuildDiff.diff(since, history.find(since).orElseThrow(),
+                List.of(dup, error("Foo.java", 20, "cannot find symbol")), null);
+
+        assertThat(delta.newErrors()).hasSize(1);
+        assertThat(delta.unchangedErrors()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldIdentifyFailuresByTestAndExceptionType() {
+        var stillFailing = failure("UserTest", "loads", "java.lang.AssertionError: expected 1");
+        var fixed = failure("UserTest", "saves", "java.lang.AssertionError: boom");
+        var changed = failure("OrderTest", "ships", "java.lang.AssertionError: late");
+        String since = history.record(List.of(), List.of(stillFailing, fixed, changed));
+
+        BuildDelta delta = BuildDiff.diff(since, history.find(since).orElseThrow(), List.of(), List.of(
+                failure("UserTest", "loads", "java.lang.AssertionError: expected 2"),
+                failure("OrderTest", "ships", "java.lang.NullPointerException")));
+
+        assertThat(delta.unchangedFailures()).isEqualTo(1);
+        assertThat(delta.newFailures()).extracting(TestFailure::testMethod).containsExactly("ships");
+        assertThat(delta.resolvedFailures()).extracting(TestFailure::testMethod)
+                .containsExactlyInAnyOrder("saves", "ships");
+        // Resolved failures are stored without stack traces
+        assertThat(delta.resolvedFailures()).extracting(TestFailure::stackTrace).containsOnlyNulls();
+        assertThat(delta.unchangedErrors()).isZero();
+    }
+
+    @Test
+    void shouldEvictOldestBuildsBeyondCapacity() {
+        var small = new BuildHistory(2);
+        String first = small.record(List.of(), null);
+        String second = small.record(List.of(), null);
+        String third = small.record(List.of(), null);
+
+        assertThat(small.find(first)).isEmpty();
+        assertThat(small.find(second)).isPresent();
+        assertThat(small.find(third)).isPresent();
+        assertThat(small.find(null)).isEmpty();
+    }
+
+    private static CompilationError error(String file, int line, String message) {
+        return new CompilationError(file, line, null, message, "ERROR");
+    }
+
+    private static TestFailure failure(String testClass, String method, String trace) {
+        return new TestFailure("com.example." + testClass, method, trace, trace + "\n\tat com.example.X.y(X.java:1)", null);
+    }
+}
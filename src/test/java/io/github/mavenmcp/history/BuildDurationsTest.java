@@ -0,0 +1,156 @@
+package io.github.mavenmcp.history;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import io.github.mavenmcp.model.DurationPrediction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BuildDurationsTest {
+
+    private static final Duration MAX = Duration.ofMinutes(30);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldTellInvocationsApartByGoalOfflineTestsModulesAndProfiles() {
+        assertThat(BuildDurations.invocation("test", List.of("-Dfoo=bar", "-q"))).isEqualTo("test");
+        assertThat(BuildDurations.invocation("test", List.of("--offline", "-q"))).isEqualTo("test -o");
+        assertThat(BuildDurations.invocation("clean  test", List.of("-pl", "core", "-Dtest=FooTest", "-am", "-Pci")))
+                .isEqualTo("clean test -Dtest=FooTest -Pci -am -pl core");
+        assertThat(BuildDurations.invocation("package", List.of("-DskipTests", "-T", "1C")))
+                .isEqualTo("package -DskipTests -T 1C");
+    }
+
+    @Test
+    void shouldAllowTheMaximumWithoutHistory() {
+        DurationPrediction prediction = new BuildDurations(null, MAX).predict("test", List.of());
+
+        assertThat(prediction).isEqualTo(new DurationPrediction(null, MAX.toMillis(), 0, null));
+    }
+
+    @Test
+    void shouldAllowThreeTimesTheSlowestRecentDuration() {
+        BuildDurations durations = new BuildDurations(null, MAX);
+        for (long millis : new long[] {200_000, 240_000, 180_000, 210_000, 190_000}) {
+            durations.record("test", List.of("-o"), millis);
+        }
+
+        DurationPrediction prediction = durations.predict("test", List.of("-o"));
+
+        assertThat(prediction.expected()).isEqualTo(200_000);
+        assertThat(prediction.timeout()).isEqualTo(720_000);
+        assertThat(prediction.samples()).isEqualTo(5);
+        assertThat(prediction.basedOn()).isEqualTo("test -o");
+    }
+
+    @Test
+    void shouldNotShortenTheTimeoutOfAnOnlineBuildByOfflineOnes() {
+        BuildDurations durations = new BuildDurations(null, MAX);
+        for (int i = 0; i < 5; i++) {
+            durations.record("test", List.of("-o"), 300_000);
+        }
+
+        assertThat(durations.predict("test", List.of()).timeout()).isEqualTo(MAX.toMillis());
+    }
+
+    @Test
+    void shouldAllowTheMaximumUntilThereAreEnoughSamples() {
+        BuildDurations durations = new BuildDurations(null, MAX);
+        for (int i = 0; i < BuildDurations.MIN_TIMEOUT_SAMPLES - 1; i++) {
+            durations.record("test", List.of(), 300_000);
+        }
+
+        DurationPrediction prediction = durations.predict("test", List.of());
+
+        assertThat(prediction.expected()).isEqualTo(300_000);
+        assertThat(prediction.timeout()).isEqualTo(MAX.toMillis());
+    }
+
+    @Test
+    void shouldAllowTheMaximumToAColdBuild() {
+        BuildDurations durations = new BuildDurations(null, MAX);
+        for (int i = 0; i < 5; i++) {
+            durations.record("test", List.of(), 300_000);
+        }
+
+        DurationPrediction prediction = durations.predict("test", List.of(), true);
+
+        assertThat(prediction).isEqualTo(new DurationPrediction(300_000L, MAX.toMillis(), 0, null));
+    }
+
+    @Test
+    void shouldNoticeChangedPoms() {
+        BuildDurations durations = new BuildDurations(null, MAX);
+
+        assertThat(durations.pomsChanged("a")).isFalse();
+        assertThat(durations.pomsChanged("a")).isFalse();
+        assertThat(durations.pomsChanged("b")).isTrue();
+        assertThat(durations.pomsChanged("b")).isFalse();
+    }
+
+    @Test
+    void shouldClampTheTimeout() {
+        BuildDurations durations = new BuildDurations(null, MAX);
+        for (int i = 0; i < 5; i++) {
+            durations.record("compile", List.of(), 2_000);
+            durations.record("verify", List.of(), 20 * 60_000);
+        }
+
+        assertThat(durations.predict("compile", List.of()).timeout()).isEqualTo(BuildDurations.MIN_TIMEOUT.toMillis());
+        assertThat(durations.predict("verify", List.of()).timeout()).isEqualTo(MAX.toMillis());
+    }
+
+    @Test
+    void shouldNeverExceedTheMaximum() {
+        BuildDurations durations = new BuildDurations(null, Duration.ofMinutes(5));
+        for (int i = 0; i < 5; i++) {
+            durations.record("compile", List.of(), 2_000);
+        }
+
+        assertThat(durations.predict("compile", List.of()).timeout()).isEqualTo(Duration.ofMinutes(5).toMillis());
+    }
+
+    @Test
+    void shouldBoundATestSelectionByTheWholeSuite() {
+        BuildDurations durations = new BuildDurations(null, MAX);
+        for (int i = 0; i < 5; i++) {
+            durations.record("test", List.of(), 300_000);
+        }
+
+        DurationPrediction selected = durations.predict("test", List.of("-Dtest=FooTest", "-pl", "core"));
+
+        assertThat(selected.expected()).isNull();
+        assertThat(selected.timeout()).isEqualTo(900_000);
+        assertThat(selected.basedOn()).isEqualTo("test");
+    }
+
+    @Test
+    void shouldKeepOnlyTheLastSamples() {
+        BuildDurations durations = new BuildDurations(null, MAX);
+        durations.record("test", List.of(), 500_000);
+        for (int i = 0; i < BuildDurations.SAMPLES; i++) {
+            durations.record("test", List.of(), 250_000);
+        }
+
+        assertThat(durations.predict("test", List.of()).timeout()).isEqualTo(750_000);
+    }
+
+    @Test
+    void shouldKeepDurationsAcrossInstances() {
+        BuildDurations durations = new BuildDurations(tempDir, MAX);
+        for (int i = 0; i < 5; i++) {
+            durations.record("test", List.of("-pl", "core"), 40_000);
+        }
+
+        DurationPrediction reloaded = new BuildDurations(tempDir, MAX).predict("test", List.of("-pl", "core"));
+
+        assertThat(reloaded.expected()).isEqualTo(40_000);
+        assertThat(reloaded.basedOn()).isEqualTo("test -pl core");
+    }
+}
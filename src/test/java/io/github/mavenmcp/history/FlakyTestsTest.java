@@ -0,0 +1,60 @@
+package io.github.mavenmcp.history;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import io.github.mavenmcp.model.TestFailure;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlakyTestsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldRateTheShareOfRerunFailuresThatPassed() {
+        FlakyTests flakyTests = new FlakyTests(null);
+
+        flakyTests.record(Map.of("a.ATest#flaky", true, "a.ATest#broken", false));
+        flakyTests.record(Map.of("a.ATest#flaky", false, "a.ATest#broken", false));
+
+        assertThat(flakyTests.flakiness("a.ATest#flaky")).isEqualTo(0.5);
+        assertThat(flakyTests.flakiness("a.ATest#broken")).isNull();
+        assertThat(flakyTests.flakiness("a.ATest#unknown")).isNull();
+    }
+
+    @Test
+    void shouldKeepRatesAcrossInstances() {
+        new FlakyTests(tempDir).record(Map.of("a.ATest#flaky", true));
+
+        FlakyTests reloaded = new FlakyTests(tempDir);
+
+        assertThat(Files.isRegularFile(tempDir.resolve(FlakyTests.FILE_NAME))).isTrue();
+        assertThat(reloaded.flakiness("a.ATest#flaky")).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldMarkOnlyKnownFlakyFailures() {
+        FlakyTests flakyTests = new FlakyTests(null);
+        flakyTests.record(Map.of("a.ATest#flaky", true));
+
+        List<TestFailure> marked = flakyTests.mark(List.of(
+                new TestFailure("a.ATest", "flaky", "m", null, null),
+                new TestFailure("a.ATest", "other", "m", null, null)));
+
+        assertThat(marked.get(0).flakiness()).isEqualTo(1.0);
+        assertThat(marked.get(1).flakiness()).isNull();
+    }
+
+    @Test
+    void shouldIgnoreAnUnreadableFile() throws Exception {
+        Files.writeString(tempDir.resolve(FlakyTests.FILE_NAME), "a.ATest\\#flaky=x\n");
+
+        assertThat(new FlakyTests(tempDir).flakiness("a.ATest#flaky")).isNull();
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.mavenmcp.jfr;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.config.ServerConfig;
+import io.github.mavenmcp.maven.MavenExecutionResult;
+import io.github.mavenmcp.maven.MavenRunner;
+import io.github.mavenmcp.tool.CompileTool;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JfrEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldEmitToolParsingAndSerializationEvents() throws Exception {
+        MavenRunner runner = new MavenRunner() {
+            @Override
+            public MavenExecutionResult execute(String goal, List<String> extraArgs,
+                                                Path mavenExecutable, Path projectDir, Duration timeout) {
+                return new MavenExecutionResult(0, "[INFO] BUILD SUCCESS", "", 10);
+            }
+        };
+        var spec = CompileTool.create(new ServerConfig(tempDir, Path.of("/usr/bin/mvn")), runner, new ObjectMapper());
+        Path dump = tempDir.resolve("events.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(ToolInvocationEvent.class);
+            recording.enable(ReportParsingEvent.class);
+            recording.enable(SerializationEvent.class);
+            recording.start();
+            spec.call().apply(null, Map.of());
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        assertThat(events).extracting(e -> e.getEventType().getName())
+                .contains("io.github.mavenmcp.ToolInvocation",
+                        "io.github.mavenmcp.ReportParsing",
+                        "io.github.mavenmcp.Serialization");
+        assertThat(events).filteredOn(e -> e.getEventType().getName().endsWith("ToolInvocation"))
+                .extracting(e -> e.getString("tool"))
+                .containsExactly("maven_compile");
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.mavenmcp.log;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+
+import io.github.mavenmcp.model.LogSearchResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LogArchiveTest {
+
+    @TempDir
+    Path tempDir;
+
+    private LogSpool spool;
+    private LogArchive archive;
+
+    @BeforeEach
+    void setUp() {
+        spool = new LogSpool(tempDir.resolve("spool"), 2);
+        archive = new LogArchive(tempDir.resolve("archive"), 3, Duration.ofDays(1));
+        spool.addListener(archive::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        archive.close();
+    }
+
+    @Test
+    void shouldFindDiagnosticsAcrossBuildsNewestFirst() throws Exception {
+        String first = run("[INFO] Compiling", "[WARNING] UserService.java uses a deprecated API");
+        String second = run("[ERROR] cannot find symbol Foo", "[WARNING] UserService.java uses a deprecated API");
+        archive.awaitIdle();
+
+        LogSearchResult result = archive.search("deprecated userservice", null, 10, 10);
+
+        assertThat(result.searchedBuilds()).isEqualTo(2);
+        assertThat(result.matchingBuilds()).isEqualTo(2);
+        assertThat(result.matches()).extracting(m -> m.buildId()).containsExactly(second, first);
+        assertThat(result.matches().getFirst().line()).isEqualTo(2);
+        assertThat(result.matches().getFirst().severity()).isEqualTo("WARNING");
+    }
+
+    @Test
+    void shouldRequireAllTokensAndHonourSeverity() throws Exception {
+        run("[ERROR] cannot find symbol Foo", "[WARNING] symbol Foo is deprecated");
+        archive.awaitIdle();
+
+        assertThat(archive.search("symbol foo", "ERROR", 10, 10).totalMatches()).isEqualTo(1);
+        assertThat(archive.search("symbol foo", null, 10, 10).totalMatches()).isEqualTo(2);
+        assertThat(archive.search("symbol bar", null, 10, 10).totalMatches()).isZero();
+    }
+
+    @Test
+    void shouldLimitSearchToLastBuilds() throws Exception {
+        run("[ERROR] old failure");
+        run("[INFO] nothing");
+        archive.awaitIdle();
+
+        LogSearchResult result = archive.search("old failure", null, 1, 10);
+
+        assertThat(result.searchedBuilds()).isEqualTo(1);
+        assertThat(result.totalMatches()).isZero();
+    }
+
+    @Test
+    void shouldExpireRunsBeyondRetention() throws Exception {
+        String oldest = run("[ERROR] first");
+        run("[ERROR] second");
+        run("[ERROR] third");
+        run("[ERROR] fourth");
+        archive.awaitIdle();
+
+        assertThat(archive.find(oldest)).isEmpty();
+        assertThat(Files.exists(tempDir.resolve("archive").resolve(oldest + ".log.gz"))).isFalse();
+        assertThat(archive.search("first", null, 10, 10).totalMatches()).isZero();
+    }
+
+    @Test
+    void shouldReadLinesFromCompressedLog() throws Exception {
+        String runId = run("one", "two", "three");
+        archive.awaitIdle();
+
+        assertThat(archive.readLines(runId, 2, 3)).contains("two\nthree");
+    }
+
+    @Test
+    void shouldRestoreIndexOnRestart() throws Exception {
+        String runId = run("[WARNING] flaky network");
+        archive.awaitIdle();
+        archive.close();
+
+        archive = new LogArchive(tempDir.resolve("archive"), 3, Duration.ofDays(1));
+
+        LogSearchResult result = archive.search("network", null, 10, 10);
+        assertThat(result.matches()).extracting(m -> m.buildId()).containsExactly(runId);
+    }
+
+    @Test
+    void shouldDeleteStaleTempFilesOnLoad() throws Exception {
+        archive.close();
+        Path directory = Files.createDirectories(tempDir.resolve("archive"));
+        Path stale = Files.writeString(directory.resolve("crashed.log.gz.tmp"), "half");
+        Files.setLastModifiedTime(stale, FileTime.fromMillis(
+                System.currentTimeMillis() - LogArchive.STALE_TEMP_AGE.toMillis() - 60_000));
+        Path recent = Files.writeString(directory.resolve("writing.diag.tmp"), "# 1\t1\t1\n");
+
+        archive = new LogArchive(directory, 3, Duration.ofDays(1));
+        archive.awaitIdle();
+
+        assertThat(stale).doesNotExist();
+        assertThat(recent).exists();
+    }
+
+    @Test
+    void shouldRejectQueryWithoutTokens() {
+        assertThatThrownBy(() -> archive.search(" - ", null, 10, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private String run(String... lines) {
+        try (LogSpool.Capture capture = spool.open()) {
+            for (String line : lines) {
+                capture.append(line);
+            }
+            return capture.runId();
+        }
+    }
+}
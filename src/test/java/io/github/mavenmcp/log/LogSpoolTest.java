@@ -0,0 +1,117 @@
+package io.github.mavenmcp.log;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogSpoolTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReadLineRangesUsingOffsetIndex() {
+        LogSpool spool = new LogSpool(tempDir, 5);
+        String runId = capture(spool, "[INFO] Scanning", "[ERROR] zażółć", "[INFO] BUILD FAILURE");
+
+        var spooled = spool.find(runId).orElseThrow();
+
+        assertThat(spooled.lineCount()).isEqualTo(3);
+        assertThat(spooled.readLines(2, 2)).isEqualTo("[ERROR] zażółć");
+        assertThat(spooled.readLines(2, 100)).isEqualTo("[ERROR] zażółć\n[INFO] BUILD FAILURE");
+        assertThat(spooled.readLines(4, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldReadByteRanges() {
+        LogSpool spool = new LogSpool(tempDir, 5);
+        String runId = capture(spool, "abc", "def");
+
+        var spooled = spool.find(runId).orElseThrow();
+
+        assertThat(spooled.size()).isEqualTo(8);
+        assertThat(spooled.readBytes(2, 3)).isEqualTo("c\nd");
+        assertThat(spooled.readBytes(100, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldEstimateTheHeapOfItsLineIndexes() {
+        LogSpool spool = new LogSpool(tempDir, 5);
+        assertThat(spool.estimatedBytes()).isZero();
+
+        capture(spool, "one");
+        long oneLine = spool.estimatedBytes();
+        capture(spool, "one", "two", "three");
+
+        assertThat(oneLine).isPositive();
+        assertThat(spool.estimatedBytes()).isEqualTo(2 * oneLine + 16);
+    }
+
+    @Test
+    void shouldEvictOldestRunsAndDeleteTheirFiles() {
+        LogSpool spool = new LogSpool(tempDir, 2);
+        String first = capture(spool, "one");
+        Path firstFile = spool.find(first).orElseThrow().file();
+        capture(spool, "two");
+        String third = capture(spool, "three");
+
+        assertThat(spool.find(first)).isEmpty();
+        assertThat(Files.exists(firstFile)).isFalse();
+        assertThat(spool.find(third)).isPresent();
+    }
+
+    @Test
+    void shouldNotOverwriteTheLogOfAnotherServer() throws Exception {
+        LogSpool spool = new LogSpool(tempDir, 5);
+        String first = capture(spool, "one");
+        String prefix = first.substring(0, first.lastIndexOf('-') + 1);
+        long next = Long.parseLong(first.substring(prefix.length())) + 1;
+        Path taken = Files.writeString(tempDir.resolve(prefix + next + ".log"), "other server");
+
+        String second = capture(spool, "two");
+
+        assertThat(second).isNotEqualTo(prefix + next);
+        assertThat(Files.readString(taken)).isEqualTo("other server");
+        assertThat(spool.find(second).orElseThrow().readLines(1, 1)).isEqualTo("two");
+    }
+
+    @Test
+    void shouldDeleteItsLogsWhenClosed() throws Exception {
+        LogSpool spool = new LogSpool(tempDir, 5);
+        Path file = spool.find(capture(spool, "one")).orElseThrow().file();
+        LogSpool temporary = LogSpool.createTemporary();
+        Path directory = temporary.find(capture(temporary, "two")).orElseThrow().file().getParent();
+        temporary.open().append("still running");
+
+        spool.close();
+        temporary.close();
+
+        assertThat(Files.exists(file)).isFalse();
+        assertThat(Files.exists(tempDir)).isTrue();
+        assertThat(Files.exists(directory)).isFalse();
+    }
+
+    @Test
+    void shouldNotExposeRunUntilCaptureIsClosed() {
+        LogSpool spool = new LogSpool(tempDir, 5);
+        LogSpool.Capture capture = spool.open();
+        capture.append("line");
+
+        assertThat(spool.find(capture.runId())).isEmpty();
+        capture.close();
+        assertThat(spool.find(capture.runId())).isPresent();
+    }
+
+    private static String capture(LogSpool spool, String... lines) {
+        try (LogSpool.Capture capture = spool.open()) {
+            for (String line : lines) {
+                capture.append(line);
+            }
+            return capture.runId();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package io.github.mavenmcp.maven;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.github.mavenmcp.model.DurationPrediction;
+import io.github.mavenmcp.model.QueueWait;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdmissionControllerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ConcurrentLinkedQueue<String> started = new ConcurrentLinkedQueue<>();
+
+    @Test
+    void shouldAdmitUpToTheLimitRightAway() {
+        var admission = new AdmissionController(2, 5, clock::get);
+
+        var first = admission.admit("compile", List.of(), null);
+        var second = admission.admit("test", List.of(), null);
+
+        assertThat(first.queueWait()).isNull();
+        assertThat(second.queueWait()).isNull();
+        assertThat(admission.stats().running()).isEqualTo(2);
+        assertThat(admission.stats().waitTimes()).isNull();
+        first.close();
+        first.close();
+        assertThat(admission.stats().running()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNeverQueueWhenUnlimited() {
+        var admission = AdmissionController.unlimited();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(admission.admit("test", List.of(), null).queueWait()).isNull();
+        }
+    }
+
+    @Nested
+    class Queueing {
+
+        @Test
+        void shouldStartTheShortestWaitingBuildFirst() throws Exception {
+            var admission = new AdmissionController(1, 5, clock::get);
+            var running = admission.admit("compile", List.of(), null);
+            var suite = admitLater(admission, "suite", "test", List.of(), 1);
+            clock.set(1_000);
+            var targeted = admitLater(admission, "targeted", "test", List.of("-Dtest=FooTest"), 2);
+
+            running.close();
+            targeted.get(5, TimeUnit.SECONDS).close();
+            suite.get(5, TimeUnit.SECONDS).close();
+
+            assertThat(started).containsExactly("targeted", "suite");
+        }
+
+        @Test
+        void shouldAgeWaitingBuildsSoThatLongOnesAreNotStarved() throws Exception {
+            var admission = new AdmissionController(1, 5, clock::get);
+            var running = admission.admit("compile", List.of(), null);
+            var suite = admitLater(admission, "suite", "test", List.of(), 1);
+            // 5 minutes less 200 s of aging at 2 ms per ms ranks below 30 s
+            clock.set(200_000);
+            var compile = admitLater(admission, "compile", "compile", List.of(), 2);
+
+            running.close();
+            suite.get(5, TimeUnit.SECONDS).close();
+            compile.get(5, TimeUnit.SECONDS).close();
+
+            assertThat(started).containsExactly("suite", "compile");
+        }
+
+        @Test
+        void shouldReportTheExpectedAndActualWait() throws Exception {
+            var admission = new AdmissionController(1, 5, clock::get);
+            var running = admission.admit("compile", List.of(), null);
+            clock.set(10_000);
+            var waiting = admitLater(admission, "next", "compile", List.of(), 1);
+            clock.set(25_000);
+
+            running.close();
+            QueueWait wait = waiting.get(5, TimeUnit.SECONDS).queueWait();
+
+            assertThat(wait).isEqualTo(new QueueWait(15_000, 20_000, 1, 0));
+            var stats = admission.stats();
+            assertThat(stats.admitted()).isEqualTo(2);
+            assertThat(stats.waited()).isEqualTo(1);
+            assertThat(stats.waitTimes().max()).isEqualTo(15_000.0);
+        }
+
+        @Test
+        void shouldRejectWithTheExpectedWaitWhenTheQueueIsFull() throws Exception {
+            var admission = new AdmissionController(1, 1, clock::get);
+            var running = admission.admit("compile", List.of(), null);
+            var waiting = admitLater(admission, "queued", "compile", List.of(), 1);
+
+            assertThatThrownBy(() -> admission.admit("compile", List.of(), null))
+                    .isInstanceOf(MavenExecutionException.class)
+                    .hasMessageContaining("1 running and 1 waiting, expected wait 60s");
+            assertThat(admission.stats().rejected()).isEqualTo(1);
+
+            running.close();
+            waiting.get(5, TimeUnit.SECONDS).close();
+        }
+
+        @Test
+        void shouldNotKeepABuildWaitingForTheServersOwnMavenRuns() {
+            var admission = new AdmissionController(1, 1, clock::get);
+            var prefetch = admission.admitBackground("dependency:go-offline", List.of(), Duration.ofMinutes(10));
+
+            var compile = admission.admit("compile", List.of(), null);
+
+            assertThat(compile.queueWait()).isNull();
+            assertThat(admission.stats().running()).isEqualTo(1);
+            compile.close();
+            prefetch.close();
+        }
+
+        @Test
+        void shouldRunTheServersOwnMavenRunsOneAtATime() throws Exception {
+            var admission = new AdmissionController(1, 0, clock::get);
+            var prefetch = admission.admitBackground("dependency:go-offline", List.of(), Duration.ofMinutes(10));
+            var probe = CompletableFuture.supplyAsync(() -> {
+                var admitted = admission.admitBackground("-v", List.of(), Duration.ofMinutes(1));
+                started.add("probe");
+                return admitted;
+            }, runnable -> new Thread(runnable).start());
+            Thread.sleep(100);
+            assertThat(started).isEmpty();
+
+            clock.set(120_000);
+            prefetch.close();
+            var admitted = probe.get(5, TimeUnit.SECONDS);
+
+            assertThat(admitted.queueWait().waited()).isEqualTo(120_000);
+            assertThat(admitted.queueWait().expectedWait()).isEqualTo(Duration.ofMinutes(10).toMillis());
+            assertThat(admission.stats().rejected()).isZero();
+            admitted.close();
+        }
+
+        @Test
+        void shouldLeaveTheQueueWhenInterrupted() throws Exception {
+            var admission = new AdmissionController(1, 5, clock::get);
+            var running = admission.admit("compile", List.of(), null);
+            Thread waiter = new Thread(() -> {
+                try {
+                    admission.admit("compile", List.of(), null);
+                } catch (MavenExecutionException e) {
+                    started.add(e.getMessage());
+                }
+            });
+            waiter.start();
+            awaitQueued(admission, 1);
+
+            waiter.interrupt();
+            waiter.join(5_000);
+
+            assertThat(started).containsExactly("Interrupted while waiting to run Maven");
+            assertThat(admission.stats().queued()).isZero();
+            running.close();
+            assertThat(admission.stats().running()).isZero();
+        }
+    }
+
+    @Test
+    void shouldRankByThePredictedDurationOrElseByWhetherAllTestsRun() {
+        var predicted = new DurationPrediction(12_000L, 60_000, 5, "test");
+
+        assertThat(AdmissionController.estimate("test", List.of(), predicted)).isEqualTo(12_000);
+        assertThat(AdmissionController.estimate("clean test", List.of(), null)).isEqualTo(300_000);
+        assertThat(AdmissionController.estimate("test", List.of("-Dtest=FooTest"), null)).isEqualTo(30_000);
+        assertThat(AdmissionController.estimate("package", List.of("-DskipTests"), null)).isEqualTo(30_000);
+        assertThat(AdmissionController.estimate("compile", List.of(), null)).isEqualTo(30_000);
+    }
+
+    /**
+     * Admit a build on another thread, and wait until it is queued.
+     */
+    private CompletableFuture<AdmissionController.Permit> admitLater(AdmissionController admission, String name,
+                                                                     String goal, List<String> args, int queued)
+            throws InterruptedException {
+        var permit = CompletableFuture.supplyAsync(() -> {
+            var admitted = admission.admit(goal, args, null);
+            started.add(name);
+            return admitted;
+        }, runnable -> new Thread(runnable).start());
+        awaitQueued(admission, queued);
+        return permit;
+    }
+
+    private static void awaitQueued(AdmissionController admission, int queued) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (admission.stats().queued() < queued && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(admission.stats().queued()).isEqualTo(queued);
+    }
+}
@@ -0,0 +1,224 @@
+package io.github.mavenmcp.maven;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.mavenmcp.maven.DependencyPrefetcher.State;
+import io.github.mavenmcp.model.OfflineStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DependencyPrefetcherTest {
+
+    private static final String MISSING_OFFLINE = "[ERROR] Failed to execute goal: Cannot access central "
+            + "(https://repo.maven.apache.org/maven2) in offline mode and the artifact "
+            + "org.junit:junit-bom:pom:5.11.0 has not been downloaded from it before.";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldSumTransferTimeFromSizeAndRate() {
+        String output = """
+                [INFO] Downloading from central: https://repo/a.pom
+                [INFO] Downloaded from central: https://repo/a.pom (2.5 kB at 5.0 kB/s)
+                Downloaded from mirror: https://repo/b.jar (1.2 MB at 600 kB/s)
+                [INFO] Downloaded from central: https://repo/c.jar (100 B)
+                """;
+
+        assertThat(DependencyPrefetcher.transferMillis(output)).isEqualTo(500 + 2000);
+        assertThat(DependencyPrefetcher.transferMillis("[INFO] BUILD SUCCESS")).isZero();
+    }
+
+    @Test
+    void shouldFollowModulesOfTheReactor() throws IOException {
+        Files.writeString(tempDir.resolve("pom.xml"), """
+                <project><modules><module>core</module><module>app/pom.xml</module></modules></project>
+                """);
+        Files.createDirectories(tempDir.resolve("core"));
+        Files.writeString(tempDir.resolve("core/pom.xml"), "<project/>");
+        Files.createDirectories(tempDir.resolve("app"));
+        Files.writeString(tempDir.resolve("app/pom.xml"), "<project/>");
+        Files.createDirectories(tempDir.resolve("unrelated"));
+        Files.writeString(tempDir.resolve("unrelated/pom.xml"), "<project/>");
+
+        assertThat(DependencyPrefetcher.pomFiles(tempDir)).containsExactly(
+                tempDir.resolve("pom.xml"), tempDir.resolve("core/pom.xml"), tempDir.resolve("app/pom.xml"));
+    }
+
+    @Nested
+    class Builds {
+
+        private Path pom;
+        private Path mvn;
+        private Path invocations;
+        private ScriptedRunner runner;
+        private DependencyPrefetcher prefetcher;
+
+        @BeforeEach
+        void setUp() throws IOException {
+            pom = Files.writeString(tempDir.resolve("pom.xml"), "<project/>");
+            invocations = tempDir.resolve("invocations");
+            mvn = tempDir.resolve("mvn");
+            writeMaven(0);
+            runner = new ScriptedRunner();
+            prefetcher = new DependencyPrefetcher(mvn, tempDir, Duration.ofSeconds(30));
+        }
+
+        private void writeMaven(int exitCode) throws IOException {
+            Files.writeString(mvn, "#!/bin/sh\necho \"$@\" >> '" + invocations + "'\n"
+                    + "echo '[ERROR] Could not resolve dependencies'\nexit " + exitCode + "\n");
+            Files.setPosixFilePermissions(mvn, PosixFilePermissions.fromString("rwxr-xr-x"));
+        }
+
+        @Test
+        void shouldBuildOnlineUntilDependenciesAreResolved() {
+            prefetcher.execute(runner, "compile", List.of("-Pdev"), false);
+            prefetcher.prefetch();
+            prefetcher.execute(runner, "compile", List.of("-Pdev"), false);
+
+            assertThat(runner.args).containsExactly(List.of("-Pdev"), List.of("-Pdev", "-o"));
+            assertThat(prefetcher.state()).isEqualTo(State.RESOLVED);
+            assertThat(invocations).content().isEqualTo(DependencyPrefetcher.GOAL + " -B\n");
+        }
+
+        @Test
+        void shouldNotResolveAgainWhenReloadedWithPomsResolvedBefore() throws Exception {
+            Map<Path, String> resolvedPoms = new ConcurrentHashMap<>();
+            new DependencyPrefetcher(mvn, tempDir, Duration.ofSeconds(30), AdmissionController.unlimited(), null,
+                    resolvedPoms).prefetch();
+            DependencyPrefetcher reloaded = new DependencyPrefetcher(mvn, tempDir, Duration.ofSeconds(30),
+                    AdmissionController.unlimited(), null, resolvedPoms);
+
+            reloaded.prefetch();
+            reloaded.execute(runner, "compile", List.of(), false);
+
+            assertThat(reloaded.state()).isEqualTo(State.RESOLVED);
+            assertThat(runner.args).containsExactly(List.of("-o"));
+            assertThat(Files.readAllLines(invocations)).hasSize(1);
+
+            Files.setLastModifiedTime(pom, FileTime.fromMillis(Files.getLastModifiedTime(pom).toMillis() + 5_000));
+            new DependencyPrefetcher(mvn, tempDir, Duration.ofSeconds(30), AdmissionController.unlimited(), null,
+                    resolvedPoms).prefetch();
+
+            assertThat(Files.readAllLines(invocations)).hasSize(2);
+        }
+
+        @Test
+        void shouldStayOnlineWhenAskedTo() {
+            prefetcher.prefetch();
+
+            prefetcher.execute(runner, "test", List.of(), true);
+            prefetcher.execute(runner, "test", List.of("-U"), false);
+            prefetcher.execute(runner, "test", List.of("--offline"), false);
+
+            assertThat(runner.args).containsExactly(List.of(), List.of("-U"), List.of("--offline"));
+            assertThat(prefetcher.status().onlineBuilds()).isEqualTo(2);
+            assertThat(prefetcher.status().offlineBuilds()).isZero();
+        }
+
+        @Test
+        void shouldGoOnlineAndResolveAgainWhenThePomChanges() throws Exception {
+            prefetcher.prefetch();
+            Files.setLastModifiedTime(pom, FileTime.fromMillis(Files.getLastModifiedTime(pom).toMillis() + 5_000));
+
+            prefetcher.execute(runner, "compile", List.of(), false);
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (prefetcher.state() != State.RESOLVED && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            prefetcher.execute(runner, "compile", List.of(), false);
+
+            assertThat(runner.args).containsExactly(List.of(), List.of("-o"));
+            assertThat(Files.readAllLines(invocations)).hasSize(2);
+        }
+
+        @Test
+        void shouldRepeatOnlineWhenAnArtifactIsMissingLocally() {
+            prefetcher.prefetch();
+            runner.results.add(new MavenExecutionResult(1, MISSING_OFFLINE, "", 300));
+
+            MavenExecutionResult result = prefetcher.execute(runner, "test", List.of(), false);
+
+            assertThat(result.isSuccess()).isTrue();
+            assertThat(runner.args).containsExactly(List.of("-o"), List.of());
+            assertThat(prefetcher.state()).isEqualTo(State.RESOLVED);
+            assertThat(prefetcher.status().fallbacks()).isEqualTo(1);
+        }
+
+        @Test
+        void shouldGiveUpOfflineModeAfterRepeatedFallbacks() {
+            prefetcher.prefetch();
+            runner.results.add(new MavenExecutionResult(1, MISSING_OFFLINE, "", 300));
+            runner.results.add(new MavenExecutionResult(0, "", "", 100));
+            runner.results.add(new MavenExecutionResult(1, MISSING_OFFLINE, "", 300));
+
+            prefetcher.execute(runner, "test", List.of(), false);
+            prefetcher.execute(runner, "test", List.of(), false);
+            prefetcher.execute(runner, "test", List.of(), false);
+
+            assertThat(prefetcher.state()).isEqualTo(State.FAILED);
+            assertThat(prefetcher.status().error()).contains("kept missing artifacts");
+            assertThat(runner.args.getLast()).isEmpty();
+        }
+
+        @Test
+        void shouldNotRetryFailedPrefetchUntilThePomChanges() throws IOException {
+            writeMaven(1);
+            prefetcher.prefetch();
+
+            prefetcher.execute(runner, "compile", List.of(), false);
+            prefetcher.execute(runner, "compile", List.of(), false);
+
+            assertThat(prefetcher.state()).isEqualTo(State.FAILED);
+            assertThat(prefetcher.status().error()).isEqualTo(
+                    DependencyPrefetcher.GOAL + " exited with code 1: Could not resolve dependencies");
+            assertThat(runner.args).containsOnly(List.of());
+            assertThat(Files.readAllLines(invocations)).hasSize(1);
+        }
+
+        @Test
+        void shouldEstimateNetworkTimeSavedFromOnlineBuilds() {
+            runner.results.add(new MavenExecutionResult(0,
+                    "[INFO] Downloaded from central: https://repo/m.xml (1 kB at 1 kB/s)", "", 2000));
+            prefetcher.execute(runner, "compile", List.of(), false);
+            prefetcher.prefetch();
+
+            prefetcher.execute(runner, "compile", List.of(), false);
+            prefetcher.execute(runner, "compile", List.of(), false);
+
+            OfflineStatus status = prefetcher.status();
+            assertThat(status.onlineBuilds()).isEqualTo(1);
+            assertThat(status.offlineBuilds()).isEqualTo(2);
+            assertThat(status.averageNetworkMillis()).isEqualTo(1000);
+            assertThat(status.estimatedNetworkMillisSaved()).isEqualTo(2000);
+            assertThat(status.prefetchMillis()).isNotNull();
+        }
+    }
+
+    /**
+     * Answers with queued results, then with success; records the arguments of each build.
+     */
+    private static final class ScriptedRunner extends MavenRunner {
+        final List<List<String>> args = new ArrayList<>();
+        final List<MavenExecutionResult> results = new ArrayList<>();
+
+        @Override
+        public MavenExecutionResult execute(String goal, List<String> extraArgs, Path exe, Path dir, Duration timeout) {
+            args.add(extraArgs);
+            return results.isEmpty() ? new MavenExecutionResult(0, "", "", 100) : results.removeFirst();
+        }
+    }
+}
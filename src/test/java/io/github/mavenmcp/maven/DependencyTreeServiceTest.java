@@ -0,0 +1,184 @@
+package io.github.mavenmcp.maven;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import io.github.mavenmcp.model.DependencyNode;
+import io.github.mavenmcp.model.DependencyTreeResult.DependencyChange;
+import io.github.mavenmcp.model.ProjectModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DependencyTreeServiceTest {
+
+    private static final String CORE_TREE = """
+            [INFO] --- dependency:3.7.0:tree (default-cli) @ core ---
+            [INFO] com.example:core:jar:1.0
+            [INFO] +- com.fasterxml.jackson.core:jackson-databind:jar:%s:compile
+            [INFO] |  +- com.fasterxml.jackson.core:jackson-annotations:jar:%<s:compile
+            [INFO] |  \\- (com.fasterxml.jackson.core:jackson-core:jar:%<s:compile - omitted for conflict with 2.15.0)
+            [INFO] \\- org.slf4j:slf4j-api:jar:2.0.16:compile (optional)
+            [INFO]
+            """;
+    private static final String APP_TREE = """
+            [INFO] --- dependency:3.7.0:tree (default-cli) @ app ---
+            [INFO] com.example:app:jar:1.0
+            [INFO] +- com.example:core:jar:1.0:compile
+            [INFO] |  \\- (com.fasterxml.jackson.core:jackson-databind:jar:2.17.1:compile - omitted for duplicate)
+            [INFO] \\- com.fasterxml.jackson.core:jackson-core:jar:2.15.0:compile
+            [INFO] ------------------------------------------------------------------------
+            """;
+    private static final String ROOT_TREE = """
+            [INFO] --- dependency:3.7.0:tree (default-cli) @ parent ---
+            [INFO] com.example:parent:pom:1.0
+            [INFO]
+            """;
+
+    @TempDir
+    Path projectDir;
+
+    @Nested
+    class Parsing {
+
+        @Test
+        void shouldParseNestedVerboseTrees() {
+            List<DependencyNode> trees = DependencyTreeService.parse(CORE_TREE.formatted("2.17.1") + APP_TREE);
+
+            assertThat(trees).extracting(DependencyNode::artifactId).containsExactly("core", "app");
+            DependencyNode core = trees.get(0);
+            assertThat(core.scope()).isNull();
+            assertThat(core.dependencies()).extracting(DependencyNode::artifactId)
+                    .containsExactly("jackson-databind", "slf4j-api");
+            DependencyNode databind = core.dependencies().get(0);
+            assertThat(databind.dependencies()).extracting(DependencyNode::omitted)
+                    .containsExactly(null, "conflict with 2.15.0");
+            assertThat(databind.dependencies().get(1).version()).isEqualTo("2.17.1");
+            assertThat(core.dependencies().get(1).optional()).isTrue();
+            assertThat(trees.get(1).dependencies().get(1).dependencies()).isEmpty();
+        }
+
+        @Test
+        void shouldReadClassifiersAndTypes() {
+            DependencyNode tree = DependencyTreeService.parse("""
+                    [INFO] --- maven-dependency-plugin:3.6.1:tree (default-cli) @ app ---
+                    [INFO] com.example:app:war:1.0
+                    [INFO] \\- io.netty:netty-transport-native-epoll:jar:linux-x86_64:4.1.110.Final:runtime
+                    """).getFirst();
+
+            assertThat(tree.type()).isEqualTo("war");
+            DependencyNode epoll = tree.dependencies().getFirst();
+            assertThat(epoll.type()).isNull();
+            assertThat(epoll.classifier()).isEqualTo("linux-x86_64");
+            assertThat(epoll.version()).isEqualTo("4.1.110.Final");
+            assertThat(epoll.scope()).isEqualTo("runtime");
+        }
+    }
+
+    @Nested
+    class Caching {
+
+        private final List<List<String>> runs = new ArrayList<>();
+        private String databindVersion = "2.17.1";
+        private ProjectModel model;
+
+        @BeforeEach
+        void setUp() throws IOException {
+            pom(projectDir, "<project><artifactId>parent</artifactId><packaging>pom</packaging>"
+                    + "<modules><module>core</module><module>app</module></modules></project>");
+            pom(projectDir.resolve("core"), "<project><artifactId>core</artifactId></project>");
+            pom(projectDir.resolve("app"), "<project><artifactId>app</artifactId></project>");
+            model = new ProjectModel("com.example", "parent", "1.0", List.of(
+                    module(".", "parent"), module("core", "core"), module("app", "app")));
+        }
+
+        private void pom(Path dir, String content) throws IOException {
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve("pom.xml"), content);
+        }
+
+        private ProjectModel.Module module(String path, String artifactId) {
+            return new ProjectModel.Module(path, "com.example", artifactId, "1.0", "jar",
+                    path.equals(".") ? null : "com.example:parent:1.0", null, null, null, null, null, List.of());
+        }
+
+        private final Function<List<String>, MavenExecutionResult> maven = args -> {
+            runs.add(args);
+            String output = args.contains("-pl")
+                    ? CORE_TREE.formatted(databindVersion) + APP_TREE
+                    : ROOT_TREE + CORE_TREE.formatted(databindVersion) + APP_TREE;
+            return new MavenExecutionResult(0, output, "", 1000);
+        };
+
+        @Test
+        void shouldResolveOnlyModulesWhosePomsChanged() throws IOException {
+            DependencyTreeService service = new DependencyTreeService(projectDir, null);
+
+            var first = service.resolve(model, maven, false);
+            var second = service.resolve(model, maven, false);
+            pom(projectDir.resolve("core"), "<project><artifactId>core</artifactId><!-- 2.18 --></project>");
+            databindVersion = "2.18.0";
+            var third = service.resolve(model, maven, false);
+
+            assertThat(first.source()).isEqualTo("resolved");
+            assertThat(first.trees()).containsOnlyKeys(".", "core", "app");
+            assertThat(first.diff()).isNull();
+            assertThat(second.source()).isEqualTo("memory");
+            assertThat(second.execution()).isNull();
+            assertThat(third.source()).isEqualTo("partial");
+            assertThat(third.resolvedModules()).containsExactly("core", "app");
+            assertThat(runs).containsExactly(List.of("-Dverbose"),
+                    List.of("-Dverbose", "-pl", "core", "-am", "-amd"));
+            assertThat(third.trees().get(".")).isSameAs(first.trees().get("."));
+            assertThat(third.diff()).containsExactly(
+                    new DependencyChange("core", "com.fasterxml.jackson.core:jackson-databind", "2.17.1", "2.18.0"),
+                    new DependencyChange("core", "com.fasterxml.jackson.core:jackson-annotations", "2.17.1", "2.18.0"));
+        }
+
+        @Test
+        void shouldResolveTheReactorWhenTheRootPomChanges() throws IOException {
+            DependencyTreeService service = new DependencyTreeService(projectDir, null);
+            service.resolve(model, maven, false);
+
+            pom(projectDir, "<project><artifactId>parent</artifactId><packaging>pom</packaging>"
+                    + "<modules><module>core</module><module>app</module></modules><!-- edit --></project>");
+            var afterEdit = service.resolve(model, maven, false);
+            var refreshed = service.resolve(model, maven, true);
+
+            assertThat(afterEdit.source()).isEqualTo("resolved");
+            assertThat(refreshed.source()).isEqualTo("resolved");
+            assertThat(runs).containsOnly(List.of("-Dverbose")).hasSize(3);
+        }
+
+        @Test
+        void shouldKeepTreesOnDiskAcrossInstances() {
+            Path cache = projectDir.resolve("cache");
+            var resolved = new DependencyTreeService(projectDir, cache).resolve(model, maven, false);
+
+            var restored = new DependencyTreeService(projectDir, cache).resolve(model, maven, false);
+
+            assertThat(runs).hasSize(1);
+            assertThat(restored.source()).isEqualTo("disk");
+            assertThat(restored.trees()).isEqualTo(resolved.trees());
+        }
+
+        @Test
+        void shouldKeepTheCacheWhenMavenFails() {
+            DependencyTreeService service = new DependencyTreeService(projectDir, null);
+
+            var failed = service.resolve(model, args -> new MavenExecutionResult(1, "[ERROR] boom", "", 10), false);
+            var retried = service.resolve(model, maven, false);
+
+            assertThat(failed.trees()).isNull();
+            assertThat(failed.execution().exitCode()).isEqualTo(1);
+            assertThat(retried.source()).isEqualTo("resolved");
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package io.github.mavenmcp.maven;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import io.github.mavenmcp.model.BuildMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FastProfileTest {
+
+    @TempDir
+    Path projectDir;
+
+    @TempDir
+    Path repository;
+
+    private BuildMode plan(String goal, List<String> args) {
+        return new FastProfile(new ProjectModelService(projectDir)).plan(goal, args, repository);
+    }
+
+    private void pom(Path dir, String content) throws IOException {
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("pom.xml"), content);
+    }
+
+    @Test
+    void shouldSkipPluginsBoundBeforeTheGoal() throws IOException {
+        pom(projectDir, """
+                <project><build><plugins>
+                  <plugin><artifactId>jacoco-maven-plugin</artifactId>
+                    <executions>
+                      <execution><goals><goal>prepare-agent</goal></goals></execution>
+                      <execution><id>report</id><phase>verify</phase><goals><goal>report</goal></goals></execution>
+                    </executions></plugin>
+                  <plugin><artifactId>maven-checkstyle-plugin</artifactId>
+                    <executions><execution><phase>validate</phase><goals><goal>check</goal></goals></execution></executions></plugin>
+                  <plugin><artifactId>maven-javadoc-plugin</artifactId>
+                    <executions><execution><goals><goal>jar</goal></goals></execution></executions></plugin>
+                  <plugin><artifactId>maven-compiler-plugin</artifactId></plugin>
+                </plugins></build></project>
+                """);
+
+        BuildMode mode = plan("test", List.of());
+
+        assertThat(mode.mode()).isEqualTo("fast");
+        assertThat(mode.skippedPlugins()).containsExactly("jacoco-maven-plugin", "maven-checkstyle-plugin");
+        assertThat(mode.arguments()).containsExactly("-Djacoco.skip=true", "-Dcheckstyle.skip=true");
+    }
+
+    @Test
+    void shouldIgnorePluginsWithoutExecutionsOrOnlyInProfilesOrManagement() throws IOException {
+        pom(projectDir, """
+                <project>
+                  <build>
+                    <plugins><plugin><artifactId>maven-enforcer-plugin</artifactId></plugin></plugins>
+                    <pluginManagement><plugins>
+                      <plugin><artifactId>jacoco-maven-plugin</artifactId>
+                        <executions><execution><goals><goal>prepare-agent</goal></goals></execution></executions></plugin>
+                    </plugins></pluginManagement>
+                  </build>
+                  <profiles><profile><build><plugins>
+                    <plugin><artifactId>maven-checkstyle-plugin</artifactId>
+                      <executions><execution><phase>validate</phase></execution></executions></plugin>
+                  </plugins></build></profile></profiles>
+                </project>
+                """);
+
+        assertThat(plan("compile", List.of()).skippedPlugins()).isEmpty();
+    }
+
+    @Test
+    void shouldTakeExecutionsFromParentPomsInTheRepository() throws IOException {
+        pom(projectDir, """
+                <project>
+                  <parent><groupId>com.example</groupId><artifactId>corporate</artifactId><version>7</version></parent>
+                  <build><plugins><plugin><artifactId>maven-enforcer-plugin</artifactId></plugin></plugins></build>
+                </project>
+                """);
+        Path parent = repository.resolve("com/example/corporate/7");
+        Files.createDirectories(parent);
+        Files.writeString(parent.resolve("corporate-7.pom"), """
+                <project><build>
+                  <plugins><plugin><artifactId>spotless-maven-plugin</artifactId>
+                    <executions><execution><phase>process-sources</phase></execution></executions></plugin></plugins>
+                  <pluginManagement><plugins><plugin><artifactId>maven-enforcer-plugin</artifactId>
+                    <executions><execution><goals><goal>enforce</goal></goals></execution></executions></plugin></plugins>
+                  </pluginManagement>
+                </build></project>
+                """);
+
+        assertThat(plan("compile", List.of()).skippedPlugins())
+                .containsExactly("maven-enforcer-plugin", "spotless-maven-plugin");
+    }
+
+    @Test
+    void shouldBuildModulesOfAReactorInParallel() throws IOException {
+        pom(projectDir, """
+                <project><modules><module>core</module><module>app</module></modules></project>
+                """);
+        pom(projectDir.resolve("core"), """
+                <project><parent><artifactId>root</artifactId></parent><build><plugins>
+                  <plugin><artifactId>frontend-maven-plugin</artifactId>
+                    <executions><execution><id>npm</id><goals><goal>npm</goal></goals></execution></executions></plugin>
+                </plugins></build></project>
+                """);
+        pom(projectDir.resolve("app"), "<project/>");
+
+        BuildMode mode = plan("compile", List.of());
+        BuildMode withThreads = plan("compile", List.of("-T", "4"));
+
+        assertThat(mode.skippedPlugins()).containsExactly("frontend-maven-plugin");
+        assertThat(mode.arguments()).contains("-Dskip.npm=true", "-Dskip.installnodenpm=true")
+                .endsWith("-T", "1C");
+        assertThat(withThreads.arguments()).doesNotContain("1C");
+    }
+
+    @Test
+    void shouldAnalyzeAgainWhenThePomChanges() throws IOException {
+        pom(projectDir, "<project/>");
+        FastProfile profile = new FastProfile(new ProjectModelService(projectDir));
+        assertThat(profile.plan("compile", List.of(), repository).skippedPlugins()).isEmpty();
+
+        Path pom = projectDir.resolve("pom.xml");
+        Files.writeString(pom, """
+                <project><build><plugins><plugin><artifactId>maven-enforcer-plugin</artifactId>
+                  <executions><execution><goals><goal>enforce</goal></goals></execution></executions>
+                </plugin></plugins></build></project>
+                """);
+        Files.setLastModifiedTime(pom, FileTime.fromMillis(Files.getLastModifiedTime(pom).toMillis() + 5_000));
+
+        assertThat(profile.plan("compile", List.of(), repository).skippedPlugins())
+                .containsExactly("maven-enforcer-plugin");
+    }
+
+    @Test
+    void shouldPutArgumentsOfTheCallLast() {
+        BuildMode mode = new BuildMode("fast", List.of("jacoco-maven-plugin"), List.of("-Djacoco.skip=true"));
+
+        assertThat(mode.apply(List.of("-Djacoco.skip=false"))).containsExactly(
+                "-Djacoco.skip=true", "-Djacoco.skip=false");
+    }
+}
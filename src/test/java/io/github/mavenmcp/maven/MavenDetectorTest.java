@@ -1,5 +1,6 @@
 package io.github.mavenmcp.maven;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -72,4 +73,29 @@ class MavenDetectorTest {
         // Should prefer the wrapper over system mvn
         assertThat(detected).isEqualTo(mvnw);
     }
+
+    @Test
+    void shouldFindExecutableInFirstMatchingPathDirectory() throws IOException {
+        Path first = Files.createDirectories(tempDir.resolve("first"));
+        Path second = Files.createDirectories(tempDir.resolve("second"));
+        Path notExecutable = Files.writeString(first.resolve("mvn"), "#!/bin/sh\n");
+        Path executable = Files.writeString(second.resolve("mvn"), "#!/bin/sh\n");
+        Files.setPosixFilePermissions(executable, Set.of(
+                PosixFilePermission.OWNER_READ,
+                PosixFilePermission.OWNER_EXECUTE
+        ));
+
+        String path = String.join(File.pathSeparator, "", tempDir.resolve("missing").toString(),
+                first.toString(), second.toString());
+
+        assertThat(MavenDetector.findOnPath("mvn", path)).isEqualTo(executable);
+        assertThat(notExecutable).exists();
+    }
+
+    @Test
+    void shouldReturnNullWhenNotOnPath() {
+        assertThat(MavenDetector.findOnPath("mvn", tempDir.toString())).isNull();
+        assertThat(MavenDetector.findOnPath("mvn", "")).isNull();
+        assertThat(MavenDetector.findOnPath("mvn", null)).isNull();
+    }
 }
@@ -0,0 +1,170 @@
+package io.github.mavenmcp.maven;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import io.github.mavenmcp.model.MavenEnvironment;
+import io.github.mavenmcp.model.MavenEnvironment.Mirror;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MavenEnvironmentProbeTest {
+
+    private static final String VERSION_OUTPUT = """
+            Apache Maven 3.9.11 (3e54c93a704957b63ee3494413a2b544fd3d825b)
+            Maven home: %s
+            Java version: 21.0.1, vendor: Eclipse Adoptium, runtime: /opt/java/21.0.1-tem
+            Default locale: en_US, platform encoding: UTF-8
+            OS name: "linux", version: "6.1.0", arch: "amd64", family: "unix"
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    @Nested
+    class ParseVersionOutput {
+
+        @Test
+        void shouldParseMavenJavaAndOs() throws IOException {
+            var info = MavenEnvironmentProbe.parseVersionOutput(VERSION_OUTPUT.formatted("/usr/share/maven"));
+
+            assertThat(info.mavenVersion()).isEqualTo("3.9.11");
+            assertThat(info.mavenHome()).isEqualTo("/usr/share/maven");
+            assertThat(info.javaVersion()).isEqualTo("21.0.1");
+            assertThat(info.javaVendor()).isEqualTo("Eclipse Adoptium");
+            assertThat(info.javaHome()).isEqualTo("/opt/java/21.0.1-tem");
+            assertThat(info.os()).isEqualTo("linux 6.1.0 amd64");
+        }
+
+        @Test
+        void shouldIgnoreColorCodes() throws IOException {
+            var info = MavenEnvironmentProbe.parseVersionOutput(
+                    "\u001B[1mApache Maven 4.0.0-rc-4\u001B[m\nMaven home: /opt/maven\n");
+
+            assertThat(info.mavenVersion()).isEqualTo("4.0.0-rc-4");
+            assertThat(info.mavenHome()).isEqualTo("/opt/maven");
+            assertThat(info.javaVersion()).isNull();
+        }
+
+        @Test
+        void shouldRejectOutputWithoutMavenVersion() {
+            assertThatThrownBy(() -> MavenEnvironmentProbe.parseVersionOutput("Error: JAVA_HOME is not set"))
+                    .isInstanceOf(IOException.class);
+        }
+    }
+
+    @Nested
+    class Probe {
+
+        private Path project;
+        private Path mavenHome;
+        private Path mvn;
+        private Path invocations;
+        private MavenEnvironmentProbe probe;
+
+        @BeforeEach
+        void setUp() throws IOException {
+            project = Files.createDirectories(tempDir.resolve("project"));
+            mavenHome = Files.createDirectories(tempDir.resolve("maven"));
+            invocations = tempDir.resolve("invocations");
+            mvn = tempDir.resolve("mvn");
+            Files.writeString(mvn, "#!/bin/sh\necho run >> '" + invocations + "'\ncat <<'EOF'\n"
+                    + VERSION_OUTPUT.formatted(mavenHome) + "EOF\n");
+            Files.setPosixFilePermissions(mvn, PosixFilePermissions.fromString("rwxr-xr-x"));
+            probe = new MavenEnvironmentProbe(tempDir.resolve("cache"), tempDir.resolve("home"),
+                    Duration.ofSeconds(30));
+        }
+
+        @Test
+        void shouldRunMavenOnceAndThenReadTheCache() throws IOException {
+            MavenEnvironment first = probe.probe(mvn, project);
+            MavenEnvironment second = new MavenEnvironmentProbe(tempDir.resolve("cache"),
+                    tempDir.resolve("home"), Duration.ofSeconds(30)).probe(mvn, project);
+
+            assertThat(first.cached()).isFalse();
+            assertThat(second.cached()).isTrue();
+            assertThat(second.mavenVersion()).isEqualTo("3.9.11");
+            assertThat(second.mavenHome()).isEqualTo(mavenHome.toString());
+            assertThat(second.javaVersion()).isEqualTo("21.0.1");
+            assertThat(Files.readAllLines(invocations)).hasSize(1);
+        }
+
+        @Test
+        void shouldProbeAgainWhenExecutableChanges() throws IOException {
+            probe.probe(mvn, project);
+            Files.setLastModifiedTime(mvn, FileTime.fromMillis(Files.getLastModifiedTime(mvn).toMillis() - 60_000));
+
+            MavenEnvironment again = probe.probe(mvn, project);
+
+            assertThat(again.cached()).isFalse();
+            assertThat(Files.readAllLines(invocations)).hasSize(2);
+        }
+
+        @Test
+        void shouldReportErrorWithoutCachingWhenMavenFails() throws IOException {
+            Files.writeString(mvn, "#!/bin/sh\necho run >> '" + invocations + "'\necho 'no java' >&2\nexit 1\n");
+
+            MavenEnvironment failed = probe.probe(mvn, project);
+            probe.probe(mvn, project);
+
+            assertThat(failed.mavenVersion()).isNull();
+            assertThat(failed.error()).contains("exited with code 1");
+            assertThat(failed.localRepository()).isEqualTo(tempDir.resolve("home/.m2/repository").toString());
+            assertThat(Files.readAllLines(invocations)).hasSize(2);
+        }
+
+        @Test
+        void shouldMergeUserAndGlobalSettings() throws IOException {
+            Files.createDirectories(tempDir.resolve("home/.m2"));
+            Files.writeString(tempDir.resolve("home/.m2/settings.xml"), """
+                    <settings xmlns="http://maven.apache.org/SETTINGS/1.0.0">
+                      <localRepository>${user.home}/repo</localRepository>
+                      <mirrors>
+                        <mirror>
+                          <id>corporate</id>
+                          <mirrorOf>*</mirrorOf>
+                          <url>https://repo.example.com/maven</url>
+                        </mirror>
+                      </mirrors>
+                    </settings>
+                    """);
+            Files.createDirectories(mavenHome.resolve("conf"));
+            Files.writeString(mavenHome.resolve("conf/settings.xml"), """
+                    <settings>
+                      <localRepository>/global/repo</localRepository>
+                      <mirrors>
+                        <mirror><id>corporate</id><mirrorOf>central</mirrorOf><url>https://old</url></mirror>
+                        <mirror><id>block</id><mirrorOf>external:http:*</mirrorOf><url>http://0.0.0.0/</url></mirror>
+                      </mirrors>
+                    </settings>
+                    """);
+
+            MavenEnvironment environment = probe.probe(mvn, project);
+
+            assertThat(environment.localRepository()).isEqualTo(tempDir.resolve("home") + "/repo");
+            assertThat(environment.mirrors()).containsExactly(
+                    new Mirror("corporate", "*", "https://repo.example.com/maven"),
+                    new Mirror("block", "external:http:*", "http://0.0.0.0/"));
+        }
+
+        @Test
+        void shouldExposeBackgroundResultOnceDone() throws Exception {
+            assertThat(probe.environment()).isNull();
+
+            probe.startInBackground(mvn, project).get(30, TimeUnit.SECONDS);
+
+            assertThat(probe.environment()).isNotNull();
+            assertThat(probe.environment().mavenVersion()).isEqualTo("3.9.11");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.mavenmcp.maven;
+
+import java.util.List;
+import java.util.Map;
+
+import io.github.mavenmcp.maven.MavenPipeline.Attribution;
+import io.github.mavenmcp.maven.MavenPipeline.StepOutput;
+import io.github.mavenmcp.model.ProjectModel;
+import io.github.mavenmcp.model.ProjectModel.Execution;
+import io.github.mavenmcp.model.ProjectModel.Plugin;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MavenPipelineTest {
+
+    private static final long MS = 1_000_000;
+
+    @Nested
+    class Planning {
+
+        @Test
+        void shouldMergeConsecutivePhasesOfALifecycle() {
+            assertThat(MavenPipeline.plan(List.of("clean", "compile", "test")).goals()).isEqualTo("clean test");
+            assertThat(MavenPipeline.plan(List.of("compile", "dependency:tree", "package")).goals())
+                    .isEqualTo("compile dependency:tree package");
+            assertThat(MavenPipeline.plan(List.of("test", "compile")).goals()).isEqualTo("test compile");
+        }
+
+        @Test
+        void shouldRejectUnknownSteps() {
+            assertThatThrownBy(() -> MavenPipeline.plan(List.of("compile", "deploy-all")))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Unknown step 'deploy-all'");
+            assertThatThrownBy(() -> MavenPipeline.plan(List.of()))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    class Attributing {
+
+        private static final String CLEAN_TEST = """
+                [INFO] Scanning for projects...
+                [INFO] --- clean:3.2.0:clean (default-clean) @ core ---
+                [INFO] Deleting /p/core/target
+                [INFO] --- jacoco:0.8.12:prepare-agent (coverage) @ core ---
+                [INFO] argLine set to -javaagent:jacoco.jar
+                [INFO] --- resources:3.3.1:resources (default-resources) @ core ---
+                [INFO] --- compiler:3.13.0:compile (default-compile) @ core ---
+                [INFO] Compiling 3 source files
+                [INFO] --- buildinfo:1.0:write (default) @ core ---
+                [INFO] --- compiler:3.13.0:testCompile (default-testCompile) @ core ---
+                [INFO] --- surefire:3.2.5:test (default-test) @ core ---
+                [INFO] Tests run: 2, Failures: 0, Errors: 0, Skipped: 0
+                [INFO] ------------------------------------------------------------------------
+                [INFO] BUILD SUCCESS
+                """;
+
+        private final ProjectModel model = new ProjectModel("com.example", "core", "1.0", List.of(
+                new ProjectModel.Module(".", "com.example", "core", "1.0", "jar", null, null, null, null, null,
+                        Map.of(), List.of(new Plugin("org.jacoco", "jacoco-maven-plugin", "0.8.12", Map.of(),
+                                List.of(new Execution("coverage", "initialize", List.of("prepare-agent"))))))));
+
+        @Test
+        void shouldAttributeMojosByPhaseAndTimeThem() {
+            MavenPipeline pipeline = MavenPipeline.plan(List.of("clean", "compile", "test"));
+            List<Long> starts = List.of(100 * MS, 150 * MS, 200 * MS, 210 * MS, 700 * MS, 710 * MS, 900 * MS);
+            var timings = new ProcessTimings(MS, 50 * MS, 2_000 * MS, starts);
+
+            Attribution attribution = pipeline.attribute(CLEAN_TEST, timings, model, true);
+
+            assertThat(attribution.failedStep()).isEqualTo(-1);
+            assertThat(attribution.steps()).extracting(StepOutput::mojos).containsExactly(1, 4, 2);
+            // The buildinfo mojo has no known phase and stays with compile
+            assertThat(attribution.steps()).extracting(StepOutput::duration).containsExactly(50L, 560L, 1_290L);
+            assertThat(attribution.steps()).extracting(StepOutput::tests).containsExactly(false, false, true);
+            assertThat(attribution.steps().get(1).output()).contains("argLine set", "Compiling 3 source files")
+                    .doesNotContain("Tests run");
+        }
+
+        @Test
+        void shouldLeaveDurationsOutWithoutMatchingTimings() {
+            Attribution attribution = MavenPipeline.plan(List.of("clean", "test"))
+                    .attribute(CLEAN_TEST, new ProcessTimings(0, 0, 0), model, true);
+
+            assertThat(attribution.steps()).extracting(StepOutput::duration).containsOnlyNulls();
+        }
+
+        @Test
+        void shouldBlameTheStepOfTheFailedModuleAndFollowGoalsPerModule() {
+            String output = """
+                    [INFO] --- compiler:3.13.0:compile (default-compile) @ core ---
+                    [INFO] --- dependency:3.7.0:tree (default-cli) @ core ---
+                    [INFO] com.example:core:jar:1.0
+                    [INFO] --- resources:3.3.1:resources (default-resources) @ core ---
+                    [INFO] --- compiler:3.13.0:compile (default-compile) @ core ---
+                    [INFO] --- surefire:3.2.5:test (default-test) @ core ---
+                    [INFO] --- compiler:3.13.0:compile (default-compile) @ app ---
+                    [ERROR] /p/app/src/main/java/a/App.java:[1,50] ';' expected
+                    [INFO] BUILD FAILURE
+                    [ERROR] Failed to execute goal org.apache.maven.plugins:maven-compiler-plugin:3.13.0:compile (default-compile) on project app: Compilation failure
+                    """;
+            MavenPipeline pipeline = MavenPipeline.plan(List.of("compile", "dependency:tree", "test"));
+
+            Attribution attribution = pipeline.attribute(output, null, null, false);
+
+            assertThat(attribution.steps()).extracting(StepOutput::mojos).containsExactly(2, 1, 3);
+            assertThat(attribution.failedStep()).isZero();
+            assertThat(attribution.steps().get(0).output()).contains("';' expected", "Failed to execute goal");
+            assertThat(attribution.steps().get(1).output()).contains("com.example:core:jar:1.0");
+        }
+    }
+
+    @Test
+    void shouldDerivePluginPrefixes() {
+        assertThat(MavenPipeline.prefix("maven-surefire-plugin")).isEqualTo("surefire");
+        assertThat(MavenPipeline.prefix("jacoco-maven-plugin")).isEqualTo("jacoco");
+        assertThat(MavenPipeline.prefix("surefire")).isEqualTo("surefire");
+    }
+}
@@ -1,12 +1,20 @@
 package io.github.mavenmcp.maven;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
 
+import io.github.mavenmcp.log.LogSpool;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 
 class MavenRunnerTest {
 
@@ -47,6 +55,29 @@ class MavenRunnerTest {
         assertThat(result.exitCode()).isEqualTo(0);
     }
 
+    @Test
+    void shouldSpoolFullOutputWhenSpoolConfigured(@TempDir Path tempDir) {
+        Path mvn = MavenDetector.detect(Path.of("."));
+        Path projectDir = Path.of(".").toAbsolutePath();
+        LogSpool spool = new LogSpool(tempDir, 5);
+
+        MavenExecutionResult result = new MavenRunner(spool).execute("--version", List.of(), mvn, projectDir);
+
+        assertThat(result.runId()).isNotNull();
+        var spooled = spool.find(result.runId()).orElseThrow();
+        assertThat(spooled.readLines(1, spooled.lineCount())).contains("Apache Maven");
+    }
+
+    @Test
+    void shouldNotAssignRunIdWithoutSpool() {
+        Path mvn = MavenDetector.detect(Path.of("."));
+        Path projectDir = Path.of(".").toAbsolutePath();
+
+        MavenExecutionResult result = runner.execute("--version", List.of(), mvn, projectDir);
+
+        assertThat(result.runId()).isNull();
+    }
+
     @Test
     void shouldThrowOnInvalidExecutable() {
         Path fakeExe = Path.of("/nonexistent/maven");
@@ -68,4 +99,101 @@ class MavenRunnerTest {
         assertThat(result.exitCode()).isNotEqualTo(0);
         assertThat(result.duration()).isGreaterThan(0);
     }
+
+    @Test
+    void shouldPassSeveralGoalsAndTimeMojoBanners(@TempDir Path tempDir) throws IOException {
+        Path mvn = tempDir.resolve("mvn");
+        Files.writeString(mvn, """
+                #!/bin/sh
+                echo "[INFO] goals: $1 $2, then $3"
+                echo "[INFO] --- clean:3.2.0:clean (default-clean) @ app ---"
+                sleep 0.2
+                echo "[INFO] --- compiler:3.13.0:compile (default-compile) @ app ---"
+                """);
+        mvn.toFile().setExecutable(true);
+
+        MavenExecutionResult result = runner.execute("clean compile", List.of(), mvn, tempDir);
+
+        assertThat(result.stdout()).contains("goals: clean compile, then -B");
+        List<Long> starts = result.timings().mojoStartNanos();
+        assertThat(starts).hasSize(2);
+        assertThat(starts.get(1) - starts.get(0)).isGreaterThanOrEqualTo(150_000_000L);
+    }
+
+    @Test
+    void shouldRunABuildWithItsShareOfCoresAndMemory(@TempDir Path tempDir) throws IOException {
+        Path mvn = tempDir.resolve("mvn");
+        Files.writeString(mvn, "#!/bin/sh\necho \"args: $*\"\necho \"opts: $MAVEN_OPTS\"\n");
+        mvn.toFile().setExecutable(true);
+        var planner = new ResourcePlanner(new ResourcePlanner.Limits(4, 8192 * ResourcePlanner.MB, "cgroup"), 2, 0);
+
+        MavenExecutionResult result = new MavenRunner(null, planner)
+                .execute("test", List.of("-T", "1C"), mvn, tempDir);
+
+        assertThat(result.allocation().cpus()).isEqualTo(2);
+        assertThat(result.stdout()).contains("args: test -B -T 2 -DforkCount=1 -DargLine=-Xmx")
+                .contains("-XX:ActiveProcessorCount=2");
+    }
+
+    @Test
+    void shouldKillABuildThatRunsPastItsTimeout(@TempDir Path tempDir) throws IOException {
+        Path mvn = tempDir.resolve("mvn");
+        Files.writeString(mvn, """
+                #!/bin/sh
+                echo "[INFO] started"
+                sleep 30 &
+                echo $! > "$(dirname "$0")/child.pid"
+                wait
+                """);
+        mvn.toFile().setExecutable(true);
+
+        MavenExecutionResult result = runner.execute("test", List.of(), mvn, tempDir, Duration.ofMillis(500));
+
+        assertThat(result.timedOut()).isTrue();
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.duration()).isLessThan(10_000);
+        assertThat(result.stdout()).contains("[INFO] started", "and was killed");
+        long child = Long.parseLong(Files.readString(tempDir.resolve("child.pid")).trim());
+        assertThat(ProcessHandle.of(child).map(ProcessHandle::isAlive).orElse(false)).isFalse();
+    }
+
+    @Test
+    void shouldLeaveABuildWithinItsTimeoutAlone(@TempDir Path tempDir) throws IOException {
+        Path mvn = tempDir.resolve("mvn");
+        Files.writeString(mvn, "#!/bin/sh\necho \"[INFO] BUILD SUCCESS\"\n");
+        mvn.toFile().setExecutable(true);
+
+        MavenExecutionResult result = runner.execute("test", List.of(), mvn, tempDir, Duration.ofSeconds(30));
+
+        assertThat(result.timedOut()).isFalse();
+        assertThat(result.isSuccess()).isTrue();
+    }
+
+    @Test
+    void shouldReadTheOutputWhileTheCommonPoolIsBusy(@TempDir Path tempDir) throws IOException {
+        Path mvn = tempDir.resolve("mvn");
+        // More than a pipe holds, so that Maven blocks until its output is read
+        Files.writeString(mvn, "#!/bin/sh\nseq 1 50000\necho \"warning\" >&2\n");
+        mvn.toFile().setExecutable(true);
+        CountDownLatch release = new CountDownLatch(1);
+        // Like the readers of other builds, which block for as long as their Maven runs
+        for (int i = 0; i < ForkJoinPool.commonPool().getParallelism(); i++) {
+            ForkJoinPool.commonPool().execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        try {
+            MavenExecutionResult result = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                    () -> runner.execute("test", List.of(), mvn, tempDir, Duration.ofSeconds(30)));
+
+            assertThat(result.stdout().lines()).hasSize(50_000);
+            assertThat(result.stderr()).isEqualTo("warning");
+        } finally {
+            release.countDown();
+        }
+    }
 }
@@ -0,0 +1,77 @@
+package io.github.mavenmcp.maven;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import io.github.mavenmcp.model.ResourceUsage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProcessSamplerTest {
+
+    private final ProcessHandle self = ProcessHandle.current();
+
+    @Test
+    void shouldKeepPeaksAndTheLastCpuTime(@TempDir Path proc) throws IOException {
+        var sampler = new ProcessSampler(self, proc);
+        write(proc, "java", 150, 50, 2048, 30);
+        sampler.sample();
+        write(proc, "java", 300, 100, 1024, 40);
+        sampler.sample();
+
+        ResourceUsage usage = sampler.finish();
+
+        assertThat(usage.peakRss()).isEqualTo(2048 * 1024);
+        assertThat(usage.peakThreads()).isEqualTo(40);
+        assertThat(usage.cpuTime()).isEqualTo(4000);
+        assertThat(usage.forkedJvms()).isZero();
+        assertThat(usage.samples()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldParseACommandNameWithSpacesAndParentheses(@TempDir Path proc) throws IOException {
+        var sampler = new ProcessSampler(self, proc);
+        write(proc, "a (b) c", 10, 10, 512, 1);
+        sampler.sample();
+
+        assertThat(sampler.finish().cpuTime()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldReportNothingWithoutASample(@TempDir Path proc) {
+        assertThat(new ProcessSampler(self, proc).finish()).isNull();
+    }
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    void shouldSampleARunningProcessTree() throws Exception {
+        Process process = new ProcessBuilder("sh", "-c", "sleep 2 & wait").start();
+        try {
+            ProcessSampler sampler = ProcessSampler.start(process.toHandle());
+            Thread.sleep(500);
+            ResourceUsage usage = sampler.finish();
+
+            assertThat(usage.samples()).isGreaterThanOrEqualTo(2);
+            assertThat(usage.peakRss()).isPositive();
+            assertThat(usage.peakThreads()).isGreaterThanOrEqualTo(2);
+            assertThat(usage.forkedJvms()).isZero();
+        } finally {
+            process.descendants().forEach(ProcessHandle::destroy);
+            process.destroy();
+        }
+    }
+
+    private void write(Path proc, String command, long utime, long stime, long rssKb, int threads)
+            throws IOException {
+        Path dir = Files.createDirectories(proc.resolve(String.valueOf(self.pid())));
+        Files.writeString(dir.resolve("stat"), self.pid() + " (" + command + ") S 1 1 1 0 -1 4194560 100 0 0 0 "
+                + utime + " " + stime + " 0 0 20 0 " + threads + " 0 100 1000 " + rssKb / 4 + "\n");
+        Files.writeString(dir.resolve("status"), "Name:\t" + command + "\nVmRSS:\t" + rssKb + " kB\nThreads:\t"
+                + threads + "\n");
+    }
+}
@@ -0,0 +1,171 @@
+package io.github.mavenmcp.maven;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+
+import io.github.mavenmcp.model.ProjectModel;
+import io.github.mavenmcp.model.ProjectModel.Execution;
+import io.github.mavenmcp.model.ProjectModel.Module;
+import io.github.mavenmcp.model.ProjectModel.Plugin;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectModelServiceTest {
+
+    @TempDir
+    Path projectDir;
+
+    @TempDir
+    Path repository;
+
+    private void pom(Path dir, String content) throws IOException {
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("pom.xml"), content);
+    }
+
+    @Test
+    void shouldResolveModulesWithInheritanceAndProperties() throws IOException {
+        pom(projectDir, """
+                <project>
+                  <groupId>com.example</groupId>
+                  <artifactId>shop</artifactId>
+                  <version>${revision}</version>
+                  <packaging>pom</packaging>
+                  <modules><module>core</module></modules>
+                  <properties><revision>2.1.0</revision><forks>2</forks></properties>
+                  <build>
+                    <pluginManagement><plugins>
+                      <plugin>
+                        <artifactId>maven-surefire-plugin</artifactId>
+                        <version>3.5.2</version>
+                        <configuration>
+                          <forkCount>${forks}</forkCount>
+                          <includes><include>**/*Test.java</include><include>**/*Spec.java</include></includes>
+                        </configuration>
+                      </plugin>
+                    </plugins></pluginManagement>
+                  </build>
+                </project>
+                """);
+        pom(projectDir.resolve("core"), """
+                <project>
+                  <parent><groupId>com.example</groupId><artifactId>shop</artifactId><version>${revision}</version></parent>
+                  <artifactId>shop-core</artifactId>
+                  <properties><forks>4</forks></properties>
+                  <build>
+                    <sourceDirectory>src/main/kotlin</sourceDirectory>
+                    <plugins>
+                      <plugin>
+                        <artifactId>maven-surefire-plugin</artifactId>
+                        <configuration><reportsDirectory>${project.build.directory}/tests</reportsDirectory></configuration>
+                      </plugin>
+                    </plugins>
+                  </build>
+                </project>
+                """);
+
+        ProjectModel model = new ProjectModelService(projectDir).model(repository);
+
+        assertThat(model.groupId()).isEqualTo("com.example");
+        assertThat(model.version()).isEqualTo("2.1.0");
+        assertThat(model.modules()).extracting(Module::path).containsExactly(".", "core");
+        Module core = model.module("core");
+        assertThat(core.groupId()).isEqualTo("com.example");
+        assertThat(core.version()).isEqualTo("2.1.0");
+        assertThat(core.packaging()).isEqualTo("jar");
+        assertThat(core.parent()).isEqualTo("com.example:shop:${revision}");
+        assertThat(core.sourceDirectory()).isEqualTo("core/src/main/kotlin");
+        assertThat(core.testSourceDirectory()).isEqualTo("core/src/test/java");
+        assertThat(core.reportsDirectory()).isEqualTo("core/target/tests");
+        Plugin surefire = core.plugin("maven-surefire-plugin");
+        assertThat(surefire.groupId()).isEqualTo("org.apache.maven.plugins");
+        assertThat(surefire.version()).isEqualTo("3.5.2");
+        assertThat(surefire.configuration()).containsEntry("forkCount", "4")
+                .containsEntry("includes", "**/*Test.java,**/*Spec.java");
+        assertThat(model.module(".").plugins()).isEmpty();
+        assertThat(model.module(".").reportsDirectory()).isEqualTo("target/surefire-reports");
+    }
+
+    @Test
+    void shouldTakeParentsFromTheLocalRepository() throws IOException {
+        pom(projectDir, """
+                <project>
+                  <parent><groupId>com.example</groupId><artifactId>corporate</artifactId><version>7</version></parent>
+                  <artifactId>app</artifactId>
+                  <build><plugins><plugin><artifactId>maven-enforcer-plugin</artifactId>
+                    <executions><execution><id>enforce</id><phase>${enforcer.phase}</phase></execution></executions>
+                  </plugin></plugins></build>
+                </project>
+                """);
+        Path parent = repository.resolve("com/example/corporate/7");
+        Files.createDirectories(parent);
+        Files.writeString(parent.resolve("corporate-7.pom"), """
+                <project>
+                  <groupId>com.example</groupId><artifactId>corporate</artifactId><version>7</version>
+                  <properties><enforcer.phase>initialize</enforcer.phase></properties>
+                  <build><pluginManagement><plugins><plugin><artifactId>maven-enforcer-plugin</artifactId>
+                    <executions><execution><id>enforce</id><goals><goal>enforce</goal></goals></execution></executions>
+                  </plugin></plugins></pluginManagement></build>
+                </project>
+                """);
+
+        Module app = new ProjectModelService(projectDir).model(repository).module(".");
+
+        assertThat(app.groupId()).isEqualTo("com.example");
+        assertThat(app.properties()).containsEntry("enforcer.phase", "initialize");
+        assertThat(app.plugin("maven-enforcer-plugin").executions())
+                .containsExactly(new Execution("enforce", "initialize", List.of("enforce")));
+    }
+
+    @Test
+    void shouldReadThePomsAgainOnlyWhenOneChanges() throws IOException {
+        pom(projectDir, "<project><groupId>a</groupId><modules><module>core</module></modules></project>");
+        ProjectModelService service = new ProjectModelService(projectDir);
+
+        ProjectModel first = service.model(repository);
+        assertThat(service.model(repository)).isSameAs(first);
+        assertThat(first.modules()).hasSize(1);
+
+        // A module that did not exist is picked up once it does
+        pom(projectDir.resolve("core"), "<project><artifactId>core</artifactId></project>");
+        ProjectModel second = service.model(repository);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.modules()).extracting(Module::path).containsExactly(".", "core");
+
+        Path pom = projectDir.resolve("pom.xml");
+        Files.writeString(pom, "<project><groupId>b</groupId><modules><module>core</module></modules></project>");
+        Files.setLastModifiedTime(pom, FileTime.fromMillis(Files.getLastModifiedTime(pom).toMillis() + 5_000));
+        assertThat(service.model(repository).groupId()).isEqualTo("b");
+    }
+
+    @Test
+    void shouldEstimateTheHeapOfTheCachedModel() throws IOException {
+        pom(projectDir, "<project><groupId>a</groupId><modules><module>core</module></modules></project>");
+        pom(projectDir.resolve("core"), "<project><artifactId>core</artifactId>"
+                + "<properties><a>1</a><b>2</b></properties></project>");
+        ProjectModelService service = new ProjectModelService(projectDir);
+        assertThat(service.estimatedBytes()).isZero();
+
+        service.model(repository);
+
+        assertThat(service.estimatedBytes()).isGreaterThan(2 * 128 + 2 * 64);
+    }
+
+    @Test
+    void shouldReturnAnEmptyModelWithoutAPom() {
+        assertThat(new ProjectModelService(projectDir).model(repository).modules()).isEmpty();
+    }
+
+    @Test
+    void shouldInterpolateNestedPropertiesAndKeepUnknownOnes() {
+        Map<String, String> properties = Map.of("a", "${b}-x", "b", "1");
+
+        assertThat(ProjectModelService.interpolate("v${a}/${missing}", properties)).isEqualTo("v1-x/${missing}");
+    }
+}
@@ -0,0 +1,175 @@
+package io.github.mavenmcp.maven;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import io.github.mavenmcp.model.ProjectModel;
+import io.github.mavenmcp.model.ResourceAllocation;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static io.github.mavenmcp.maven.ResourcePlanner.MB;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResourcePlannerTest {
+
+    private static final long GB = 1024 * MB;
+
+    @Nested
+    class Limits {
+
+        @TempDir
+        Path tempDir;
+
+        @Test
+        void shouldTakeTheLowestLimitsOfTheCgroupAndItsAncestors() throws IOException {
+            Path root = tempDir.resolve("cgroup");
+            Files.createDirectories(root.resolve("app/build"));
+            Files.writeString(root.resolve("app/cpu.max"), "150000 100000\n");
+            Files.writeString(root.resolve("app/memory.max"), "8589934592\n");
+            Files.writeString(root.resolve("app/build/cpu.max"), "max 100000\n");
+            Files.writeString(root.resolve("app/build/memory.max"), "4294967296\n");
+
+            var limits = ResourcePlanner.Limits.read(cgroupFile("0::/app/build\n"), root, 16, 64 * GB);
+
+            assertThat(limits).isEqualTo(new ResourcePlanner.Limits(2, 4 * GB, "cgroup"));
+        }
+
+        @Test
+        void shouldFallBackToTheHostWithoutLimits() throws IOException {
+            Path root = Files.createDirectories(tempDir.resolve("cgroup/app"));
+            Files.writeString(root.resolve("cpu.max"), "max 100000\n");
+            Files.writeString(root.resolve("memory.max"), "max\n");
+
+            var unlimited = ResourcePlanner.Limits.read(cgroupFile("0::/app\n"), tempDir.resolve("cgroup"), 8, 16 * GB);
+            var v1Only = ResourcePlanner.Limits.read(cgroupFile("4:memory:/app\n1:cpu:/app\n"),
+                    tempDir.resolve("cgroup"), 8, 16 * GB);
+            var none = ResourcePlanner.Limits.read(tempDir.resolve("missing"), tempDir, 8, 16 * GB);
+
+            assertThat(List.of(unlimited, v1Only, none)).containsOnly(new ResourcePlanner.Limits(8, 16 * GB, "host"));
+        }
+
+        private Path cgroupFile(String content) throws IOException {
+            Path file = tempDir.resolve("cgroup.txt");
+            Files.writeString(file, content);
+            return file;
+        }
+    }
+
+    @Test
+    void shouldRunOneBuildPerTwoCoresAsMemoryAllows() {
+        assertThat(ResourcePlanner.defaultBuilds(new ResourcePlanner.Limits(8, 16 * GB, "host"))).isEqualTo(4);
+        assertThat(ResourcePlanner.defaultBuilds(new ResourcePlanner.Limits(16, 3 * GB, "cgroup"))).isEqualTo(3);
+        assertThat(ResourcePlanner.defaultBuilds(new ResourcePlanner.Limits(1, GB / 2, "cgroup"))).isEqualTo(1);
+    }
+
+    @Nested
+    class Allocation {
+
+        private final ResourcePlanner planner = new ResourcePlanner(
+                new ResourcePlanner.Limits(8, 16 * GB, "cgroup"), 2, 0);
+
+        @Test
+        void shouldGiveEachBuildItsShareAndForkATestJvmPerCore() {
+            ResourceAllocation allocation = planner.allocate(List.of(), null, "", ProjectModel.empty());
+
+            assertThat(allocation.cpus()).isEqualTo(4);
+            assertThat(allocation.memory()).isEqualTo(8 * GB);
+            assertThat(allocation.mavenHeap()).isEqualTo(2 * GB);
+            assertThat(allocation.forkCount()).isEqualTo(4);
+            assertThat(allocation.forkHeap()).isEqualTo(853 * MB);
+            assertThat(allocation.threads()).isNull();
+            assertThat(allocation.arguments()).containsExactly(
+                    "-DforkCount=4", "-DargLine=-Xmx853m -XX:ActiveProcessorCount=1");
+            assertThat(allocation.mavenOpts()).isEqualTo("-Xmx2048m -XX:ActiveProcessorCount=4");
+        }
+
+        @Test
+        void shouldReplaceThreadsPerCoreAndForkLessPerModule() {
+            ResourceAllocation perCore = planner.allocate(List.of("-T", "1C", "-q"), null, "", ProjectModel.empty());
+            ResourceAllocation fixed = planner.allocate(List.of("-T2"), null, "", ProjectModel.empty());
+
+            assertThat(perCore.threads()).isEqualTo(4);
+            assertThat(perCore.forkCount()).isEqualTo(1);
+            assertThat(perCore.apply(List.of("-T", "1C", "-q"))).startsWith("-T", "4", "-q", "-DforkCount=1");
+            assertThat(perCore.apply(List.of("-T0.5C"))).startsWith("-T4");
+            assertThat(fixed.threads()).isNull();
+            assertThat(fixed.forkCount()).isEqualTo(2);
+            assertThat(fixed.apply(List.of("-T2"))).startsWith("-T2", "-DforkCount=2");
+        }
+
+        @Test
+        void shouldKeepWhatTheCallOrProjectSets() {
+            ResourceAllocation allocation = planner.allocate(List.of("-DforkCount=1", "-DargLine=-Xmx1g"),
+                    "-Xmx1g", "-XX:ActiveProcessorCount=2\n", ProjectModel.empty());
+
+            assertThat(allocation.forkCount()).isNull();
+            assertThat(allocation.forkHeap()).isNull();
+            assertThat(allocation.mavenHeap()).isNull();
+            assertThat(allocation.arguments()).isEmpty();
+            assertThat(allocation.mavenOpts()).isNull();
+        }
+
+        @Test
+        void shouldKeepTheArgLineOfTheProject(@TempDir Path projectDir) throws IOException {
+            ProjectModel property = model(projectDir.resolve("property"),
+                    "<properties><argLine>--add-opens java.base/java.lang=ALL-UNNAMED</argLine></properties>");
+            ProjectModel surefire = model(projectDir.resolve("surefire"), plugin("maven-failsafe-plugin",
+                    "<configuration><argLine>@{argLine} -Dfoo=bar</argLine></configuration>"));
+            ProjectModel jacoco = model(projectDir.resolve("jacoco"), plugin("jacoco-maven-plugin", ""));
+
+            for (ProjectModel model : List.of(property, surefire, jacoco)) {
+                ResourceAllocation allocation = planner.allocate(List.of(), null, "", model);
+
+                assertThat(allocation.forkCount()).isNull();
+                assertThat(allocation.forkHeap()).isNull();
+                assertThat(allocation.arguments()).isEmpty();
+                assertThat(allocation.mavenOpts()).isEqualTo("-Xmx2048m -XX:ActiveProcessorCount=4");
+            }
+            assertThat(planner.allocate(List.of("-Djacoco.skip=true"), null, "", jacoco).forkCount()).isEqualTo(4);
+        }
+
+        @Test
+        void shouldSizeTheTestJvmsForTheForkCountOfTheProject(@TempDir Path projectDir) throws IOException {
+            ProjectModel perCore = model(projectDir.resolve("per-core"), plugin("maven-surefire-plugin",
+                    "<configuration><forkCount>0.5C</forkCount></configuration>"));
+            ProjectModel property = model(projectDir.resolve("property"),
+                    "<properties><forkCount>1</forkCount></properties>");
+
+            ResourceAllocation halfCores = planner.allocate(List.of(), null, "", perCore);
+            ResourceAllocation single = planner.allocate(List.of(), null, "", property);
+
+            assertThat(halfCores.forkCount()).isNull();
+            assertThat(halfCores.arguments()).containsExactly("-DargLine=-Xmx1706m -XX:ActiveProcessorCount=2");
+            assertThat(single.forkCount()).isNull();
+            assertThat(single.forkHeap()).isEqualTo(3413 * MB);
+        }
+
+        private ProjectModel model(Path dir, String content) throws IOException {
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve("pom.xml"),
+                    "<project><groupId>g</groupId><artifactId>a</artifactId><version>1</version>"
+                            + content + "</project>");
+            return new ProjectModelService(dir).model(null);
+        }
+
+        private static String plugin(String artifactId, String configuration) {
+            return "<build><plugins><plugin><artifactId>" + artifactId + "</artifactId>" + configuration
+                    + "</plugin></plugins></build>";
+        }
+
+        @Test
+        void shouldGiveASmallBuildAtLeastOneTestJvm() {
+            var small = new ResourcePlanner(new ResourcePlanner.Limits(2, GB, "cgroup"), 1, 0);
+
+            ResourceAllocation allocation = small.allocate(List.of(), "", "", ProjectModel.empty());
+
+            assertThat(allocation.mavenHeap()).isEqualTo(256 * MB);
+            assertThat(allocation.forkCount()).isEqualTo(1);
+            assertThat(allocation.forkHeap()).isEqualTo(426 * MB);
+        }
+    }
+}
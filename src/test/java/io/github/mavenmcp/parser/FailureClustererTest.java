@@ -0,0 +1,119 @@
+package io.github.mavenmcp.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.mavenmcp.model.FailureCluster;
+import io.github.mavenmcp.model.TestFailure;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FailureClustererTest {
+
+    private static final String APP_PACKAGE = "com.example";
+
+    private static final String FIXTURE_TRACE = """
+            java.lang.IllegalStateException: Failed to start fixture
+            \tat com.example.support.DbFixture.start(DbFixture.java:30)
+            \tat org.junit.jupiter.engine.Execution.run(Execution.java:10)
+            Caused by: java.sql.SQLException: Connection refused to localhost:%d (attempt %d)
+            \tat org.postgresql.Driver.connect(Driver.java:100)
+            \tat com.example.support.DbFixture.connect(DbFixture.java:55)
+            \tat com.example.support.DbFixture.start(DbFixture.java:28)""";
+
+    @Test
+    void shouldGroupFailuresWithSameRootCause() {
+        List<TestFailure> failures = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            failures.add(new TestFailure("com.example.Suite" + (i % 7) + "Test", "test" + i,
+                    "Failed to start fixture", FIXTURE_TRACE.formatted(5432 + i, i), null));
+        }
+
+        List<FailureCluster> clusters = FailureClusterer.cluster(failures, APP_PACKAGE);
+
+        assertThat(clusters).hasSize(1);
+        FailureCluster cluster = clusters.getFirst();
+        assertThat(cluster.count()).isEqualTo(400);
+        assertThat(cluster.tests()).hasSize(400).startsWith("com.example.Suite0Test#test0");
+        assertThat(cluster.exceptionType()).isEqualTo("java.sql.SQLException");
+        assertThat(cluster.messageTemplate()).isEqualTo("Connection refused to localhost:<n> (attempt <n>)");
+        assertThat(cluster.representative()).isSameAs(failures.getFirst());
+        assertThat(cluster.signature()).hasSize(16);
+    }
+
+    @Test
+    void shouldSeparateDifferentRootCauses() {
+        var first = new TestFailure("com.example.ATest", "a", "boom",
+                "java.lang.IllegalStateException: boom\n\tat com.example.Service.run(Service.java:10)", null);
+        var second = new TestFailure("com.example.BTest", "b", "boom",
+                "java.lang.IllegalStateException: boom\n\tat com.example.Other.run(Other.java:20)", null);
+        var third = new TestFailure("com.example.CTest", "c", "bad arg",
+                "java.lang.IllegalArgumentException: bad arg\n\tat com.example.Service.run(Service.java:10)", null);
+
+        List<FailureCluster> clusters = FailureClusterer.cluster(List.of(first, second, third), APP_PACKAGE);
+
+        assertThat(clusters).hasSize(3);
+        assertThat(clusters).extracting(FailureCluster::count).containsOnly(1);
+    }
+
+    @Test
+    void shouldNotGroupAssertionsRaisedInDifferentTestMethods() {
+        var first = new TestFailure("com.example.MathTest", "adds", "expected: <4> but was: <5>",
+                """
+                org.opentest4j.AssertionFailedError: expected: <4> but was: <5>
+                \tat org.junit.jupiter.api.AssertEquals.failNotEqual(AssertEquals.java:197)
+                \tat com.example.MathTest.adds(MathTest.java:12)""", null);
+        var second = new TestFailure("com.example.MathTest", "subtracts", "expected: <1> but was: <2>",
+                """
+                org.opentest4j.AssertionFailedError: expected: <1> but was: <2>
+                \tat org.junit.jupiter.api.AssertEquals.failNotEqual(AssertEquals.java:197)
+                \tat com.example.MathTest.subtracts(MathTest.java:20)""", null);
+
+        List<FailureCluster> clusters = FailureClusterer.cluster(List.of(first, second), APP_PACKAGE);
+
+        assertThat(clusters).hasSize(2);
+    }
+
+    @Test
+    void shouldGroupSharedHelperFailuresAcrossTestMethods() {
+        String trace = """
+                java.lang.NullPointerException: Cannot invoke "User.id()" because "user" is null
+                \tat com.example.TestData.user(TestData.java:15)
+                \tat com.example.UserTest.%s(UserTest.java:%d)""";
+        var first = new TestFailure("com.example.UserTest", "loads", null, trace.formatted("loads", 10), null);
+        var second = new TestFailure("com.example.UserTest", "saves", null, trace.formatted("saves", 30), null);
+
+        List<FailureCluster> clusters = FailureClusterer.cluster(List.of(first, second), APP_PACKAGE);
+
+        assertThat(clusters).hasSize(1);
+        assertThat(clusters.getFirst().tests())
+                .containsExactly("com.example.UserTest#loads", "com.example.UserTest#saves");
+    }
+
+    @Test
+    void shouldFallBackToMessageWhenNoStackTrace() {
+        var first = new TestFailure("com.example.ATest", "a", "Timed out after 30 seconds", null, null);
+        var second = new TestFailure("com.example.BTest", "b", "Timed out after 45 seconds", null, null);
+
+        List<FailureCluster> clusters = FailureClusterer.cluster(List.of(first, second), APP_PACKAGE);
+
+        assertThat(clusters).hasSize(1);
+        assertThat(clusters.getFirst().exceptionType()).isNull();
+        assertThat(clusters.getFirst().messageTemplate()).isEqualTo("Timed out after <n> seconds");
+    }
+
+    @Test
+    void shouldMaskVolatileMessageParts() {
+        assertThat(FailureClusterer.maskMessage(
+                "Entity 3f2a1b4c-9d8e-4f7a-b6c5-1a2b3c4d5e6f not found in Repo@6a2b9ab0 at 0x7fff"))
+                .isEqualTo("Entity <uuid> not found in Repo@<id> at <hex>");
+        assertThat(FailureClusterer.maskMessage(null)).isNull();
+    }
+
+    @Test
+    void shouldProduceStableSignatureHash() {
+        assertThat(FailureClusterer.hash("a|b|c")).isEqualTo(FailureClusterer.hash("a|b|c"));
+        assertThat(FailureClusterer.hash("a|b|c")).isNotEqualTo(FailureClusterer.hash("a|b|d"));
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.mavenmcp.resource;
+
+import java.nio.file.Path;
+
+import io.github.mavenmcp.log.LogSpool;
+import io.modelcontextprotocol.spec.McpError;
+import io.modelcontextprotocol.spec.McpSchema.ReadResourceResult;
+import io.modelcontextprotocol.spec.McpSchema.TextResourceContents;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LogResourceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private LogSpool spool;
+    private String runId;
+
+    @BeforeEach
+    void setUp() {
+        spool = new LogSpool(tempDir, 5);
+        try (LogSpool.Capture capture = spool.open()) {
+            for (int i = 1; i <= 500; i++) {
+                capture.append("line " + i);
+            }
+            runId = capture.runId();
+        }
+    }
+
+    @Test
+    void shouldReturnFirstPageByDefault() {
+        ReadResourceResult result = LogResource.read(spool, "maven-log://" + runId);
+
+        String text = text(result);
+        assertThat(text).startsWith("line 1\n").endsWith("line 200");
+        assertThat(result.meta()).containsEntry("totalLines", 500)
+                .containsEntry("next", "maven-log://" + runId + "?lines=201-400");
+    }
+
+    @Test
+    void shouldReturnRequestedLineRange() {
+        ReadResourceResult result = LogResource.read(spool, "maven-log://" + runId + "?lines=450-");
+
+        assertThat(text(result)).startsWith("line 450\n").endsWith("line 500");
+        assertThat(result.meta()).containsEntry("range", "lines=450-500").doesNotContainKey("next");
+    }
+
+    @Test
+    void shouldReturnRequestedByteRange() {
+        ReadResourceResult result = LogResource.read(spool, "maven-log://" + runId + "?bytes=0-5");
+
+        assertThat(text(result)).isEqualTo("line 1");
+        assertThat(result.meta()).containsKey("next");
+    }
+
+    @Test
+    void shouldRejectUnknownRun() {
+        assertThatThrownBy(() -> LogResource.read(spool, "maven-log://unknown-1"))
+                .isInstanceOf(McpError.class);
+    }
+
+    @Test
+    void shouldRejectMalformedRange() {
+        assertThatThrownBy(() -> LogResource.read(spool, "maven-log://" + runId + "?lines=9-3"))
+                .isInstanceOf(McpError.class)
+                .hasMessageContaining("Invalid range");
+    }
+
+    private static String text(ReadResourceResult result) {
+        return ((TextResourceContents) result.contents().getFirst()).text();
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.mavenmcp.stats;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    @Test
+    void shouldEstimatePercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int ms = 1; ms <= 1000; ms++) {
+            histogram.record(ms * 1_000_000L);
+        }
+
+        assertThat(histogram.count()).isEqualTo(1000);
+        assertThat(histogram.percentile(50)).isCloseTo(500_000L, within(500_000L / 8));
+        assertThat(histogram.percentile(99)).isCloseTo(990_000L, within(990_000L / 8));
+        assertThat(histogram.snapshot().max()).isEqualTo(1000.0);
+    }
+
+    @Test
+    void shouldReturnZeroWhenEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThat(histogram.percentile(99)).isZero();
+        assertThat(histogram.snapshot().count()).isZero();
+    }
+
+    @Test
+    void shouldMapEveryValueToBucketContainingIt() {
+        for (long v : new long[] {0, 1, 15, 16, 17, 31, 32, 1000, 123_456, 1L << 40}) {
+            int bucket = LatencyHistogram.bucketOf(v);
+            long midpoint = LatencyHistogram.midpointOf(bucket);
+            assertThat((double) Math.abs(midpoint - v)).isLessThanOrEqualTo(Math.max(1, v / 8.0));
+        }
+    }
+
+    @Test
+    void shouldCountConcurrentRecordings() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        IntStream.range(0, 10_000).parallel().forEach(i -> histogram.record(i * 1_000L));
+
+        assertThat(histogram.count()).isEqualTo(10_000);
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.mavenmcp.stats;
+
+import io.github.mavenmcp.model.ValueStats;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ValueAggregatorTest {
+
+    @Test
+    void shouldKeepValuesExactly() {
+        ValueAggregator values = new ValueAggregator();
+        values.record(1);
+        values.record(2);
+        values.record(3);
+        values.record(3);
+
+        assertThat(values.snapshot()).isEqualTo(new ValueStats(4, 2.25, 1, 3));
+    }
+
+    @Test
+    void shouldReturnZeroWhenEmpty() {
+        assertThat(new ValueAggregator().snapshot()).isEqualTo(new ValueStats(0, 0, 0, 0));
+    }
+}
@@ -1,16 +1,26 @@
 package io.github.mavenmcp.tool;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.mavenmcp.config.ServerConfig;
+import io.github.mavenmcp.history.BuildHistory;
 import io.github.mavenmcp.maven.MavenExecutionResult;
+import io.github.mavenmcp.maven.ProcessTimings;
+import io.github.mavenmcp.model.ResourceUsage;
+import io.github.mavenmcp.stats.ServerStats;
+import io.github.mavenmcp.workspace.ProjectContext;
+import io.github.mavenmcp.workspace.Workspace;
 import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
 import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -75,4 +85,182 @@ class CompileToolTest {
         assertThat(runner.capturedArgs).containsExactly("-DskipFrontend");
     }
 
+    @Test
+    void shouldReturnOnlyChangesSincePreviousBuild() throws Exception {
+        var history = new BuildHistory();
+        String before = "[ERROR] /home/user/my-project/src/main/java/Foo.java:[42,15] cannot find symbol\n"
+                + "[ERROR] /home/user/my-project/src/main/java/Bar.java:[7,1] incompatible types\n[ERROR] BUILD FAILURE";
+        var first = CompileTool.create(config,
+                new TestRunners.StubRunner(new MavenExecutionResult(1, before, "", 4000)), objectMapper, history);
+        JsonNode firstJson = json(first.call().apply(null, Map.of()));
+        String buildId = firstJson.path("buildId").asText();
+        assertThat(buildId).isNotBlank();
+
+        String after = "[ERROR] /home/user/my-project/src/main/java/Foo.java:[43,15] cannot find symbol\n"
+                + "[ERROR] /home/user/my-project/src/main/java/Baz.java:[3,9] missing return statement\n[ERROR] BUILD FAILURE";
+        var second = CompileTool.create(config,
+                new TestRunners.StubRunner(new MavenExecutionResult(1, after, "", 4000)), objectMapper, history);
+        JsonNode delta = json(second.call().apply(null, Map.of("since", buildId)));
+
+        assertThat(delta.has("errors")).isFalse();
+        assertThat(delta.has("output")).isFalse();
+        assertThat(delta.path("delta").path("since").asText()).isEqualTo(buildId);
+        assertThat(delta.path("delta").path("newErrors")).hasSize(1);
+        assertThat(delta.path("delta").path("newErrors").get(0).path("file").asText())
+                .isEqualTo("src/main/java/Baz.java");
+        assertThat(delta.path("delta").path("resolvedErrors").get(0).path("file").asText())
+                .isEqualTo("src/main/java/Bar.java");
+        assertThat(delta.path("delta").path("unchangedErrors").asInt()).isEqualTo(1);
+        assertThat(delta.path("buildId").asText()).isNotEqualTo(buildId);
+    }
+
+    @Test
+    void shouldKeepTheOutputOfAFailureWithoutNewErrors() throws Exception {
+        var history = new BuildHistory();
+        String before = "[ERROR] /home/user/my-project/src/main/java/Foo.java:[42,15] cannot find symbol\n"
+                + "[ERROR] BUILD FAILURE";
+        var first = CompileTool.create(config,
+                new TestRunners.StubRunner(new MavenExecutionResult(1, before, "", 4000)), objectMapper, history);
+        String buildId = json(first.call().apply(null, Map.of())).path("buildId").asText();
+
+        String after = "[ERROR] Failed to execute goal on project app: Could not resolve dependencies "
+                + "for project com.example:app:jar:1.0\n[ERROR] BUILD FAILURE";
+        var second = CompileTool.create(config,
+                new TestRunners.StubRunner(new MavenExecutionResult(1, after, "", 4000)), objectMapper, history);
+        JsonNode delta = json(second.call().apply(null, Map.of("since", buildId)));
+
+        assertThat(delta.path("status").asText()).isEqualTo("FAILURE");
+        assertThat(delta.path("delta").path("newErrors")).isEmpty();
+        assertThat(delta.path("delta").path("resolvedErrors")).hasSize(1);
+        assertThat(delta.path("output").asText()).contains("Could not resolve dependencies");
+    }
+
+    @Test
+    void shouldReturnFullResultForUnknownBuildId() throws Exception {
+        String stdout = "[ERROR] /home/user/my-project/src/main/java/Foo.java:[42,15] cannot find symbol";
+        var runner = new TestRunners.StubRunner(new MavenExecutionResult(1, stdout, "", 4000));
+        SyncToolSpecification spec = CompileTool.create(config, runner, objectMapper);
+
+        JsonNode json = json(spec.call().apply(null, Map.of("since", "unknown-1")));
+
+        assertThat(json.path("errors")).hasSize(1);
+        assertThat(json.has("delta")).isFalse();
+    }
+
+    @Test
+    void shouldIncludeTimingsWhenRequestedAndRecordStats() throws Exception {
+        var execResult = new MavenExecutionResult(0, "[INFO] BUILD SUCCESS", "", 3000, null,
+                new ProcessTimings(2_000_000, 300_000_000, 2_900_000_000L));
+        var stats = new ServerStats();
+        SyncToolSpecification spec = CompileTool.create(config, new TestRunners.StubRunner(execResult),
+                objectMapper, new BuildHistory(), stats);
+
+        JsonNode json = json(spec.call().apply(null, Map.of("includeTimings", true)));
+
+        assertThat(json.path("timings").path("spawn").asDouble()).isEqualTo(2.0);
+        assertThat(json.path("timings").path("maven").asDouble()).isEqualTo(2900.0);
+        assertThat(json.path("timings").has("parseOutput")).isTrue();
+        var compileStats = stats.snapshot().tools().get("maven_compile");
+        assertThat(compileStats).containsKeys("spawn", "firstOutput", "maven", "parseOutput", "serialize", "total");
+        assertThat(compileStats.get("total").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReportATimeoutWithThePrediction() throws Exception {
+        var execResult = new MavenExecutionResult(143, "[ERROR] Maven did not finish within 60s and was killed",
+                "", 60_000, null, null, true, null, null, null, null);
+        SyncToolSpecification spec = CompileTool.create(config, new TestRunners.StubRunner(execResult), objectMapper);
+
+        JsonNode json = json(spec.call().apply(null, Map.of()));
+
+        assertThat(json.path("status").asText()).isEqualTo("TIMEOUT");
+        assertThat(json.path("output").asText()).contains("was killed");
+        assertThat(json.path("prediction").path("timeout").asLong()).isEqualTo(3_600_000);
+        assertThat(json.path("prediction").path("samples").asInt()).isZero();
+    }
+
+    @Test
+    void shouldReportResourceUseWithTheTimingsAndInTheStats() throws Exception {
+        var execResult = new MavenExecutionResult(0, "[INFO] BUILD SUCCESS", "", 3000, null, null, false, null,
+                new ResourceUsage(512L * 1024 * 1024, 7_500, 60, 2, 15), null, null);
+        var stats = new ServerStats();
+        SyncToolSpecification spec = CompileTool.create(config, new TestRunners.StubRunner(execResult),
+                objectMapper, new BuildHistory(), stats);
+
+        JsonNode plain = json(spec.call().apply(null, Map.of()));
+        JsonNode timed = json(spec.call().apply(null, Map.of("includeTimings", true)));
+
+        assertThat(plain.has("resources")).isFalse();
+        assertThat(timed.path("resources").path("cpuTime").asLong()).isEqualTo(7_500);
+        assertThat(timed.path("resources").path("forkedJvms").asInt()).isEqualTo(2);
+        var resources = stats.snapshot().resources().get("maven_compile");
+        assertThat(resources.get("peakRssMb").count()).isEqualTo(2);
+        assertThat(resources.get("peakRssMb").max()).isEqualTo(512);
+        assertThat(resources.get("cpuTime").max()).isEqualTo(7500);
+        assertThat(resources.get("forkedJvms").max()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldOmitTimingsByDefault() throws Exception {
+        var runner = new TestRunners.StubRunner(new MavenExecutionResult(0, "[INFO] BUILD SUCCESS", "", 3000));
+        SyncToolSpecification spec = CompileTool.create(config, runner, objectMapper);
+
+        JsonNode json = json(spec.call().apply(null, Map.of()));
+
+        assertThat(json.has("timings")).isFalse();
+    }
+
+    private JsonNode json(CallToolResult result) throws Exception {
+        return objectMapper.readTree(((TextContent) result.content().getFirst()).text());
+    }
+
+    @Test
+    void shouldBuildTheProjectNamedInTheCall() {
+        var appRunner = new TestRunners.CapturingRunner();
+        var libRunner = new TestRunners.CapturingRunner();
+        ServerConfig app = new ServerConfig(Path.of("/work/app"), Path.of("/usr/bin/mvn"));
+        ServerConfig lib = new ServerConfig(Path.of("/work/lib"), Path.of("/work/lib/mvnw"));
+        var workspace = new Workspace(List.of(app, lib), project -> ProjectContext.of(project,
+                project == app ? appRunner : libRunner, new BuildHistory()), Workspace.DEFAULT_MEMORY_CAP);
+        SyncToolSpecification spec = CompileTool.create(workspace, objectMapper, new ServerStats());
+
+        CallToolResult byName = spec.call().apply(null, Map.of("project", "lib"));
+        CallToolResult missing = spec.call().apply(null, Map.of());
+
+        assertThat(byName.isError()).isFalse();
+        assertThat(libRunner.capturedDir).isEqualTo(Path.of("/work/lib"));
+        assertThat(appRunner.capturedDir).isNull();
+        assertThat(missing.isError()).isTrue();
+        assertThat(((TextContent) missing.content().getFirst()).text())
+                .contains("pass 'project' as one of: app, lib");
+    }
+
+    @Test
+    void shouldSkipBoundChecksInFastModeAndReportThem(@TempDir Path projectDir) throws Exception {
+        Files.writeString(projectDir.resolve("pom.xml"), """
+                <project><build><plugins>
+                  <plugin><artifactId>maven-enforcer-plugin</artifactId>
+                    <executions><execution><goals><goal>enforce</goal></goals></execution></executions></plugin>
+                </plugins></build></project>
+                """);
+        var runner = new TestRunners.CapturingRunner();
+        SyncToolSpecification spec = CompileTool.create(
+                new ServerConfig(projectDir, Path.of("/usr/bin/mvn")), runner, objectMapper);
+
+        JsonNode json = json(spec.call().apply(null, Map.of("mode", "fast", "args", List.of("-Pdev"))));
+
+        assertThat(runner.capturedArgs).containsExactly("-Denforcer.skip=true", "-Pdev");
+        assertThat(json.at("/mode/skippedPlugins/0").asText()).isEqualTo("maven-enforcer-plugin");
+    }
+
+    @Test
+    void shouldRejectUnknownMode() {
+        var runner = new TestRunners.CapturingRunner();
+        SyncToolSpecification spec = CompileTool.create(config, runner, objectMapper);
+
+        CallToolResult result = spec.call().apply(null, Map.of("mode", "quick"));
+
+        assertThat(result.isError()).isTrue();
+        assertThat(runner.capturedArgs).isNull();
+    }
 }
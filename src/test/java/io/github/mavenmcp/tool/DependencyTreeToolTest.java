@@ -0,0 +1,113 @@
+package io.github.mavenmcp.tool;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.config.ServerConfig;
+import io.github.mavenmcp.history.BuildHistory;
+import io.github.mavenmcp.maven.MavenExecutionResult;
+import io.github.mavenmcp.stats.ServerStats;
+import io.github.mavenmcp.workspace.ProjectContext;
+import io.github.mavenmcp.workspace.Workspace;
+import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DependencyTreeToolTest {
+
+    private static final String OUTPUT = """
+            [INFO] --- dependency:3.7.0:tree (default-cli) @ app ---
+            [INFO] com.example:app:jar:1.0
+            [INFO] +- com.fasterxml.jackson.core:jackson-databind:jar:2.17.1:compile
+            [INFO] |  +- com.fasterxml.jackson.core:jackson-annotations:jar:2.17.1:compile
+            [INFO] |  \\- (com.fasterxml.jackson.core:jackson-core:jar:2.17.1:compile - omitted for conflict with 2.15.0)
+            [INFO] +- com.fasterxml.jackson.core:jackson-core:jar:2.15.0:compile
+            [INFO] \\- com.google.guava:guava:jar:33.2.1-jre:compile
+            [INFO]
+            [INFO] BUILD SUCCESS
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    @TempDir
+    Path tempDir;
+
+    private SyncToolSpecification spec;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(tempDir.resolve("pom.xml"), """
+                <project><groupId>com.example</groupId><artifactId>app</artifactId><version>1.0</version></project>
+                """);
+        var runner = new TestRunners.StubRunner(new MavenExecutionResult(0, OUTPUT, "", 900));
+        var config = new ServerConfig(tempDir, Path.of("/usr/bin/mvn"));
+        spec = DependencyTreeTool.create(Workspace.of(ProjectContext.of(config, runner, new BuildHistory())),
+                objectMapper, new ServerStats());
+    }
+
+    private JsonNode call(Map<String, Object> params) throws IOException {
+        var result = spec.call().apply(null, params);
+        assertThat(result.isError()).isFalse();
+        return objectMapper.readTree(((TextContent) result.content().getFirst()).text());
+    }
+
+    @Test
+    void shouldReturnTreesWithoutOmittedNodesAndServeThemFromMemory() throws IOException {
+        JsonNode first = call(Map.of("depth", 1));
+        JsonNode second = call(Map.of("includeOmitted", true));
+
+        assertThat(first.path("source").asText()).isEqualTo("resolved");
+        assertThat(first.path("buildId").isTextual()).isTrue();
+        JsonNode root = first.path("trees").get(0).path("root");
+        assertThat(root.path("artifactId").asText()).isEqualTo("app");
+        assertThat(root.path("children")).hasSize(3);
+        assertThat(root.path("children").get(0).has("children")).isFalse();
+        assertThat(second.path("source").asText()).isEqualTo("memory");
+        assertThat(second.has("buildId")).isFalse();
+        assertThat(second.path("trees").get(0).path("root").path("children").get(0).path("children")).hasSize(2);
+    }
+
+    @Test
+    void shouldFindArtifactsWithTheirPaths() throws IOException {
+        JsonNode result = call(Map.of("filter", "*:jackson-core"));
+
+        assertThat(result.has("trees")).isFalse();
+        JsonNode matches = result.path("matches");
+        assertThat(matches).hasSize(2);
+        assertThat(matches.get(0).path("omitted").asText()).isEqualTo("conflict with 2.15.0");
+        assertThat(matches.get(0).path("path").toString()).isEqualTo(
+                "[\"com.fasterxml.jackson.core:jackson-databind:2.17.1\",\"com.fasterxml.jackson.core:jackson-core:2.17.1\"]");
+        assertThat(matches.get(1).path("dependency").asText())
+                .isEqualTo("com.fasterxml.jackson.core:jackson-core:2.15.0");
+    }
+
+    @Test
+    void shouldListConflicts() throws IOException {
+        JsonNode conflicts = call(Map.of("conflicts", true)).path("conflicts");
+
+        assertThat(conflicts).hasSize(1);
+        assertThat(conflicts.get(0).path("dependency").asText()).isEqualTo("com.fasterxml.jackson.core:jackson-core");
+        assertThat(conflicts.get(0).path("resolved").asText()).isEqualTo("2.15.0");
+        assertThat(conflicts.get(0).path("requested").asText()).isEqualTo("2.17.1");
+    }
+
+    @Test
+    void shouldMatchGroupWildcardsOnly() {
+        var pattern = DependencyTreeTool.filterPattern("com.fasterxml.*");
+
+        assertThat(pattern.matcher("com.fasterxml.jackson.core:jackson-core").matches()).isTrue();
+        assertThat(pattern.matcher("com.google.guava:guava").matches()).isFalse();
+        assertThat(DependencyTreeTool.filterPattern("com.google.guava").matcher("com.google.guava:guava").matches())
+                .isTrue();
+    }
+}
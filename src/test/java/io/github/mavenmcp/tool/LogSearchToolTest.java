@@ -0,0 +1,47 @@
+package io.github.mavenmcp.tool;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.log.LogArchive;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogSearchToolTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReturnEmptyResultForEmptyArchive() {
+        try (var archive = new LogArchive(tempDir, 10, Duration.ofDays(1))) {
+            var spec = LogSearchTool.create(archive, objectMapper);
+
+            var result = spec.call().apply(null, Map.of("query", "deprecated"));
+
+            assertThat(result.isError()).isFalse();
+            String json = ((TextContent) result.content().getFirst()).text();
+            assertThat(json).contains("\"totalMatches\":0").contains("\"searchedBuilds\":0");
+        }
+    }
+
+    @Test
+    void shouldReportErrorForMissingQuery() {
+        try (var archive = new LogArchive(tempDir, 10, Duration.ofDays(1))) {
+            var spec = LogSearchTool.create(archive, objectMapper);
+
+            var result = spec.call().apply(null, Map.of());
+
+            assertThat(result.isError()).isTrue();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.mavenmcp.tool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.config.ServerConfig;
+import io.github.mavenmcp.history.BuildHistory;
+import io.github.mavenmcp.maven.ProjectModelService;
+import io.github.mavenmcp.model.ArtifactInfo;
+import io.github.mavenmcp.stats.ServerStats;
+import io.github.mavenmcp.workspace.ProjectContext;
+import io.github.mavenmcp.workspace.Workspace;
+import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PackageToolTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    @TempDir
+    Path tempDir;
+
+    private final TestRunners.CapturingRunner runner = new TestRunners.CapturingRunner();
+    private SyncToolSpecification packageTool;
+    private SyncToolSpecification testTool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(tempDir.resolve("pom.xml"), """
+                <project><groupId>com.example</groupId><artifactId>app</artifactId><version>1.0</version></project>
+                """);
+        Files.createDirectories(tempDir.resolve("src/main/java/com/example"));
+        Files.writeString(tempDir.resolve("src/main/java/com/example/App.java"), "class App {}");
+        Path reports = Files.createDirectories(tempDir.resolve("target/surefire-reports"));
+        try (InputStream is = getClass().getClassLoader()
+                .getResourceAsStream("surefire-reports/TEST-com.example.PassingTest.xml")) {
+            Files.copy(is, reports.resolve("TEST-com.example.PassingTest.xml"));
+        }
+        var config = new ServerConfig(tempDir, Path.of("/usr/bin/mvn"));
+        var workspace = Workspace.of(ProjectContext.of(config, runner, new BuildHistory()));
+        packageTool = PackageTool.create(workspace, objectMapper, new ServerStats());
+        testTool = TestTool.create(workspace, objectMapper, new ServerStats());
+    }
+
+    private JsonNode call(SyncToolSpecification spec, Map<String, Object> params) throws IOException {
+        var result = spec.call().apply(null, params);
+        assertThat(result.isError()).isFalse();
+        return objectMapper.readTree(((TextContent) result.content().getFirst()).text());
+    }
+
+    @Test
+    void shouldSkipTestsThatPassedOnTheSameSources() throws IOException {
+        String testBuild = call(testTool, Map.of()).path("buildId").asText();
+
+        JsonNode reused = call(packageTool, Map.of());
+
+        assertThat(runner.capturedArgs).containsExactly("-DskipTests");
+        assertThat(reused.path("testReuse").path("reused").asBoolean()).isTrue();
+        assertThat(reused.path("testReuse").path("buildId").asText()).isEqualTo(testBuild);
+
+        Path source = tempDir.resolve("src/main/java/com/example/App.java");
+        Files.writeString(source, "class App { int x; }");
+        Files.setLastModifiedTime(source, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+        JsonNode executed = call(packageTool, Map.of());
+
+        assertThat(runner.capturedArgs).isEmpty();
+        assertThat(executed.path("testReuse").path("reused").asBoolean()).isFalse();
+        assertThat(executed.path("summary").path("testsRun").asInt()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldNotReuseFilteredTestRunsOrRunsWithOtherArguments() throws IOException {
+        call(testTool, Map.of("testFilter", "PassingTest"));
+        JsonNode afterFiltered = call(packageTool, Map.of());
+        call(testTool, Map.of());
+        JsonNode withProfile = call(packageTool, Map.of("args", List.of("-Pnative")));
+        JsonNode disabled = call(packageTool, Map.of("reuseTests", false));
+
+        assertThat(afterFiltered.path("testReuse").path("reused").asBoolean()).isFalse();
+        assertThat(withProfile.path("testReuse").path("reused").asBoolean()).isFalse();
+        assertThat(disabled.path("testReuse").path("reason").asText()).isEqualTo("reuseTests is false");
+        assertThat(runner.capturedArgs).isEmpty();
+    }
+
+    @Test
+    void shouldDetectTheMainArtifactWithItsChecksum() throws IOException {
+        Path target = tempDir.resolve("target");
+        Files.writeString(target.resolve("app-1.0-sources.jar"), "sources");
+        Files.writeString(target.resolve("app-1.0.jar"), "abc");
+
+        var model = new ProjectModelService(tempDir).model(null);
+        List<ArtifactInfo> artifacts = PackageTool.detectArtifacts(tempDir, model);
+
+        assertThat(artifacts).containsExactly(new ArtifactInfo("target/app-1.0.jar", "app-1.0.jar", 3,
+                "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad"));
+    }
+
+    @Test
+    void shouldFallBackToTheNewestArchiveForACustomFinalName() throws IOException {
+        Path target = tempDir.resolve("target");
+        Files.writeString(target.resolve("old.jar"), "old");
+        Files.setLastModifiedTime(target.resolve("old.jar"), FileTime.fromMillis(1_000));
+        Files.writeString(target.resolve("service.jar"), "new");
+        Files.writeString(target.resolve("service-javadoc.jar"), "docs");
+        Files.setLastModifiedTime(target.resolve("service-javadoc.jar"),
+                FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+
+        JsonNode result = call(packageTool, Map.of());
+
+        assertThat(result.path("artifact").path("name").asText()).isEqualTo("service.jar");
+    }
+}
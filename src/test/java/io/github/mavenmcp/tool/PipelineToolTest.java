@@ -0,0 +1,151 @@
+package io.github.mavenmcp.tool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.config.ServerConfig;
+import io.github.mavenmcp.history.BuildHistory;
+import io.github.mavenmcp.maven.MavenExecutionResult;
+import io.github.mavenmcp.maven.MavenRunner;
+import io.github.mavenmcp.stats.ServerStats;
+import io.github.mavenmcp.workspace.ProjectContext;
+import io.github.mavenmcp.workspace.Workspace;
+import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PipelineToolTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(tempDir.resolve("pom.xml"), """
+                <project><groupId>com.example</groupId><artifactId>app</artifactId><version>1.0</version></project>
+                """);
+    }
+
+    private SyncToolSpecification spec(MavenRunner runner) {
+        var config = new ServerConfig(tempDir, Path.of("/usr/bin/mvn"));
+        return PipelineTool.create(Workspace.of(ProjectContext.of(config, runner, new BuildHistory())),
+                objectMapper, new ServerStats());
+    }
+
+    private JsonNode call(MavenRunner runner, Map<String, Object> params) throws IOException {
+        var result = spec(runner).call().apply(null, params);
+        assertThat(result.isError()).isFalse();
+        return objectMapper.readTree(((TextContent) result.content().getFirst()).text());
+    }
+
+    @Test
+    void shouldRunAllStepsInOneInvocationAndReportEach() throws IOException {
+        Path reports = Files.createDirectories(tempDir.resolve("target/surefire-reports"));
+        try (InputStream is = getClass().getClassLoader()
+                .getResourceAsStream("surefire-reports/TEST-com.example.PassingTest.xml")) {
+            Files.copy(is, reports.resolve("TEST-com.example.PassingTest.xml"));
+        }
+        var runner = new TestRunners.CapturingRunner() {
+            String goal;
+
+            @Override
+            public MavenExecutionResult execute(String goal, List<String> extraArgs, Path exe, Path dir, Duration timeout) {
+                this.goal = goal;
+                return new MavenExecutionResult(0, """
+                        [INFO] --- clean:3.2.0:clean (default-clean) @ app ---
+                        [INFO] --- compiler:3.13.0:compile (default-compile) @ app ---
+                        [WARNING] %s/src/main/java/App.java:[3,5] deprecated API
+                        [INFO] --- surefire:3.2.5:test (default-test) @ app ---
+                        [INFO] BUILD SUCCESS
+                        """.formatted(tempDir), "", 4000);
+            }
+        };
+
+        JsonNode result = call(runner, Map.of("steps", List.of("clean", "compile", "test")));
+
+        assertThat(runner.goal).isEqualTo("clean test");
+        assertThat(result.path("status").asText()).isEqualTo("SUCCESS");
+        assertThat(result.path("buildId").isTextual()).isTrue();
+        JsonNode steps = result.path("steps");
+        assertThat(steps).hasSize(3);
+        assertThat(steps.get(0).path("step").asText()).isEqualTo("clean");
+        assertThat(steps.get(1).path("result").path("warnings").get(0).path("file").asText())
+                .isEqualTo("src/main/java/App.java");
+        assertThat(steps.get(2).path("mojos").asInt()).isEqualTo(1);
+        assertThat(steps.get(2).path("result").path("summary").path("testsRun").asInt()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldSkipStepsAfterAFailedOne() throws IOException {
+        var runner = new TestRunners.StubRunner(new MavenExecutionResult(1, """
+                [INFO] --- compiler:3.13.0:compile (default-compile) @ app ---
+                [ERROR] %s/src/main/java/App.java:[1,20] ';' expected
+                [INFO] BUILD FAILURE
+                [ERROR] Failed to execute goal org.apache.maven.plugins:maven-compiler-plugin:3.13.0:compile (default-compile) on project app: Compilation failure
+                """.formatted(tempDir), "", 2000));
+
+        JsonNode result = call(runner, Map.of("steps", List.of("compile", "test", "package")));
+
+        assertThat(result.path("status").asText()).isEqualTo("FAILURE");
+        JsonNode steps = result.path("steps");
+        assertThat(steps.get(0).path("result").path("status").asText()).isEqualTo("FAILURE");
+        assertThat(steps.get(0).path("result").path("errors").get(0).path("message").asText())
+                .isEqualTo("';' expected");
+        assertThat(steps.get(1).path("result").path("status").asText()).isEqualTo("SKIPPED");
+        assertThat(steps.get(2).path("mojos").asInt()).isZero();
+    }
+
+    @Test
+    void shouldShareOneBudgetAcrossStepsFailedStepFirst() throws IOException {
+        Path reports = Files.createDirectories(tempDir.resolve("target/surefire-reports"));
+        try (InputStream is = getClass().getClassLoader()
+                .getResourceAsStream("surefire-reports/TEST-com.example.FailingTestWithLogs.xml")) {
+            Files.copy(is, reports.resolve("TEST-com.example.FailingTestWithLogs.xml"));
+        }
+        StringBuilder warnings = new StringBuilder();
+        for (int i = 1; i <= 300; i++) {
+            warnings.append("[WARNING] %s/src/main/java/App.java:[%d,5] deprecated API%n".formatted(tempDir, i));
+        }
+        var runner = new TestRunners.StubRunner(new MavenExecutionResult(1, """
+                [INFO] --- compiler:3.13.0:compile (default-compile) @ app ---
+                %s[INFO] --- surefire:3.2.5:test (default-test) @ app ---
+                [INFO] BUILD FAILURE
+                [ERROR] Failed to execute goal org.apache.maven.plugins:maven-surefire-plugin:3.2.5:test (default-test) on project app: There are test failures.
+                """.formatted(warnings), "", 4000));
+
+        JsonNode result = call(runner, Map.of("steps", List.of("compile", "test"), "maxResponseChars", 4000,
+                "includeTestLogs", false, "groupFailures", false));
+
+        JsonNode steps = result.path("steps");
+        JsonNode failures = steps.get(1).path("result").path("failures");
+        assertThat(failures).isNotEmpty();
+        assertThat(failures.get(0).has("testOutput")).isFalse();
+        assertThat(steps.get(0).path("result").path("warnings").size()).isLessThan(300);
+        assertThat(steps.get(0).path("result").path("omitted").path("warnings").asInt()).isPositive();
+        assertThat(objectMapper.writeValueAsString(steps).length()).isLessThan(5000);
+    }
+
+    @Test
+    void shouldRejectUnknownSteps() {
+        var result = spec(new TestRunners.CapturingRunner()).call()
+                .apply(null, Map.of("steps", List.of("compile", "tset")));
+
+        assertThat(result.isError()).isTrue();
+        assertThat(((TextContent) result.content().getFirst()).text()).startsWith("Error: Unknown step 'tset'");
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.mavenmcp.tool;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.config.ServerConfig;
+import io.github.mavenmcp.history.BuildHistory;
+import io.github.mavenmcp.maven.MavenRunner;
+import io.github.mavenmcp.stats.ServerStats;
+import io.github.mavenmcp.workspace.ProjectContext;
+import io.github.mavenmcp.workspace.Workspace;
+import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectInfoToolTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    @TempDir
+    Path tempDir;
+
+    private SyncToolSpecification spec;
+
+    @BeforeEach
+    void setUp() {
+        var config = new ServerConfig(tempDir, Path.of("/usr/bin/mvn"));
+        spec = ProjectInfoTool.create(Workspace.of(ProjectContext.of(config, new MavenRunner(), new BuildHistory())),
+                objectMapper, new ServerStats());
+    }
+
+    @Test
+    void shouldDescribeModulesWithoutPropertiesByDefault() throws IOException {
+        Files.writeString(tempDir.resolve("pom.xml"), """
+                <project>
+                  <groupId>com.example</groupId><artifactId>shop</artifactId><version>1.0</version>
+                  <properties><java.version>21</java.version></properties>
+                </project>
+                """);
+
+        var result = spec.call().apply(null, Map.of());
+        var withProperties = spec.call().apply(null, Map.of("includeProperties", true, "module", "."));
+
+        assertThat(result.isError()).isFalse();
+        String json = ((TextContent) result.content().getFirst()).text();
+        assertThat(json).contains("\"groupId\":\"com.example\"", "\"path\":\".\"",
+                "\"sourceDirectory\":\"src/main/java\"").doesNotContain("java.version");
+        assertThat(((TextContent) withProperties.content().getFirst()).text()).contains("\"java.version\":\"21\"");
+    }
+
+    @Test
+    void shouldReportUnknownModulesAndMissingPoms() throws IOException {
+        var missing = spec.call().apply(null, Map.of());
+        Files.writeString(tempDir.resolve("pom.xml"), "<project><artifactId>shop</artifactId></project>");
+        var unknown = spec.call().apply(null, Map.of("module", "web"));
+
+        assertThat(missing.isError()).isTrue();
+        assertThat(((TextContent) missing.content().getFirst()).text()).startsWith("Error: No pom.xml");
+        assertThat(unknown.isError()).isTrue();
+        assertThat(((TextContent) unknown.content().getFirst()).text()).contains("Unknown module 'web'", "[.]");
+    }
+}
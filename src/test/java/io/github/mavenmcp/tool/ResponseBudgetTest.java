@@ -0,0 +1,137 @@
+package io.github.mavenmcp.tool;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.model.BuildResult;
+import io.github.mavenmcp.model.CompilationError;
+import io.github.mavenmcp.model.TestFailure;
+import io.github.mavenmcp.model.TestSummary;
+import io.github.mavenmcp.parser.CompilationOutputParser.ParseResult;
+import io.github.mavenmcp.parser.SurefireReportParser.SurefireResult;
+import io.github.mavenmcp.tool.ResponseBudget.Section;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseBudgetTest {
+
+    @Test
+    void shouldReserveSpaceForLowerPrioritySections() {
+        ResponseBudget budget = ResponseBudget.demands()
+                .add(Section.ERRORS, 100_000)
+                .add(Section.OUTPUT, 1_000)
+                .budget(10_200);
+
+        // Errors may take everything except the output reserve
+        assertThat(budget.allowance(Section.ERRORS)).isEqualTo(10_000 - 1_000);
+        assertThat(budget.allowance(Section.OUTPUT)).isEqualTo(10_000);
+    }
+
+    @Test
+    void shouldLetUnusedSpaceFlowToLowerSections() {
+        ResponseBudget budget = ResponseBudget.demands()
+                .add(Section.ERRORS, 500)
+                .add(Section.OUTPUT, 50_000)
+                .budget(10_200);
+
+        assertThat(budget.tryConsume(Section.ERRORS, 500)).isTrue();
+
+        assertThat(budget.allowance(Section.OUTPUT)).isEqualTo(9_500);
+    }
+
+    @Test
+    void shouldKeepPrefixOfEntriesAndCountOmitted() {
+        ResponseBudget budget = ResponseBudget.demands().budget(500);
+
+        List<String> kept = budget.fitEntries(Section.WARNINGS,
+                List.of("a".repeat(100), "b".repeat(100), "c".repeat(100), "d".repeat(100)),
+                String::length);
+
+        assertThat(kept).hasSize(3);
+        assertThat(budget.omitted()).containsEntry("warnings", 1);
+    }
+
+    @Test
+    void shouldKeepTailWhenTruncatingText() {
+        ResponseBudget budget = ResponseBudget.demands().budget(300);
+        String text = "HEAD".repeat(100) + "[ERROR] BUILD FAILURE";
+
+        String fitted = budget.fitText(Section.OUTPUT, text);
+
+        assertThat(fitted).startsWith("... (").contains("chars truncated").endsWith("[ERROR] BUILD FAILURE");
+        assertThat(fitted.length()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void shouldReturnNullOmittedWhenEverythingFits() {
+        ResponseBudget budget = ResponseBudget.demands().budget(10_000);
+
+        budget.fitText(Section.OUTPUT, "short");
+
+        assertThat(budget.omitted()).isNull();
+    }
+
+    @Nested
+    class CompilationResults {
+
+        @Test
+        void shouldPreferErrorsOverWarningsAndOutput() {
+            List<CompilationError> errors = new ArrayList<>();
+            List<CompilationError> warnings = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                errors.add(new CompilationError("src/main/java/Foo.java", i + 1, 1, "cannot find symbol " + i, "ERROR"));
+                warnings.add(new CompilationError("src/main/java/Bar.java", i + 1, 1, "[deprecation] old " + i, "WARNING"));
+            }
+
+            BuildResult result = CompileTool.compilationResult(BuildResult.FAILURE, 100,
+                    new ParseResult(errors, warnings), "X".repeat(20_000), 4_000);
+
+            assertThat(result.errors()).isNotEmpty();
+            assertThat(result.errors().size()).isGreaterThan(result.warnings().size());
+            assertThat(result.output()).contains("chars truncated");
+            assertThat(result.omitted()).containsKeys("errors", "warnings");
+        }
+
+        @Test
+        void shouldEstimateTheSizeOfAFittedResultWithinItsBudget() throws Exception {
+            List<CompilationError> errors = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                errors.add(new CompilationError("src/main/java/Foo.java", i + 1, 1, "cannot find symbol " + i, "ERROR"));
+            }
+
+            BuildResult result = CompileTool.compilationResult(BuildResult.FAILURE, 100,
+                    new ParseResult(errors, List.of()), "X".repeat(20_000), 4_000);
+            int serialized = new ObjectMapper().writeValueAsString(result).length();
+
+            assertThat(ResponseBudget.sizeOf(result)).isLessThanOrEqualTo(4_000)
+                    .isBetween(serialized * 8 / 10, serialized * 12 / 10);
+        }
+    }
+
+    @Nested
+    class TestResults {
+
+        @Test
+        void shouldStopProcessingStackTracesOnceBudgetIsExhausted() {
+            List<TestFailure> failures = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                String trace = "java.lang.IllegalStateException: failure " + i + "\n"
+                        + ("\tat com.example.Service" + i + ".run(Service.java:10)\n").repeat(30);
+                failures.add(new TestFailure("com.example.T" + i + "Test", "test", "failure " + i, trace, "log ".repeat(500)));
+            }
+            var sr = new SurefireResult(new TestSummary(40, 40, 0, 0), failures);
+
+            BuildResult result = TestTool.testResult(BuildResult.FAILURE, 100, sr, "[ERROR] Tests failed",
+                    "com.example", 50, true, 8_000);
+
+            assertThat(result.failures()).hasSize(40);
+            assertThat(result.failures().getFirst().stackTrace()).isNotNull();
+            assertThat(result.failures().getLast().stackTrace()).isNull();
+            assertThat(result.omitted()).containsKeys("stackTraces", "testLogs");
+            assertThat(result.output()).isEqualTo("[ERROR] Tests failed");
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.mavenmcp.tool;
 
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 
 import io.github.mavenmcp.maven.MavenExecutionException;
@@ -24,7 +25,7 @@ final class TestRunners {
         }
 
         @Override
-        public MavenExecutionResult execute(String goal, List<String> extraArgs, Path exe, Path dir) {
+        public MavenExecutionResult execute(String goal, List<String> extraArgs, Path exe, Path dir, Duration timeout) {
             return result;
         }
     }
@@ -32,10 +33,12 @@ final class TestRunners {
     /** Captures the args passed to execute(). */
     static class CapturingRunner extends MavenRunner {
         List<String> capturedArgs;
+        Path capturedDir;
 
         @Override
-        public MavenExecutionResult execute(String goal, List<String> extraArgs, Path exe, Path dir) {
+        public MavenExecutionResult execute(String goal, List<String> extraArgs, Path exe, Path dir, Duration timeout) {
             capturedArgs = extraArgs;
+            capturedDir = dir;
             return new MavenExecutionResult(0, "", "", 100);
         }
     }
@@ -43,7 +46,7 @@ final class TestRunners {
     /** Always throws MavenExecutionException. */
     static class ThrowingRunner extends MavenRunner {
         @Override
-        public MavenExecutionResult execute(String goal, List<String> extraArgs, Path exe, Path dir) {
+        public MavenExecutionResult execute(String goal, List<String> extraArgs, Path exe, Path dir, Duration timeout) {
             throw new MavenExecutionException("Simulated failure", new RuntimeException(), 0);
         }
     }
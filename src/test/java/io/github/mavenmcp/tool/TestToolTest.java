@@ -2,17 +2,30 @@ package io.github.mavenmcp.tool;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.mavenmcp.config.ServerConfig;
+import io.github.mavenmcp.history.BuildHistory;
+import io.github.mavenmcp.maven.MavenExecutionException;
 import io.github.mavenmcp.maven.MavenExecutionResult;
+import io.github.mavenmcp.maven.MavenRunner;
+import io.github.mavenmcp.maven.ProjectModelService;
+import io.github.mavenmcp.model.BuildResult;
+import io.github.mavenmcp.model.ProjectModel;
+import io.github.mavenmcp.model.TestFailure;
+import io.github.mavenmcp.model.TestSummary;
+import io.github.mavenmcp.parser.SurefireReportParser.SurefireResult;
 import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
 import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -146,6 +159,209 @@ class TestToolTest {
         }
     }
 
+    @Nested
+    class FailureGrouping {
+
+        private void writeSharedRootCauseReport() throws IOException {
+            Files.createDirectories(reportsDir);
+            StringBuilder xml = new StringBuilder("""
+                    <?xml version="1.0" encoding="UTF-8"?>
+                    <testsuite name="com.example.RepoTest" time="1.0" tests="3" errors="3" skipped="0" failures="0">
+                    """);
+            for (int i = 0; i < 3; i++) {
+                xml.append("""
+                          <testcase name="test%d" classname="com.example.RepoTest" time="0.1">
+                            <error message="db down" type="java.lang.IllegalStateException">java.lang.IllegalStateException: db down on port %d
+                        \tat com.example.Db.connect(Db.java:12)
+                        \tat org.junit.Runner.run(Runner.java:5)</error>
+                          </testcase>
+                        """.formatted(i, 5000 + i));
+            }
+            xml.append("</testsuite>\n");
+            Files.writeString(reportsDir.resolve("TEST-com.example.RepoTest.xml"), xml.toString());
+        }
+
+        @Test
+        void shouldGroupFailuresWithSharedRootCause() throws Exception {
+            writeSharedRootCauseReport();
+            var runner = new TestRunners.StubRunner(
+                    new MavenExecutionResult(1, "[ERROR] Tests failed", "", 5000));
+            SyncToolSpecification spec = TestTool.create(config, runner, objectMapper);
+
+            CallToolResult result = spec.call().apply(null, Map.of("appPackage", "com.example"));
+
+            var json = objectMapper.readTree(
+                    ((TextContent) result.content().getFirst()).text());
+            assertThat(json.has("failures")).isFalse();
+            assertThat(json.path("failureClusters")).hasSize(1);
+            var cluster = json.path("failureClusters").get(0);
+            assertThat(cluster.path("count").asInt()).isEqualTo(3);
+            assertThat(cluster.path("messageTemplate").asText()).isEqualTo("db down on port <n>");
+            assertThat(cluster.path("representative").path("stackTrace").asText())
+                    .contains("framework frames omitted");
+        }
+
+        @Test
+        void shouldReturnIndividualFailuresWhenGroupingDisabled() throws Exception {
+            writeSharedRootCauseReport();
+            var runner = new TestRunners.StubRunner(
+                    new MavenExecutionResult(1, "[ERROR] Tests failed", "", 5000));
+            SyncToolSpecification spec = TestTool.create(config, runner, objectMapper);
+
+            CallToolResult result = spec.call().apply(null, Map.of("groupFailures", false));
+
+            String json = result.content().getFirst().toString();
+            assertThat(json).contains("\"failures\"");
+            assertThat(json).doesNotContain("failureClusters");
+        }
+    }
+
+    @Nested
+    class FailureReruns {
+
+        /** Fails the first run; the rerun writes the given report, if any. */
+        private class RerunRunner extends MavenRunner {
+            private final String rerunReport;
+            final List<List<String>> calls = new ArrayList<>();
+
+            RerunRunner(String rerunReport) {
+                this.rerunReport = rerunReport;
+            }
+
+            @Override
+            public MavenExecutionResult execute(String goal, List<String> extraArgs, Path exe, Path dir, Duration timeout) {
+                calls.add(extraArgs);
+                if (calls.size() > 1 && rerunReport != null) {
+                    try {
+                        Files.writeString(reportsDir.resolve("TEST-com.example.FailingTest.xml"), rerunReport);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return new MavenExecutionResult(1, "[ERROR] Tests failed", "", 1000);
+            }
+        }
+
+        @Test
+        void shouldRerunOnlyTheFailedTestsAndClassifyThem() throws Exception {
+            Files.createDirectories(reportsDir);
+            copyFixture("TEST-com.example.FailingTest.xml");
+            var runner = new RerunRunner("""
+                    <testsuite name="com.example.FailingTest" tests="2" errors="0" skipped="0" failures="1">
+                      <testcase name="shouldReturnUser" classname="com.example.FailingTest" time="0.5">
+                        <failure message="expected:&lt;200&gt; but was:&lt;404&gt;" type="java.lang.AssertionError">boom</failure>
+                      </testcase>
+                      <testcase name="shouldHandleNull" classname="com.example.FailingTest" time="0.3"/>
+                    </testsuite>
+                    """);
+            SyncToolSpecification spec = TestTool.create(config, runner, objectMapper);
+
+            CallToolResult result = spec.call().apply(null, Map.of(
+                    "rerunFailures", true, "groupFailures", false, "args", List.of("-Dtest=Other", "-Pci")));
+
+            assertThat(runner.calls).hasSize(2);
+            assertThat(runner.calls.get(1)).containsExactly("-Pci",
+                    "-Dtest=com.example.FailingTest#shouldReturnUser+shouldHandleNull",
+                    "-Dsurefire.failIfNoSpecifiedTests=false", "-DfailIfNoTests=false");
+            var json = objectMapper.readTree(((TextContent) result.content().getFirst()).text());
+            assertThat(json.path("status").asText()).isEqualTo("FAILURE");
+            assertThat(json.path("rerun").path("tests").asInt()).isEqualTo(2);
+            assertThat(json.path("rerun").path("flaky").get(0).asText())
+                    .isEqualTo("com.example.FailingTest#shouldHandleNull");
+            assertThat(json.path("rerun").path("failing").get(0).asText())
+                    .isEqualTo("com.example.FailingTest#shouldReturnUser");
+            assertThat(json.path("rerun").path("buildId").asText()).isNotEqualTo(json.path("buildId").asText());
+            var failures = json.path("failures");
+            assertThat(failures.get(0).path("rerun").asText()).isEqualTo("FAILED");
+            assertThat(failures.get(0).has("flakiness")).isFalse();
+            assertThat(failures.get(1).path("rerun").asText()).isEqualTo("PASSED");
+            assertThat(failures.get(1).path("flakiness").asDouble()).isEqualTo(1.0);
+        }
+
+        @Test
+        void shouldLeaveFailuresUnclassifiedWhenTheRerunReportsNothing() throws Exception {
+            Files.createDirectories(reportsDir);
+            copyFixture("TEST-com.example.FailingTest.xml");
+            var runner = new RerunRunner(null);
+            SyncToolSpecification spec = TestTool.create(config, runner, objectMapper);
+
+            CallToolResult result = spec.call().apply(null, Map.of("rerunFailures", true, "groupFailures", false));
+
+            var json = objectMapper.readTree(((TextContent) result.content().getFirst()).text());
+            assertThat(json.path("rerun").path("flaky")).isEmpty();
+            assertThat(json.path("rerun").path("failing")).isEmpty();
+            assertThat(json.path("failures").get(0).has("rerun")).isFalse();
+        }
+
+        @Test
+        void shouldKeepTheFirstRunWhenTheRerunCannotRun() throws Exception {
+            Files.createDirectories(reportsDir);
+            copyFixture("TEST-com.example.FailingTest.xml");
+            var runner = new RerunRunner(null) {
+                @Override
+                public MavenExecutionResult execute(String goal, List<String> extraArgs, Path exe, Path dir,
+                                                    Duration timeout) {
+                    if (!calls.isEmpty()) {
+                        throw new MavenExecutionException("Too many builds waiting", null, 0);
+                    }
+                    return super.execute(goal, extraArgs, exe, dir, timeout);
+                }
+            };
+            SyncToolSpecification spec = TestTool.create(config, runner, objectMapper);
+
+            CallToolResult result = spec.call().apply(null, Map.of("rerunFailures", true, "groupFailures", false));
+
+            assertThat(result.isError()).isFalse();
+            var json = objectMapper.readTree(((TextContent) result.content().getFirst()).text());
+            assertThat(json.path("status").asText()).isEqualTo("FAILURE");
+            assertThat(json.path("rerun").path("reason").asText())
+                    .isEqualTo("Rerun unavailable: Too many builds waiting");
+            assertThat(json.path("failures")).isNotEmpty();
+            assertThat(json.path("failures").get(0).has("rerun")).isFalse();
+            assertThat(reportsDir.resolve("TEST-com.example.FailingTest.xml")).exists();
+            assertThat(reportsDir.resolve("TEST-com.example.FailingTest.xml.before-rerun")).doesNotExist();
+        }
+
+        @Test
+        void shouldNotRerunUnlessAsked() throws Exception {
+            Files.createDirectories(reportsDir);
+            copyFixture("TEST-com.example.FailingTest.xml");
+            var runner = new RerunRunner(null);
+            SyncToolSpecification spec = TestTool.create(config, runner, objectMapper);
+
+            CallToolResult result = spec.call().apply(null, Map.of());
+
+            assertThat(runner.calls).hasSize(1);
+            assertThat(result.content().getFirst().toString()).doesNotContain("\"rerun\"");
+        }
+
+        @Test
+        void shouldSelectParameterizedMethodsByNameAndDisplayNamesByClass() {
+            String filter = TestTool.rerunFilter(List.of(
+                    new TestFailure("a.ATest", "check(String)[1]", "m", null, null),
+                    new TestFailure("a.ATest", "check(String)[2]", "m", null, null),
+                    new TestFailure("a.ATest", "other", "m", null, null),
+                    new TestFailure("a.BTest", "renders a title", "m", null, null),
+                    new TestFailure("a.BTest", "plain", "m", null, null)));
+
+            assertThat(filter).isEqualTo("a.ATest#check+other,a.BTest");
+        }
+    }
+
+    @Test
+    void shouldKeepTheOutputOfAFailureWithoutNewTestFailures() {
+        var failure = new TestFailure("com.example.FooTest", "works", "expected 1", null, null);
+        var history = new BuildHistory();
+        String since = history.record(List.of(), List.of(failure));
+        var sr = new SurefireResult(new TestSummary(3, 1, 0, 0), List.of(failure));
+
+        BuildResult result = TestTool.testDeltaResult("FAILURE", 9000, since, history.find(since).orElseThrow(), sr,
+                "[ERROR] The forked VM terminated without properly saying goodbye", null, 50, false, 10_000);
+
+        assertThat(result.delta().newFailures()).isEmpty();
+        assertThat(result.output()).contains("forked VM terminated");
+    }
+
     @Nested
     class TestLogExtraction {
 
@@ -226,11 +442,37 @@ class TestToolTest {
                     </project>
                     """);
 
-            String derived = TestTool.extractAppPackage(Map.of(), tempDir);
+            String derived = TestTool.extractAppPackage(Map.of(), model(tempDir));
 
             assertThat(derived).isEqualTo("io.github.mavenmcp");
         }
 
+        @Test
+        void shouldTakeTheProjectsOwnGroupIdNotTheParentsOrADependencys() throws IOException {
+            Files.writeString(tempDir.resolve("pom.xml"), """
+                    <project>
+                      <parent><groupId>org.springframework.boot</groupId><artifactId>spring-boot-starter-parent</artifactId></parent>
+                      <dependencies><dependency><groupId>org.junit</groupId><artifactId>junit</artifactId></dependency></dependencies>
+                      <groupId>com.example.shop</groupId>
+                      <artifactId>shop</artifactId>
+                    </project>
+                    """);
+
+            assertThat(TestTool.extractAppPackage(Map.of(), model(tempDir))).isEqualTo("com.example.shop");
+        }
+
+        @Test
+        void shouldInheritTheGroupIdOfTheParent() throws IOException {
+            Files.writeString(tempDir.resolve("pom.xml"), """
+                    <project>
+                      <parent><groupId>com.example</groupId><artifactId>parent</artifactId><version>1</version></parent>
+                      <artifactId>shop</artifactId>
+                    </project>
+                    """);
+
+            assertThat(TestTool.extractAppPackage(Map.of(), model(tempDir))).isEqualTo("com.example");
+        }
+
         @Test
         void shouldUseExplicitAppPackageOverDerived() throws IOException {
             Files.writeString(tempDir.resolve("pom.xml"), """
@@ -243,19 +485,23 @@ class TestToolTest {
                     """);
 
             String explicit = TestTool.extractAppPackage(
-                    Map.of("appPackage", "com.custom.pkg"), tempDir);
+                    Map.of("appPackage", "com.custom.pkg"), model(tempDir));
 
             assertThat(explicit).isEqualTo("com.custom.pkg");
         }
 
         @Test
         void shouldReturnNullWhenNoPomXml() {
-            String derived = TestTool.extractAppPackage(Map.of(), tempDir.resolve("nonexistent"));
+            String derived = TestTool.extractAppPackage(Map.of(), model(tempDir.resolve("nonexistent")));
 
             assertThat(derived).isNull();
         }
     }
 
+    private static ProjectModel model(Path projectDir) {
+        return new ProjectModelService(projectDir).model(null);
+    }
+
     private void copyFixture(String filename) throws IOException {
         try (InputStream is = getClass().getClassLoader().getResourceAsStream("surefire-reports/" + filename)) {
             if (is == null) throw new RuntimeException("Fixture not found: " + filename);
@@ -0,0 +1,178 @@
+package io.github.mavenmcp.transport;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mavenmcp.model.SessionStats;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.client.transport.HttpClientStreamableHttpTransport;
+import io.modelcontextprotocol.json.jackson.JacksonMcpJsonMapper;
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpServerFeatures.SyncToolSpecification;
+import io.modelcontextprotocol.server.McpSyncServer;
+import io.modelcontextprotocol.spec.McpSchema.CallToolRequest;
+import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
+import io.modelcontextprotocol.spec.McpSchema.Implementation;
+import io.modelcontextprotocol.spec.McpSchema.ServerCapabilities;
+import io.modelcontextprotocol.spec.McpSchema.TextContent;
+import io.modelcontextprotocol.spec.McpSchema.Tool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpTransportTest {
+
+    private final JacksonMcpJsonMapper jsonMapper = new JacksonMcpJsonMapper(new ObjectMapper());
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch blocking = new CountDownLatch(1);
+    private HttpTransport transport;
+    private McpSyncServer server;
+    private URI endpoint;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        transport = new HttpTransport(0, jsonMapper);
+        server = McpServer.sync(transport.provider())
+                .serverInfo("test", "1")
+                .capabilities(ServerCapabilities.builder().tools(Boolean.TRUE).build())
+                .tools(tool("echo", () -> { }),
+                        tool("block", () -> {
+                            blocking.countDown();
+                            await(release);
+                        }))
+                .build();
+        endpoint = transport.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        transport.drain(Duration.ofSeconds(1));
+        server.close();
+    }
+
+    @Test
+    void shouldBindToLoopback() {
+        assertThat(endpoint.getHost()).isEqualTo("127.0.0.1");
+        assertThat(endpoint.getPath()).isEqualTo(HttpTransport.ENDPOINT);
+    }
+
+    @Test
+    void shouldServeConcurrentSessionsAndCountTheirRequests() throws Exception {
+        try (McpSyncClient first = client(); McpSyncClient second = client()) {
+            first.callTool(new CallToolRequest("echo", Map.of()));
+            first.callTool(new CallToolRequest("echo", Map.of()));
+            CallToolResult result = second.callTool(new CallToolRequest("echo", Map.of()));
+
+            assertThat(((TextContent) result.content().getFirst()).text()).isEqualTo("echo");
+            SessionStats stats = awaitIdle();
+            assertThat(stats.activeSessions()).isEqualTo(2);
+            // initialize, notifications/initialized and the tool calls
+            assertThat(stats.sessions()).extracting(SessionStats.Session::requests)
+                    .containsExactlyInAnyOrder(4L, 3L);
+        }
+    }
+
+    @Test
+    void shouldRejectRequestsFromForeignOrigins() throws Exception {
+        HttpResponse<String> response = post("https://attacker.example");
+
+        assertThat(response.statusCode()).isEqualTo(403);
+        assertThat(transport.sessions().snapshot().rejected()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFinishCallsInFlightAndRefuseNewRequestsWhileDraining() throws Exception {
+        McpSyncClient client = client();
+        CompletableFuture<CallToolResult> call = CompletableFuture.supplyAsync(
+                () -> client.callTool(new CallToolRequest("block", Map.of())));
+        assertThat(blocking.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> drain = CompletableFuture.runAsync(() -> transport.drain(Duration.ofSeconds(10)));
+        while (!transport.sessions().snapshot().draining()) {
+            Thread.onSpinWait();
+        }
+        HttpResponse<String> refused = post(null);
+        release.countDown();
+
+        assertThat(refused.statusCode()).isEqualTo(503);
+        assertThat(refused.headers().firstValue("Retry-After")).hasValue("1");
+        assertThat(call.get(10, TimeUnit.SECONDS).isError()).isFalse();
+        drain.get(10, TimeUnit.SECONDS);
+        assertThat(awaitIdle().inFlight()).isZero();
+        assertThat(transport.baseDir()).doesNotExist();
+    }
+
+    /**
+     * The client may have its response before the server has finished the request.
+     */
+    private SessionStats awaitIdle() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        SessionStats stats = transport.sessions().snapshot();
+        while (stats.inFlight() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            stats = transport.sessions().snapshot();
+        }
+        return stats;
+    }
+
+    private McpSyncClient client() {
+        McpSyncClient client = McpClient.sync(HttpClientStreamableHttpTransport
+                        .builder("http://" + endpoint.getHost() + ":" + endpoint.getPort())
+                        .endpoint(HttpTransport.ENDPOINT)
+                        .jsonMapper(jsonMapper)
+                        .build())
+                .clientInfo(new Implementation("test-client", "1"))
+                .requestTimeout(Duration.ofSeconds(10))
+                .build();
+        client.initialize();
+        return client;
+    }
+
+    private HttpResponse<String> post(String origin) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(endpoint)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json, text/event-stream")
+                .POST(HttpRequest.BodyPublishers.ofString("""
+                        {"jsonrpc":"2.0","id":1,"method":"initialize","params":{"protocolVersion":"2025-03-26",\
+                        "capabilities":{},"clientInfo":{"name":"raw","version":"1"}}}"""));
+        if (origin != null) {
+            request.header("Origin", origin);
+        }
+        try (HttpClient http = HttpClient.newHttpClient()) {
+            return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        }
+    }
+
+    private SyncToolSpecification tool(String name, Runnable body) {
+        Tool tool = Tool.builder()
+                .name(name)
+                .inputSchema(jsonMapper, """
+                        {"type": "object", "properties": {}}""")
+                .build();
+        return new SyncToolSpecification(tool, (exchange, params) -> {
+            body.run();
+            return new CallToolResult(List.of(new TextContent(name)), false);
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
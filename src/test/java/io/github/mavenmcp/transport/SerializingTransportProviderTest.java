@@ -0,0 +1,135 @@
+package io.github.mavenmcp.transport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.modelcontextprotocol.json.TypeRef;
+import io.modelcontextprotocol.spec.McpSchema.JSONRPCMessage;
+import io.modelcontextprotocol.spec.McpSchema.JSONRPCNotification;
+import io.modelcontextprotocol.spec.McpServerSession;
+import io.modelcontextprotocol.spec.McpServerTransport;
+import io.modelcontextprotocol.spec.McpServerTransportProvider;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SerializingTransportProviderTest {
+
+    @Test
+    void shouldSendFromConcurrentCallersOneAtATime() throws Exception {
+        var delegate = new NonSerializedTransport();
+        McpServerTransport transport = sessionTransport(delegate);
+
+        int threads = 8;
+        int perThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        transport.sendMessage(new JSONRPCNotification("2.0", "test", null)).block();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(delegate.rejected).isFalse();
+        assertThat(delegate.sent.get()).isEqualTo(threads * perThread);
+    }
+
+    @Test
+    void shouldPropagateSendErrors() {
+        McpServerTransport transport = sessionTransport(new NonSerializedTransport() {
+            @Override
+            public Mono<Void> sendMessage(JSONRPCMessage message) {
+                return Mono.error(new RuntimeException("Failed to enqueue message"));
+            }
+        });
+
+        assertThatThrownBy(() -> transport.sendMessage(new JSONRPCNotification("2.0", "test", null)).block())
+                .hasMessageContaining("Failed to enqueue message");
+    }
+
+    /**
+     * Create a session through the wrapper and return the transport it was given.
+     */
+    private static McpServerTransport sessionTransport(McpServerTransport delegateTransport) {
+        AtomicReference<McpServerTransport> captured = new AtomicReference<>();
+        var provider = new SerializingTransportProvider(new McpServerTransportProvider() {
+            @Override
+            public void setSessionFactory(McpServerSession.Factory sessionFactory) {
+                sessionFactory.create(delegateTransport);
+            }
+
+            @Override
+            public Mono<Void> notifyClients(String method, Object params) {
+                return Mono.empty();
+            }
+
+            @Override
+            public Mono<Void> closeGracefully() {
+                return Mono.empty();
+            }
+        });
+        provider.setSessionFactory(transport -> {
+            captured.set(transport);
+            return null;
+        });
+        return captured.get();
+    }
+
+    /**
+     * Like the stdio transport's unicast sink: fails a send that overlaps another.
+     */
+    private static class NonSerializedTransport implements McpServerTransport {
+
+        final AtomicBoolean busy = new AtomicBoolean();
+        final AtomicInteger sent = new AtomicInteger();
+        volatile boolean rejected;
+
+        @Override
+        public Mono<Void> sendMessage(JSONRPCMessage message) {
+            return Mono.defer(() -> {
+                if (!busy.compareAndSet(false, true)) {
+                    rejected = true;
+                    return Mono.error(new RuntimeException("Failed to enqueue message"));
+                }
+                for (int i = 0; i < 100; i++) {
+                    Thread.onSpinWait();
+                }
+                sent.incrementAndGet();
+                busy.set(false);
+                return Mono.empty();
+            });
+        }
+
+        @Override
+        public <T> T unmarshalFrom(Object data, TypeRef<T> typeRef) {
+            return null;
+        }
+
+        @Override
+        public Mono<Void> closeGracefully() {
+            return Mono.empty();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.mavenmcp.transport;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
+import io.github.mavenmcp.model.SessionStats;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SessionAccountingTest {
+
+    private final SessionAccounting sessions = new SessionAccounting();
+
+    @Test
+    void shouldRefuseToBeginARequestWhileDraining() throws InterruptedException {
+        assertThat(sessions.drain(Duration.ZERO)).isTrue();
+
+        assertThatThrownBy(() -> sessions.begin("s1")).isInstanceOf(RejectedExecutionException.class);
+
+        SessionStats stats = sessions.snapshot();
+        assertThat(stats.inFlight()).isZero();
+        assertThat(stats.requests()).isZero();
+        assertThat(stats.rejected()).isEqualTo(1);
+        assertThat(stats.activeSessions()).isZero();
+    }
+
+    @Test
+    void shouldWaitForARequestThatBeganBeforeTheDrain() throws InterruptedException {
+        SessionAccounting.Session session = sessions.begin("s1");
+
+        assertThat(sessions.drain(Duration.ofMillis(50))).isFalse();
+        sessions.end(session, "s1", 200);
+
+        assertThat(sessions.drain(Duration.ZERO)).isTrue();
+        assertThat(sessions.snapshot().requests()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,260 @@
+package io.github.mavenmcp.workspace;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import io.github.mavenmcp.config.ServerConfig;
+import io.github.mavenmcp.history.BuildHistory;
+import io.github.mavenmcp.log.LogSpool;
+import io.github.mavenmcp.maven.MavenRunner;
+import io.github.mavenmcp.model.CompilationError;
+import io.github.mavenmcp.model.WorkspaceStats.ProjectStatus;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WorkspaceTest {
+
+    private static final Path MVN = Path.of("/usr/bin/mvn");
+
+    private final ServerConfig app = new ServerConfig(Path.of("/work/app"), MVN);
+    private final ServerConfig lib = new ServerConfig(Path.of("/work/lib"), MVN);
+    private final List<ServerConfig> created = new ArrayList<>();
+
+    private Workspace workspace(long memoryCap, ServerConfig... projects) {
+        return new Workspace(List.of(projects), config -> {
+            created.add(config);
+            return ProjectContext.of(config, new MavenRunner(), new BuildHistory());
+        }, memoryCap);
+    }
+
+    private static ProjectContext acquired(Workspace workspace, String project) {
+        try (Workspace.Lease lease = workspace.acquire(project)) {
+            return lease.project();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Record a build with a long error message, about 20 KB of estimated state.
+     */
+    private static void fill(ProjectContext project) {
+        project.history().record(List.of(new CompilationError("A.java", 1, 1, "x".repeat(10_000), "ERROR")), null);
+    }
+
+    @Nested
+    class Resolve {
+
+        @Test
+        void shouldDefaultToTheOnlyProject() {
+            try (Workspace.Lease lease = workspace(Long.MAX_VALUE, app).acquire(null)) {
+                assertThat(lease.project().config()).isEqualTo(app);
+            }
+        }
+
+        @Test
+        void shouldResolveByNameOrDirectory() {
+            Workspace workspace = workspace(Long.MAX_VALUE, app, lib);
+
+            try (Workspace.Lease byName = workspace.acquire("lib");
+                 Workspace.Lease byPath = workspace.acquire("/work/app/")) {
+                assertThat(byName.project().config()).isEqualTo(lib);
+                assertThat(byPath.project().config()).isEqualTo(app);
+            }
+        }
+
+        @Test
+        void shouldRequireProjectWhenSeveralAreConfigured() {
+            Workspace workspace = workspace(Long.MAX_VALUE, app, lib);
+
+            assertThatThrownBy(() -> workspace.acquire(null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("app, lib");
+            assertThatThrownBy(() -> workspace.acquire("other"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Unknown project 'other'");
+        }
+
+        @Test
+        void shouldAddressSecondProjectWithSameNameByPath() {
+            ServerConfig otherApp = new ServerConfig(Path.of("/other/app"), MVN);
+            Workspace workspace = workspace(Long.MAX_VALUE, app, otherApp);
+
+            try (Workspace.Lease lease = workspace.acquire("/other/app")) {
+                assertThat(lease.project().config()).isEqualTo(otherApp);
+            }
+            assertThat(workspace.stats().projects()).extracting(ProjectStatus::name)
+                    .containsExactly("app", "/other/app");
+        }
+    }
+
+    @Nested
+    class Eviction {
+
+        @Test
+        void shouldCreateProjectStateOnFirstUseOnly() {
+            Workspace workspace = workspace(Long.MAX_VALUE, app, lib);
+
+            workspace.acquire("app").close();
+            workspace.acquire("app").close();
+
+            assertThat(created).containsExactly(app);
+            assertThat(workspace.loaded()).hasSize(1);
+        }
+
+        @Test
+        void shouldServeOtherProjectsWhileOneLoads() throws Exception {
+            CountDownLatch loading = new CountDownLatch(1);
+            CountDownLatch loaded = new CountDownLatch(1);
+            Workspace workspace = new Workspace(List.of(app, lib), config -> {
+                if (config.equals(app)) {
+                    loading.countDown();
+                    awaitQuietly(loaded);
+                }
+                return ProjectContext.of(config, new MavenRunner(), new BuildHistory());
+            }, Long.MAX_VALUE);
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                Future<ProjectContext> first = executor.submit(() -> acquired(workspace, "app"));
+                Future<ProjectContext> second = executor.submit(() -> acquired(workspace, "app"));
+                assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+                try (Workspace.Lease other = workspace.acquire("lib")) {
+                    assertThat(other.project().config()).isEqualTo(lib);
+                }
+                loaded.countDown();
+
+                assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(second.get(5, TimeUnit.SECONDS));
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        void shouldLoadAgainAfterAFailedLoad() {
+            boolean[] fail = {true};
+            Workspace workspace = new Workspace(List.of(app), config -> {
+                if (fail[0]) {
+                    fail[0] = false;
+                    throw new IllegalStateException("Cannot read");
+                }
+                return ProjectContext.of(config, new MavenRunner(), new BuildHistory());
+            }, Long.MAX_VALUE);
+
+            assertThatThrownBy(() -> workspace.acquire("app")).isInstanceOf(IllegalStateException.class);
+            try (Workspace.Lease lease = workspace.acquire("app")) {
+                assertThat(lease.project().config()).isEqualTo(app);
+            }
+        }
+
+        @Test
+        void shouldUnloadLeastRecentlyUsedIdleProjectOverTheCap() {
+            Workspace workspace = workspace(30_000, app, lib);
+            try (Workspace.Lease lease = workspace.acquire("app")) {
+                fill(lease.project());
+            }
+            try (Workspace.Lease lease = workspace.acquire("lib")) {
+                fill(lease.project());
+            }
+
+            assertThat(workspace.loaded()).extracting(ProjectContext::config).containsExactly(lib);
+            assertThat(workspace.stats().evictions()).isEqualTo(1);
+
+            // Loaded afresh, with empty history
+            try (Workspace.Lease lease = workspace.acquire("app")) {
+                assertThat(lease.project().history().estimatedBytes()).isZero();
+            }
+            assertThat(created).containsExactly(app, lib, app);
+        }
+
+        @Test
+        void shouldCloseUnloadedProjectsOutsideTheLock() throws Exception {
+            CountDownLatch closing = new CountDownLatch(1);
+            CountDownLatch closed = new CountDownLatch(1);
+            Workspace workspace = new Workspace(List.of(app, lib), config -> {
+                ProjectContext project = ProjectContext.of(config, new MavenRunner(), new BuildHistory());
+                if (!config.equals(app)) {
+                    return project;
+                }
+                LogSpool slowToClose = new LogSpool(Path.of("/nonexistent"), 1) {
+                    @Override
+                    public void close() {
+                        closing.countDown();
+                        awaitQuietly(closed);
+                    }
+                };
+                return new ProjectContext(config, project.runner(), project.history(), slowToClose, null, null,
+                        null, project.modelService(), project.fastProfile(), project.dependencyTrees(),
+                        project.flakyTests(), project.durations(), project.admission());
+            }, 30_000);
+            try (Workspace.Lease lease = workspace.acquire("app")) {
+                fill(lease.project());
+            }
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                Future<?> evicting = executor.submit(() -> {
+                    try (Workspace.Lease lease = workspace.acquire("lib")) {
+                        fill(lease.project());
+                    }
+                });
+                assertThat(closing.await(5, TimeUnit.SECONDS)).isTrue();
+
+                assertThat(workspace.loaded()).extracting(ProjectContext::config).containsExactly(lib);
+                try (Workspace.Lease lease = workspace.acquire("lib")) {
+                    assertThat(lease.project().config()).isEqualTo(lib);
+                }
+                closed.countDown();
+                evicting.get(5, TimeUnit.SECONDS);
+            } finally {
+                closed.countDown();
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        void shouldNotUnloadProjectWithCallInProgress() {
+            Workspace workspace = workspace(30_000, app, lib);
+            Workspace.Lease busy = workspace.acquire("app");
+            fill(busy.project());
+
+            try (Workspace.Lease lease = workspace.acquire("lib")) {
+                fill(lease.project());
+            }
+
+            // Over the cap, but app is busy: the only idle project goes
+            assertThat(workspace.loaded()).extracting(ProjectContext::config).containsExactly(app);
+            busy.close();
+            busy.close();
+            assertThat(workspace.loaded()).extracting(ProjectContext::config).containsExactly(app);
+        }
+
+        @Test
+        void shouldReportMemoryUseAndCap() {
+            Workspace workspace = workspace(1_000_000, app, lib);
+            try (Workspace.Lease lease = workspace.acquire("lib")) {
+                fill(lease.project());
+            }
+
+            var stats = workspace.stats();
+
+            assertThat(stats.memoryCap()).isEqualTo(1_000_000);
+            assertThat(stats.estimatedBytes()).isGreaterThan(20_000);
+            assertThat(stats.projects()).extracting(ProjectStatus::loaded).containsExactly(false, true);
+        }
+    }
+}